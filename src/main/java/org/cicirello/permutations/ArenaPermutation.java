@@ -0,0 +1,137 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A flyweight view of one of the permutations stored in a {@link PermutationArena}. A view is
+ * obtained from the {@link PermutationArena#view(int)} method, and can be repositioned to any other
+ * permutation of the same arena with the {@link #moveTo(int)} method. All of the mutators inherited
+ * from {@link CompactPermutation} operate directly on the memory of the arena.
+ *
+ * <p>Equality and the hashCode of a view are determined by the contents of the permutation it
+ * currently views. A view is serialized as a {@link CompactPermutation} copy of the permutation it
+ * currently views, and the {@link #copy()} method likewise creates a CompactPermutation on the Java
+ * heap that is independent of the arena.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class ArenaPermutation extends CompactPermutation {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient PermutationArena arena;
+  private final int length;
+  private transient ByteBuffer buffer;
+  private int base;
+  private int index;
+
+  ArenaPermutation(PermutationArena arena, int index) {
+    this.arena = arena;
+    length = arena.permutationLength();
+    moveTo(index);
+  }
+
+  /**
+   * Repositions this view to a different permutation of its arena.
+   *
+   * @param index the index of the permutation in the arena
+   * @throws IndexOutOfBoundsException if index is negative or greater than or equal to the size of
+   *     the arena
+   */
+  public void moveTo(int index) {
+    buffer = arena.buffer(index);
+    base = arena.offset(index);
+    this.index = index;
+  }
+
+  /**
+   * Gets the index, within its arena, of the permutation currently viewed.
+   *
+   * @return the index of the permutation currently viewed
+   */
+  public int index() {
+    return index;
+  }
+
+  /**
+   * Gets the arena containing the permutations viewed by this view.
+   *
+   * @return the arena of this view
+   */
+  public PermutationArena arena() {
+    return arena;
+  }
+
+  @Override
+  public int get(int i) {
+    return arena.get(buffer, base, Objects.checkIndex(i, length));
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Creates a copy, on the Java heap, of the permutation currently viewed. The copy is independent
+   * of the arena.
+   *
+   * @return a copy of the permutation currently viewed
+   * @throws IllegalArgumentException if the slot viewed does not hold a valid permutation, which is
+   *     possible only for an arena opened from a file (see {@link PermutationArena#open})
+   */
+  @Override
+  public CompactPermutation copy() {
+    return CompactPermutation.of(this);
+  }
+
+  @Override
+  void set(int i, int value) {
+    arena.put(buffer, base, Objects.checkIndex(i, length), value);
+  }
+
+  @Override
+  void shift(int from, int to, int count) {
+    Objects.checkFromIndexSize(from, count, length);
+    Objects.checkFromIndexSize(to, count, length);
+    if (from < to) {
+      for (int k = count - 1; k >= 0; k--) {
+        arena.put(buffer, base, to + k, arena.get(buffer, base, from + k));
+      }
+    } else {
+      for (int k = 0; k < count; k++) {
+        arena.put(buffer, base, to + k, arena.get(buffer, base, from + k));
+      }
+    }
+  }
+
+  /*
+   * Serializes a heap copy rather than the view of the off-heap arena.
+   */
+  private Object writeReplace() {
+    return copy();
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds a permutation that minimizes a cost function, exactly, by depth-first branch-and-bound over
+ * the tree of permutation prefixes. The search fixes the elements of the permutation one position
+ * at a time, from position 0, and after each position is fixed, it asks the {@link Problem} for a
+ * lower bound on the cost of every permutation that begins with the prefix. The whole subtree of a
+ * prefix is pruned if its bound is no less than the cost of the best permutation found so far, the
+ * incumbent. The children of a prefix are visited in order of their bounds, so that good
+ * permutations, and thus strong incumbents, are found early, and the remaining children are pruned
+ * together as soon as one of them is pruned.
+ *
+ * <p>The search can run in parallel, on the threads of a {@link ForkJoinPool}. Subtrees are forked
+ * as tasks, which idle threads steal, while the pool is short of queued work, and are otherwise
+ * searched sequentially by the thread that reaches them. The incumbent is shared by all of the
+ * threads through an atomic reference, so that a permutation found by any thread immediately
+ * strengthens the pruning of all of them.
+ *
+ * <p>The permutation passed to the bound and cost functions is changed in place by swaps, as in
+ * {@link PermutationEnumerator}: the prefix occupies the first positions, and the elements that are
+ * not in the prefix occupy the remaining positions, in an unspecified order. The functions must
+ * neither modify nor retain it. In a parallel search, each task has its own permutation, but the
+ * functions are called concurrently by multiple threads, and so must be thread-safe.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class BranchAndBound {
+
+  /**
+   * The cost function to minimize, along with the lower bounds that a {@link BranchAndBound} search
+   * uses to prune prefixes.
+   */
+  public interface Problem {
+
+    /**
+     * Computes a lower bound on the cost of all permutations that begin with a prefix. The search
+     * is exact provided that the bound never exceeds the cost of any such permutation, and its
+     * pruning is more effective the closer the bound is to the cost of the best one.
+     *
+     * @param p a permutation whose first fixed elements are the prefix
+     * @param fixed the length of the prefix, from 1 through p.length() - 2
+     * @return a lower bound on the cost of every permutation that begins with the prefix
+     */
+    double lowerBound(Permutation p, int fixed);
+
+    /**
+     * Computes the cost of a complete permutation.
+     *
+     * @param p the permutation
+     * @return the cost of p
+     */
+    double cost(Permutation p);
+  }
+
+  /** The result of a branch-and-bound search. */
+  public static final class Solution {
+
+    private final Permutation permutation;
+    private final double cost;
+    private long nodes;
+
+    private Solution(Permutation permutation, double cost) {
+      this.permutation = permutation;
+      this.cost = cost;
+    }
+
+    /**
+     * Gets a permutation of minimum cost.
+     *
+     * @return a permutation of minimum cost
+     */
+    public Permutation permutation() {
+      return new Permutation(permutation);
+    }
+
+    /**
+     * Gets the cost of the permutation of minimum cost.
+     *
+     * @return the minimum cost
+     */
+    public double cost() {
+      return cost;
+    }
+
+    /**
+     * Gets the number of prefixes for which the search computed a bound or cost, as a measure of
+     * the effectiveness of the bounds.
+     *
+     * @return the number of nodes of the search tree that were evaluated
+     */
+    public long nodes() {
+      return nodes;
+    }
+  }
+
+  /*
+   * Subtrees with no more than this many positions left to fix are always
+   * searched sequentially.
+   */
+  private static final int SEQUENTIAL_DEPTH = 5;
+
+  /*
+   * A subtree is forked as a task only while the current thread has no
+   * more than this many surplus queued tasks.
+   */
+  private static final int SURPLUS_TASKS = 2;
+
+  private final Problem problem;
+
+  /**
+   * Initializes a branch-and-bound search for a problem.
+   *
+   * @param problem the cost function and its lower bounds
+   */
+  public BranchAndBound(Problem problem) {
+    if (problem == null) {
+      throw new NullPointerException("problem must be non-null");
+    }
+    this.problem = problem;
+  }
+
+  /**
+   * Finds a permutation of length n of minimum cost, with a sequential search.
+   *
+   * @param n the length of the permutations
+   * @return a solution of minimum cost
+   * @throws IllegalArgumentException if n is negative
+   */
+  public Solution solve(int n) {
+    return solve(n, null, null);
+  }
+
+  /**
+   * Finds a permutation of minimum cost, with a search that runs in parallel on the threads of a
+   * ForkJoinPool, beginning with an initial incumbent, such as a permutation found by a heuristic.
+   * A strong initial incumbent enables the search to prune from the start.
+   *
+   * @param n the length of the permutations
+   * @param initial the initial incumbent, or null to begin with the identity permutation
+   * @param pool the pool of threads, or null to search sequentially on the calling thread
+   * @return a solution of minimum cost, which is the initial incumbent if no permutation has a
+   *     lower cost
+   * @throws IllegalArgumentException if n is negative, or if initial is non-null and its length is
+   *     not n
+   */
+  public Solution solve(int n, Permutation initial, ForkJoinPool pool) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must be non-negative");
+    }
+    if (initial != null && initial.length() != n) {
+      throw new IllegalArgumentException("initial must be of length n");
+    }
+    Permutation start = initial != null ? new Permutation(initial) : new Permutation(n, 0);
+    AtomicReference<Solution> incumbent =
+        new AtomicReference<Solution>(new Solution(start, problem.cost(start)));
+    LongAdder nodes = new LongAdder();
+    SearchTask root =
+        new SearchTask(new Permutation(n, 0), 0, Double.NEGATIVE_INFINITY, incumbent, nodes);
+    if (pool != null) {
+      pool.invoke(root);
+    } else {
+      root.compute();
+    }
+    Solution best = incumbent.get();
+    best.nodes = nodes.sum();
+    return best;
+  }
+
+  /*
+   * Searches the subtree of a prefix, forking subtrees as tasks when
+   * running in a ForkJoinPool whose queues are short of work.
+   */
+  private final class SearchTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Permutation p;
+    private final int fixed;
+    private final double bound;
+    private final transient AtomicReference<Solution> incumbent;
+    private final transient LongAdder nodes;
+    private final int n;
+    private transient double[][] bounds;
+    private transient int[][] order;
+    private long count;
+
+    private SearchTask(
+        Permutation p,
+        int fixed,
+        double bound,
+        AtomicReference<Solution> incumbent,
+        LongAdder nodes) {
+      this.p = p;
+      this.fixed = fixed;
+      this.bound = bound;
+      this.incumbent = incumbent;
+      this.nodes = nodes;
+      n = p.length();
+    }
+
+    @Override
+    protected void compute() {
+      if (bound < incumbent.get().cost) {
+        bounds = new double[n][];
+        order = new int[n][];
+        if (fixed >= n - 1) {
+          complete();
+        } else {
+          search(fixed);
+        }
+      }
+      nodes.add(count);
+    }
+
+    /*
+     * Searches the children of the prefix of length d, which is in p.
+     */
+    private void search(int d) {
+      if (bounds[d] == null) {
+        bounds[d] = new double[n];
+        order[d] = new int[n];
+      }
+      double[] b = bounds[d];
+      int[] o = order[d];
+      int children = n - d;
+      boolean last = d + 1 >= n - 1;
+      // Bounds (or, for complete permutations, costs) of the children,
+      // visited in increasing order by insertion sort.
+      for (int k = 0; k < children; k++) {
+        int c = d + k;
+        p.internalSwap(d, c);
+        double value = last ? problem.cost(p) : problem.lowerBound(p, d + 1);
+        p.internalSwap(d, c);
+        count++;
+        int j = k;
+        for (; j > 0 && b[j - 1] > value; j--) {
+          b[j] = b[j - 1];
+          o[j] = o[j - 1];
+        }
+        b[j] = value;
+        o[j] = c;
+      }
+      if (last) {
+        if (b[0] < incumbent.get().cost) {
+          p.internalSwap(d, o[0]);
+          offer(b[0]);
+          p.internalSwap(d, o[0]);
+        }
+        return;
+      }
+      if (n - d - 1 > SEQUENTIAL_DEPTH
+          && inForkJoinPool()
+          && ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_TASKS) {
+        fork(d, b, o, children);
+        return;
+      }
+      for (int k = 0; k < children && b[k] < incumbent.get().cost; k++) {
+        p.internalSwap(d, o[k]);
+        search(d + 1);
+        p.internalSwap(d, o[k]);
+      }
+    }
+
+    /*
+     * Forks the unpruned children of the prefix of length d as tasks, each
+     * with its own copy of the permutation, and waits for them.
+     */
+    private void fork(int d, double[] b, int[] o, int children) {
+      SearchTask[] tasks = new SearchTask[children];
+      int forked = 0;
+      double best = incumbent.get().cost;
+      for (int k = 0; k < children && b[k] < best; k++) {
+        Permutation child = new Permutation(p);
+        child.internalSwap(d, o[k]);
+        tasks[forked++] = new SearchTask(child, d + 1, b[k], incumbent, nodes);
+      }
+      // Forks in reverse, so that this thread searches the most promising
+      // children itself, first, while the others are available to steal.
+      for (int k = forked - 1; k > 0; k--) {
+        tasks[k].fork();
+      }
+      if (forked > 0) {
+        tasks[0].compute();
+      }
+      for (int k = 1; k < forked; k++) {
+        if (!tasks[k].tryUnfork()) {
+          tasks[k].join();
+        } else {
+          tasks[k].compute();
+        }
+      }
+    }
+
+    /*
+     * Evaluates p, which is a complete permutation.
+     */
+    private void complete() {
+      count++;
+      offer(problem.cost(p));
+    }
+
+    /*
+     * Replaces the incumbent with p, if cost is less than that of the
+     * incumbent.
+     */
+    private void offer(double cost) {
+      Solution current = incumbent.get();
+      if (cost < current.cost) {
+        Solution candidate = new Solution(new Permutation(p), cost);
+        while (cost < current.cost && !incumbent.compareAndSet(current, candidate)) {
+          current = incumbent.get();
+        }
+      }
+    }
+  }
+}
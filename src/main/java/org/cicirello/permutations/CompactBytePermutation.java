@@ -0,0 +1,69 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+/**
+ * A {@link CompactPermutation} backed by an array of bytes, interpreted as unsigned, for
+ * permutations of length at most 256.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+final class CompactBytePermutation extends CompactPermutation {
+
+  private static final long serialVersionUID = 1L;
+
+  private final byte[] permutation;
+
+  CompactBytePermutation(int n) {
+    permutation = new byte[n];
+  }
+
+  private CompactBytePermutation(CompactBytePermutation other) {
+    permutation = other.permutation.clone();
+  }
+
+  @Override
+  public int get(int i) {
+    return permutation[i] & 0xff;
+  }
+
+  @Override
+  public int length() {
+    return permutation.length;
+  }
+
+  @Override
+  public CompactPermutation copy() {
+    return new CompactBytePermutation(this);
+  }
+
+  @Override
+  void set(int i, int value) {
+    permutation[i] = (byte) value;
+  }
+
+  @Override
+  void shift(int from, int to, int count) {
+    System.arraycopy(permutation, from, permutation, to, count);
+  }
+}
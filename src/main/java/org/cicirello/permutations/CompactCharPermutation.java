@@ -0,0 +1,69 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+/**
+ * A {@link CompactPermutation} backed by an array of chars, for permutations of length at most
+ * 65536.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+final class CompactCharPermutation extends CompactPermutation {
+
+  private static final long serialVersionUID = 1L;
+
+  private final char[] permutation;
+
+  CompactCharPermutation(int n) {
+    permutation = new char[n];
+  }
+
+  private CompactCharPermutation(CompactCharPermutation other) {
+    permutation = other.permutation.clone();
+  }
+
+  @Override
+  public int get(int i) {
+    return permutation[i];
+  }
+
+  @Override
+  public int length() {
+    return permutation.length;
+  }
+
+  @Override
+  public CompactPermutation copy() {
+    return new CompactCharPermutation(this);
+  }
+
+  @Override
+  void set(int i, int value) {
+    permutation[i] = (char) value;
+  }
+
+  @Override
+  void shift(int from, int to, int count) {
+    System.arraycopy(permutation, from, permutation, to, count);
+  }
+}
@@ -0,0 +1,568 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import org.cicirello.math.rand.RandomIndexer;
+import org.cicirello.util.Copyable;
+
+/**
+ * A memory efficient representation of a permutation of the integers from 0 to N-1, inclusive. A
+ * {@link Permutation} always stores its elements in an array of ints. A CompactPermutation instead
+ * chooses the narrowest array type that can hold its elements: an array of bytes for permutations
+ * of length at most 256, an array of chars for permutations of length at most 65536, and an array
+ * of ints only for longer permutations. For the permutation lengths common in applications such as
+ * evolutionary computation, this uses one fourth or one half of the memory of a {@link
+ * Permutation}. Both bytes and chars are interpreted as unsigned, which is why there is no
+ * short-backed variant.
+ *
+ * <p>Instances are created with the static factory methods, such as {@link #create(int)} and {@link
+ * #of(PermutationView)}, which select the backing array type based on the length. The mutators of
+ * this class, such as {@link #swap}, {@link #reverse(int,int)}, {@link #rotate}, {@link
+ * #removeAndInsert(int,int,int)}, {@link #swapBlocks}, and {@link #scramble}, operate in place on
+ * the compact array, and never widen it to an array of ints. CompactPermutation implements {@link
+ * PermutationView}, so all of the distance measures of the {@link
+ * org.cicirello.permutations.distance} package can be computed directly on CompactPermutations.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public abstract class CompactPermutation
+    implements PermutationView, Serializable, Copyable<CompactPermutation> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** Maximum permutation length that is stored in an array of bytes. */
+  static final int MAX_BYTE_LENGTH = 256;
+
+  /** Maximum permutation length that is stored in an array of chars. */
+  static final int MAX_CHAR_LENGTH = 65536;
+
+  /* Package-private to restrict subclasses to this package. */
+  CompactPermutation() {}
+
+  /**
+   * Creates a random permutation of n integers. Uses {@link ThreadLocalRandom} as the source of
+   * efficient random number generation.
+   *
+   * @param n the length of the permutation
+   * @return a random CompactPermutation of length n
+   */
+  public static CompactPermutation create(int n) {
+    return create(n, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Creates a random permutation of n integers.
+   *
+   * @param n the length of the permutation
+   * @param r a source of randomness
+   * @return a random CompactPermutation of length n
+   */
+  public static CompactPermutation create(int n, RandomGenerator r) {
+    CompactPermutation p = allocate(n);
+    p.scramble(r);
+    return p;
+  }
+
+  /**
+   * Creates a CompactPermutation with the same elements, in the same order, as a given permutation.
+   *
+   * @param p the source permutation, which may be a {@link Permutation} or any other view of a
+   *     permutation
+   * @return a CompactPermutation identical in content to p
+   * @throws IllegalArgumentException if p is not a valid permutation of the integers in the
+   *     interval [0, p.length())
+   */
+  public static CompactPermutation of(PermutationView p) {
+    if (!isValidByConstruction(p)) {
+      validate(p);
+    }
+    CompactPermutation c = allocate(p.length());
+    for (int i = 0; i < c.length(); i++) {
+      c.set(i, p.get(i));
+    }
+    return c;
+  }
+
+  /*
+   * Checks whether p is valid by construction, so that copying it needs no
+   * validation: a Permutation, or a heap-backed CompactPermutation, which
+   * only its own mutators change. Views of a PermutationArena are excluded,
+   * since an arena may map a file whose contents were never validated.
+   */
+  static boolean isValidByConstruction(PermutationView p) {
+    return p instanceof Permutation
+        || p instanceof CompactBytePermutation
+        || p instanceof CompactCharPermutation
+        || p instanceof CompactIntPermutation;
+  }
+
+  /**
+   * Creates a CompactPermutation with the same elements, in the same order, as an array.
+   *
+   * @param p An array of integers. Each of the integers in the interval [0, p.length) must occur
+   *     exactly one time each.
+   * @return a CompactPermutation identical in content to p
+   * @throws IllegalArgumentException if p either contains duplicates, or contains any negative
+   *     elements, or contains any elements equal or greater than p.length.
+   */
+  public static CompactPermutation of(int[] p) {
+    return of(new Permutation(p));
+  }
+
+  /**
+   * Swaps 2 integers in the permutation.
+   *
+   * @param i position of first to swap (precondition: 0 &le; i &lt; length() &and; i != j)
+   * @param j the position of the second to swap (precondition: 0 &le; j &lt; length() &and; i != j)
+   * @throws ArrayIndexOutOfBoundsException if either i or j are negative, or if either i or j are
+   *     greater than or equal to length()
+   */
+  public void swap(int i, int j) {
+    int temp = get(i);
+    set(i, get(j));
+    set(j, temp);
+  }
+
+  /**
+   * Creates a permutation cycle from a sequence of permutation indexes. See {@link
+   * Permutation#cycle(int[])} for the details.
+   *
+   * @param indexes an array of indexes into the permutation.
+   * @throws ArrayIndexOutOfBoundsException if there exists any indexes[i] &ge; this.length() or
+   *     indexes[i] &lt; 0.
+   */
+  public void cycle(int[] indexes) {
+    if (indexes.length > 1) {
+      int temp = get(indexes[0]);
+      for (int i = 1; i < indexes.length; i++) {
+        set(indexes[i - 1], get(indexes[i]));
+      }
+      set(indexes[indexes.length - 1], temp);
+    }
+  }
+
+  /**
+   * Swaps 2 non-overlapping blocks, where a block is a subsequence. The blocks are swapped in place
+   * with a sequence of reversals, so no temporary array is required.
+   *
+   * @param a Starting index of first block.
+   * @param b Ending index, inclusive, of first block.
+   * @param i Starting index of second block.
+   * @param j Ending index, inclusive, of second block.
+   * @throws IllegalArgumentException if the following constraint is violated: 0 &le; a &le; b &lt;
+   *     i &le; j &lt; length().
+   */
+  public void swapBlocks(int a, int b, int i, int j) {
+    if (a < 0 || b < a || i <= b || j < i || j >= length()) {
+      throw new IllegalArgumentException("Illegal block definition.");
+    } else if (a == b && i == j) {
+      // blocks are singletons
+      swap(a, i);
+    } else if (b + 1 == i) {
+      // blocks are adjacent
+      removeAndInsert(i, j - i + 1, a);
+    } else {
+      internalReverse(a, b);
+      internalReverse(b + 1, i - 1);
+      internalReverse(i, j);
+      internalReverse(a, j);
+    }
+  }
+
+  /** Reverses the order of the elements in the permutation. */
+  public void reverse() {
+    internalReverse(0, length() - 1);
+  }
+
+  /**
+   * Reverses the order of the elements of a subrange of the permutation.
+   *
+   * @param i position of first index (precondition: 0 &le; i &lt; length() &and; i != j)
+   * @param j the position of the second index (precondition: 0 &le; j &lt; length() &and; i != j)
+   * @throws ArrayIndexOutOfBoundsException if either i or j are negative, or if either i or j are
+   *     greater than or equal to length()
+   */
+  public void reverse(int i, int j) {
+    if (i > j) {
+      internalReverse(j, i);
+    } else {
+      internalReverse(i, j);
+    }
+  }
+
+  /**
+   * Removes integer from one position and then inserts it into a a new position shifting the rest
+   * of the permutation as necessary.
+   *
+   * @param i position of integer to remove and insert (precondition: 0 &le; i &lt; length())
+   * @param j the position of the insertion point (precondition: 0 &le; j &lt; length())
+   * @throws ArrayIndexOutOfBoundsException if either i or j are negative, or if either i or j are
+   *     greater than or equal to length()
+   */
+  public void removeAndInsert(int i, int j) {
+    if (i < j) {
+      int n = get(i);
+      shift(i + 1, i, j - i);
+      set(j, n);
+    } else if (i > j) {
+      int n = get(i);
+      shift(j, j + 1, i - j);
+      set(j, n);
+    }
+  }
+
+  /**
+   * Removes a sub-array of integers from one position and then inserts it into a a new position
+   * shifting the rest of the permutation as necessary. The sub-array is moved in place with a
+   * sequence of reversals, so no temporary array is required.
+   *
+   * @param i position of first integer in sub-array to remove and insert (precondition: 0 &le; i
+   *     &lt; length())
+   * @param size the length of the sub-array (precondition: size + i &lt; length() and size + j - 1
+   *     &lt; length())
+   * @param j the position of the insertion point (precondition: 0 &le; j &lt; length())
+   * @throws ArrayIndexOutOfBoundsException if either i or j are negative, or if either i or j are
+   *     greater than or equal to length().
+   */
+  public void removeAndInsert(int i, int size, int j) {
+    if ((size <= 0) || (i == j)) {
+      return;
+    } else if (size == 1) {
+      removeAndInsert(i, j);
+    } else if (i > j) {
+      internalReverse(j, i - 1);
+      internalReverse(i, i + size - 1);
+      internalReverse(j, i + size - 1);
+    } else { // Condition is implied by above: if (i < j)
+      internalReverse(i, i + size - 1);
+      internalReverse(i + size, j + size - 1);
+      internalReverse(i, j + size - 1);
+    }
+  }
+
+  /**
+   * Circular rotation of permutation (to the left). The rotation is done in place with a sequence
+   * of reversals, so no temporary array is required.
+   *
+   * @param numPositions Number of positions to rotate.
+   */
+  public void rotate(int numPositions) {
+    int n = length();
+    if (numPositions >= n || numPositions < 0) {
+      numPositions = Math.floorMod(numPositions, n);
+    }
+    if (numPositions > 0) {
+      internalReverse(0, numPositions - 1);
+      internalReverse(numPositions, n - 1);
+      internalReverse(0, n - 1);
+    }
+  }
+
+  /**
+   * Randomly shuffles the permutation. Uses {@link ThreadLocalRandom} as the source of efficient
+   * random number generation.
+   */
+  public void scramble() {
+    scramble(ThreadLocalRandom.current());
+  }
+
+  /**
+   * Randomly shuffles the permutation.
+   *
+   * @param r a source of randomness.
+   */
+  public void scramble(RandomGenerator r) {
+    int n = length();
+    if (n > 0) {
+      // Generates a new permutation of integers in [0, n), avoiding swaps
+      // as in Permutation.scramble(RandomGenerator).
+      set(0, 0);
+      for (int i = 1; i < n; i++) {
+        int j = RandomIndexer.nextInt(i + 1, r);
+        if (j == i) {
+          set(i, i);
+        } else {
+          set(i, get(j));
+          set(j, i);
+        }
+      }
+    }
+  }
+
+  /**
+   * Randomly shuffles the permutation. Uses {@link ThreadLocalRandom} as the source of efficient
+   * random number generation.
+   *
+   * @param guaranteeDifferent if true and if permutation length is at least 2, then method
+   *     guarantees that the result is a different permutation than it was originally.
+   */
+  public void scramble(boolean guaranteeDifferent) {
+    scramble(ThreadLocalRandom.current(), guaranteeDifferent);
+  }
+
+  /**
+   * Randomly shuffles the permutation.
+   *
+   * @param r a source of randomness.
+   * @param guaranteeDifferent if true and if permutation length is at least 2, then method
+   *     guarantees that the result is a different permutation than it was originally.
+   */
+  public void scramble(RandomGenerator r, boolean guaranteeDifferent) {
+    if (guaranteeDifferent) {
+      boolean changed = false;
+      for (int j = length(); j > 2; ) {
+        int i = RandomIndexer.nextInt(j, r);
+        j--;
+        if (i != j) {
+          swap(i, j);
+          changed = true;
+        }
+      }
+      if (length() > 1 && (!changed || r.nextBoolean())) {
+        swap(0, 1);
+      }
+    } else {
+      scramble(r);
+    }
+  }
+
+  /**
+   * Randomly shuffles a segment. Uses {@link ThreadLocalRandom} as the source of efficient random
+   * number generation. As long as two different indexes are passed to this method, it is guaranteed
+   * to change the permutation.
+   *
+   * @param i endpoint of the segment (precondition: 0 &le; i &lt; length())
+   * @param j endpoint of the segment (precondition: 0 &le; j &lt; length())
+   * @throws ArrayIndexOutOfBoundsException if either i or j are negative, or if either i or j are
+   *     greater than or equal to length()
+   */
+  public void scramble(int i, int j) {
+    scramble(i, j, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Randomly shuffles a segment. As long as two different indexes are passed to this method, it is
+   * guaranteed to change the permutation.
+   *
+   * @param i endpoint of the segment (precondition: 0 &le; i &lt; length())
+   * @param j endpoint of the segment (precondition: 0 &le; j &lt; length())
+   * @param r source of randomness
+   * @throws ArrayIndexOutOfBoundsException if either i or j are negative, or if either i or j are
+   *     greater than or equal to length()
+   */
+  public void scramble(int i, int j, RandomGenerator r) {
+    if (i == j) {
+      return;
+    }
+    int k;
+    if (i > j) {
+      k = i;
+      i = j;
+    } else {
+      k = j;
+    }
+    boolean changed = false;
+    for (; k > i + 1; k--) {
+      int l = i + RandomIndexer.nextInt(k - i + 1, r);
+      if (l != k) {
+        swap(l, k);
+        changed = true;
+      }
+    }
+    if (!changed || r.nextBoolean()) {
+      swap(i, i + 1);
+    }
+  }
+
+  /**
+   * Randomly shuffles a non-contiguous set of permutation elements. As long as there are at least 2
+   * different indexes passed to this method, it is guaranteed to change the permutation.
+   *
+   * @param indexes An array of indexes into the permutation. This method assumes that the indexes
+   *     are valid indexes into the permutation. That is, it assumes that 0 &le; indexes[i] &lt;
+   *     this.length().
+   * @param r source of randomness
+   * @throws ArrayIndexOutOfBoundsException if any of the indexes[i] are negative or greater than or
+   *     equal to this.length().
+   */
+  public void scramble(int[] indexes, RandomGenerator r) {
+    if (indexes.length > 1) {
+      boolean changed = false;
+      for (int j = indexes.length; j > 2; ) {
+        int i = RandomIndexer.nextInt(j, r);
+        j--;
+        if (i != j) {
+          swap(indexes[i], indexes[j]);
+          changed = true;
+        }
+      }
+      if (!changed || r.nextBoolean()) {
+        swap(indexes[0], indexes[1]);
+      }
+    }
+  }
+
+  /**
+   * Randomly shuffles a non-contiguous set of permutation elements. As long as there are at least 2
+   * different indexes passed to this method, it is guaranteed to change the permutation.
+   *
+   * @param indexes An array of indexes into the permutation. This method assumes that the indexes
+   *     are valid indexes into the permutation. That is, it assumes that 0 &le; indexes[i] &lt;
+   *     this.length().
+   * @throws ArrayIndexOutOfBoundsException if any of the indexes[i] are negative or greater than or
+   *     equal to this.length().
+   */
+  public void scramble(int[] indexes) {
+    scramble(indexes, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Creates a String representing the permutation.
+   *
+   * @return a space separated sequence of the permutation's elements
+   */
+  @Override
+  public String toString() {
+    StringBuilder s = new StringBuilder();
+    int n = length();
+    if (n > 0) {
+      s.append(get(0));
+      for (int i = 1; i < n; i++) {
+        s.append(" ");
+        s.append(get(i));
+      }
+    }
+    return s.toString();
+  }
+
+  /**
+   * Equality test: Two CompactPermutations are equal if they are of the same length and contain the
+   * same elements in the same order, regardless of the type of array backing them.
+   *
+   * @param other the permutation to which to compare
+   * @return true if this is equal to other, and false otherwise
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) return true;
+    if (other == null) return false;
+    if (!(other instanceof CompactPermutation)) return false;
+    CompactPermutation o = (CompactPermutation) other;
+    int n = length();
+    if (n != o.length()) return false;
+    for (int i = 0; i < n; i++) {
+      if (get(i) != o.get(i)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Computes a hashCode for the permutation, by folding the 64-bit hash computed by {@link
+   * #longHashCode()} to 32 bits. It is equal to the hashCode of a {@link Permutation} with the same
+   * elements.
+   *
+   * @return a hashCode for the permutation
+   */
+  @Override
+  public int hashCode() {
+    long h = longHashCode();
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Computes a 64-bit hash of the permutation, which is consistent with {@link #equals}. It is the
+   * same position-sensitive hash as that of {@link Permutation#longHashCode()}, the exclusive-or,
+   * over all positions i, of a 64-bit hash of the pair (i, get(i)), and so is equal to the hash of
+   * a Permutation with the same elements. Unlike that of a Permutation, it is not cached, and is
+   * computed in O(n) time on each call.
+   *
+   * @return a 64-bit hash of the permutation
+   */
+  public long longHashCode() {
+    long h = 0;
+    int n = length();
+    for (int i = 0; i < n; i++) {
+      h ^= Permutation.positionHash(i, get(i));
+    }
+    return h;
+  }
+
+  /**
+   * Changes the element at an index. Used internally by the mutators, which are responsible for
+   * maintaining a valid permutation.
+   *
+   * @param i the index
+   * @param value the new element at index i
+   */
+  abstract void set(int i, int value);
+
+  /**
+   * Copies a range of elements to another range within the same permutation, with the semantics of
+   * {@link System#arraycopy} when the source and destination arrays are the same.
+   *
+   * @param from index of first element to copy
+   * @param to destination index of the first element
+   * @param count the number of elements to copy
+   */
+  abstract void shift(int from, int to, int count);
+
+  /*
+   * Creates a CompactPermutation of length n, backed by the narrowest
+   * suitable array. The elements are uninitialized.
+   */
+  static CompactPermutation allocate(int n) {
+    if (n <= MAX_BYTE_LENGTH) {
+      return new CompactBytePermutation(n);
+    } else if (n <= MAX_CHAR_LENGTH) {
+      return new CompactCharPermutation(n);
+    } else {
+      return new CompactIntPermutation(n);
+    }
+  }
+
+  private static void validate(PermutationView p) {
+    boolean[] inP = new boolean[p.length()];
+    for (int i = 0; i < inP.length; i++) {
+      int e = p.get(i);
+      if (e < 0 || e >= inP.length) {
+        throw new IllegalArgumentException(
+            "Elements of a Permutation must be in interval [0, length())");
+      }
+      if (inP[e]) {
+        throw new IllegalArgumentException("Duplicate elements are not allowed in a Permutation.");
+      }
+      inP[e] = true;
+    }
+  }
+
+  private void internalReverse(int i, int j) {
+    for (; i < j; i++, j--) {
+      int temp = get(i);
+      set(i, get(j));
+      set(j, temp);
+    }
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * The decomposition of a permutation into disjoint cycles, computed in O(n) time. The cycles are
+ * ordered by their least elements, and each cycle begins with its least element, followed by the
+ * successive images of that element under the permutation. Fixed points are cycles of length 1.
+ *
+ * <p>Many properties of a permutation are functions of its cycle structure, including its order,
+ * its powers, and its cycle type; and many of the distance measures of the {@link
+ * org.cicirello.permutations.distance} package, such as interchange distance and cycle distance,
+ * are functions of the cycle structure of p1<sup>-1</sup>p2, which is computed by {@link
+ * #between(PermutationView,PermutationView)}. Computing the decomposition once enables sharing it
+ * among all such computations.
+ *
+ * <p>A CycleStructure is immutable. The decomposition of a {@link Permutation} is also available
+ * from its {@link Permutation#cycles()} method, which caches it until the permutation is changed.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class CycleStructure {
+
+  /* The elements of the cycles, one cycle after another. */
+  private final int[] elements;
+
+  /* The index into elements of the start of each cycle, followed by elements.length. */
+  private final int[] starts;
+
+  private final int fixedPoints;
+
+  private CycleStructure(int[] elements, int[] starts, int fixedPoints) {
+    this.elements = elements;
+    this.starts = starts;
+    this.fixedPoints = fixedPoints;
+  }
+
+  /**
+   * Computes the cycle structure of a permutation, whose cycles are formed by the mapping of each i
+   * to p.get(i).
+   *
+   * @param p the permutation
+   * @return the cycle structure of p
+   */
+  public static CycleStructure of(PermutationView p) {
+    return decompose(p, null);
+  }
+
+  /**
+   * Computes the cycle structure of the permutation p1<sup>-1</sup>p2, whose cycles are formed by
+   * the mapping of each index i to the index of element p2.get(i) in p1. This is the permutation
+   * that transforms p1 into p2, in the sense that its cycles are the permutation cycles between p1
+   * and p2 on which the cycle-based distance measures are defined. It has the same cycle type as
+   * the cycle structure between p2 and p1.
+   *
+   * @param p1 the first permutation
+   * @param p2 the second permutation
+   * @return the cycle structure of p1<sup>-1</sup>p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  public static CycleStructure between(PermutationView p1, PermutationView p2) {
+    if (p1.length() != p2.length()) {
+      throw new IllegalArgumentException("Permutations must be the same length");
+    }
+    return decompose(p2, p1.getInverse());
+  }
+
+  /**
+   * Gets the length of the decomposed permutation.
+   *
+   * @return the length of the permutation
+   */
+  public int length() {
+    return elements.length;
+  }
+
+  /**
+   * Gets the number of cycles, including fixed points.
+   *
+   * @return the number of cycles
+   */
+  public int cycleCount() {
+    return starts.length - 1;
+  }
+
+  /**
+   * Gets the number of fixed points, i.e., the number of cycles of length 1.
+   *
+   * @return the number of fixed points
+   */
+  public int fixedPointCount() {
+    return fixedPoints;
+  }
+
+  /**
+   * Gets the length of one of the cycles.
+   *
+   * @param c the index of the cycle (precondition: 0 &le; c &lt; cycleCount())
+   * @return the length of cycle c
+   * @throws ArrayIndexOutOfBoundsException if c is negative or greater than or equal to
+   *     cycleCount()
+   */
+  public int cycleLength(int c) {
+    if (c >= starts.length - 1) {
+      throw new ArrayIndexOutOfBoundsException(c);
+    }
+    return starts[c + 1] - starts[c];
+  }
+
+  /**
+   * Gets an element of one of the cycles.
+   *
+   * @param c the index of the cycle (precondition: 0 &le; c &lt; cycleCount())
+   * @param k the index of the element within the cycle (precondition: 0 &le; k &lt; cycleLength(c))
+   * @return the k-th element of cycle c
+   * @throws ArrayIndexOutOfBoundsException if c or k is out of bounds
+   */
+  public int get(int c, int k) {
+    if (k < 0 || k >= cycleLength(c)) {
+      throw new ArrayIndexOutOfBoundsException(k);
+    }
+    return elements[starts[c] + k];
+  }
+
+  /**
+   * Gets the elements of one of the cycles, in order.
+   *
+   * @param c the index of the cycle (precondition: 0 &le; c &lt; cycleCount())
+   * @return a new array containing the elements of cycle c
+   * @throws ArrayIndexOutOfBoundsException if c is negative or greater than or equal to
+   *     cycleCount()
+   */
+  public int[] cycle(int c) {
+    return Arrays.copyOfRange(elements, starts[c], starts[c] + cycleLength(c));
+  }
+
+  /**
+   * Computes the cycle type of the permutation, i.e., the number of cycles of each length.
+   *
+   * @return an array of length length() + 1, such that element k is the number of cycles of length
+   *     k
+   */
+  public int[] cycleType() {
+    int[] type = new int[elements.length + 1];
+    for (int c = 1; c < starts.length; c++) {
+      type[starts[c] - starts[c - 1]]++;
+    }
+    return type;
+  }
+
+  /**
+   * Computes the order of the permutation, i.e., the least positive integer k such that the k-th
+   * power of the permutation is the identity, which is the least common multiple of its cycle
+   * lengths. The order of a permutation of length n can exceed the range of a long for n greater
+   * than a few hundred.
+   *
+   * @return the order of the permutation
+   */
+  public BigInteger order() {
+    int[] type = cycleType();
+    BigInteger order = BigInteger.ONE;
+    for (int k = 2; k < type.length; k++) {
+      if (type[k] > 0) {
+        BigInteger len = BigInteger.valueOf(k);
+        order = order.divide(order.gcd(len)).multiply(len);
+      }
+    }
+    return order;
+  }
+
+  /**
+   * Computes a power of the permutation, in O(n) time regardless of the exponent, by rotating each
+   * cycle by the exponent modulo its length. Negative exponents are powers of the inverse.
+   *
+   * @param k the exponent
+   * @param result An array to hold the result. If result is null or if result.length is not equal
+   *     to length(), then this method will construct a new array for the result.
+   * @return an array containing the elements of the k-th power of the permutation, such that the
+   *     element at index i is the image of i under k applications of the permutation
+   */
+  public int[] power(long k, int[] result) {
+    if (result == null || result.length != elements.length) {
+      result = new int[elements.length];
+    }
+    for (int c = 1; c < starts.length; c++) {
+      int start = starts[c - 1];
+      int len = starts[c] - start;
+      int to = start + (int) Math.floorMod(k, (long) len);
+      for (int from = start; from < starts[c]; from++, to++) {
+        if (to == starts[c]) {
+          to = start;
+        }
+        result[elements[from]] = elements[to];
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Decomposes the permutation that maps i to p.get(i), or if relabel is
+   * non-null, that maps i to relabel[p.get(i)].
+   */
+  private static CycleStructure decompose(PermutationView p, int[] relabel) {
+    int n = p.length();
+    int[] elements = new int[n];
+    int[] starts = new int[n + 1];
+    boolean[] visited = new boolean[n];
+    int count = 0;
+    int size = 0;
+    int fixedPoints = 0;
+    for (int s = 0; s < n; s++) {
+      if (!visited[s]) {
+        starts[count++] = size;
+        int i = s;
+        do {
+          visited[i] = true;
+          elements[size++] = i;
+          i = relabel == null ? p.get(i) : relabel[p.get(i)];
+        } while (i != s);
+        if (size - starts[count - 1] == 1) {
+          fixedPoints++;
+        }
+      }
+    }
+    starts[count] = n;
+    return new CycleStructure(elements, Arrays.copyOf(starts, count + 1), fixedPoints);
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+
+/**
+ * A resumable job that exhaustively enumerates one shard of the permutations of a specified length,
+ * n. The n! permutations are ordered by their lexicographic rank (see {@link LexicographicRanker}),
+ * and the ranks are partitioned deterministically into a specified number of shards, K, of
+ * consecutive ranks, whose sizes differ by at most one. Independent processes can therefore each
+ * enumerate a different shard, given only n, K, and the index of their shard, without any
+ * coordination.
+ *
+ * <p>The state of a job is its position, the rank of the next permutation to enumerate, from which
+ * the state of the enumeration is recovered by unranking. A job can thus be checkpointed compactly
+ * to a file with {@link #checkpoint(Path)}, and resumed, such as after a restart of its process,
+ * with {@link #resume(Path)}. A job is also {@link Serializable}. A typical loop enumerates the
+ * shard in batches, checkpointing after each:
+ *
+ * <pre>{@code
+ * EnumerationShard job = Files.exists(file)
+ *     ? EnumerationShard.resume(file)
+ *     : EnumerationShard.of(13, shardIndex, shardCount);
+ * while (!job.isComplete()) {
+ *   job.run(100_000_000L, p -> evaluate(p));
+ *   job.checkpoint(file);
+ * }
+ * }</pre>
+ *
+ * <p>Since ranks are long values, n must be at most 20. A job is not thread-safe; to enumerate a
+ * shard with multiple threads, divide it into further shards.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class EnumerationShard implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int MAGIC = 0x4A505453;
+  static final int CHECKPOINT_BYTES = 40;
+
+  private final int n;
+  private final int shard;
+  private final int shardCount;
+  private final long first;
+  private final long end;
+  private long position;
+  private transient LexicographicIterator iterator;
+
+  private EnumerationShard(int n, int shard, int shardCount, long position) {
+    this.n = n;
+    this.shard = shard;
+    this.shardCount = shardCount;
+    long count = Factoradic.factorial(n);
+    first = start(count, shard, shardCount);
+    end = start(count, shard + 1, shardCount);
+    this.position = position < 0 ? first : position;
+  }
+
+  /**
+   * Creates a job that enumerates one of a specified number of shards of the permutations of length
+   * n, positioned at the start of the shard. Shard s of K consists of the permutations with ranks
+   * in the interval [s * (n! / K) + min(s, n! % K), (s+1) * (n! / K) + min(s+1, n! % K)).
+   *
+   * @param n the length of the permutations
+   * @param shard the index of the shard, from 0 through shardCount - 1
+   * @param shardCount the number of shards, K
+   * @return a job that enumerates the shard
+   * @throws IllegalArgumentException if n is negative, if shardCount is less than 1, or if shard is
+   *     negative or not less than shardCount
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public static EnumerationShard of(int n, int shard, int shardCount) {
+    validate(n, shard, shardCount);
+    return new EnumerationShard(n, shard, shardCount, -1);
+  }
+
+  /**
+   * Resumes a job from a checkpoint file written by {@link #checkpoint(Path)}.
+   *
+   * @param file the checkpoint file
+   * @return the job, positioned where it was when it was checkpointed
+   * @throws IOException if an I/O error occurs reading the file
+   * @throws StreamCorruptedException if the file is not a valid checkpoint
+   */
+  public static EnumerationShard resume(Path file) throws IOException {
+    byte[] bytes = Files.readAllBytes(file);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (bytes.length != CHECKPOINT_BYTES || buffer.getInt() != MAGIC) {
+      throw new StreamCorruptedException("Invalid checkpoint.");
+    }
+    int n = buffer.getInt();
+    int shard = buffer.getInt();
+    int shardCount = buffer.getInt();
+    long first = buffer.getLong();
+    long end = buffer.getLong();
+    long position = buffer.getLong();
+    if (!isValidState(n, shard, shardCount, first, end, position)) {
+      throw new StreamCorruptedException("Invalid checkpoint.");
+    }
+    return new EnumerationShard(n, shard, shardCount, position);
+  }
+
+  /**
+   * Writes the state of this job to a checkpoint file, which {@link #resume(Path)} reads. The file
+   * is replaced atomically, where the file system supports it, by writing a temporary file in the
+   * same directory and moving it into place, so that an interruption during the checkpoint leaves
+   * the previous checkpoint intact.
+   *
+   * @param file the checkpoint file
+   * @throws IOException if an I/O error occurs writing the file
+   */
+  public void checkpoint(Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_BYTES);
+    buffer.putInt(MAGIC).putInt(n).putInt(shard).putInt(shardCount);
+    buffer.putLong(first).putLong(end).putLong(position);
+    Path absolute = file.toAbsolutePath();
+    Path temp =
+        Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, buffer.array());
+      try {
+        Files.move(
+            temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Enumerates up to a specified number of the remaining permutations of the shard, in
+   * lexicographic order, advancing the position of the job past each permutation once the visitor
+   * returns. The visitor is supplied one Permutation object, changed in place to each permutation
+   * in turn, which it must neither modify nor retain. If the visitor throws an exception, the
+   * position of the job remains at the permutation that it was visiting.
+   *
+   * @param maxCount the maximum number of permutations to enumerate
+   * @param visitor the visitor of the permutations
+   * @return the number of permutations enumerated, which is less than maxCount only if the shard is
+   *     complete
+   */
+  public long run(long maxCount, Consumer<? super Permutation> visitor) {
+    if (iterator == null || iterator.position() != position) {
+      iterator = new LexicographicIterator(n, position);
+    }
+    Permutation p = iterator.cursor();
+    long count = 0;
+    while (count < maxCount && position < end && iterator.advance()) {
+      visitor.accept(p);
+      position++;
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Gets the length of the permutations that this job enumerates.
+   *
+   * @return the length of the permutations
+   */
+  public int permutationLength() {
+    return n;
+  }
+
+  /**
+   * Gets the index of the shard that this job enumerates.
+   *
+   * @return the index of the shard
+   */
+  public int shard() {
+    return shard;
+  }
+
+  /**
+   * Gets the number of shards into which the permutations are partitioned.
+   *
+   * @return the number of shards
+   */
+  public int shardCount() {
+    return shardCount;
+  }
+
+  /**
+   * Gets the lexicographic rank of the first permutation of the shard.
+   *
+   * @return the first rank of the shard
+   */
+  public long first() {
+    return first;
+  }
+
+  /**
+   * Gets the end of the shard, which is one more than the lexicographic rank of its last
+   * permutation.
+   *
+   * @return the end of the shard
+   */
+  public long end() {
+    return end;
+  }
+
+  /**
+   * Gets the position of this job, which is the lexicographic rank of the next permutation that it
+   * enumerates, or end() if it is complete.
+   *
+   * @return the position of this job
+   */
+  public long position() {
+    return position;
+  }
+
+  /**
+   * Gets the number of permutations of the shard that remain to be enumerated.
+   *
+   * @return the number of permutations that remain
+   */
+  public long remaining() {
+    return end - position;
+  }
+
+  /**
+   * Checks whether this job has enumerated its entire shard.
+   *
+   * @return true if and only if the job has enumerated every permutation of its shard
+   */
+  public boolean isComplete() {
+    return position >= end;
+  }
+
+  /*
+   * The first rank of shard s of k, for ranks in [0, count).
+   */
+  private static long start(long count, int s, int k) {
+    return s * (count / k) + Math.min(s, count % k);
+  }
+
+  /*
+   * Checks whether the state of a checkpointed or deserialized job is
+   * consistent: a valid shard, whose bounds are those that n, shard, and
+   * shardCount determine, and a position within them.
+   */
+  private static boolean isValidState(
+      int n, int shard, int shardCount, long first, long end, long position) {
+    try {
+      validate(n, shard, shardCount);
+    } catch (IllegalArgumentException | UnsupportedOperationException e) {
+      return false;
+    }
+    long count = Factoradic.factorial(n);
+    return first == start(count, shard, shardCount)
+        && end == start(count, shard + 1, shardCount)
+        && position >= first
+        && position <= end;
+  }
+
+  /*
+   * Rejects a deserialized job whose state is inconsistent, with the same
+   * checks as resume.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    if (!isValidState(n, shard, shardCount, first, end, position)) {
+      throw new InvalidObjectException("Invalid shard.");
+    }
+  }
+
+  private static void validate(int n, int shard, int shardCount) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must be non-negative");
+    }
+    if (n > Factoradic.MAX_LONG_LENGTH) {
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    }
+    if (shardCount < 1 || shard < 0 || shard >= shardCount) {
+      throw new IllegalArgumentException("shard must be in the interval [0, shardCount)");
+    }
+  }
+}
@@ -0,0 +1,325 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Internal utility for converting between permutations and their representation in the factorial
+ * number system. Digit i of a permutation p of length n, which has radix n - i, is the number of
+ * elements that are less than p[i] among the elements in positions i through n-1 (i.e., the digits
+ * are the Lehmer code of p). Two orderings of these digits are supported. In the mixed radix
+ * ordering used by {@link Permutation#toInteger()}, {@link Permutation#toBigInteger()}, and the
+ * corresponding constructors of {@link Permutation}, digit 0 is the least significant. In the
+ * lexicographic ordering, digit 0 is the most significant. Conversions between permutations and
+ * digits use a Fenwick tree, and run in O(n lg n) time; and conversions between digits and
+ * BigInteger values use divide-and-conquer.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+final class Factoradic {
+
+  /** The maximum length of a permutation whose value fits in a long. */
+  static final int MAX_LONG_LENGTH = 20;
+
+  /** The maximum length of a permutation whose value fits in an int. */
+  static final int MAX_INT_LENGTH = 12;
+
+  /*
+   * FACTORIALS[n] is n!, for 0 &le; n &le; MAX_LONG_LENGTH.
+   */
+  private static final long[] FACTORIALS = new long[MAX_LONG_LENGTH + 1];
+
+  static {
+    FACTORIALS[0] = 1;
+    for (int n = 1; n <= MAX_LONG_LENGTH; n++) {
+      FACTORIALS[n] = n * FACTORIALS[n - 1];
+    }
+  }
+
+  private Factoradic() {}
+
+  /*
+   * Computes n!, for 0 &le; n &le; MAX_LONG_LENGTH.
+   */
+  static long factorial(int n) {
+    return FACTORIALS[n];
+  }
+
+  /*
+   * Computes the long value of a permutation of length at most
+   * MAX_LONG_LENGTH, without allocating any memory, using a bit mask of the
+   * elements already encountered, in place of the Fenwick tree.
+   */
+  static long toLong(PermutationView p, boolean lexicographic) {
+    final int n = p.length();
+    long result = 0;
+    long multiplier = 1;
+    int used = 0;
+    for (int i = 0; i < n - 1; i++) {
+      int element = p.get(i);
+      int digit = element - Integer.bitCount(used & ((1 << element) - 1));
+      used |= 1 << element;
+      if (lexicographic) {
+        result = result * (n - i) + digit;
+      } else {
+        result += multiplier * digit;
+        multiplier *= n - i;
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Computes the permutation of length at most MAX_LONG_LENGTH with the
+   * specified value, storing it in p, without allocating any memory. Any
+   * multiple of p.length! is ignored.
+   */
+  static void fromLong(long value, int[] p, boolean lexicographic) {
+    if (value < 0) {
+      throw new IllegalArgumentException("value must be non-negative");
+    }
+    final int n = p.length;
+    value %= FACTORIALS[n];
+    // The digits are computed into p, and then replaced by the elements.
+    if (lexicographic) {
+      for (int i = n - 1; i >= 0; i--) {
+        p[i] = (int) (value % (n - i));
+        value /= n - i;
+      }
+    } else {
+      for (int i = 0; i < n; i++) {
+        p[i] = (int) (value % (n - i));
+        value /= n - i;
+      }
+    }
+    int unused = (1 << n) - 1;
+    for (int i = 0; i < n; i++) {
+      int remaining = unused;
+      for (int k = p[i]; k > 0; k--) {
+        remaining &= remaining - 1;
+      }
+      p[i] = Integer.numberOfTrailingZeros(remaining);
+      unused &= ~(1 << p[i]);
+    }
+  }
+
+  /*
+   * Computes the digits of a non-negative long value, for permutations of
+   * length n. Any multiple of n! is ignored.
+   */
+  static int[] digits(int n, long value, boolean lexicographic) {
+    if (value < 0) {
+      throw new IllegalArgumentException("value must be non-negative");
+    }
+    int[] digits = new int[n];
+    if (lexicographic) {
+      for (int i = n - 1; i >= 0 && value != 0; i--) {
+        digits[i] = (int) (value % (n - i));
+        value = value / (n - i);
+      }
+    } else {
+      for (int i = 0; i < n - 1 && value != 0; i++) {
+        digits[i] = (int) (value % (n - i));
+        value = value / (n - i);
+      }
+    }
+    return digits;
+  }
+
+  /*
+   * Computes the digits of a permutation. The last digit, whose radix is 1,
+   * is always 0.
+   */
+  static int[] digits(PermutationView p) {
+    return digits(p, new int[p.length()], new int[p.length() + 1]);
+  }
+
+  /*
+   * Computes the digits of a permutation into an array of the same length,
+   * using a scratch array of length p.length() + 1 for the Fenwick tree.
+   */
+  static int[] digits(PermutationView p, int[] digits, int[] tree) {
+    final int n = p.length();
+    // Fenwick tree, indexed from 1, counting the elements already encountered.
+    Arrays.fill(tree, 0);
+    for (int i = 0; i < n - 1; i++) {
+      int element = p.get(i);
+      int countLess = 0;
+      for (int k = element; k > 0; k -= k & -k) {
+        countLess += tree[k];
+      }
+      digits[i] = element - countLess;
+      for (int k = element + 1; k <= n; k += k & -k) {
+        tree[k]++;
+      }
+    }
+    if (n > 0) {
+      digits[n - 1] = 0;
+    }
+    return digits;
+  }
+
+  /*
+   * Computes the permutation with the specified digits, storing it in p,
+   * which must be the same length as digits.
+   */
+  static void fromDigits(int[] digits, int[] p) {
+    fromDigits(digits, p, new int[p.length + 1]);
+  }
+
+  /*
+   * Computes the permutation with the specified digits, storing it in p,
+   * using a scratch array of length p.length + 1 for the Fenwick tree.
+   */
+  static void fromDigits(int[] digits, int[] p, int[] tree) {
+    final int n = p.length;
+    // Fenwick tree, indexed from 1, counting the elements not yet used,
+    // initialized in O(n) time.
+    for (int k = 1; k <= n; k++) {
+      tree[k] = k & -k;
+    }
+    int highBit = Integer.highestOneBit(Math.max(n, 1));
+    for (int i = 0; i < n; i++) {
+      int remaining = digits[i];
+      if (remaining < 0 || remaining >= n - i) {
+        throw new IllegalArgumentException("Digit out of range for its radix.");
+      }
+      // Binary lifting to find the (remaining+1)-th unused element.
+      int pos = 0;
+      for (int step = highBit; step > 0; step >>= 1) {
+        int next = pos + step;
+        if (next <= n && tree[next] <= remaining) {
+          pos = next;
+          remaining -= tree[next];
+        }
+      }
+      p[i] = pos;
+      for (int k = pos + 1; k <= n; k += k & -k) {
+        tree[k]--;
+      }
+    }
+  }
+
+  /*
+   * Computes the BigInteger value of digits, by divide-and-conquer, such
+   * that each multiplication is of numbers of similar size.
+   */
+  static BigInteger toBigInteger(int[] digits, boolean lexicographic) {
+    if (digits.length <= 1) {
+      return BigInteger.ZERO;
+    }
+    return toBigInteger(digits, 0, digits.length - 1, lexicographic)[0];
+  }
+
+  /*
+   * Computes the digits of a BigInteger value, for permutations of length n,
+   * by divide-and-conquer, rather than by n sequential divisions of the
+   * full value. Any multiple of n! is ignored.
+   */
+  static int[] digits(int n, BigInteger value, boolean lexicographic) {
+    int[] digits = new int[n];
+    if (n > 1) {
+      BigInteger[] divRem = value.divideAndRemainder(radixProduct(n, 0, n - 1));
+      value = divRem[1];
+      if (value.signum() < 0) {
+        throw new IllegalArgumentException("value must be non-negative");
+      }
+      toDigits(value, n, 0, n - 1, digits, lexicographic);
+    }
+    return digits;
+  }
+
+  /*
+   * Returns {value, product of radices} of digits[lo..hi).
+   */
+  private static BigInteger[] toBigInteger(int[] digits, int lo, int hi, boolean lexicographic) {
+    final int n = digits.length;
+    if (hi - lo == 1) {
+      return new BigInteger[] {BigInteger.valueOf(digits[lo]), BigInteger.valueOf(n - lo)};
+    }
+    int mid = (lo + hi) >>> 1;
+    BigInteger[] low = toBigInteger(digits, lo, mid, lexicographic);
+    BigInteger[] high = toBigInteger(digits, mid, hi, lexicographic);
+    BigInteger value =
+        lexicographic
+            ? low[0].multiply(high[1]).add(high[0])
+            : low[0].add(low[1].multiply(high[0]));
+    return new BigInteger[] {value, low[1].multiply(high[1])};
+  }
+
+  /*
+   * Computes digits[lo..hi) from value, where 0 &le; value &lt; product of
+   * the radices of those digits.
+   */
+  private static void toDigits(
+      BigInteger value, int n, int lo, int hi, int[] digits, boolean lexicographic) {
+    if (value.bitLength() < Long.SIZE - 1) {
+      long v = value.longValue();
+      if (lexicographic) {
+        for (int i = hi - 1; i >= lo && v != 0; i--) {
+          digits[i] = (int) (v % (n - i));
+          v = v / (n - i);
+        }
+      } else {
+        for (int i = lo; i < hi && v != 0; i++) {
+          digits[i] = (int) (v % (n - i));
+          v = v / (n - i);
+        }
+      }
+    } else {
+      int mid = (lo + hi) >>> 1;
+      if (lexicographic) {
+        BigInteger[] divRem = value.divideAndRemainder(radixProduct(n, mid, hi));
+        toDigits(divRem[0], n, lo, mid, digits, true);
+        toDigits(divRem[1], n, mid, hi, digits, true);
+      } else {
+        BigInteger[] divRem = value.divideAndRemainder(radixProduct(n, lo, mid));
+        toDigits(divRem[1], n, lo, mid, digits, false);
+        toDigits(divRem[0], n, mid, hi, digits, false);
+      }
+    }
+  }
+
+  /*
+   * Computes the product of the radices of digits[lo..hi), i.e.,
+   * (n-lo)(n-lo-1)...(n-hi+1), by divide-and-conquer.
+   */
+  private static BigInteger radixProduct(int n, int lo, int hi) {
+    if (hi - lo <= 8) {
+      BigInteger product = BigInteger.ONE;
+      long partial = 1;
+      for (int i = lo; i < hi; i++) {
+        if (partial > Long.MAX_VALUE / (n - i)) {
+          product = product.multiply(BigInteger.valueOf(partial));
+          partial = 1;
+        }
+        partial *= n - i;
+      }
+      return product.multiply(BigInteger.valueOf(partial));
+    }
+    int mid = (lo + hi) >>> 1;
+    return radixProduct(n, lo, mid).multiply(radixProduct(n, mid, hi));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A read-only flyweight view of one of the permutations of a {@link PermutationFile}, obtained from
+ * {@link PermutationFile#view(int)}. The view can be repositioned to any other permutation of the
+ * file with the {@link #moveTo(int)} method, without creating any objects, such as to scan the
+ * permutations of the file, computing the distance of each to some other permutation.
+ *
+ * <p>A view is not thread-safe, but multiple threads may each use their own views of the same file
+ * concurrently.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class FilePermutation implements PermutationView {
+
+  private final PermutationFile file;
+  private int index;
+  private ByteBuffer buffer;
+  private int base;
+
+  /*
+   * For a file in the LEHMER encoding, the decoded permutation, an array
+   * into which moveTo decodes before swapping it with decoded, and the
+   * codec used to decode; otherwise null.
+   */
+  private int[] decoded;
+  private int[] pending;
+  private final PermutationCodec codec;
+
+  FilePermutation(PermutationFile file, int index) {
+    this.file = file;
+    if (file.decodes()) {
+      decoded = new int[file.permutationLength()];
+      pending = new int[file.permutationLength()];
+      codec = file.newCodec();
+    } else {
+      codec = null;
+    }
+    moveTo(index);
+  }
+
+  /**
+   * Repositions this view to a different permutation of the file.
+   *
+   * @param index the index of the permutation in the file
+   * @throws IndexOutOfBoundsException if index is negative or greater than or equal to the number
+   *     of permutations in the file, in which case the view is unchanged
+   * @throws IllegalArgumentException if the file uses the {@link PermutationCodec.Encoding#LEHMER}
+   *     encoding, and the permutation at the specified index is not valid, in which case the view
+   *     is unchanged
+   */
+  public void moveTo(int index) {
+    ByteBuffer target = file.buffer(index);
+    int offset = file.offset(index);
+    if (decoded != null) {
+      codec.decode(target, offset, pending);
+      int[] temp = decoded;
+      decoded = pending;
+      pending = temp;
+    }
+    buffer = target;
+    base = offset;
+    this.index = index;
+  }
+
+  /**
+   * Gets the index, within the file, of the permutation currently viewed.
+   *
+   * @return the index of the permutation currently viewed
+   */
+  public int index() {
+    return index;
+  }
+
+  /**
+   * Gets the file of this view.
+   *
+   * @return the file of this view
+   */
+  public PermutationFile file() {
+    return file;
+  }
+
+  @Override
+  public int get(int i) {
+    if (i < 0 || i >= file.permutationLength()) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    return decoded != null ? decoded[i] : file.get(buffer, base, i);
+  }
+
+  @Override
+  public int length() {
+    return file.permutationLength();
+  }
+}
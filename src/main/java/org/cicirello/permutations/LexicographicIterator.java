@@ -0,0 +1,289 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bidirectional iterator over all permutations of a specified length, n, of the integers in the
+ * interval [0,n), in lexicographic order, which can jump directly to any lexicographic rank. The
+ * iterator has a position, which is the rank of the permutation that {@link #next()} returns, from
+ * 0 through n!. Moving to an adjacent rank with {@link #next()} or {@link #previous()} changes the
+ * internally maintained permutation in place to its lexicographic successor or predecessor, in O(1)
+ * amortized time. Moving to an arbitrary rank with {@link #seek(long)} or {@link #skip(long)}
+ * unranks the permutation with that rank, in O(n lg n) time, without enumerating the permutations
+ * in between, so that, for example, a job can begin enumerating at the start of its own slice of
+ * the permutations. Ranks are those of the {@link LexicographicRanker}, and so n must be at most
+ * 20.
+ *
+ * <p>The {@link #next()} and {@link #previous()} methods return a copy of the internally maintained
+ * Permutation, which the caller may modify. The iterator also has a cursor mode, in which {@link
+ * #advance()} and {@link #retreat()} change the single Permutation returned by {@link #cursor()} in
+ * place, without allocating any objects.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class LexicographicIterator implements Iterator<Permutation> {
+
+  private final Permutation p;
+  private final int[] scratch;
+  private final long count;
+  private long position;
+  // the rank of the permutation held by p
+  private long held;
+
+  /**
+   * Initializes an iterator over all permutations of length n, positioned at rank 0, i.e., the
+   * identity permutation.
+   *
+   * @param n The length of the permutations.
+   * @throws IllegalArgumentException if n is negative
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public LexicographicIterator(int n) {
+    this(n, 0);
+  }
+
+  /**
+   * Initializes an iterator over all permutations of length n, positioned at a specified rank.
+   *
+   * @param n The length of the permutations.
+   * @param rank The lexicographic rank of the permutation that next() returns first.
+   * @throws IllegalArgumentException if n is negative, or if rank is negative or greater than n!
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public LexicographicIterator(int n, long rank) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must be non-negative");
+    }
+    if (n > Factoradic.MAX_LONG_LENGTH) {
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    }
+    p = new Permutation(n, 0);
+    scratch = new int[n];
+    count = Factoradic.factorial(n);
+    seek(rank);
+  }
+
+  /**
+   * Checks if there is a permutation after the position of this iterator.
+   *
+   * @return true if and only if the position is less than n!
+   */
+  @Override
+  public boolean hasNext() {
+    return position < count;
+  }
+
+  /**
+   * Checks if there is a permutation before the position of this iterator.
+   *
+   * @return true if and only if the position is greater than 0
+   */
+  public boolean hasPrevious() {
+    return position > 0;
+  }
+
+  /**
+   * Gets a copy of the permutation at the position of this iterator, and increments the position.
+   *
+   * @return the permutation whose rank is the position prior to the call
+   * @throws NoSuchElementException if hasNext() is false
+   */
+  @Override
+  public Permutation next() {
+    if (!advance()) throw new NoSuchElementException();
+    return new Permutation(p);
+  }
+
+  /**
+   * Decrements the position of this iterator, and gets a copy of the permutation at the new
+   * position. Alternating calls to next() and previous() return the same permutation.
+   *
+   * @return the permutation whose rank is the position after the call
+   * @throws NoSuchElementException if hasPrevious() is false
+   */
+  public Permutation previous() {
+    if (!retreat()) throw new NoSuchElementException();
+    return new Permutation(p);
+  }
+
+  /**
+   * Gets the permutation that {@link #advance()} and {@link #retreat()} change in place. The same
+   * Permutation object is returned by every call. It is the permutation most recently visited by
+   * next(), previous(), advance(), or retreat(), and its state is unspecified before the first of
+   * these calls, and after a call to seek(long) or skip(long). The caller must not modify it, and
+   * must copy it to retain any of the permutations of the iteration.
+   *
+   * @return the permutation changed in place by advance() and retreat()
+   */
+  public Permutation cursor() {
+    return p;
+  }
+
+  /**
+   * Changes the permutation returned by {@link #cursor()}, in place, to the permutation at the
+   * position of this iterator, and increments the position, in O(1) amortized time.
+   *
+   * @return true if the cursor was changed, and false if the position was already n!
+   */
+  public boolean advance() {
+    if (position >= count) {
+      return false;
+    }
+    moveTo(position);
+    position++;
+    return true;
+  }
+
+  /**
+   * Decrements the position of this iterator, and changes the permutation returned by {@link
+   * #cursor()}, in place, to the permutation at the new position, in O(1) amortized time.
+   *
+   * @return true if the cursor was changed, and false if the position was already 0
+   */
+  public boolean retreat() {
+    if (position <= 0) {
+      return false;
+    }
+    position--;
+    moveTo(position);
+    return true;
+  }
+
+  /**
+   * Gets the position of this iterator, which is the lexicographic rank of the permutation that
+   * next() returns, or n! if there is none.
+   *
+   * @return the position of this iterator
+   */
+  public long position() {
+    return position;
+  }
+
+  /**
+   * Moves the position of this iterator to a specified rank, in O(n lg n) time.
+   *
+   * @param rank the new position, which is the lexicographic rank of the permutation that next()
+   *     returns after the call, or n! to position the iterator after the last permutation
+   * @throws IllegalArgumentException if rank is negative or greater than n!
+   */
+  public void seek(long rank) {
+    if (rank < 0 || rank > count) {
+      throw new IllegalArgumentException("rank must be in the interval [0, n!]");
+    }
+    position = rank;
+    long target = Math.min(rank, count - 1);
+    Factoradic.fromLong(target, scratch, true);
+    p.set(scratch);
+    held = target;
+  }
+
+  /**
+   * Moves the position of this iterator by a specified number of permutations, forward if k is
+   * positive and backward if k is negative, stopping at 0 or n!, in O(n lg n) time.
+   *
+   * @param k the number of permutations to skip
+   * @return the number of permutations actually skipped, which is negative if the position moved
+   *     backward, and less in magnitude than k if the move stopped at 0 or n!
+   */
+  public long skip(long k) {
+    long rank;
+    if (k >= 0) {
+      rank = k > count - position ? count : position + k;
+    } else {
+      rank = k < -position ? 0 : position + k;
+    }
+    long skipped = rank - position;
+    seek(rank);
+    return skipped;
+  }
+
+  /*
+   * Changes p to the permutation with the specified rank, by a single
+   * successor or predecessor step if the rank is adjacent to that of p.
+   */
+  private void moveTo(long rank) {
+    if (rank == held + 1) {
+      successor(p);
+    } else if (rank == held - 1) {
+      predecessor(p);
+    } else if (rank != held) {
+      Factoradic.fromLong(rank, scratch, true);
+      p.set(scratch);
+    }
+    held = rank;
+  }
+
+  /*
+   * Changes p in place to its lexicographic successor, in O(1) amortized
+   * time, and returns false without changing p if p is the last
+   * permutation in lexicographic order.
+   */
+  static boolean successor(Permutation p) {
+    int i = p.length() - 2;
+    while (i >= 0 && p.get(i) > p.get(i + 1)) {
+      i--;
+    }
+    if (i < 0) {
+      return false;
+    }
+    int j = p.length() - 1;
+    while (p.get(j) < p.get(i)) {
+      j--;
+    }
+    p.internalSwap(i, j);
+    reverseSuffix(p, i + 1);
+    return true;
+  }
+
+  /*
+   * Changes p in place to its lexicographic predecessor, in O(1) amortized
+   * time, and returns false without changing p if p is the identity
+   * permutation.
+   */
+  static boolean predecessor(Permutation p) {
+    int i = p.length() - 2;
+    while (i >= 0 && p.get(i) < p.get(i + 1)) {
+      i--;
+    }
+    if (i < 0) {
+      return false;
+    }
+    int j = p.length() - 1;
+    while (p.get(j) > p.get(i)) {
+      j--;
+    }
+    p.internalSwap(i, j);
+    reverseSuffix(p, i + 1);
+    return true;
+  }
+
+  private static void reverseSuffix(Permutation p, int from) {
+    for (int a = from, b = p.length() - 1; a < b; a++, b--) {
+      p.internalSwap(a, b);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.math.BigInteger;
+
+/**
+ * A {@link PermutationRanker} that ranks permutations in lexicographic order, such that the rank of
+ * the identity permutation is 0, and the rank of the permutation that is the reverse of the
+ * identity is n!-1. The rank of a permutation p of length n is the mixed radix number whose i-th
+ * digit, which has radix n - i, is the number of elements that are less than p[i] among the
+ * elements in positions i through n-1, and whose digit 0 is the most significant.
+ *
+ * <p>Ranking and unranking run in O(n lg n) time, plus the cost of the BigInteger arithmetic when n
+ * &gt; 20. If lexicographic order is not required, then the {@link MyrvoldRuskeyRanker} is faster.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class LexicographicRanker implements PermutationRanker {
+
+  /** Initializes the ranker. */
+  public LexicographicRanker() {}
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UnsupportedOperationException when permutation length is greater than 20.
+   */
+  @Override
+  public long toLong(PermutationView p) {
+    if (p.length() > Factoradic.MAX_LONG_LENGTH)
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    return Factoradic.toLong(p, true);
+  }
+
+  @Override
+  public BigInteger toBigInteger(PermutationView p) {
+    if (p.length() <= Factoradic.MAX_LONG_LENGTH) return BigInteger.valueOf(toLong(p));
+    return Factoradic.toBigInteger(Factoradic.digits(p), true);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if rank is negative
+   */
+  @Override
+  public Permutation unrank(int n, long rank) {
+    int[] p = new int[n];
+    if (n <= Factoradic.MAX_LONG_LENGTH) {
+      Factoradic.fromLong(rank, p, true);
+    } else {
+      Factoradic.fromDigits(Factoradic.digits(n, rank, true), p);
+    }
+    return new Permutation(p);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if rank is negative
+   */
+  @Override
+  public Permutation unrank(int n, BigInteger rank) {
+    int[] p = new int[n];
+    Factoradic.fromDigits(Factoradic.digits(n, rank, true), p);
+    return new Permutation(p);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.math.BigInteger;
+
+/**
+ * A {@link PermutationRanker} that ranks permutations in the same order as {@link
+ * Permutation#toInteger()}, {@link Permutation#toLong()}, {@link Permutation#toBigInteger()}, and
+ * the corresponding constructors of {@link Permutation}. In this order, the rank of a permutation p
+ * of length n is a mixed radix number, whose i-th digit, which has radix n - i, is the number of
+ * elements that are less than p[i] among the elements in positions i through n-1, and whose digit 0
+ * is the least significant. Note that this is not lexicographic order, which results when digit 0
+ * is the most significant instead (see {@link LexicographicRanker}).
+ *
+ * <p>Ranking and unranking run in O(n lg n) time, plus the cost of the BigInteger arithmetic when n
+ * &gt; 20.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class MixedRadixRanker implements PermutationRanker {
+
+  /** Initializes the ranker. */
+  public MixedRadixRanker() {}
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UnsupportedOperationException when permutation length is greater than 20.
+   */
+  @Override
+  public long toLong(PermutationView p) {
+    if (p.length() > Factoradic.MAX_LONG_LENGTH)
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    return Factoradic.toLong(p, false);
+  }
+
+  @Override
+  public BigInteger toBigInteger(PermutationView p) {
+    if (p.length() <= Factoradic.MAX_LONG_LENGTH) return BigInteger.valueOf(toLong(p));
+    return Factoradic.toBigInteger(Factoradic.digits(p), false);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if rank is negative
+   */
+  @Override
+  public Permutation unrank(int n, long rank) {
+    return new Permutation(n, rank);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if rank is negative
+   */
+  @Override
+  public Permutation unrank(int n, BigInteger rank) {
+    return new Permutation(n, rank);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.math.BigInteger;
+import org.cicirello.util.ArrayFiller;
+
+/**
+ * A {@link PermutationRanker} implementing the linear time ranking and unranking algorithms of
+ * Myrvold and Ruskey. A permutation is unranked by starting from the identity permutation, and for
+ * each m from n down to 1, swapping the element in position m-1 with the element in position r mod
+ * m, where r is the rank, and then dividing r by m. Ranking reverses this process, using the
+ * inverse of the permutation to locate each element in constant time. The order of the permutations
+ * is not lexicographic, but ranking and unranking require only O(n) time (plus the cost of the
+ * BigInteger arithmetic when n &gt; 20), rather than O(n lg n), so this ranker is preferable
+ * whenever any bijection between permutations and integers suffices.
+ *
+ * <p>Source: Wendy Myrvold and Frank Ruskey. Ranking and unranking permutations in linear time.
+ * Information Processing Letters, 79(6):281-284, 2001. doi:10.1016/S0020-0190(01)00141-7.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class MyrvoldRuskeyRanker implements PermutationRanker {
+
+  /** Initializes the ranker. */
+  public MyrvoldRuskeyRanker() {}
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UnsupportedOperationException when permutation length is greater than 20.
+   */
+  @Override
+  public long toLong(PermutationView p) {
+    if (p.length() > Factoradic.MAX_LONG_LENGTH)
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    int[] digits = digits(p);
+    long result = 0;
+    for (int i = digits.length - 2; i >= 0; i--) {
+      result = result * (digits.length - i) + digits[i];
+    }
+    return result;
+  }
+
+  @Override
+  public BigInteger toBigInteger(PermutationView p) {
+    if (p.length() <= Factoradic.MAX_LONG_LENGTH) return BigInteger.valueOf(toLong(p));
+    return Factoradic.toBigInteger(digits(p), false);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if rank is negative
+   */
+  @Override
+  public Permutation unrank(int n, long rank) {
+    if (rank < 0) {
+      throw new IllegalArgumentException("rank must be non-negative");
+    }
+    int[] p = ArrayFiller.create(n);
+    for (int m = n; m > 1; m--) {
+      swap(p, m - 1, (int) (rank % m));
+      rank /= m;
+    }
+    return new Permutation(p);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if rank is negative
+   */
+  @Override
+  public Permutation unrank(int n, BigInteger rank) {
+    int[] digits = Factoradic.digits(n, rank, false);
+    int[] p = ArrayFiller.create(n);
+    for (int m = n; m > 1; m--) {
+      swap(p, m - 1, digits[n - m]);
+    }
+    return new Permutation(p);
+  }
+
+  /*
+   * Computes the digits of the rank of p, where digit i, which has radix
+   * n - i, is the element in position n-i-1 after undoing the swaps of
+   * the larger values of m, and digit 0 is the least significant.
+   */
+  private static int[] digits(PermutationView p) {
+    int[] perm = p.toArray();
+    int[] inv = p.getInverse();
+    int[] digits = new int[perm.length];
+    for (int m = perm.length; m > 1; m--) {
+      int s = perm[m - 1];
+      digits[perm.length - m] = s;
+      swap(perm, m - 1, inv[m - 1]);
+      swap(inv, s, m - 1);
+    }
+    return digits;
+  }
+
+  private static void swap(int[] array, int i, int j) {
+    int temp = array[i];
+    array[i] = array[j];
+    array[j] = temp;
+  }
+}
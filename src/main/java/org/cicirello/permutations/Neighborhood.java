@@ -0,0 +1,484 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A Neighborhood enumerates all of the moves of one type, swap, reversal, or insertion, that can be
+ * applied to a permutation of a given length, without creating an object per move. Each move is
+ * identified by a pair of indexes (i, j), with the following meanings:
+ *
+ * <ul>
+ *   <li>{@link Type#SWAP}: {@link Permutation#swap(int,int) swap(i, j)}, for 0 &le; i &lt; j &lt;
+ *       n, for a total of n(n-1)/2 moves.
+ *   <li>{@link Type#REVERSAL}: {@link Permutation#reverse(int,int) reverse(i, j)}, for 0 &le; i
+ *       &lt; j &lt; n, i.e., the 2-opt neighborhood, for a total of n(n-1)/2 moves.
+ *   <li>{@link Type#INSERTION}: {@link Permutation#removeAndInsert(int,int) removeAndInsert(i, j)},
+ *       for 0 &le; i, j &lt; n with i &ne; j, for a total of n(n-1) moves.
+ * </ul>
+ *
+ * <p>The moves are enumerated in order of i, and then in order of j. The {@link #forEach} method
+ * visits every move, and the {@link #bestImprovement} and {@link #firstImprovement} methods scan
+ * the neighborhood for an improving move, given an {@link Evaluator} that computes the change in
+ * cost that a move would cause from its indexes. The scans also accept a {@link MoveEvaluator},
+ * which is passed the move as a {@link PermutationMove}, such as to call the {@link
+ * org.cicirello.permutations.distance.PermutationDistanceMeasurer#delta delta} method of a distance
+ * measure. Each scan, and each task of a parallel scan, passes a single move object that it
+ * repositions from move to move, so neither kind of evaluator causes an allocation per move. Only
+ * the move that a scan returns, if any, is created as a new object.
+ *
+ * <p>The scans can also split the neighborhood across the threads of a {@link ForkJoinPool}. Each
+ * task of a parallel scan evaluates its moves on its own copy of the permutation, so the evaluator
+ * may temporarily change the permutation that it is passed, provided that it restores it before
+ * returning, and the evaluator must be safe for concurrent use by multiple threads.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class Neighborhood {
+
+  /** The types of moves that a Neighborhood can enumerate. */
+  public enum Type {
+    /** Swaps of two elements. */
+    SWAP,
+    /** Reversals of a subsequence, i.e., 2-opt moves. */
+    REVERSAL,
+    /** Removal of an element and its reinsertion at a different position. */
+    INSERTION
+  }
+
+  /** Computes the change in cost that a move of the neighborhood would cause. */
+  @FunctionalInterface
+  public interface Evaluator {
+    /**
+     * Computes the change in cost that would result from applying the move identified by (i, j) to
+     * a permutation, where negative values are improvements. Any changes that this method makes to
+     * p must be undone before it returns.
+     *
+     * @param p the permutation
+     * @param i the first index of the move
+     * @param j the second index of the move
+     * @return the change in cost
+     */
+    double evaluate(Permutation p, int i, int j);
+  }
+
+  /**
+   * Computes the change in cost that a move of the neighborhood would cause, given the move as a
+   * {@link PermutationMove}.
+   */
+  @FunctionalInterface
+  public interface MoveEvaluator {
+    /**
+     * Computes the change in cost that would result from applying a move to a permutation, where
+     * negative values are improvements. Any changes that this method makes to p must be undone
+     * before it returns. The move object is reused by the scan for the moves that follow, so it
+     * must not be retained after this method returns.
+     *
+     * @param p the permutation
+     * @param m the move
+     * @return the change in cost
+     */
+    double evaluate(Permutation p, PermutationMove m);
+  }
+
+  /** Visits the moves of a neighborhood. */
+  @FunctionalInterface
+  public interface Visitor {
+    /**
+     * Visits the move identified by (i, j).
+     *
+     * @param i the first index of the move
+     * @param j the second index of the move
+     */
+    void visit(int i, int j);
+  }
+
+  /*
+   * The minimum number of moves evaluated by each task of a parallel scan.
+   */
+  private static final long MIN_GRAIN = 1024;
+
+  /*
+   * The number of tasks per thread of the pool for a parallel scan.
+   */
+  private static final int TASKS_PER_THREAD = 8;
+
+  private final Type type;
+
+  /**
+   * Initializes a neighborhood of moves of a specified type.
+   *
+   * @param type the type of moves
+   * @throws NullPointerException if type is null
+   */
+  public Neighborhood(Type type) {
+    if (type == null) {
+      throw new NullPointerException("type must not be null");
+    }
+    this.type = type;
+  }
+
+  /**
+   * Gets the type of the moves of the neighborhood.
+   *
+   * @return the type of the moves
+   */
+  public Type type() {
+    return type;
+  }
+
+  /**
+   * Gets the number of moves in the neighborhood of a permutation of length n.
+   *
+   * @param n the length of the permutation
+   * @return the number of moves
+   */
+  public long size(int n) {
+    if (n < 2) {
+      return 0;
+    }
+    long pairs = (long) n * (n - 1);
+    return type == Type.INSERTION ? pairs : pairs >> 1;
+  }
+
+  /**
+   * Creates a {@link PermutationMove} object for the move of this neighborhood identified by (i,
+   * j).
+   *
+   * @param i the first index of the move
+   * @param j the second index of the move
+   * @return the move
+   */
+  public PermutationMove move(int i, int j) {
+    switch (type) {
+      case SWAP:
+        return new PermutationMove.Swap(i, j);
+      case REVERSAL:
+        return new PermutationMove.Reversal(i, j);
+      default:
+        return new PermutationMove.Insertion(i, j);
+    }
+  }
+
+  /**
+   * Visits every move of the neighborhood of a permutation of length n, in order.
+   *
+   * @param n the length of the permutation
+   * @param visitor the visitor
+   */
+  public void forEach(int n, Visitor visitor) {
+    for (int i = 0; i < n; i++) {
+      for (int j = type == Type.INSERTION ? 0 : i + 1; j < n; j++) {
+        if (j != i) {
+          visitor.visit(i, j);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the move of the neighborhood that minimizes the change in cost, provided that it is an
+   * improvement (i.e., negative). Ties are broken in favor of the earliest move in the order of
+   * enumeration.
+   *
+   * @param p the permutation
+   * @param evaluator computes the change in cost of a move
+   * @return the best move, or null if no move has a negative change in cost
+   */
+  public PermutationMove bestImprovement(Permutation p, Evaluator evaluator) {
+    return toMove(scan(p, evaluator, 0, size(p.length()), true, null));
+  }
+
+  /**
+   * Finds the first move of the neighborhood, in the order of enumeration, that has a negative
+   * change in cost.
+   *
+   * @param p the permutation
+   * @param evaluator computes the change in cost of a move
+   * @return the first improving move, or null if no move has a negative change in cost
+   */
+  public PermutationMove firstImprovement(Permutation p, Evaluator evaluator) {
+    return toMove(scan(p, evaluator, 0, size(p.length()), false, null));
+  }
+
+  /**
+   * Finds the move of the neighborhood that minimizes the change in cost, provided that it is an
+   * improvement (i.e., negative), as {@link #bestImprovement(Permutation,Evaluator)} does, but with
+   * an evaluator that is passed each move as a reusable {@link PermutationMove}.
+   *
+   * @param p the permutation
+   * @param evaluator computes the change in cost of a move
+   * @return the best move, or null if no move has a negative change in cost
+   */
+  public PermutationMove bestImprovement(Permutation p, MoveEvaluator evaluator) {
+    return bestImprovement(p, new MoveAdapter(evaluator));
+  }
+
+  /**
+   * Finds the first move of the neighborhood, in the order of enumeration, that has a negative
+   * change in cost, as {@link #firstImprovement(Permutation,Evaluator)} does, but with an evaluator
+   * that is passed each move as a reusable {@link PermutationMove}.
+   *
+   * @param p the permutation
+   * @param evaluator computes the change in cost of a move
+   * @return the first improving move, or null if no move has a negative change in cost
+   */
+  public PermutationMove firstImprovement(Permutation p, MoveEvaluator evaluator) {
+    return firstImprovement(p, new MoveAdapter(evaluator));
+  }
+
+  /**
+   * Finds the move of the neighborhood that minimizes the change in cost, provided that it is an
+   * improvement (i.e., negative), evaluating the moves in parallel with the threads of a
+   * ForkJoinPool. The result is the same as that of {@link
+   * #bestImprovement(Permutation,Evaluator)}, including the breaking of ties.
+   *
+   * @param p the permutation, which must not be changed by other threads during the scan
+   * @param evaluator computes the change in cost of a move, and must be thread-safe
+   * @param pool the pool of threads
+   * @return the best move, or null if no move has a negative change in cost
+   */
+  public PermutationMove bestImprovement(Permutation p, Evaluator evaluator, ForkJoinPool pool) {
+    return toMove(parallelScan(p, evaluator, pool, true));
+  }
+
+  /**
+   * Finds a move of the neighborhood that has a negative change in cost, evaluating the moves in
+   * parallel with the threads of a ForkJoinPool. The scan ends once any of the tasks finds an
+   * improving move. The move found is the first in the order of enumeration within the part of the
+   * neighborhood evaluated by its task, but which improving move is found may vary from call to
+   * call.
+   *
+   * @param p the permutation, which must not be changed by other threads during the scan
+   * @param evaluator computes the change in cost of a move, and must be thread-safe
+   * @param pool the pool of threads
+   * @return an improving move, or null if no move has a negative change in cost
+   */
+  public PermutationMove firstImprovement(Permutation p, Evaluator evaluator, ForkJoinPool pool) {
+    return toMove(parallelScan(p, evaluator, pool, false));
+  }
+
+  /**
+   * Finds the move of the neighborhood that minimizes the change in cost, provided that it is an
+   * improvement (i.e., negative), evaluating the moves in parallel with the threads of a
+   * ForkJoinPool, as {@link #bestImprovement(Permutation,Evaluator,ForkJoinPool)} does, but with an
+   * evaluator that is passed each move as a {@link PermutationMove}, of which each task reuses its
+   * own.
+   *
+   * @param p the permutation, which must not be changed by other threads during the scan
+   * @param evaluator computes the change in cost of a move, and must be thread-safe
+   * @param pool the pool of threads
+   * @return the best move, or null if no move has a negative change in cost
+   */
+  public PermutationMove bestImprovement(
+      Permutation p, MoveEvaluator evaluator, ForkJoinPool pool) {
+    return bestImprovement(p, new MoveAdapter(evaluator), pool);
+  }
+
+  /**
+   * Finds a move of the neighborhood that has a negative change in cost, evaluating the moves in
+   * parallel with the threads of a ForkJoinPool, as {@link
+   * #firstImprovement(Permutation,Evaluator,ForkJoinPool)} does, but with an evaluator that is
+   * passed each move as a {@link PermutationMove}, of which each task reuses its own.
+   *
+   * @param p the permutation, which must not be changed by other threads during the scan
+   * @param evaluator computes the change in cost of a move, and must be thread-safe
+   * @param pool the pool of threads
+   * @return an improving move, or null if no move has a negative change in cost
+   */
+  public PermutationMove firstImprovement(
+      Permutation p, MoveEvaluator evaluator, ForkJoinPool pool) {
+    return firstImprovement(p, new MoveAdapter(evaluator), pool);
+  }
+
+  private Candidate parallelScan(
+      Permutation p, Evaluator evaluator, ForkJoinPool pool, boolean best) {
+    long size = size(p.length());
+    long grain = Math.max(MIN_GRAIN, size / ((long) pool.getParallelism() * TASKS_PER_THREAD) + 1);
+    return pool.invoke(
+        new ScanTask(p, evaluator, 0, size, grain, best, best ? null : new AtomicBoolean()));
+  }
+
+  /*
+   * Evaluates the moves with indexes in the interval [first, last) of the
+   * order of enumeration. If stop is non-null, the scan ends early once it
+   * is set, and is set by this scan if it finds an improving move.
+   */
+  private Candidate scan(
+      Permutation p, Evaluator evaluator, long first, long last, boolean best, AtomicBoolean stop) {
+    Candidate candidate = new Candidate();
+    if (first >= last) {
+      return candidate;
+    }
+    if (evaluator instanceof MoveAdapter) {
+      // each scan repositions a move object of its own
+      evaluator = new MoveAdapter(((MoveAdapter) evaluator).evaluator);
+    }
+    int n = p.length();
+    int i;
+    int j;
+    if (type == Type.INSERTION) {
+      i = (int) (first / (n - 1));
+      j = (int) (first % (n - 1));
+      if (j >= i) j++;
+    } else {
+      // row i of the triangle has n-1-i moves
+      i = 0;
+      long rowStart = 0;
+      while (rowStart + (n - 1 - i) <= first) {
+        rowStart += n - 1 - i;
+        i++;
+      }
+      j = i + 1 + (int) (first - rowStart);
+    }
+    for (long index = first; index < last; index++) {
+      double value = evaluator.evaluate(p, i, j);
+      if (value < candidate.value) {
+        candidate.value = value;
+        candidate.i = i;
+        candidate.j = j;
+        if (!best) {
+          if (stop != null) stop.set(true);
+          return candidate;
+        }
+      } else if (stop != null && stop.get()) {
+        return candidate;
+      }
+      j++;
+      if (type == Type.INSERTION) {
+        if (j == i) j++;
+        if (j >= n) {
+          i++;
+          j = 0;
+        }
+      } else if (j == n) {
+        i++;
+        j = i + 1;
+      }
+    }
+    return candidate;
+  }
+
+  private PermutationMove toMove(Candidate candidate) {
+    return candidate.i < 0 ? null : move(candidate.i, candidate.j);
+  }
+
+  /*
+   * Adapts a MoveEvaluator to an Evaluator, by repositioning a single move
+   * object to each move evaluated. A scan that is passed an adapter uses a
+   * new adapter of its own, so that parallel tasks do not share the move.
+   */
+  private final class MoveAdapter implements Evaluator {
+    private final MoveEvaluator evaluator;
+    private final PermutationMove move;
+
+    private MoveAdapter(MoveEvaluator evaluator) {
+      if (evaluator == null) {
+        throw new NullPointerException("evaluator must not be null");
+      }
+      this.evaluator = evaluator;
+      move = move(0, 1);
+    }
+
+    @Override
+    public double evaluate(Permutation p, int i, int j) {
+      switch (type) {
+        case SWAP:
+          ((PermutationMove.Swap) move).set(i, j);
+          break;
+        case REVERSAL:
+          ((PermutationMove.Reversal) move).set(i, j);
+          break;
+        default:
+          ((PermutationMove.Insertion) move).set(i, j);
+      }
+      return evaluator.evaluate(p, move);
+    }
+  }
+
+  /*
+   * The best move found by a scan, if any, and its change in cost.
+   */
+  private static final class Candidate {
+    private double value;
+    private int i = -1;
+    private int j = -1;
+  }
+
+  /*
+   * Scans an interval of the order of enumeration, splitting it in half
+   * until it is no longer than the grain. Each task that scans moves does
+   * so on its own copy of the permutation.
+   */
+  private final class ScanTask extends RecursiveTask<Candidate> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Permutation p;
+    private final transient Evaluator evaluator;
+    private final long first;
+    private final long last;
+    private final long grain;
+    private final boolean best;
+    private final transient AtomicBoolean stop;
+
+    private ScanTask(
+        Permutation p,
+        Evaluator evaluator,
+        long first,
+        long last,
+        long grain,
+        boolean best,
+        AtomicBoolean stop) {
+      this.p = p;
+      this.evaluator = evaluator;
+      this.first = first;
+      this.last = last;
+      this.grain = grain;
+      this.best = best;
+      this.stop = stop;
+    }
+
+    @Override
+    protected Candidate compute() {
+      if (last - first <= grain) {
+        if (stop != null && stop.get()) {
+          return new Candidate();
+        }
+        return scan(new Permutation(p), evaluator, first, last, best, stop);
+      }
+      long mid = (first + last) >>> 1;
+      ScanTask right = new ScanTask(p, evaluator, mid, last, grain, best, stop);
+      right.fork();
+      Candidate left = new ScanTask(p, evaluator, first, mid, grain, best, stop).compute();
+      Candidate r = right.join();
+      if (best) {
+        return r.value < left.value ? r : left;
+      }
+      return left.i >= 0 ? left : r;
+    }
+  }
+}
@@ -21,14 +21,22 @@
  */
 package org.cicirello.permutations;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.cicirello.math.rand.RandomIndexer;
-import org.cicirello.util.ArrayFiller;
+import org.cicirello.sequences.SequenceShuffler;
 import org.cicirello.util.Copyable;
 
 /**
@@ -40,7 +48,7 @@ import org.cicirello.util.Copyable;
  *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
  */
 public final class Permutation
-    implements Serializable, Iterable<Permutation>, Copyable<Permutation> {
+    implements PermutationView, Serializable, Iterable<Permutation>, Copyable<Permutation> {
 
   private static final long serialVersionUID = 3L;
 
@@ -51,17 +59,38 @@ public final class Permutation
   private final int[] permutation;
 
   /**
-   * Cache the hashCode the first time hashCode() is called to avoid cost of recomputing in
-   * applications that rely on HashSets or HashMaps of Permutations, etc with heavy use of the
-   * hashCode.
+   * Cache the hash the first time hashCode() or longHashCode() is called to avoid cost of
+   * recomputing in applications that rely on HashSets or HashMaps of Permutations, etc with heavy
+   * use of the hashCode. The hash is the exclusive-or over all positions i of positionHash(i,
+   * permutation[i]), which enables methods that change few positions to update it incrementally
+   * while it is cached.
    */
-  private int hashCode;
+  private transient long hash;
 
   /**
    * Flag for validating/invalidating cache of hashCode. All methods that change state of
-   * Permutation must invalidate the cache.
+   * Permutation must either invalidate the cache, or update the hash if it is cached.
    */
-  private boolean hashCodeIsCached;
+  private transient boolean hashCodeIsCached;
+
+  /**
+   * The inverse of the permutation if inverse tracking is enabled, and otherwise null. All methods
+   * that change state of Permutation must update the inverse if it is non-null. Only whether it is
+   * enabled is serialized, and the inverse is rebuilt upon deserialization.
+   */
+  private transient int[] inverse;
+
+  /**
+   * The undo journal and mark state, allocated by the first call to mark(), and otherwise null, so
+   * that permutations that are never marked pay for only this reference.
+   */
+  private transient Journal journal;
+
+  /**
+   * The cycle decomposition, computed the first time that cycles() is called, or null if it is not
+   * cached. All methods that change state of Permutation must discard it.
+   */
+  private transient CycleStructure cycles;
 
   /**
    * Initializes a random permutation of n integers. Uses {@link ThreadLocalRandom} as the source of
@@ -89,19 +118,32 @@ public final class Permutation
    * Initializes a specific permutation from an integer in mixed radix form representing the chosen
    * permutation. See the toInteger() method which can be used to generate this value for a given
    * permutation. The n! permutations of the integers from 0 to n-1 are mapped to the integers from
-   * 0..(n!-1). Runtime of this constructor is O(n^2).
+   * 0..(n!-1). Runtime of this constructor is O(n lg n).
    *
    * @param n The length of the permutation.
    * @param value The integer value of the permutation in the interval: 0..(n!-1).
    */
   public Permutation(int n, int value) {
-    permutation = ArrayFiller.create(n);
-    for (int i = 0; i < n - 1; i++) {
-      int j = i + value % (n - i);
-      int temp = permutation[j];
-      System.arraycopy(permutation, i, permutation, i + 1, j - i);
-      permutation[i] = temp;
-      value = value / (n - i);
+    this(n, (long) value);
+  }
+
+  /**
+   * Initializes a specific permutation from an integer in mixed radix form representing the chosen
+   * permutation. See the toLong() method which can be used to generate this value for a given
+   * permutation. The n! permutations of the integers from 0 to n-1 are mapped to the integers from
+   * 0..(n!-1). For n &le; 20, this constructor uses only primitive operations, and allocates
+   * nothing other than the permutation itself. For n &gt; 20, only the permutations whose values
+   * fit in a long can be initialized with this constructor.
+   *
+   * @param n The length of the permutation.
+   * @param value The integer value of the permutation in the interval: 0..(n!-1).
+   */
+  public Permutation(int n, long value) {
+    permutation = new int[n];
+    if (n <= Factoradic.MAX_LONG_LENGTH) {
+      Factoradic.fromLong(value, permutation, false);
+    } else {
+      Factoradic.fromDigits(Factoradic.digits(n, value, false), permutation);
     }
   }
 
@@ -109,32 +151,21 @@ public final class Permutation
    * Initializes a specific permutation from an integer in mixed radix form representing the chosen
    * permutation. See the toInteger() method which can be used to generate this value for a given
    * permutation. The n! permutations of the integers from 0 to n-1 are mapped to the integers from
-   * 0..(n!-1). Runtime of this constructor is O(n^2).
-   *
-   * <p>Even with the operations on BigInteger objects, the runtime is O(n^2). It performs O(n^2)
-   * operations on primitive values. It performs only O(n) divisions on BigInteger objects. It can
-   * be shown that the amortized cost of all of those divisions is bounded by the most costly
-   * division (each division involves progressively smaller numbers). The largest number involved in
-   * a division is the parameter value, which can be at most n!. The number n! consists of
-   * O(log((n-1)!)) = O(n log n) digits. Java's BigInteger division method currently implements the
-   * Burnikel-Ziegler algorithm, using the Toom–Cook multiplication algorithm. Dividing m-digit
-   * numbers with this combination has a runtime of O(m^1.465 log(m)). Substituting the number of
-   * digits for m, we have: O(n^1.465 log(n)^2.465). The cost of all of the divisions is thus less
-   * asymptotically than the cost of the primitive operations: O(n^2).
+   * 0..(n!-1).
+   *
+   * <p>The value is converted to its mixed radix digits by divide-and-conquer: it is divided by the
+   * product of the radices of the low half of the digits, and the quotient and remainder are
+   * converted recursively, switching to primitive long arithmetic once the numbers are small
+   * enough. The digits are then converted to the permutation in O(n lg n) time using a Fenwick
+   * tree. Thus, rather than O(n) divisions of numbers of O(n lg n) bits, each level of the
+   * recursion performs divisions totaling O(n lg n) bits, with O(lg n) levels.
    *
    * @param n The length of the permutation.
    * @param value The integer value of the permutation in the interval: 0..(n!-1).
    */
   public Permutation(int n, BigInteger value) {
-    permutation = ArrayFiller.create(n);
-    for (int i = 0; i < n - 1; i++) {
-      BigInteger[] divRem = value.divideAndRemainder(BigInteger.valueOf(n - i));
-      int j = i + divRem[1].intValue();
-      int temp = permutation[j];
-      System.arraycopy(permutation, i, permutation, i + 1, j - i);
-      permutation[i] = temp;
-      value = divRem[0];
-    }
+    permutation = new int[n];
+    Factoradic.fromDigits(Factoradic.digits(n, value, false), permutation);
   }
 
   /**
@@ -173,7 +204,26 @@ public final class Permutation
   public Permutation(Permutation p) {
     permutation = p.permutation.clone();
     hashCodeIsCached = p.hashCodeIsCached;
-    hashCode = p.hashCode;
+    hash = p.hash;
+    cycles = p.cycles;
+    if (p.inverse != null) {
+      inverse = p.inverse.clone();
+    }
+  }
+
+  /**
+   * Initializes a permutation of n integers to be identical to a given view of a permutation, such
+   * as a {@link CompactPermutation}.
+   *
+   * @param p the given view of a permutation.
+   * @throws IllegalArgumentException if p is not a valid permutation of the integers in the
+   *     interval [0, p.length()).
+   */
+  public Permutation(PermutationView p) {
+    permutation = p.toArray();
+    if (!CompactPermutation.isValidByConstruction(p)) {
+      validate(permutation);
+    }
   }
 
   /**
@@ -205,14 +255,258 @@ public final class Permutation
     }
   }
 
+  /**
+   * Generates a uniformly random cyclic permutation, i.e., a permutation consisting of a single
+   * cycle of length n, with Sattolo's algorithm in O(n) time. Uses {@link ThreadLocalRandom} as the
+   * source of randomness.
+   *
+   * @param n the length of the permutation
+   * @return a random permutation of length n with a single cycle
+   * @throws IllegalArgumentException if n is negative
+   */
+  public static Permutation randomCyclic(int n) {
+    return randomCyclic(n, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Generates a uniformly random cyclic permutation, i.e., a permutation consisting of a single
+   * cycle of length n, with Sattolo's algorithm in O(n) time. Each of the (n-1)! cyclic
+   * permutations of length n is equally likely.
+   *
+   * @param n the length of the permutation
+   * @param r a source of randomness
+   * @return a random permutation of length n with a single cycle
+   * @throws IllegalArgumentException if n is negative
+   */
+  public static Permutation randomCyclic(int n, RandomGenerator r) {
+    int[] p = identity(n);
+    // Sattolo's algorithm: Fisher-Yates, except that position i is never
+    // left in place, which closes every element into the same cycle.
+    for (int i = n - 1; i > 0; i--) {
+      int j = RandomIndexer.nextInt(i, r);
+      int temp = p[i];
+      p[i] = p[j];
+      p[j] = temp;
+    }
+    return new Permutation(p, false);
+  }
+
+  /**
+   * Generates a uniformly random derangement, i.e., a permutation with no fixed points, in O(n)
+   * expected time, without rejection sampling. Uses {@link ThreadLocalRandom} as the source of
+   * randomness.
+   *
+   * @param n the length of the permutation
+   * @return a random permutation of length n such that p.get(i) &ne; i for all i
+   * @throws IllegalArgumentException if n is negative or n is 1, since there is no derangement of
+   *     length 1
+   */
+  public static Permutation randomDerangement(int n) {
+    return randomDerangement(n, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Generates a uniformly random derangement, i.e., a permutation with no fixed points, in O(n)
+   * expected time, without rejection sampling. Each of the derangements of length n is equally
+   * likely.
+   *
+   * <p>The algorithm is that of: Conrado Mart&iacute;nez, Alois Panholzer, and Helmut Prodinger.
+   * 2008. Generating Random Derangements. In <i>Proceedings of the Fifth Workshop on Analytic
+   * Algorithmics and Combinatorics (ANALCO)</i>, pages 234-240. It builds the cycles of the
+   * derangement with swaps, as in Sattolo's algorithm, closing each cycle with the probability that
+   * closing it at that point leads to a uniform result. The expected number of random numbers it
+   * generates is at most 2n + O(log n).
+   *
+   * @param n the length of the permutation
+   * @param r a source of randomness
+   * @return a random permutation of length n such that p.get(i) &ne; i for all i
+   * @throws IllegalArgumentException if n is negative or n is 1, since there is no derangement of
+   *     length 1
+   */
+  public static Permutation randomDerangement(int n, RandomGenerator r) {
+    if (n == 1) {
+      throw new IllegalArgumentException("There is no derangement of length 1");
+    }
+    int[] p = identity(n);
+    // ratio[u] = D(u-1) / D(u), where D(u) is the number of derangements of
+    // length u, from the recurrence D(u) = (u-1)(D(u-1) + D(u-2)).
+    double[] ratio = new double[n + 1];
+    for (int u = 3; u <= n; u++) {
+      ratio[u] = 1.0 / ((u - 1) * (1.0 + ratio[u - 1]));
+    }
+    boolean[] marked = new boolean[n];
+    int unmarked = n;
+    for (int i = n - 1; unmarked >= 2; i--) {
+      if (!marked[i]) {
+        int j;
+        do {
+          j = RandomIndexer.nextInt(i, r);
+        } while (marked[j]);
+        int temp = p[i];
+        p[i] = p[j];
+        p[j] = temp;
+        // Closes the cycle containing j with probability
+        // (u-1) D(u-2) / D(u), where u is the number of unmarked elements.
+        double close = unmarked == 2 ? 1.0 : (unmarked - 1) * ratio[unmarked - 1] * ratio[unmarked];
+        if (r.nextDouble() < close) {
+          marked[j] = true;
+          unmarked--;
+        }
+        unmarked--;
+      }
+    }
+    return new Permutation(p, false);
+  }
+
+  /**
+   * Generates a uniformly random permutation with a specified cycle type, in O(n) time. Uses {@link
+   * ThreadLocalRandom} as the source of randomness.
+   *
+   * @param cycleType an array such that element k, for k &ge; 1, is the number of cycles of length
+   *     k, in the form computed by {@link CycleStructure#cycleType()}. Element 0 must be 0. The
+   *     length of the permutation is the sum of k * cycleType[k].
+   * @return a random permutation with the specified cycle type
+   * @throws IllegalArgumentException if any element of cycleType is negative, if cycleType[0] is
+   *     not 0, or if the length of the permutation would exceed Integer.MAX_VALUE
+   */
+  public static Permutation randomWithCycleType(int[] cycleType) {
+    return randomWithCycleType(cycleType, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Generates a uniformly random permutation with a specified cycle type, in O(n) time. The
+   * elements are shuffled into a random order, which is then cut into consecutive cycles of the
+   * specified lengths. Each permutation with the cycle type arises from the same number of orders,
+   * so each is equally likely.
+   *
+   * @param cycleType an array such that element k, for k &ge; 1, is the number of cycles of length
+   *     k, in the form computed by {@link CycleStructure#cycleType()}. Element 0 must be 0. The
+   *     length of the permutation is the sum of k * cycleType[k].
+   * @param r a source of randomness
+   * @return a random permutation with the specified cycle type
+   * @throws IllegalArgumentException if any element of cycleType is negative, if cycleType[0] is
+   *     not 0, or if the length of the permutation would exceed Integer.MAX_VALUE
+   */
+  public static Permutation randomWithCycleType(int[] cycleType, RandomGenerator r) {
+    long length = 0;
+    for (int k = 0; k < cycleType.length; k++) {
+      if (cycleType[k] < 0 || (k == 0 && cycleType[k] != 0)) {
+        throw new IllegalArgumentException("Invalid cycle type");
+      }
+      length += (long) k * cycleType[k];
+    }
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid cycle type");
+    }
+    int[] order = new Permutation((int) length, r).permutation;
+    int[] p = new int[order.length];
+    int start = 0;
+    for (int k = 1; k < cycleType.length; k++) {
+      for (int c = 0; c < cycleType[k]; c++) {
+        int last = start + k - 1;
+        for (int i = start; i < last; i++) {
+          p[order[i]] = order[i + 1];
+        }
+        p[order[last]] = order[start];
+        start += k;
+      }
+    }
+    return new Permutation(p, false);
+  }
+
+  /**
+   * Generates a population of random permutations in parallel, using the threads of the common
+   * {@link ForkJoinPool}. The population is divided into fixed size chunks, and each chunk is
+   * generated with its own generator, split from seed in chunk order. The population generated is
+   * therefore a function only of the state of seed, count, and n, and is identical regardless of
+   * the number of threads that generate it. Each permutation is distributed as one constructed with
+   * {@link #Permutation(int,RandomGenerator)}.
+   *
+   * @param count the number of permutations to generate
+   * @param n the length of each of the permutations
+   * @param seed the generator from which the generators of the chunks are split, which is advanced
+   *     by the splitting, so that a second call with the same seed generates a different population
+   * @return an array of count random permutations, each of length n
+   * @throws IllegalArgumentException if count or n is negative
+   */
+  public static Permutation[] randomPopulation(int count, int n, SplittableGenerator seed) {
+    return randomPopulation(count, n, seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Generates a population of random permutations in parallel, using the threads of a specified
+   * {@link ForkJoinPool}. The population generated is the same as that of {@link
+   * #randomPopulation(int,int,SplittableGenerator)} for a seed in the same state, regardless of the
+   * parallelism of the pool.
+   *
+   * @param count the number of permutations to generate
+   * @param n the length of each of the permutations
+   * @param seed the generator from which the generators of the chunks are split, which is advanced
+   *     by the splitting
+   * @param pool the pool of threads
+   * @return an array of count random permutations, each of length n
+   * @throws IllegalArgumentException if count or n is negative
+   */
+  public static Permutation[] randomPopulation(
+      int count, int n, SplittableGenerator seed, ForkJoinPool pool) {
+    RandomPopulation.checkSize(count, n);
+    Permutation[] population = new Permutation[count];
+    RandomPopulation.fill(
+        count,
+        seed,
+        pool,
+        (from, to, r) -> {
+          for (int k = from; k < to; k++) {
+            population[k] = new Permutation(n, r);
+          }
+        });
+    return population;
+  }
+
+  /**
+   * Creates a sequential stream of all n! permutations of length n, in lexicographic order, each of
+   * which is a new Permutation object. The stream can be made parallel with its parallel() method,
+   * in which case the permutations are enumerated by all of the threads, each over its own interval
+   * of lexicographic ranks. See {@link PermutationSpliterator}.
+   *
+   * @param n the length of the permutations
+   * @return a stream of all permutations of length n
+   * @throws IllegalArgumentException if n is negative
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public static Stream<Permutation> stream(int n) {
+    return stream(n, false);
+  }
+
+  /**
+   * Creates a sequential stream of all n! permutations of length n, in lexicographic order,
+   * optionally in place. In place, the stream supplies the same Permutation object, changed in
+   * place to each permutation in turn, for all permutations of an interval of lexicographic ranks,
+   * and so only allocates an object when the stream splits. The operations of an in place stream
+   * must neither modify nor retain the permutations, such as operations that compute a value from
+   * each permutation, and must copy any permutation they need to keep. See {@link
+   * PermutationSpliterator}.
+   *
+   * @param n the length of the permutations
+   * @param inPlace true for an in place stream, and false for a stream of new Permutation objects
+   * @return a stream of all permutations of length n
+   * @throws IllegalArgumentException if n is negative
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public static Stream<Permutation> stream(int n, boolean inPlace) {
+    return StreamSupport.stream(new PermutationSpliterator(n, inPlace), false);
+  }
+
   /**
    * Applies a custom unary operator on a Permutation object.
    *
    * @param operator A unary Permutation operator
    */
   public void apply(PermutationUnaryOperator operator) {
+    beforeFullChange();
     operator.apply(permutation);
     hashCodeIsCached = false;
+    rebuildInverse();
   }
 
   /**
@@ -221,8 +515,10 @@ public final class Permutation
    * @param operator A unary Permutation operator
    */
   public void apply(PermutationFullUnaryOperator operator) {
+    beforeFullChange();
     operator.apply(permutation, this);
     hashCodeIsCached = false;
+    rebuildInverse();
   }
 
   /**
@@ -234,9 +530,13 @@ public final class Permutation
    * @param other The other Permutation
    */
   public void apply(PermutationBinaryOperator operator, Permutation other) {
+    beforeFullChange();
+    other.beforeFullChange();
     operator.apply(permutation, other.permutation);
     hashCodeIsCached = false;
     other.hashCodeIsCached = false;
+    rebuildInverse();
+    other.rebuildInverse();
   }
 
   /**
@@ -248,9 +548,13 @@ public final class Permutation
    * @param other The other Permutation
    */
   public void apply(PermutationFullBinaryOperator operator, Permutation other) {
+    beforeFullChange();
+    other.beforeFullChange();
     operator.apply(permutation, other.permutation, this, other);
     hashCodeIsCached = false;
     other.hashCodeIsCached = false;
+    rebuildInverse();
+    other.rebuildInverse();
   }
 
   /**
@@ -262,10 +566,12 @@ public final class Permutation
    *     which case all subsequent method calls upon that Permutation may be unpredictable
    */
   public void applyThenValidate(PermutationUnaryOperator operator) {
+    beforeFullChange();
     try {
       operator.apply(permutation);
       hashCodeIsCached = false;
       validate(permutation);
+      rebuildInverse();
     } catch (IllegalArgumentException exception) {
       throw new IllegalPermutationStateException(
           "Internal state of the Permutation is illegal.", exception);
@@ -281,10 +587,12 @@ public final class Permutation
    *     which case all subsequent method calls upon that Permutation may be unpredictable
    */
   public void applyThenValidate(PermutationFullUnaryOperator operator) {
+    beforeFullChange();
     try {
       operator.apply(permutation, this);
       hashCodeIsCached = false;
       validate(permutation);
+      rebuildInverse();
     } catch (IllegalArgumentException exception) {
       throw new IllegalPermutationStateException(
           "Internal state of the Permutation is illegal.", exception);
@@ -303,12 +611,16 @@ public final class Permutation
    *     illegal state may be either or both of the Permutation objects
    */
   public void applyThenValidate(PermutationBinaryOperator operator, Permutation other) {
+    beforeFullChange();
+    other.beforeFullChange();
     try {
       operator.apply(permutation, other.permutation);
       hashCodeIsCached = false;
       other.hashCodeIsCached = false;
       validate(permutation);
       validate(other.permutation);
+      rebuildInverse();
+      other.rebuildInverse();
     } catch (IllegalArgumentException exception) {
       throw new IllegalPermutationStateException(
           "Internal state of the Permutation is illegal.", exception);
@@ -328,12 +640,16 @@ public final class Permutation
    *     illegal state may be either or both of the Permutation objects
    */
   public void applyThenValidate(PermutationFullBinaryOperator operator, Permutation other) {
+    beforeFullChange();
+    other.beforeFullChange();
     try {
       operator.apply(permutation, other.permutation, this, other);
       hashCodeIsCached = false;
       other.hashCodeIsCached = false;
       validate(permutation);
       validate(other.permutation);
+      rebuildInverse();
+      other.rebuildInverse();
     } catch (IllegalArgumentException exception) {
       throw new IllegalPermutationStateException(
           "Internal state of the Permutation is illegal.", exception);
@@ -353,73 +669,148 @@ public final class Permutation
   /**
    * Generates a unique integer representing the permutation. Maps the permutations of the integers,
    * 0..(N-1), to the integers, 0..(N!-1), using a mixed radix representation. This method is only
-   * supported for permutations of length 12 or less. Runtime of this method is O(N^2).
+   * supported for permutations of length 12 or less. Runtime of this method is O(N).
    *
    * @return a mixed radix representation of the permutation
    * @throws UnsupportedOperationException when permutation length is greater than 12.
    */
   public int toInteger() {
-    if (permutation.length > 12)
+    if (permutation.length > Factoradic.MAX_INT_LENGTH)
       throw new UnsupportedOperationException(
           "Unsupported for permutations of length greater than 12.");
-    int[] index = ArrayFiller.create(permutation.length);
-    int result = 0;
-    int multiplier = 1;
-    int factor = permutation.length;
-    for (int i = 0; i < index.length - 1; i++) {
-      result += multiplier * index[permutation[i]];
-      for (int j = permutation[i]; j < index.length; j++) {
-        index[j]--;
-      }
-      multiplier *= factor;
-      factor--;
-    }
-    return result;
+    return (int) Factoradic.toLong(this, false);
+  }
+
+  /**
+   * Generates a unique integer representing the permutation. Maps the permutations of the integers,
+   * 0..(N-1), to the integers, 0..(N!-1), using the same mixed radix representation as {@link
+   * #toInteger()} and {@link #toBigInteger()}. This method is only supported for permutations of
+   * length 20 or less, since 20! is the largest factorial that fits in a long. It runs in O(N) time
+   * and allocates no memory, so its result is suitable for use as a primitive key in hash tables
+   * and lookup tables of permutations of moderate length.
+   *
+   * @return a mixed radix representation of the permutation
+   * @throws UnsupportedOperationException when permutation length is greater than 20.
+   */
+  public long toLong() {
+    if (permutation.length > Factoradic.MAX_LONG_LENGTH)
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    return Factoradic.toLong(this, false);
   }
 
   /**
    * Generates a unique integer representing the permutation. Maps the permutations of the integers,
    * 0..(N-1), to the integers, 0..(N!-1), using a mixed radix representation.
    *
-   * <p>Even with the use of BigInteger objects, the runtime of this method is O(N^2). Specifically,
-   * it performs O(N^2) operations on primitives. And the sequence of operations on BigIntegers
-   * costs no more than the cost to compute N! using BigInteger objects, whose runtime bounded by
-   * that of the last multiplication of N * (N-1)! The number (N-1)! consists of O(log((N-1)!)) =
-   * O(N log N) digits. Java's BigInteger.multiply currently implements the Toom–Cook algorithm,
-   * which has a runtime for M-digit numbers of O(M^1.465). Thus, the cost of all of the BigInteger
-   * operations is O(N^1.465 log(N)^1.465). Therefore, the runtime is dominated by the cost of the
-   * primitive operations: O(N^2).
+   * <p>The mixed radix digits are computed in O(N lg N) time using a Fenwick tree. They are then
+   * combined by divide-and-conquer: the values of the low and high halves of the digits are
+   * computed recursively, and combined with a single multiplication and addition, so that each
+   * multiplication is of numbers of similar size, rather than a sequence of O(N) multiplications of
+   * a growing number by a small one.
    *
    * @return a mixed radix representation of the permutation
    */
   public BigInteger toBigInteger() {
-    if (permutation.length <= 12) return BigInteger.valueOf(toInteger());
-    int[] index = ArrayFiller.create(permutation.length);
-    BigInteger result = BigInteger.ZERO;
-    BigInteger multiplier = BigInteger.ONE;
-    int factor = permutation.length;
-    for (int i = 0; i < index.length - 1; i++) {
-      result = result.add(multiplier.multiply(BigInteger.valueOf(index[permutation[i]])));
-      for (int j = permutation[i]; j < index.length; j++) {
-        index[j]--;
-      }
-      multiplier = multiplier.multiply(BigInteger.valueOf(factor));
-      factor--;
-    }
-    return result;
+    if (permutation.length <= Factoradic.MAX_LONG_LENGTH) return BigInteger.valueOf(toLong());
+    return Factoradic.toBigInteger(Factoradic.digits(this), false);
   }
 
   /**
-   * Computes the inverse of the permutation.
+   * Computes the inverse of the permutation. If inverse tracking is enabled (see {@link
+   * #setInverseTracking}), this method copies the maintained inverse rather than computing it.
    *
    * @return The inverse of the permutation, such that for all i, if pi(i) = j, then inv(j) = i
    */
+  @Override
   public int[] getInverse() {
-    int[] inverse = new int[permutation.length];
+    if (inverse != null) {
+      return inverse.clone();
+    }
+    int[] inv = new int[permutation.length];
     for (int i = 0; i < permutation.length; i++) {
-      inverse[permutation[i]] = i;
+      inv[permutation[i]] = i;
     }
-    return inverse;
+    return inv;
+  }
+
+  /**
+   * Computes the inverse of the permutation. If inverse tracking is enabled (see {@link
+   * #setInverseTracking}), this method copies the maintained inverse rather than computing it.
+   *
+   * @param array An array to hold the result. If array is null or if array.length is not equal to
+   *     the length of the permutation, then this method will construct a new array for the result.
+   * @return The inverse of the permutation, such that for all i, if pi(i) = j, then inv(j) = i
+   */
+  @Override
+  public int[] getInverse(int[] array) {
+    if (array == null || array.length != permutation.length) {
+      return getInverse();
+    }
+    if (inverse != null) {
+      System.arraycopy(inverse, 0, array, 0, array.length);
+    } else {
+      for (int i = 0; i < permutation.length; i++) {
+        array[permutation[i]] = i;
+      }
+    }
+    return array;
+  }
+
+  /**
+   * Finds the position of an element in the permutation. The runtime is O(1) if inverse tracking is
+   * enabled (see {@link #setInverseTracking}), and otherwise O(n).
+   *
+   * @param element the element to find (precondition: 0 &le; element &lt; length())
+   * @return the index i such that get(i) == element
+   * @throws ArrayIndexOutOfBoundsException if element is negative, or if element is greater than or
+   *     equal to length()
+   */
+  public int indexOf(int element) {
+    if (inverse != null) {
+      return inverse[element];
+    }
+    if (element < 0 || element >= permutation.length) {
+      throw new ArrayIndexOutOfBoundsException(element);
+    }
+    int i = 0;
+    while (permutation[i] != element) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Enables or disables inverse tracking. When inverse tracking is enabled, the Permutation
+   * maintains its inverse, updating it incrementally as the Permutation is changed, at a cost
+   * proportional to the number of positions changed. This makes {@link #indexOf} O(1), and makes
+   * {@link #getInverse()} and {@link #getInverse(int[])} a copy of the maintained inverse, which
+   * benefits applications such as local search that frequently compute distances involving a
+   * Permutation that changes by small moves. Inverse tracking is disabled by default, and copies of
+   * a Permutation (including those produced by its iterator) have the same setting as the original.
+   *
+   * <p>Methods that give custom operators access to the raw permutation array, such as {@link
+   * #apply(PermutationUnaryOperator)}, recompute the inverse in O(n) time after the operator is
+   * applied.
+   *
+   * @param enabled true to enable inverse tracking and false to disable it
+   */
+  public void setInverseTracking(boolean enabled) {
+    if (!enabled) {
+      inverse = null;
+    } else if (inverse == null) {
+      inverse = new int[permutation.length];
+      updateInverse(0, permutation.length - 1);
+    }
+  }
+
+  /**
+   * Checks whether inverse tracking is enabled (see {@link #setInverseTracking}).
+   *
+   * @return true if inverse tracking is enabled
+   */
+  public boolean isInverseTracking() {
+    return inverse != null;
   }
 
   /**
@@ -439,10 +830,90 @@ public final class Permutation
    * iff p2.get(j) == i, for all i, j.
    */
   public void invert() {
-    System.arraycopy(getInverse(), 0, permutation, 0, permutation.length);
+    beforeFullChange();
+    if (inverse != null) {
+      int[] temp = permutation.clone();
+      System.arraycopy(inverse, 0, permutation, 0, permutation.length);
+      System.arraycopy(temp, 0, inverse, 0, inverse.length);
+    } else {
+      System.arraycopy(getInverse(), 0, permutation, 0, permutation.length);
+    }
     hashCodeIsCached = false;
   }
 
+  /**
+   * Computes the composition of this permutation with another, i.e., the permutation r such that
+   * r.get(i) == this.get(other.get(i)) for all i.
+   *
+   * @param other the permutation that is applied first
+   * @return the composition of this permutation with other
+   * @throws IllegalArgumentException if other.length() is not equal to length()
+   */
+  public Permutation compose(PermutationView other) {
+    return new Permutation(compose(other, null), false);
+  }
+
+  /**
+   * Computes the composition of this permutation with another, i.e., the permutation r such that
+   * r[i] == this.get(other.get(i)) for all i.
+   *
+   * @param other the permutation that is applied first
+   * @param result An array to hold the result. If result is null or if result.length is not equal
+   *     to the length of the permutation, then this method will construct a new array for the
+   *     result.
+   * @return an array containing the elements of the composition of this permutation with other
+   * @throws IllegalArgumentException if other.length() is not equal to length()
+   */
+  public int[] compose(PermutationView other, int[] result) {
+    if (other.length() != permutation.length) {
+      throw new IllegalArgumentException("Permutations must be the same length");
+    }
+    if (result == null || result.length != permutation.length) {
+      result = new int[permutation.length];
+    }
+    for (int i = 0; i < result.length; i++) {
+      result[i] = permutation[other.get(i)];
+    }
+    return result;
+  }
+
+  /**
+   * Computes the cycle decomposition of this permutation. The decomposition is cached, and the
+   * cached decomposition is returned by subsequent calls, until the permutation is changed.
+   *
+   * @return the cycle decomposition of this permutation
+   */
+  public CycleStructure cycles() {
+    if (cycles == null) {
+      cycles = CycleStructure.of(this);
+    }
+    return cycles;
+  }
+
+  /**
+   * Computes a power of this permutation, i.e., the permutation r such that r.get(i) is the image
+   * of i under k applications of this permutation. The runtime is O(n) regardless of k, using the
+   * cycle decomposition (see {@link #cycles()}) rather than repeated composition. Negative values
+   * of k are powers of the inverse.
+   *
+   * @param k the exponent
+   * @return the k-th power of this permutation
+   */
+  public Permutation power(long k) {
+    return new Permutation(cycles().power(k, null), false);
+  }
+
+  /**
+   * Computes the order of this permutation, i.e., the least positive integer k such that the k-th
+   * power of this permutation is the identity, using the cycle decomposition (see {@link
+   * #cycles()}).
+   *
+   * @return the order of this permutation
+   */
+  public BigInteger order() {
+    return cycles().order();
+  }
+
   /**
    * Randomly shuffles the permutation. Uses {@link ThreadLocalRandom} as the source of efficient
    * random number generation.
@@ -451,6 +922,36 @@ public final class Permutation
     scramble(ThreadLocalRandom.current());
   }
 
+  /**
+   * Randomly shuffles the permutation in parallel, using the threads of the common {@link
+   * ForkJoinPool}. This is intended for very long permutations, for which the sequential shuffle of
+   * {@link #scramble(RandomGenerator)} is limited by the latency of its random memory accesses. See
+   * {@link SequenceShuffler} for the algorithm. The result is the same regardless of the number of
+   * threads.
+   *
+   * @param r a source of randomness, which is advanced by the shuffle
+   */
+  public void parallelScramble(SplittableGenerator r) {
+    parallelScramble(r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles the permutation in parallel, using the threads of a specified {@link
+   * ForkJoinPool}. See {@link SequenceShuffler} for the algorithm. The result is the same
+   * regardless of the parallelism of the pool.
+   *
+   * @param r a source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public void parallelScramble(SplittableGenerator r, ForkJoinPool pool) {
+    if (permutation.length > 0) {
+      beforeFullChange();
+      SequenceShuffler.shuffle(permutation, r, pool);
+      rebuildInverse();
+      hashCodeIsCached = false;
+    }
+  }
+
   /**
    * Randomly shuffles the permutation.
    *
@@ -458,6 +959,7 @@ public final class Permutation
    */
   public void scramble(RandomGenerator r) {
     if (permutation.length > 0) {
+      beforeFullChange();
       // Since we're scrambling entire permutation, just generate a new
       // permutation of integers in [0, n).
       // Avoid swapping using trick described in Knuth, Vol 2, page 145,
@@ -472,6 +974,7 @@ public final class Permutation
           permutation[j] = i;
         }
       }
+      updateInverse(0, permutation.length - 1);
       hashCodeIsCached = false;
     }
   }
@@ -496,6 +999,8 @@ public final class Permutation
    */
   public void scramble(RandomGenerator r, boolean guaranteeDifferent) {
     if (guaranteeDifferent) {
+      // invalidate first, rather than updating the hash for each of the O(n) swaps
+      hashCodeIsCached = false;
       boolean changed = false;
       for (int j = permutation.length; j > 2; ) {
         int i = RandomIndexer.nextInt(j, r);
@@ -508,7 +1013,6 @@ public final class Permutation
       if (permutation.length > 1 && (!changed || r.nextBoolean())) {
         internalSwap(0, 1);
       }
-      hashCodeIsCached = false;
     } else {
       scramble(r);
     }
@@ -560,7 +1064,6 @@ public final class Permutation
     if (!changed || r.nextBoolean()) {
       internalSwap(i, i + 1);
     }
-    hashCodeIsCached = false;
   }
 
   /**
@@ -588,7 +1091,6 @@ public final class Permutation
       if (!changed || r.nextBoolean()) {
         internalSwap(indexes[0], indexes[1]);
       }
-      hashCodeIsCached = false;
     }
   }
 
@@ -614,6 +1116,7 @@ public final class Permutation
    * @throws ArrayIndexOutOfBoundsException if i is negative, or if i is greater than or equal to
    *     length()
    */
+  @Override
   public int get(int i) {
     return permutation[i];
   }
@@ -661,6 +1164,7 @@ public final class Permutation
    * @return an int array containing the Permutation elements in the same order that they appear in
    *     the Permutation.
    */
+  @Override
   public int[] toArray() {
     return permutation.clone();
   }
@@ -675,6 +1179,7 @@ public final class Permutation
    * @return an int array containing the Permutation elements in the same order that they appear in
    *     the Permutation.
    */
+  @Override
   public int[] toArray(int[] array) {
     if (array == null || array.length != permutation.length) {
       return permutation.clone();
@@ -689,6 +1194,7 @@ public final class Permutation
    *
    * @return length of the permutation
    */
+  @Override
   public int length() {
     return permutation.length;
   }
@@ -702,10 +1208,7 @@ public final class Permutation
    *     greater than or equal to length()
    */
   public void swap(int i, int j) {
-    int temp = permutation[i];
-    permutation[i] = permutation[j];
-    permutation[j] = temp;
-    hashCodeIsCached = false;
+    internalSwap(i, j);
   }
 
   /**
@@ -722,11 +1225,22 @@ public final class Permutation
    */
   public void cycle(int[] indexes) {
     if (indexes.length > 1) {
+      if (recording()) {
+        for (int i : indexes) {
+          journal.recordPosition(permutation, i);
+        }
+      }
+      cycles = null;
       int temp = permutation[indexes[0]];
       for (int i = 1; i < indexes.length; i++) {
         permutation[indexes[i - 1]] = permutation[indexes[i]];
       }
       permutation[indexes[indexes.length - 1]] = temp;
+      if (inverse != null) {
+        for (int i : indexes) {
+          inverse[permutation[i]] = i;
+        }
+      }
       hashCodeIsCached = false;
     }
   }
@@ -751,6 +1265,7 @@ public final class Permutation
       // blocks are adjacent
       removeAndInsert(i, j - i + 1, a);
     } else {
+      beforeRangeChange(a, j);
       int[] temp = new int[j - b];
       int k = j - i + 1;
       System.arraycopy(permutation, i, temp, 0, k);
@@ -758,14 +1273,13 @@ public final class Permutation
       System.arraycopy(permutation, b + 1, temp, k, m);
       System.arraycopy(permutation, a, permutation, a + temp.length, b - a + 1);
       System.arraycopy(temp, 0, permutation, a, temp.length);
-      hashCodeIsCached = false;
+      afterRangeChange(a, j);
     }
   }
 
   /** Reverses the order of the elements in the permutation. */
   public void reverse() {
     internalReverse(0, permutation.length - 1);
-    hashCodeIsCached = false;
   }
 
   /**
@@ -782,7 +1296,6 @@ public final class Permutation
     } else {
       internalReverse(i, j);
     }
-    hashCodeIsCached = false;
   }
 
   /**
@@ -796,15 +1309,17 @@ public final class Permutation
    */
   public void removeAndInsert(int i, int j) {
     if (i < j) {
+      beforeRangeChange(i, j);
       int n = permutation[i];
       System.arraycopy(permutation, i + 1, permutation, i, j - i);
       permutation[j] = n;
-      hashCodeIsCached = false;
+      afterRangeChange(i, j);
     } else if (i > j) {
+      beforeRangeChange(j, i);
       int n = permutation[i];
       System.arraycopy(permutation, j, permutation, j + 1, i - j);
       permutation[j] = n;
-      hashCodeIsCached = false;
+      afterRangeChange(j, i);
     }
   }
 
@@ -818,11 +1333,13 @@ public final class Permutation
       numPositions = Math.floorMod(numPositions, permutation.length);
     }
     if (numPositions > 0) {
+      beforeFullChange();
       int[] temp = new int[numPositions];
       System.arraycopy(permutation, 0, temp, 0, numPositions);
       System.arraycopy(
           permutation, numPositions, permutation, 0, permutation.length - numPositions);
       System.arraycopy(temp, 0, permutation, permutation.length - numPositions, numPositions);
+      updateInverse(0, permutation.length - 1);
       hashCodeIsCached = false;
     }
   }
@@ -845,17 +1362,19 @@ public final class Permutation
     } else if (size == 1) {
       removeAndInsert(i, j);
     } else if (i > j) {
+      beforeRangeChange(j, i + size - 1);
       int[] temp = new int[i - j];
       System.arraycopy(permutation, j, temp, 0, i - j);
       System.arraycopy(permutation, i, permutation, j, size);
       System.arraycopy(temp, 0, permutation, j + size, i - j);
-      hashCodeIsCached = false;
+      afterRangeChange(j, i + size - 1);
     } else { // Condition is implied by above: if (i < j)
+      beforeRangeChange(i, j + size - 1);
       int[] temp = new int[size];
       System.arraycopy(permutation, i, temp, 0, size);
       System.arraycopy(permutation, i + size, permutation, i, j - i);
       System.arraycopy(temp, 0, permutation, j, size);
-      hashCodeIsCached = false;
+      afterRangeChange(i, j + size - 1);
     }
   }
 
@@ -872,7 +1391,9 @@ public final class Permutation
       throw new IllegalArgumentException("Length of array must be same as that of permutation.");
     }
     validate(p);
+    beforeFullChange();
     System.arraycopy(p, 0, permutation, 0, p.length);
+    updateInverse(0, permutation.length - 1);
     hashCodeIsCached = false;
   }
 
@@ -922,6 +1443,7 @@ public final class Permutation
     if (!(other instanceof Permutation)) return false;
     Permutation o = (Permutation) other;
     if (permutation.length != o.permutation.length) return false;
+    if (hashCodeIsCached && o.hashCodeIsCached && hash != o.hash) return false;
     for (int i = 0; i < permutation.length; i++) {
       if (permutation[i] != o.permutation[i]) return false;
     }
@@ -929,17 +1451,128 @@ public final class Permutation
   }
 
   /**
-   * Uses Java's Arrays class's method for generating a hashCode from an array of ints.
+   * Computes a hashCode for the permutation, by folding the 64-bit hash computed by {@link
+   * #longHashCode()} to 32 bits. It is cached, and maintained incrementally while cached, as
+   * described in the documentation of {@link #longHashCode()}.
    *
    * @return a hashCode for the permutation
    */
   @Override
   public int hashCode() {
-    if (hashCodeIsCached) {
-      return hashCode;
+    long h = longHashCode();
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Computes a 64-bit hash of the permutation, which is consistent with {@link #equals}. The hash
+   * is position-sensitive: it is the exclusive-or, over all positions i, of a 64-bit hash of the
+   * pair (i, get(i)). The hash is computed in O(n) time the first time it is requested, and is then
+   * cached. While it is cached, the methods that change only some of the positions update it
+   * incrementally rather than invalidating it: in O(1) time for {@link #swap}, and in time
+   * proportional to the number of positions changed for {@link #reverse(int,int)}, {@link
+   * #removeAndInsert(int,int)}, {@link #removeAndInsert(int,int,int)}, {@link #swapBlocks}, {@link
+   * #scramble(int,int)}, and {@link #scramble(int[])}. This makes the hash well suited to
+   * applications, such as tabu search, that check a set of visited permutations after every local
+   * move. The remaining methods that change the permutation invalidate the cached hash.
+   *
+   * <p>The hash is the same as that of {@link CompactPermutation#longHashCode()} for a
+   * CompactPermutation with the same elements, as is the result of {@link #hashCode()}.
+   *
+   * @return a 64-bit hash of the permutation
+   */
+  public long longHashCode() {
+    if (!hashCodeIsCached) {
+      hash = rangeHash(0, permutation.length - 1);
+      hashCodeIsCached = true;
+    }
+    return hash;
+  }
+
+  /**
+   * Sets a mark at the current state of the permutation, to which the permutation can later be
+   * restored with {@link #rollback()}. While a mark is set, the methods that change the permutation
+   * record the elements that they change in an undo journal, so that trying a change and then
+   * rolling it back costs time proportional to the number of positions changed, rather than the
+   * O(n) time and allocation of trying the change on a {@link #copy()}. Specifically, {@link #swap}
+   * records 2 positions, and {@link #reverse(int,int)}, {@link #removeAndInsert(int,int)}, {@link
+   * #removeAndInsert(int,int,int)}, {@link #swapBlocks}, {@link #cycle}, {@link
+   * #scramble(int,int)}, and {@link #scramble(int[])} record only the positions that they change.
+   * The remaining methods that change the permutation, such as {@link #rotate} and {@link
+   * #scramble()}, record all n positions. The cached hash (see {@link #longHashCode()}) is restored
+   * upon rollback, and if inverse tracking is enabled, the inverse is updated for only the
+   * positions restored. The journal is reused across marks, so in steady state, trying changes
+   * allocates no memory.
+   *
+   * <p>If a mark is already set, calling this method moves the mark to the current state. The mark
+   * remains set until {@link #commit()} is called, and is not copied by {@link #copy()} or the copy
+   * constructor.
+   */
+  public void mark() {
+    if (journal == null) {
+      journal = new Journal();
+    }
+    journal.size = 0;
+    journal.marked = true;
+    journal.markedHash = hash;
+    journal.markedHashIsCached = hashCodeIsCached;
+  }
+
+  /**
+   * Restores the permutation to its state at the time of the most recent call to {@link #mark()},
+   * undoing all changes made since then, in time proportional to the number of positions recorded
+   * in the journal. The mark remains set, so that a sequence of changes can each be tried and
+   * rolled back in turn.
+   *
+   * @throws IllegalStateException if no mark is set
+   */
+  public void rollback() {
+    if (!recording()) {
+      throw new IllegalStateException("No mark is set.");
+    }
+    int[] entries = journal.entries;
+    int size = journal.size;
+    if (size > 0) {
+      cycles = null;
+    }
+    while (size > 0) {
+      int last = entries[--size];
+      if (last < 0) {
+        int i = -last - 1;
+        permutation[i] = entries[--size];
+        if (inverse != null) {
+          inverse[permutation[i]] = i;
+        }
+      } else {
+        int from = entries[--size];
+        size -= last;
+        System.arraycopy(entries, size, permutation, from, last);
+        updateInverse(from, from + last - 1);
+      }
+    }
+    journal.size = 0;
+    hash = journal.markedHash;
+    hashCodeIsCached = journal.markedHashIsCached;
+  }
+
+  /**
+   * Accepts all changes made since the most recent call to {@link #mark()}, and removes the mark,
+   * after which the methods that change the permutation no longer record their changes. Calling
+   * this method when no mark is set does nothing.
+   */
+  public void commit() {
+    if (journal != null) {
+      journal.marked = false;
+      journal.size = 0;
     }
-    hashCodeIsCached = true;
-    return hashCode = Arrays.hashCode(permutation);
+  }
+
+  /**
+   * Checks whether a mark is set (see {@link #mark()}).
+   *
+   * @return true if a mark is set
+   */
+  public boolean isMarked() {
+    return recording();
   }
 
   private boolean validate(int[] p) {
@@ -964,13 +1597,206 @@ public final class Permutation
   }
 
   /*
-   * Use internally, such as from reverse, etc to avoid
-   * repeatedly invalidating hashCode cache (as well as from
-   * the PermutationIterator).
+   * Use internally, such as from reverse, etc (as well as from
+   * the PermutationIterator). Updates the cached hash in O(1) time,
+   * rather than invalidating it, and updates the inverse if tracked.
    */
   final void internalSwap(int i, int j) {
+    if (recording()) {
+      journal.recordPosition(permutation, i);
+      journal.recordPosition(permutation, j);
+    }
+    cycles = null;
     int temp = permutation[i];
     permutation[i] = permutation[j];
     permutation[j] = temp;
+    if (inverse != null) {
+      inverse[permutation[i]] = i;
+      inverse[temp] = j;
+    }
+    if (hashCodeIsCached) {
+      hash ^=
+          positionHash(i, temp)
+              ^ positionHash(j, permutation[i])
+              ^ positionHash(i, permutation[i])
+              ^ positionHash(j, temp);
+    }
+  }
+
+  /*
+   * Called before changing the elements in positions from through to,
+   * inclusive, to remove them from the hash if it is cached, and to record
+   * them in the journal if a mark is set.
+   */
+  private void beforeRangeChange(int from, int to) {
+    if (recording()) {
+      journal.recordRange(permutation, from, to);
+    }
+    cycles = null;
+    if (hashCodeIsCached) {
+      hash ^= rangeHash(from, to);
+    }
+  }
+
+  /*
+   * Called after changing the elements in positions from through to,
+   * inclusive, to add them to the hash if it is cached, and to update
+   * the inverse if inverse tracking is enabled.
+   */
+  private void afterRangeChange(int from, int to) {
+    if (hashCodeIsCached) {
+      hash ^= rangeHash(from, to);
+    }
+    updateInverse(from, to);
+  }
+
+  /*
+   * Called before changing all of the elements, to record them in the
+   * journal if a mark is set. The caller must invalidate the hash.
+   */
+  private void beforeFullChange() {
+    if (recording()) {
+      journal.recordRange(permutation, 0, permutation.length - 1);
+    }
+    cycles = null;
+  }
+
+  /*
+   * Checks whether a mark is set, and so whether changes must be recorded
+   * in the journal.
+   */
+  private boolean recording() {
+    return journal != null && journal.marked;
+  }
+
+  /*
+   * The undo journal of the changes made since the most recent call to
+   * mark(), which is used only while a mark is set. Each change is recorded,
+   * before it is made, as either a single position, as the pair (old
+   * element, -position - 1), or as a range of positions, as the old elements
+   * of the range followed by the pair (first position, number of positions).
+   * It also holds the cached hash, and whether it was cached, at the time of
+   * the most recent call to mark(). It is kept after a commit, so that its
+   * entries array is reused by later marks.
+   */
+  private static final class Journal {
+    private int[] entries = new int[16];
+    private int size;
+    private boolean marked;
+    private long markedHash;
+    private boolean markedHashIsCached;
+
+    /*
+     * Records the element in position i.
+     */
+    private void recordPosition(int[] permutation, int i) {
+      ensureCapacity(2);
+      entries[size++] = permutation[i];
+      entries[size++] = -i - 1;
+    }
+
+    /*
+     * Records the elements in positions from through to, inclusive.
+     */
+    private void recordRange(int[] permutation, int from, int to) {
+      int count = to - from + 1;
+      if (count > 0) {
+        ensureCapacity(count + 2);
+        System.arraycopy(permutation, from, entries, size, count);
+        size += count;
+        entries[size++] = from;
+        entries[size++] = count;
+      }
+    }
+
+    private void ensureCapacity(int additional) {
+      if (size + additional > entries.length) {
+        entries = Arrays.copyOf(entries, Math.max(2 * entries.length, size + additional));
+      }
+    }
+  }
+
+  private long rangeHash(int from, int to) {
+    long h = 0;
+    for (int k = from; k <= to; k++) {
+      h ^= positionHash(k, permutation[k]);
+    }
+    return h;
+  }
+
+  /*
+   * A 64-bit hash of an element at a position. This is the finalizer of
+   * the SplitMix64 generator applied to the position and element packed
+   * into a long, which is a bijection, so distinct (position, element)
+   * pairs have distinct hashes. CompactPermutation hashes with it too, so
+   * that both classes hash the same permutation alike.
+   */
+  static long positionHash(int i, int element) {
+    long z = (((long) i) << 32 | element) * 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /*
+   * Creates the array of the identity permutation of length n, for the
+   * generators of structured random permutations.
+   */
+  private static int[] identity(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must be non-negative");
+    }
+    int[] p = new int[n];
+    for (int i = 0; i < n; i++) {
+      p[i] = i;
+    }
+    return p;
+  }
+
+  /*
+   * Recomputes the inverse, if inverse tracking is enabled, for the
+   * elements in positions from through to, inclusive.
+   */
+  private void updateInverse(int from, int to) {
+    if (inverse != null) {
+      for (int k = from; k <= to; k++) {
+        inverse[permutation[k]] = k;
+      }
+    }
+  }
+
+  /*
+   * Recomputes the entire inverse, if inverse tracking is enabled, such as
+   * after a custom operator has changed the raw permutation array.
+   */
+  private void rebuildInverse() {
+    updateInverse(0, permutation.length - 1);
+  }
+
+  /*
+   * Serializes the permutation, followed by whether inverse tracking is
+   * enabled.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeBoolean(inverse != null);
+  }
+
+  /*
+   * Deserializes the permutation, and rebuilds the inverse if inverse
+   * tracking was enabled. Streams written by earlier versions end without
+   * the flag, and so have inverse tracking disabled.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    boolean tracking;
+    try {
+      tracking = in.readBoolean();
+    } catch (EOFException e) {
+      tracking = false;
+    }
+    if (tracking) {
+      setInverseTracking(true);
+    }
   }
 }
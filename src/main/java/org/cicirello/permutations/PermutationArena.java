@@ -0,0 +1,391 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * A PermutationArena stores a large number of permutations, all of the same length, contiguously
+ * outside of the Java heap. Each permutation in the arena occupies a fixed size slot, with each
+ * element stored in 1 byte if the permutation length is at most 256, in 2 bytes if the length is at
+ * most 65536, and otherwise in 4 bytes. An arena holding N permutations thus avoids the N object
+ * headers and N separate arrays of the equivalent array of {@link Permutation} objects, and the
+ * permutations it holds are invisible to the garbage collector.
+ *
+ * <p>The permutations in an arena are accessed through flyweight views, instances of {@link
+ * ArenaPermutation}, obtained from the {@link #view(int)} method. A view can be repositioned to any
+ * other slot of the arena with its {@link ArenaPermutation#moveTo(int)} method, so a single view
+ * can be used to iterate over an entire population without creating any objects. Views support the
+ * same mutators as {@link CompactPermutation}, which operate directly on the arena's memory, and
+ * because they implement {@link PermutationView}, they can be passed directly to the distance
+ * measures of the {@link org.cicirello.permutations.distance} package.
+ *
+ * <p>An arena can either be backed by direct memory (see the {@link #PermutationArena(int,int)}
+ * constructor), in which case its capacity is limited by the JVM's maximum direct memory size, or
+ * it can be backed by a memory-mapped file (see the {@link #create(Path,int,int)} and {@link
+ * #open(Path,int)} methods), in which case a population can exceed the size of physical memory. A
+ * file-backed arena is stored as a sequence of fixed size records, each consisting of the elements
+ * of one permutation, in little-endian byte order, with no header.
+ *
+ * <p>An arena is not thread-safe. Multiple threads may read from it concurrently, provided that no
+ * thread modifies it; and multiple threads may concurrently modify disjoint slots, each through its
+ * own view.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class PermutationArena {
+
+  private final int count;
+  private final int length;
+  private final int elementShift;
+  private final int slotsPerBuffer;
+  private final ByteBuffer[] buffers;
+  private final boolean fileBacked;
+
+  /**
+   * Initializes an arena, backed by direct memory, holding a specified number of permutations, each
+   * of a specified length. All permutations in the arena are initially the identity permutation.
+   *
+   * @param count the number of permutations in the arena
+   * @param length the length of each of the permutations
+   * @throws IllegalArgumentException if count or length is negative
+   */
+  public PermutationArena(int count, int length) {
+    this(count, length, Integer.MAX_VALUE);
+  }
+
+  /*
+   * Internal constructor for a direct memory arena, enabling tests to
+   * exercise arenas that span multiple buffers.
+   */
+  PermutationArena(int count, int length, int maxBufferBytes) {
+    this(count, length, slotsPerBuffer(count, length, maxBufferBytes), false);
+    long slotBytes = (long) length << elementShift;
+    for (int b = 0; b < buffers.length; b++) {
+      buffers[b] = ByteBuffer.allocateDirect(bufferBytes(b, slotBytes));
+      buffers[b].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    fillIdentity();
+  }
+
+  /*
+   * Initializes the layout of the arena, but not its buffers.
+   */
+  private PermutationArena(int count, int length, int slotsPerBuffer, boolean fileBacked) {
+    this.count = count;
+    this.length = length;
+    this.slotsPerBuffer = slotsPerBuffer;
+    this.fileBacked = fileBacked;
+    elementShift = elementShift(length);
+    buffers = new ByteBuffer[count == 0 ? 0 : (count - 1) / slotsPerBuffer + 1];
+  }
+
+  /**
+   * Creates a new arena, backed by a memory-mapped file, holding a specified number of
+   * permutations, each of a specified length. If the file exists, its contents are replaced. All
+   * permutations in the arena are initially the identity permutation.
+   *
+   * @param file the path to the file
+   * @param count the number of permutations in the arena
+   * @param length the length of each of the permutations
+   * @return the arena
+   * @throws IOException if an I/O error occurs creating or mapping the file
+   * @throws IllegalArgumentException if count or length is negative
+   */
+  public static PermutationArena create(Path file, int count, int length) throws IOException {
+    PermutationArena arena =
+        mapFile(
+            file,
+            count,
+            length,
+            false,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    arena.fillIdentity();
+    return arena;
+  }
+
+  /**
+   * Opens an existing file of permutations, previously created by {@link #create(Path,int,int)}, as
+   * an arena backed by that memory-mapped file. The number of permutations in the arena is
+   * determined from the size of the file. Changes to the permutations of the arena are written to
+   * the file.
+   *
+   * <p>The contents of the file are trusted: neither this method nor the views of the arena verify
+   * that its records are valid permutations of the specified length. A view of an invalid record is
+   * rejected, with an IllegalArgumentException, only when it is copied, such as with {@link
+   * Permutation#Permutation(PermutationView)} or {@link CompactPermutation#of(PermutationView)}.
+   *
+   * @param file the path to the file
+   * @param length the length of each of the permutations in the file
+   * @return the arena
+   * @throws IOException if an I/O error occurs opening or mapping the file, or if the size of the
+   *     file is not a multiple of the size of a permutation of the specified length
+   * @throws IllegalArgumentException if length is negative
+   */
+  public static PermutationArena open(Path file, int length) throws IOException {
+    return mapFile(file, -1, length, true, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Gets the number of permutations in the arena.
+   *
+   * @return the number of permutations in the arena
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Gets the length of the permutations in the arena.
+   *
+   * @return the length of the permutations in the arena
+   */
+  public int permutationLength() {
+    return length;
+  }
+
+  /**
+   * Checks whether this arena is backed by a memory-mapped file.
+   *
+   * @return true if this arena is backed by a memory-mapped file, and false if it is backed by
+   *     direct memory
+   */
+  public boolean isFileBacked() {
+    return fileBacked;
+  }
+
+  /**
+   * Creates a view of one of the permutations of the arena. Changes to the view change the
+   * permutation in the arena. The view can be repositioned to other permutations of the arena with
+   * its {@link ArenaPermutation#moveTo(int)} method.
+   *
+   * @param index the index of the permutation in the arena
+   * @return a view of the permutation at the specified index
+   * @throws IndexOutOfBoundsException if index is negative or greater than or equal to size()
+   */
+  public ArenaPermutation view(int index) {
+    return new ArenaPermutation(this, index);
+  }
+
+  /**
+   * Copies a permutation into one of the slots of the arena.
+   *
+   * @param index the index of the slot in the arena
+   * @param p the permutation to copy into the arena
+   * @throws IllegalArgumentException if p.length() is not equal to permutationLength()
+   * @throws IndexOutOfBoundsException if index is negative or greater than or equal to size()
+   */
+  public void set(int index, PermutationView p) {
+    if (p.length() != length) {
+      throw new IllegalArgumentException("Length of permutation must equal permutationLength().");
+    }
+    ByteBuffer buffer = buffer(index);
+    int base = offset(index);
+    for (int i = 0; i < length; i++) {
+      put(buffer, base, i, p.get(i));
+    }
+  }
+
+  /**
+   * Replaces every permutation of the arena with a random permutation, generated in parallel with
+   * the threads of the common {@link ForkJoinPool}. The permutations are generated exactly as by
+   * {@link Permutation#randomPopulation(int,int,SplittableGenerator)}, so for a seed in the same
+   * state, the permutation in slot k is equal to element k of the array generated by that method,
+   * regardless of the number of threads.
+   *
+   * @param seed the generator from which the generators of the chunks of the arena are split, which
+   *     is advanced by the splitting
+   */
+  public void scramble(SplittableGenerator seed) {
+    scramble(seed, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Replaces every permutation of the arena with a random permutation, generated in parallel with
+   * the threads of a specified {@link ForkJoinPool}. Each thread writes to its own slots through
+   * its own view. The result is the same as that of {@link #scramble(SplittableGenerator)} for a
+   * seed in the same state, regardless of the parallelism of the pool.
+   *
+   * @param seed the generator from which the generators of the chunks of the arena are split, which
+   *     is advanced by the splitting
+   * @param pool the pool of threads
+   */
+  public void scramble(SplittableGenerator seed, ForkJoinPool pool) {
+    RandomPopulation.fill(
+        count,
+        seed,
+        pool,
+        (from, to, r) -> {
+          ArenaPermutation view = view(from);
+          for (int k = from; k < to; k++) {
+            view.moveTo(k);
+            view.scramble(r);
+          }
+        });
+  }
+
+  /**
+   * Forces any changes made to a file-backed arena to be written to the storage device. This method
+   * does nothing for an arena backed by direct memory.
+   */
+  public void force() {
+    if (fileBacked) {
+      for (ByteBuffer buffer : buffers) {
+        ((MappedByteBuffer) buffer).force();
+      }
+    }
+  }
+
+  /*
+   * Gets the buffer containing the slot with the specified index.
+   */
+  ByteBuffer buffer(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+    }
+    return buffers[index / slotsPerBuffer];
+  }
+
+  /*
+   * Gets the byte offset, within its buffer, of the slot with the specified index.
+   */
+  int offset(int index) {
+    return (index % slotsPerBuffer) * (length << elementShift);
+  }
+
+  /*
+   * Gets the base 2 logarithm of the number of bytes per element.
+   */
+  int elementShift() {
+    return elementShift;
+  }
+
+  /*
+   * Reads element i of the slot beginning at byte offset base.
+   */
+  int get(ByteBuffer buffer, int base, int i) {
+    switch (elementShift) {
+      case 0:
+        return buffer.get(base + i) & 0xff;
+      case 1:
+        return buffer.getChar(base + (i << 1));
+      default:
+        return buffer.getInt(base + (i << 2));
+    }
+  }
+
+  /*
+   * Writes element i of the slot beginning at byte offset base.
+   */
+  void put(ByteBuffer buffer, int base, int i, int value) {
+    switch (elementShift) {
+      case 0:
+        buffer.put(base + i, (byte) value);
+        break;
+      case 1:
+        buffer.putChar(base + (i << 1), (char) value);
+        break;
+      default:
+        buffer.putInt(base + (i << 2), value);
+        break;
+    }
+  }
+
+  static int elementShift(int length) {
+    if (length <= CompactPermutation.MAX_BYTE_LENGTH) {
+      return 0;
+    } else if (length <= CompactPermutation.MAX_CHAR_LENGTH) {
+      return 1;
+    } else {
+      return 2;
+    }
+  }
+
+  private static int slotsPerBuffer(int count, int length, int maxBufferBytes) {
+    if (count < 0 || length < 0) {
+      throw new IllegalArgumentException("count and length must be non-negative");
+    }
+    long slotBytes = (long) length << elementShift(length);
+    if (slotBytes > maxBufferBytes) {
+      throw new IllegalArgumentException("Permutation length too large for an arena.");
+    }
+    return slotBytes == 0 ? Integer.MAX_VALUE : (int) (maxBufferBytes / slotBytes);
+  }
+
+  private static PermutationArena mapFile(
+      Path file, int count, int length, boolean readExisting, StandardOpenOption... options)
+      throws IOException {
+    if (length < 0) {
+      throw new IllegalArgumentException("length must be non-negative");
+    }
+    long slotBytes = (long) length << elementShift(length);
+    try (FileChannel channel = FileChannel.open(file, options)) {
+      if (readExisting) {
+        long size = channel.size();
+        if (slotBytes == 0 ? size != 0 : size % slotBytes != 0) {
+          throw new IOException("File size is not a multiple of the permutation size.");
+        }
+        long slots = slotBytes == 0 ? 0 : size / slotBytes;
+        if (slots > Integer.MAX_VALUE) {
+          throw new IOException("File contains too many permutations for an arena.");
+        }
+        count = (int) slots;
+      }
+      PermutationArena arena =
+          new PermutationArena(
+              count, length, slotsPerBuffer(count, length, Integer.MAX_VALUE), true);
+      for (int b = 0; b < arena.buffers.length; b++) {
+        long position = (long) b * arena.slotsPerBuffer * slotBytes;
+        arena.buffers[b] =
+            channel.map(FileChannel.MapMode.READ_WRITE, position, arena.bufferBytes(b, slotBytes));
+        arena.buffers[b].order(ByteOrder.LITTLE_ENDIAN);
+      }
+      return arena;
+    }
+  }
+
+  private int bufferBytes(int b, long slotBytes) {
+    return (int) (Math.min(slotsPerBuffer, count - (long) b * slotsPerBuffer) * slotBytes);
+  }
+
+  private void fillIdentity() {
+    for (int index = 0; index < count; index++) {
+      ByteBuffer buffer = buffer(index);
+      int base = offset(index);
+      for (int i = 0; i < length; i++) {
+        put(buffer, base, i, i);
+      }
+    }
+  }
+}
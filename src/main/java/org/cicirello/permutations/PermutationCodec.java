@@ -0,0 +1,629 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A PermutationCodec encodes permutations of a fixed length in a compact binary format, and decodes
+ * them, either to and from caller-provided ByteBuffers, or to and from streams of permutations
+ * written to channels or output streams by a {@link Writer}, and read from channels or input
+ * streams by a {@link Reader}. It is a much more compact and much faster alternative to Java
+ * serialization for persisting or transmitting large numbers of permutations. Encoding and decoding
+ * allocate no memory per permutation or per element.
+ *
+ * <p>Two encodings are supported. In the {@link Encoding#PACKED} encoding, each element of a
+ * permutation of length n is stored in &lceil;log<sub>2</sub> n&rceil; bits. In the {@link
+ * Encoding#LEHMER} encoding, a permutation is stored as its Lehmer code, the sequence of digits in
+ * which digit i is the number of elements less than p[i] among positions i through n-1, with digit
+ * i stored in &lceil;log<sub>2</sub> (n-i)&rceil; bits. The Lehmer encoding is within about 10
+ * percent of the information theoretic minimum of log<sub>2</sub> n! bits per permutation, and is
+ * thus smaller than the packed encoding (e.g., by about 18% for n=100 and about 10% for n=1000),
+ * but encoding and decoding require O(n lg n) rather than O(n) time.
+ *
+ * <p>In both encodings, the bits of each permutation are packed, beginning with the least
+ * significant bit of its first byte, into a fixed size record of {@link #recordBytes()} bytes, so
+ * that every permutation begins on a byte boundary. A stream written by a {@link Writer} consists
+ * of a 9 byte header, consisting of the 4 byte magic number 0x4A505443, one byte identifying the
+ * encoding, and the 4 byte big-endian length of the permutations, followed by the records.
+ *
+ * <p>A codec maintains scratch arrays that are reused across calls, so it, and the readers and
+ * writers that use it, must not be used by more than one thread at a time.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class PermutationCodec {
+
+  /** The encodings supported by a PermutationCodec. */
+  public enum Encoding {
+    /** Each element is stored in &lceil;log<sub>2</sub> n&rceil; bits. */
+    PACKED,
+    /** Digit i of the Lehmer code is stored in &lceil;log<sub>2</sub> (n-i)&rceil; bits. */
+    LEHMER
+  }
+
+  private static final int MAGIC = 0x4A505443;
+  static final int HEADER_BYTES = 9;
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final int length;
+  private final Encoding encoding;
+  private final int bitsPerElement;
+  private final int recordBytes;
+  private int[] scratch;
+  private int[] tree;
+  private int stamp;
+
+  /**
+   * Initializes a codec for permutations of a specified length, using the {@link Encoding#PACKED}
+   * encoding.
+   *
+   * @param length the length of the permutations
+   * @throws IllegalArgumentException if length is negative
+   */
+  public PermutationCodec(int length) {
+    this(length, Encoding.PACKED);
+  }
+
+  /**
+   * Initializes a codec for permutations of a specified length, using a specified encoding.
+   *
+   * @param length the length of the permutations
+   * @param encoding the encoding
+   * @throws IllegalArgumentException if length is negative, or if it is so large that an encoded
+   *     permutation would not fit in a ByteBuffer
+   */
+  public PermutationCodec(int length, Encoding encoding) {
+    if (length < 0) {
+      throw new IllegalArgumentException("length must be non-negative");
+    }
+    this.length = length;
+    this.encoding = encoding;
+    bitsPerElement = bitsFor(length);
+    long bits;
+    if (encoding == Encoding.PACKED) {
+      bits = (long) length * bitsPerElement;
+    } else {
+      // Sum of bitsFor(m) for m in [2, length], grouped by width: the m in
+      // (2^(k-1), 2^k] each need k bits.
+      bits = 0;
+      for (int k = 1; (1L << (k - 1)) < length; k++) {
+        bits += k * (Math.min(length, 1L << k) - (1L << (k - 1)));
+      }
+    }
+    long bytes = Math.max(1, (bits + 7) >>> 3);
+    if (bytes > Integer.MAX_VALUE - HEADER_BYTES) {
+      throw new IllegalArgumentException("Permutation length too large for a codec.");
+    }
+    recordBytes = (int) bytes;
+  }
+
+  /*
+   * Allocates the scratch arrays upon first use, rather than in the
+   * constructor, so that a codec created from the header of a stream does
+   * not allocate in proportion to a length that the data may not support.
+   */
+  private void allocateScratch() {
+    if (scratch == null) {
+      scratch = new int[length];
+      if (encoding == Encoding.LEHMER) {
+        tree = new int[length + 1];
+      }
+    }
+  }
+
+  /**
+   * Gets the length of the permutations of this codec.
+   *
+   * @return the length of the permutations
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Gets the encoding of this codec.
+   *
+   * @return the encoding
+   */
+  public Encoding encoding() {
+    return encoding;
+  }
+
+  /**
+   * Gets the number of bytes occupied by each encoded permutation. This is at least 1, even for
+   * permutations of length 0 or 1.
+   *
+   * @return the number of bytes occupied by each encoded permutation
+   */
+  public int recordBytes() {
+    return recordBytes;
+  }
+
+  /**
+   * Encodes a permutation, writing it at the current position of a buffer, and advancing the
+   * position of the buffer by {@link #recordBytes()}.
+   *
+   * @param p the permutation to encode
+   * @param out the buffer
+   * @throws IllegalArgumentException if p.length() is not equal to length()
+   * @throws BufferOverflowException if out.remaining() is less than recordBytes(), in which case
+   *     the buffer is unchanged
+   */
+  public void encode(PermutationView p, ByteBuffer out) {
+    if (p.length() != length) {
+      throw new IllegalArgumentException("Length of permutation must equal length().");
+    }
+    if (out.remaining() < recordBytes) {
+      throw new BufferOverflowException();
+    }
+    int start = out.position();
+    long acc = 0;
+    int bits = 0;
+    if (encoding == Encoding.PACKED) {
+      for (int i = 0; i < length; i++) {
+        acc |= (long) p.get(i) << bits;
+        bits += bitsPerElement;
+        while (bits >= 8) {
+          out.put((byte) acc);
+          acc >>>= 8;
+          bits -= 8;
+        }
+      }
+    } else {
+      allocateScratch();
+      int[] digits = Factoradic.digits(p, scratch, tree);
+      for (int i = 0; i < length - 1; i++) {
+        acc |= (long) digits[i] << bits;
+        bits += bitsFor(length - i);
+        while (bits >= 8) {
+          out.put((byte) acc);
+          acc >>>= 8;
+          bits -= 8;
+        }
+      }
+    }
+    if (bits > 0) {
+      out.put((byte) acc);
+    }
+    // Pads the record of a permutation of length 0 or 1.
+    while (out.position() - start < recordBytes) {
+      out.put((byte) 0);
+    }
+  }
+
+  /**
+   * Decodes a permutation, reading it from the current position of a buffer, and advancing the
+   * position of the buffer by {@link #recordBytes()}.
+   *
+   * @param in the buffer
+   * @param result an array to hold the permutation, whose length must equal length()
+   * @throws IllegalArgumentException if result.length is not equal to length(), or if the bytes
+   *     read from the buffer do not encode a valid permutation
+   * @throws BufferUnderflowException if in.remaining() is less than recordBytes(), in which case
+   *     the buffer is unchanged
+   */
+  public void decode(ByteBuffer in, int[] result) {
+    if (result.length != length) {
+      throw new IllegalArgumentException("Length of result must equal length().");
+    }
+    if (in.remaining() < recordBytes) {
+      throw new BufferUnderflowException();
+    }
+    int offset = in.position();
+    in.position(offset + recordBytes);
+    decode(in, offset, result);
+  }
+
+  /*
+   * Decodes the permutation whose record begins at an absolute offset of a
+   * buffer, without changing the position of the buffer.
+   */
+  void decode(ByteBuffer in, int offset, int[] result) {
+    allocateScratch();
+    long acc = 0;
+    int bits = 0;
+    if (encoding == Encoding.PACKED) {
+      long mask = (1L << bitsPerElement) - 1;
+      stamp++;
+      if (stamp == 0) {
+        Arrays.fill(scratch, 0);
+        stamp = 1;
+      }
+      for (int i = 0; i < length; i++) {
+        while (bits < bitsPerElement) {
+          acc |= (long) (in.get(offset++) & 0xff) << bits;
+          bits += 8;
+        }
+        int element = (int) (acc & mask);
+        acc >>>= bitsPerElement;
+        bits -= bitsPerElement;
+        if (element >= length || scratch[element] == stamp) {
+          throw new IllegalArgumentException("Encoded data is not a valid permutation.");
+        }
+        scratch[element] = stamp;
+        result[i] = element;
+      }
+    } else {
+      for (int i = 0; i < length - 1; i++) {
+        int width = bitsFor(length - i);
+        while (bits < width) {
+          acc |= (long) (in.get(offset++) & 0xff) << bits;
+          bits += 8;
+        }
+        scratch[i] = (int) (acc & ((1L << width) - 1));
+        acc >>>= width;
+        bits -= width;
+      }
+      if (length > 0) {
+        scratch[length - 1] = 0;
+      }
+      Factoradic.fromDigits(scratch, result, tree);
+    }
+  }
+
+  /*
+   * Extracts element i of the PACKED encoded permutation whose record
+   * begins at an absolute offset of a buffer, without decoding the others.
+   */
+  int element(ByteBuffer in, int offset, int i) {
+    long bit = (long) i * bitsPerElement;
+    int index = offset + (int) (bit >>> 3);
+    int shift = (int) (bit & 7);
+    long acc = 0;
+    for (int bits = 0; bits < shift + bitsPerElement; bits += 8) {
+      acc |= (long) (in.get(index++) & 0xff) << bits;
+    }
+    return (int) ((acc >>> shift) & ((1L << bitsPerElement) - 1));
+  }
+
+  /**
+   * Decodes a permutation, reading it from the current position of a buffer, and advancing the
+   * position of the buffer by {@link #recordBytes()}.
+   *
+   * @param in the buffer
+   * @return the permutation
+   * @throws IllegalArgumentException if the bytes read from the buffer do not encode a valid
+   *     permutation
+   * @throws BufferUnderflowException if in.remaining() is less than recordBytes(), in which case
+   *     the buffer is unchanged
+   */
+  public Permutation decode(ByteBuffer in) {
+    int[] result = new int[length];
+    decode(in, result);
+    return new Permutation(result);
+  }
+
+  /**
+   * Creates a writer that writes a stream of permutations, encoded by this codec, to a channel. The
+   * header of the stream is written to the channel upon the first flush.
+   *
+   * @param channel the channel
+   * @return the writer
+   */
+  public Writer newWriter(WritableByteChannel channel) {
+    return new Writer(this, channel);
+  }
+
+  /**
+   * Creates a writer that writes a stream of permutations, encoded by this codec, to an output
+   * stream. The header of the stream is written to the output stream upon the first flush.
+   *
+   * @param out the output stream
+   * @return the writer
+   */
+  public Writer newWriter(OutputStream out) {
+    return newWriter(Channels.newChannel(out));
+  }
+
+  /**
+   * Creates a reader for a stream of permutations, previously written by a {@link Writer}, from a
+   * channel. The header of the stream is read immediately, and determines the length of the
+   * permutations and the encoding.
+   *
+   * @param channel the channel
+   * @return the reader
+   * @throws IOException if an I/O error occurs, or if the channel does not begin with a valid
+   *     header
+   */
+  public static Reader newReader(ReadableByteChannel channel) throws IOException {
+    return new Reader(channel);
+  }
+
+  /**
+   * Creates a reader for a stream of permutations, previously written by a {@link Writer}, from an
+   * input stream. The header of the stream is read immediately, and determines the length of the
+   * permutations and the encoding.
+   *
+   * @param in the input stream
+   * @return the reader
+   * @throws IOException if an I/O error occurs, or if the input stream does not begin with a valid
+   *     header
+   */
+  public static Reader newReader(InputStream in) throws IOException {
+    return newReader(Channels.newChannel(in));
+  }
+
+  /*
+   * Creates a codec from the header of a stream, which begins at index 0 of
+   * the buffer.
+   */
+  static PermutationCodec fromHeader(ByteBuffer header) throws StreamCorruptedException {
+    int encoding = header.get(4);
+    int length = header.getInt(5);
+    if (header.getInt(0) != MAGIC
+        || encoding < 0
+        || encoding >= Encoding.values().length
+        || length < 0) {
+      throw new StreamCorruptedException("Invalid header.");
+    }
+    try {
+      return new PermutationCodec(length, Encoding.values()[encoding]);
+    } catch (IllegalArgumentException e) {
+      throw new StreamCorruptedException("Invalid header: " + e.getMessage());
+    }
+  }
+
+  /*
+   * The number of bits needed to store the integers in [0, m).
+   */
+  private static int bitsFor(int m) {
+    return m <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(m - 1);
+  }
+
+  /**
+   * Writes a stream of permutations to a channel, buffering the encoded permutations, and writing
+   * them to the channel when the buffer is full, or upon a call to {@link #flush()} or {@link
+   * #close()}.
+   */
+  public static final class Writer implements Closeable, Flushable {
+
+    private final PermutationCodec codec;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    private Writer(PermutationCodec codec, WritableByteChannel channel) {
+      this.codec = codec;
+      this.channel = channel;
+      buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES, HEADER_BYTES + codec.recordBytes));
+      buffer.putInt(MAGIC);
+      buffer.put((byte) codec.encoding.ordinal());
+      buffer.putInt(codec.length);
+    }
+
+    /**
+     * Gets the codec of this writer.
+     *
+     * @return the codec
+     */
+    public PermutationCodec codec() {
+      return codec;
+    }
+
+    /**
+     * Writes a permutation to the stream.
+     *
+     * @param p the permutation
+     * @throws IllegalArgumentException if p.length() is not equal to the length of the codec
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(PermutationView p) throws IOException {
+      if (buffer.remaining() < codec.recordBytes) {
+        drain();
+      }
+      codec.encode(p, buffer);
+    }
+
+    /**
+     * Writes all buffered permutations to the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+      drain();
+    }
+
+    /**
+     * Writes all buffered permutations to the channel, and closes the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+      try {
+        drain();
+      } finally {
+        channel.close();
+      }
+    }
+
+    private void drain() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  /** Reads a stream of permutations, previously written by a {@link Writer}, from a channel. */
+  public static final class Reader implements Closeable {
+
+    private final PermutationCodec codec;
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+
+    private Reader(ReadableByteChannel channel) throws IOException {
+      this.channel = channel;
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      if (!fill(channel, header, HEADER_BYTES)) {
+        throw new EOFException("Missing header.");
+      }
+      codec = fromHeader(header);
+      buffer = ByteBuffer.allocate(BUFFER_BYTES);
+      buffer.flip();
+    }
+
+    /**
+     * Gets the codec of this reader, which determines the length of the permutations of the stream,
+     * and their encoding.
+     *
+     * @return the codec
+     */
+    public PermutationCodec codec() {
+      return codec;
+    }
+
+    /**
+     * Reads the next permutation of the stream into an array.
+     *
+     * @param result an array to hold the permutation, whose length must equal the length of the
+     *     codec
+     * @return true if a permutation was read, and false if the end of the stream was reached
+     * @throws IllegalArgumentException if result.length is not equal to the length of the codec
+     * @throws IOException if an I/O error occurs, or if the stream ends within a permutation
+     * @throws StreamCorruptedException if the stream does not contain a valid permutation
+     */
+    public boolean read(int[] result) throws IOException {
+      if (result.length != codec.length) {
+        throw new IllegalArgumentException("Length of result must equal length of codec.");
+      }
+      if (!buffered()) {
+        return false;
+      }
+      decode(result);
+      return true;
+    }
+
+    /**
+     * Reads the next permutation of the stream.
+     *
+     * @return the permutation, or null if the end of the stream was reached
+     * @throws IOException if an I/O error occurs, or if the stream ends within a permutation
+     * @throws StreamCorruptedException if the stream does not contain a valid permutation
+     */
+    public Permutation read() throws IOException {
+      if (!buffered()) {
+        return null;
+      }
+      // Allocated only once the record is buffered, so that a corrupt
+      // length in the header cannot exhaust memory.
+      int[] result = new int[codec.length];
+      decode(result);
+      return new Permutation(result);
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+
+    /*
+     * Ensures that the next record is in the buffer, which is in read mode.
+     * Returns false at the end of the stream.
+     */
+    private boolean buffered() throws IOException {
+      if (buffer.remaining() < codec.recordBytes) {
+        buffer.compact();
+        boolean complete = fillRecord();
+        buffer.flip();
+        if (!complete) {
+          if (buffer.hasRemaining()) {
+            throw new EOFException("Stream ended within a permutation.");
+          }
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /*
+     * Decodes the buffered record into result.
+     */
+    private void decode(int[] result) throws StreamCorruptedException {
+      try {
+        codec.decode(buffer, result);
+      } catch (IllegalArgumentException e) {
+        throw new StreamCorruptedException(e.getMessage());
+      }
+    }
+
+    /*
+     * Reads from the channel into the buffer, which is in write mode, until
+     * a whole record is in the buffer, or the end of the channel. The buffer
+     * is enlarged as the data arrives, rather than to the size of a record
+     * up front, so that a corrupt length in the header cannot exhaust memory
+     * before the stream ends. Returns true if a whole record is in the
+     * buffer.
+     */
+    private boolean fillRecord() throws IOException {
+      int minBytes = codec.recordBytes;
+      while (buffer.position() < minBytes) {
+        if (!buffer.hasRemaining()) {
+          ByteBuffer larger = ByteBuffer.allocate((int) Math.min(minBytes, 2L * buffer.capacity()));
+          buffer.flip();
+          larger.put(buffer);
+          buffer = larger;
+        }
+        if (channel.read(buffer) < 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /*
+     * Reads from the channel into the buffer, which is in write mode, until
+     * at least minBytes bytes are in the buffer, or the end of the channel.
+     * Returns true if at least minBytes bytes are in the buffer.
+     */
+    private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer, int minBytes)
+        throws IOException {
+      while (buffer.position() < minBytes) {
+        if (channel.read(buffer) < 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
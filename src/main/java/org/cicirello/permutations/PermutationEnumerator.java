@@ -0,0 +1,418 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates, in place, the members of a restricted class of permutations of the integers in the
+ * interval [0,n), visiting only members of the class, rather than enumerating all n! permutations
+ * and filtering. The classes are the derangements (see {@link #derangements(int)}), the involutions
+ * (see {@link #involutions(int)}), the permutations that begin with a specified prefix (see {@link
+ * #withPrefix(int,int...)}), and the k-arrangements, i.e., the ordered selections of k of the n
+ * integers (see {@link #arrangements(int,int)}).
+ *
+ * <p>The enumerator is a backtracking search that builds each permutation one position at a time,
+ * choosing the element for a position by swapping it into place from among the positions not yet
+ * decided, and undoing the swap when it backtracks. The permutation returned by {@link #cursor()}
+ * is thus changed in place by swaps, and is a valid permutation at all times. Each call to {@link
+ * #advance()} moves it to the next member of the class in O(1) amortized time, and does not
+ * allocate any objects.
+ *
+ * <p>An enumerator is also a {@link Spliterator}, which supplies the cursor itself for each member,
+ * so that the members can be enumerated with a parallel stream (see {@link #stream()}). It splits
+ * by handing off half of the choices remaining at the shallowest level of the search that has any,
+ * along with the state of the permutation at that level. Consumers of the Spliterator must neither
+ * modify nor retain the permutations they are supplied, but must copy any that they need to keep.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class PermutationEnumerator implements Spliterator<Permutation> {
+
+  private enum Kind {
+    DERANGEMENTS,
+    INVOLUTIONS,
+    PREFIX,
+    ARRANGEMENTS
+  }
+
+  private final Kind kind;
+  private final int n;
+  private final int k;
+  private final Permutation p;
+  // the state of p at the base level of this enumerator's search
+  private final int[] snapshot;
+  private final int base;
+  private int firstChoice;
+  // for each level of the search, the position decided at that level, the
+  // choice made, i.e., the position swapped into it, and the end of the
+  // interval of choices that belong to this enumerator
+  private final int[] position;
+  private final int[] choice;
+  private final int[] end;
+  private int depth;
+  private boolean started;
+  private boolean exhausted;
+
+  /*
+   * Initializes an enumerator whose search begins at level base, with the
+   * positions before base already decided in the snapshot.
+   */
+  private PermutationEnumerator(Kind kind, int k, int[] snapshot, int base) {
+    this.kind = kind;
+    n = snapshot.length;
+    this.k = k;
+    this.snapshot = snapshot;
+    p = new Permutation(snapshot);
+    this.base = base;
+    position = new int[n + 1];
+    choice = new int[n + 1];
+    end = new int[n + 1];
+    position[base] = nextPosition(base, base - 1);
+    firstChoice = position[base];
+    end[base] = n;
+  }
+
+  /**
+   * Creates an enumerator over the derangements of length n, i.e., the permutations p such that
+   * p.get(i) &ne; i for all i.
+   *
+   * @param n the length of the permutations
+   * @return an enumerator over the derangements of length n
+   * @throws IllegalArgumentException if n is negative
+   */
+  public static PermutationEnumerator derangements(int n) {
+    return new PermutationEnumerator(Kind.DERANGEMENTS, n, identity(n), 0);
+  }
+
+  /**
+   * Creates an enumerator over the involutions of length n, i.e., the permutations that are their
+   * own inverse, which consist only of fixed points and cycles of length 2.
+   *
+   * @param n the length of the permutations
+   * @return an enumerator over the involutions of length n
+   * @throws IllegalArgumentException if n is negative
+   */
+  public static PermutationEnumerator involutions(int n) {
+    return new PermutationEnumerator(Kind.INVOLUTIONS, n, identity(n), 0);
+  }
+
+  /**
+   * Creates an enumerator over the permutations of length n that begin with a specified prefix,
+   * i.e., the permutations p such that p.get(i) is prefix[i] for each i &lt; prefix.length.
+   *
+   * @param n the length of the permutations
+   * @param prefix the first elements of the permutations
+   * @return an enumerator over the (n - prefix.length)! permutations with the prefix
+   * @throws IllegalArgumentException if n is negative, if prefix.length is greater than n, or if
+   *     the prefix contains duplicates or elements outside the interval [0, n)
+   */
+  public static PermutationEnumerator withPrefix(int n, int... prefix) {
+    int[] start = identity(n);
+    if (prefix.length > n) {
+      throw new IllegalArgumentException("prefix.length must be no greater than n");
+    }
+    int[] inverse = identity(n);
+    for (int i = 0; i < prefix.length; i++) {
+      int element = prefix[i];
+      if (element < 0 || element >= n || inverse[element] < i) {
+        throw new IllegalArgumentException("Invalid prefix");
+      }
+      int j = inverse[element];
+      start[j] = start[i];
+      inverse[start[j]] = j;
+      start[i] = element;
+      inverse[element] = i;
+    }
+    return new PermutationEnumerator(Kind.PREFIX, n, start, prefix.length);
+  }
+
+  /**
+   * Creates an enumerator over the k-arrangements of the integers in [0, n), i.e., the ordered
+   * selections of k distinct integers, of which there are n! / (n-k)!. The cursor is a permutation
+   * of length n, whose first k elements are the arrangement, and whose remaining elements are the
+   * integers not selected, in an unspecified order.
+   *
+   * @param n the number of integers from which to select
+   * @param k the number of integers in each arrangement
+   * @return an enumerator over the k-arrangements of n integers
+   * @throws IllegalArgumentException if n is negative, or if k is negative or greater than n
+   */
+  public static PermutationEnumerator arrangements(int n, int k) {
+    if (k < 0 || k > n) {
+      throw new IllegalArgumentException("k must be in the interval [0, n]");
+    }
+    return new PermutationEnumerator(Kind.ARRANGEMENTS, k, identity(n), 0);
+  }
+
+  /**
+   * Gets the permutation that {@link #advance()} changes in place. The same Permutation object is
+   * returned by every call. Its state is unspecified until the first call to advance(), and after
+   * advance() returns false. The caller must not modify it, and must copy it to retain any of the
+   * members of the class.
+   *
+   * @return the permutation changed in place by advance()
+   */
+  public Permutation cursor() {
+    return p;
+  }
+
+  /**
+   * Gets the number of leading elements of the cursor that are significant, which is k for an
+   * enumerator over k-arrangements, and otherwise n.
+   *
+   * @return the number of significant elements of the cursor
+   */
+  public int arrangementLength() {
+    return kind == Kind.ARRANGEMENTS ? k : n;
+  }
+
+  /**
+   * Changes the permutation returned by {@link #cursor()}, in place, to the next member of the
+   * class, in O(1) amortized time.
+   *
+   * @return true if the cursor is at the next member, and false if the enumeration is complete
+   */
+  public boolean advance() {
+    if (exhausted) {
+      return false;
+    }
+    int c;
+    if (!started) {
+      started = true;
+      depth = base;
+      if (position[base] < 0) {
+        // The only member is the starting state itself.
+        exhausted = true;
+        return true;
+      }
+      c = firstChoice;
+    } else {
+      depth--;
+      c = backtrack();
+    }
+    return search(c);
+  }
+
+  /**
+   * Creates a sequential stream of the members of the class, supplying the cursor, changed in
+   * place, for each member. The stream can be made parallel with its parallel() method. The
+   * operations of the stream must neither modify nor retain the permutations.
+   *
+   * @return a stream of the members of the class
+   */
+  public Stream<Permutation> stream() {
+    return StreamSupport.stream(this, false);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Permutation> action) {
+    if (!advance()) {
+      return false;
+    }
+    action.accept(p);
+    return true;
+  }
+
+  @Override
+  public Spliterator<Permutation> trySplit() {
+    int d = splitLevel();
+    if (d < 0) {
+      return null;
+    }
+    int remaining = end[d] - (started ? choice[d] + 1 : firstChoice);
+    if (remaining < (started ? 1 : 2)) {
+      return null;
+    }
+    int mid = end[d] - (remaining + 1) / 2;
+    // The state of p at level d is the snapshot with the choices of the
+    // levels above d applied.
+    int[] state = snapshot.clone();
+    for (int level = base; level < d; level++) {
+      int temp = state[position[level]];
+      state[position[level]] = state[choice[level]];
+      state[choice[level]] = temp;
+    }
+    PermutationEnumerator other = new PermutationEnumerator(kind, k, state, d);
+    other.position[d] = position[d];
+    other.firstChoice = mid;
+    other.end[d] = end[d];
+    end[d] = mid;
+    return other;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The estimate is an upper bound on the number of members that remain, derived from the number
+   * of choices that remain at the shallowest level of the search that has any, which only serves to
+   * balance the splitting of parallel streams.
+   */
+  @Override
+  public long estimateSize() {
+    int d = splitLevel();
+    if (d < 0) {
+      return exhausted ? 0 : 1;
+    }
+    long estimate = end[d] - (started ? choice[d] : firstChoice);
+    int free = n - position[d] - 1;
+    if (kind == Kind.INVOLUTIONS) {
+      // The number of involutions of the free positions, from the
+      // recurrence I(m) = I(m-1) + (m-1) I(m-2).
+      long previous = 1;
+      long count = 1;
+      for (int m = 2; m <= free; m++) {
+        long next = count + saturatingMultiply(m - 1, previous);
+        previous = count;
+        count = next < 0 ? Long.MAX_VALUE : next;
+      }
+      return saturatingMultiply(estimate, count);
+    }
+    int levels = kind == Kind.ARRANGEMENTS ? k - position[d] - 1 : free;
+    for (int m = free; m > free - levels && m > 1; m--) {
+      estimate = saturatingMultiply(estimate, m);
+    }
+    return estimate;
+  }
+
+  @Override
+  public int characteristics() {
+    return NONNULL | IMMUTABLE;
+  }
+
+  /*
+   * Gets the shallowest level of the search with choices that remain, or
+   * -1 if there is none.
+   */
+  private int splitLevel() {
+    if (exhausted || position[base] < 0) {
+      return -1;
+    }
+    if (!started) {
+      return base;
+    }
+    for (int d = base; d < depth; d++) {
+      if (choice[d] + 1 < end[d]) {
+        return d;
+      }
+    }
+    return -1;
+  }
+
+  private static long saturatingMultiply(long a, long b) {
+    return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+  }
+
+  /*
+   * Searches for the next member, beginning with choice c at the current
+   * depth, with the choices of all shallower levels applied to p.
+   */
+  private boolean search(int c) {
+    while (true) {
+      int pos = position[depth];
+      while (c < end[depth] && !isValid(pos, c)) {
+        c++;
+      }
+      if (c < end[depth]) {
+        p.internalSwap(pos, c);
+        choice[depth] = c;
+        int next = nextPosition(depth + 1, pos);
+        depth++;
+        if (next < 0) {
+          return true;
+        }
+        position[depth] = next;
+        end[depth] = n;
+        c = next;
+      } else if (depth == base) {
+        exhausted = true;
+        return false;
+      } else {
+        depth--;
+        c = backtrack();
+      }
+    }
+  }
+
+  /*
+   * Undoes the choice of the current depth, and returns the next choice to
+   * try at that depth.
+   */
+  private int backtrack() {
+    int c = choice[depth];
+    p.internalSwap(position[depth], c);
+    return c + 1;
+  }
+
+  /*
+   * Gets the position to decide at a level of the search, given the
+   * position decided at the level above it, or -1 if the permutation is
+   * complete.
+   */
+  private int nextPosition(int level, int previous) {
+    switch (kind) {
+      case INVOLUTIONS:
+        for (int i = previous + 1; i < n; i++) {
+          if (p.get(i) == i) {
+            return i;
+          }
+        }
+        return -1;
+      case DERANGEMENTS:
+        return level < n ? level : -1;
+      case ARRANGEMENTS:
+        return level < Math.min(k, n - 1) ? level : -1;
+      default:
+        return level < n - 1 ? level : -1;
+    }
+  }
+
+  /*
+   * Checks whether swapping the element in position c into position pos
+   * keeps the permutation within the class.
+   */
+  private boolean isValid(int pos, int c) {
+    switch (kind) {
+      case DERANGEMENTS:
+        return p.get(c) != pos;
+      case INVOLUTIONS:
+        return c == pos || p.get(c) == c;
+      default:
+        return true;
+    }
+  }
+
+  private static int[] identity(int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must be non-negative");
+    }
+    int[] a = new int[n];
+    for (int i = 0; i < n; i++) {
+      a[i] = i;
+    }
+    return a;
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A PermutationFile provides read-only random access to the permutations stored in a file of
+ * fixed-length permutations, by memory-mapping the file. Each permutation of the file is accessed
+ * by its index through a flyweight view, an instance of {@link FilePermutation}, obtained from the
+ * {@link #view(int)} method, which reads the elements of the permutation directly from the mapped
+ * file without copying them to the heap. A view can be repositioned to any other permutation of the
+ * file with its {@link FilePermutation#moveTo(int)} method, so a single view can be used to scan an
+ * entire file without creating any objects. Because views implement {@link PermutationView}, they
+ * can be passed directly to the distance measures of the {@link
+ * org.cicirello.permutations.distance} package. Files larger than physical memory are supported.
+ *
+ * <p>Two file formats are supported. The {@link #open(Path)} method opens a stream of permutations
+ * written by a {@link PermutationCodec.Writer}. For such a file in the {@link
+ * PermutationCodec.Encoding#PACKED} encoding, each element accessed through a view is extracted
+ * from the packed bits of the file. A file in the {@link PermutationCodec.Encoding#LEHMER} encoding
+ * cannot be accessed an element at a time, so instead, each view decodes the permutation to which
+ * it is moved into an array that it reuses. The {@link #openRaw(Path,int)} method opens a file in
+ * the format of a file-backed {@link PermutationArena}, without a header, in which each element
+ * occupies 1, 2, or 4 bytes depending upon the length of the permutations.
+ *
+ * <p>The contents of the file are trusted: other than for the {@link
+ * PermutationCodec.Encoding#LEHMER} encoding, the views do not verify that the records of the file
+ * are valid permutations. A PermutationFile may be used by multiple threads concurrently, each
+ * through its own views, provided that the file is not modified.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class PermutationFile {
+
+  private final int count;
+  private final int length;
+  private final int recordBytes;
+  private final int recordsPerBuffer;
+  private final ByteBuffer[] buffers;
+
+  /*
+   * The codec of a file opened by open, or null for a file opened by openRaw.
+   */
+  private final PermutationCodec codec;
+
+  /*
+   * The base 2 logarithm of the number of bytes per element of a file
+   * opened by openRaw.
+   */
+  private final int elementShift;
+
+  private PermutationFile(
+      FileChannel channel,
+      long start,
+      int length,
+      int recordBytes,
+      PermutationCodec codec,
+      int maxBufferBytes)
+      throws IOException {
+    long size = channel.size() - start;
+    if (recordBytes == 0 ? size != 0 : size % recordBytes != 0) {
+      throw new IOException("File size is not a multiple of the permutation size.");
+    }
+    long records = recordBytes == 0 ? 0 : size / recordBytes;
+    if (records > Integer.MAX_VALUE) {
+      throw new IOException("File contains too many permutations.");
+    }
+    this.count = (int) records;
+    this.length = length;
+    this.recordBytes = recordBytes;
+    this.codec = codec;
+    elementShift = PermutationArena.elementShift(length);
+    recordsPerBuffer = recordBytes == 0 ? Integer.MAX_VALUE : maxBufferBytes / recordBytes;
+    buffers = new ByteBuffer[count == 0 ? 0 : (count - 1) / recordsPerBuffer + 1];
+    for (int b = 0; b < buffers.length; b++) {
+      long first = (long) b * recordsPerBuffer;
+      long bytes = Math.min(recordsPerBuffer, count - first) * recordBytes;
+      buffers[b] = channel.map(FileChannel.MapMode.READ_ONLY, start + first * recordBytes, bytes);
+      buffers[b].order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  /**
+   * Opens a file containing a stream of permutations written by a {@link PermutationCodec.Writer}.
+   * The length of the permutations and their encoding are determined from the header of the file.
+   *
+   * @param file the path to the file
+   * @return the PermutationFile
+   * @throws IOException if an I/O error occurs opening or mapping the file, or if the file does not
+   *     begin with a valid header, or if it ends within a permutation
+   */
+  public static PermutationFile open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(PermutationCodec.HEADER_BYTES);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          throw new EOFException("Missing header.");
+        }
+      }
+      PermutationCodec codec = PermutationCodec.fromHeader(header);
+      long data = channel.size() - PermutationCodec.HEADER_BYTES;
+      if (data != 0 && data < codec.recordBytes()) {
+        throw new StreamCorruptedException(
+            "Length in header is inconsistent with the size of the file.");
+      }
+      return new PermutationFile(
+          channel,
+          PermutationCodec.HEADER_BYTES,
+          codec.length(),
+          codec.recordBytes(),
+          codec,
+          Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Opens a file of permutations in the format of a file-backed {@link PermutationArena}, such as
+   * one created by {@link PermutationArena#create(Path,int,int)}. The number of permutations is
+   * determined from the size of the file.
+   *
+   * @param file the path to the file
+   * @param length the length of each of the permutations in the file
+   * @return the PermutationFile
+   * @throws IOException if an I/O error occurs opening or mapping the file, or if the size of the
+   *     file is not a multiple of the size of a permutation of the specified length
+   * @throws IllegalArgumentException if length is negative
+   */
+  public static PermutationFile openRaw(Path file, int length) throws IOException {
+    return openRaw(file, length, Integer.MAX_VALUE);
+  }
+
+  /*
+   * Internal version of openRaw, enabling tests to exercise files that span
+   * multiple buffers.
+   */
+  static PermutationFile openRaw(Path file, int length, int maxBufferBytes) throws IOException {
+    if (length < 0) {
+      throw new IllegalArgumentException("length must be non-negative");
+    }
+    long recordBytes = (long) length << PermutationArena.elementShift(length);
+    if (recordBytes > maxBufferBytes) {
+      throw new IllegalArgumentException("Permutation length too large.");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new PermutationFile(channel, 0, length, (int) recordBytes, null, maxBufferBytes);
+    }
+  }
+
+  /**
+   * Gets the number of permutations in the file.
+   *
+   * @return the number of permutations in the file
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Gets the length of the permutations in the file.
+   *
+   * @return the length of the permutations in the file
+   */
+  public int permutationLength() {
+    return length;
+  }
+
+  /**
+   * Creates a view of one of the permutations of the file. The view can be repositioned to other
+   * permutations of the file with its {@link FilePermutation#moveTo(int)} method.
+   *
+   * @param index the index of the permutation in the file
+   * @return a view of the permutation at the specified index
+   * @throws IndexOutOfBoundsException if index is negative or greater than or equal to size()
+   * @throws IllegalArgumentException if the file uses the {@link PermutationCodec.Encoding#LEHMER}
+   *     encoding, and the permutation at the specified index is not valid
+   */
+  public FilePermutation view(int index) {
+    return new FilePermutation(this, index);
+  }
+
+  /**
+   * Copies one of the permutations of the file to a new Permutation.
+   *
+   * @param index the index of the permutation in the file
+   * @return a copy of the permutation at the specified index
+   * @throws IndexOutOfBoundsException if index is negative or greater than or equal to size()
+   * @throws IllegalArgumentException if the record at the specified index is not a valid
+   *     permutation
+   */
+  public Permutation get(int index) {
+    return new Permutation(view(index).toArray());
+  }
+
+  /*
+   * Checks whether a view must decode its permutation into an array.
+   */
+  boolean decodes() {
+    return codec != null && codec.encoding() == PermutationCodec.Encoding.LEHMER;
+  }
+
+  /*
+   * Creates a codec for the exclusive use of a view, which decodes with
+   * scratch arrays of the codec.
+   */
+  PermutationCodec newCodec() {
+    return new PermutationCodec(length, codec.encoding());
+  }
+
+  /*
+   * Gets the buffer containing the record with the specified index.
+   */
+  ByteBuffer buffer(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+    }
+    return buffers[index / recordsPerBuffer];
+  }
+
+  /*
+   * Gets the byte offset, within its buffer, of the record with the
+   * specified index.
+   */
+  int offset(int index) {
+    return (index % recordsPerBuffer) * recordBytes;
+  }
+
+  /*
+   * Reads element i of the record beginning at byte offset base, for a file
+   * whose views do not decode.
+   */
+  int get(ByteBuffer buffer, int base, int i) {
+    if (codec != null) {
+      return codec.element(buffer, base, i);
+    }
+    switch (elementShift) {
+      case 0:
+        return buffer.get(base + i) & 0xff;
+      case 1:
+        return buffer.getChar(base + (i << 1));
+      default:
+        return buffer.getInt(base + (i << 2));
+    }
+  }
+}
@@ -34,6 +34,18 @@ import org.cicirello.util.ArrayFiller;
  * of the internally maintained Permutation object so the caller can safely modify the returned
  * Permutation without risk of interfering with the operation of the Iterator.
  *
+ * <p>The iterator also has a cursor mode, which avoids the copy and the allocation of the {@link
+ * #next()} method. Each call to {@link #advance()} changes a single Permutation, obtained from
+ * {@link #cursor()}, in place to the next permutation of the iteration, in O(1) amortized time:
+ *
+ * <pre>{@code
+ * PermutationIterator iter = new PermutationIterator(n);
+ * Permutation p = iter.cursor();
+ * while (iter.advance()) {
+ *   // use p, without modifying it
+ * }
+ * }</pre>
+ *
  * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
  *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
  */
@@ -42,6 +54,12 @@ public class PermutationIterator implements Iterator<Permutation> {
   private final Permutation p;
   private final int[] lastSwap;
   private boolean done;
+  // true if the cursor holds a permutation of the iteration that has been
+  // visited, and so p must be advanced before it is used again
+  private boolean visited;
+  // the number of i in [0, n-2] with lastSwap[i] == n-1, which is n-1 when
+  // p is the last permutation of the iteration
+  private int atEnd;
 
   /**
    * Initializes a PermutationIterator to iterate over all permutations of a given length.
@@ -75,7 +93,7 @@ public class PermutationIterator implements Iterator<Permutation> {
    */
   @Override
   public boolean hasNext() {
-    return !done;
+    return !done && !(visited && isLast());
   }
 
   /**
@@ -86,23 +104,78 @@ public class PermutationIterator implements Iterator<Permutation> {
    */
   @Override
   public Permutation next() {
+    catchUp();
     if (done) throw new NoSuchElementException();
     Permutation n = new Permutation(p);
+    step();
+    return n;
+  }
+
+  /**
+   * Gets the permutation that {@link #advance()} changes in place. The same Permutation object is
+   * returned by every call. Its state is unspecified until the first call to advance(), and after
+   * advance() returns false. The caller must not modify it, which would disrupt the iteration, and
+   * must copy it to retain any of the permutations of the iteration.
+   *
+   * @return the permutation changed in place by advance()
+   */
+  public Permutation cursor() {
+    return p;
+  }
+
+  /**
+   * Changes the permutation returned by {@link #cursor()}, in place, to the next permutation of the
+   * iteration, in O(1) amortized time, without allocating any objects. The first call leaves the
+   * cursor at the first permutation of the iteration. If {@link #next()} is also called, then each
+   * permutation is visited once by either next() or advance().
+   *
+   * @return true if the cursor is at the next permutation, and false if the iteration is complete
+   */
+  public boolean advance() {
+    catchUp();
+    if (done) {
+      return false;
+    }
+    visited = true;
+    return true;
+  }
+
+  /*
+   * Advances p past the permutation last visited by advance(), if any.
+   */
+  private void catchUp() {
+    if (visited) {
+      visited = false;
+      step();
+    }
+  }
+
+  private boolean isLast() {
+    return atEnd == lastSwap.length - 1 || lastSwap.length <= 1;
+  }
+
+  /*
+   * Advances p to the next permutation of the iteration, or sets done if
+   * p is the last permutation.
+   */
+  private void step() {
     if (lastSwap.length <= 1) {
       done = true;
     } else {
+      int last = lastSwap.length - 1;
       for (int i = lastSwap.length - 2; i >= 0; i--) {
         if (lastSwap[i] != i) p.internalSwap(i, lastSwap[i]);
-        if (lastSwap[i] == lastSwap.length - 1) {
+        if (lastSwap[i] == last) {
           lastSwap[i] = i;
+          atEnd--;
           if (i == 0) done = true;
           continue;
         }
         lastSwap[i]++;
+        if (lastSwap[i] == last) atEnd++;
         p.internalSwap(i, lastSwap[i]);
         break;
       }
     }
-    return n;
   }
 }
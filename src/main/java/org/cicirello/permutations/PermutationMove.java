@@ -0,0 +1,477 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+/**
+ * A PermutationMove is a reversible local change to a {@link Permutation}, such as swapping two
+ * elements or reversing a subsequence, represented as an object so that a search algorithm can
+ * generate, evaluate, apply, and undo candidate moves. The implementations, which are nested
+ * classes of this interface, are {@link Swap}, {@link Reversal}, {@link Insertion}, {@link
+ * BlockInterchange}, and {@link Rotation}. Each is immutable and can be applied to any permutation
+ * that is long enough. The one exception is the move that a {@link Neighborhood} passes to a {@link
+ * Neighborhood.MoveEvaluator}, which the scan repositions from call to call, and which therefore
+ * must not be retained beyond the call.
+ *
+ * <p>In addition to applying and undoing moves, this interface describes the effect of a move
+ * without applying it: the positions that it changes (see {@link #changedCount(int)} and {@link
+ * #changedPosition(int,int)}) and the element that each position would contain after the move (see
+ * {@link #elementAfter(PermutationView,int)}). The distance measures of the {@link
+ * org.cicirello.permutations.distance} package use this to compute the change in distance that a
+ * move would cause in time proportional to the number of positions that it changes, rather than
+ * recomputing the distance.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public interface PermutationMove {
+
+  /**
+   * Applies the move to a permutation.
+   *
+   * @param p the permutation
+   * @throws ArrayIndexOutOfBoundsException if the move refers to positions that are not valid for p
+   */
+  void apply(Permutation p);
+
+  /**
+   * Undoes the move, such that if the move was the most recent change to p, p is restored to its
+   * state prior to the move.
+   *
+   * @param p the permutation
+   * @throws ArrayIndexOutOfBoundsException if the move refers to positions that are not valid for p
+   */
+  void undo(Permutation p);
+
+  /**
+   * Gets the number of positions that the move may change in a permutation of length n.
+   *
+   * @param n the length of the permutation
+   * @return the number of positions that the move may change
+   */
+  int changedCount(int n);
+
+  /**
+   * Gets one of the positions that the move may change in a permutation of length n. The positions
+   * are in increasing order of t.
+   *
+   * @param t an index into the changed positions (precondition: 0 &le; t &lt; changedCount(n))
+   * @param n the length of the permutation
+   * @return the t-th position that the move may change
+   */
+  int changedPosition(int t, int n);
+
+  /**
+   * Gets the element that position k of a permutation would contain if the move were applied to it,
+   * without applying the move. Positions that the move does not change contain their current
+   * elements.
+   *
+   * @param p the permutation, prior to the move
+   * @param k a position of the permutation (precondition: 0 &le; k &lt; p.length())
+   * @return the element in position k after the move
+   */
+  int elementAfter(PermutationView p, int k);
+
+  /** A move that swaps the elements in two positions. */
+  public static final class Swap implements PermutationMove {
+
+    private int i;
+    private int j;
+
+    /**
+     * Initializes a swap move.
+     *
+     * @param i one of the positions
+     * @param j the other position
+     * @throws IllegalArgumentException if i or j is negative
+     */
+    public Swap(int i, int j) {
+      if (i < 0 || j < 0) {
+        throw new IllegalArgumentException("Positions must be non-negative.");
+      }
+      set(i, j);
+    }
+
+    /*
+     * Repositions the move, for reuse by a Neighborhood scan.
+     */
+    void set(int i, int j) {
+      this.i = Math.min(i, j);
+      this.j = Math.max(i, j);
+    }
+
+    /**
+     * Gets the lesser of the two positions.
+     *
+     * @return the lesser of the two positions
+     */
+    public int first() {
+      return i;
+    }
+
+    /**
+     * Gets the greater of the two positions.
+     *
+     * @return the greater of the two positions
+     */
+    public int second() {
+      return j;
+    }
+
+    @Override
+    public void apply(Permutation p) {
+      p.swap(i, j);
+    }
+
+    @Override
+    public void undo(Permutation p) {
+      p.swap(i, j);
+    }
+
+    @Override
+    public int changedCount(int n) {
+      return i == j ? 0 : 2;
+    }
+
+    @Override
+    public int changedPosition(int t, int n) {
+      return t == 0 ? i : j;
+    }
+
+    @Override
+    public int elementAfter(PermutationView p, int k) {
+      return p.get(k == i ? j : k == j ? i : k);
+    }
+  }
+
+  /** A move that reverses the subsequence between two positions, inclusive. */
+  public static final class Reversal implements PermutationMove {
+
+    private int i;
+    private int j;
+
+    /**
+     * Initializes a reversal move.
+     *
+     * @param i one end of the subsequence
+     * @param j the other end of the subsequence
+     * @throws IllegalArgumentException if i or j is negative
+     */
+    public Reversal(int i, int j) {
+      if (i < 0 || j < 0) {
+        throw new IllegalArgumentException("Positions must be non-negative.");
+      }
+      set(i, j);
+    }
+
+    /*
+     * Repositions the move, for reuse by a Neighborhood scan.
+     */
+    void set(int i, int j) {
+      this.i = Math.min(i, j);
+      this.j = Math.max(i, j);
+    }
+
+    /**
+     * Gets the first position of the subsequence.
+     *
+     * @return the first position of the subsequence
+     */
+    public int first() {
+      return i;
+    }
+
+    /**
+     * Gets the last position of the subsequence.
+     *
+     * @return the last position of the subsequence
+     */
+    public int last() {
+      return j;
+    }
+
+    @Override
+    public void apply(Permutation p) {
+      p.reverse(i, j);
+    }
+
+    @Override
+    public void undo(Permutation p) {
+      p.reverse(i, j);
+    }
+
+    @Override
+    public int changedCount(int n) {
+      return j - i + 1;
+    }
+
+    @Override
+    public int changedPosition(int t, int n) {
+      return i + t;
+    }
+
+    @Override
+    public int elementAfter(PermutationView p, int k) {
+      return p.get(k >= i && k <= j ? i + j - k : k);
+    }
+  }
+
+  /**
+   * A move that removes the element from one position, and inserts it at another, shifting the
+   * elements in between (see {@link Permutation#removeAndInsert(int,int)}).
+   */
+  public static final class Insertion implements PermutationMove {
+
+    private int from;
+    private int to;
+
+    /**
+     * Initializes an insertion move.
+     *
+     * @param from the position of the element to remove
+     * @param to the position at which to insert it
+     * @throws IllegalArgumentException if from or to is negative
+     */
+    public Insertion(int from, int to) {
+      if (from < 0 || to < 0) {
+        throw new IllegalArgumentException("Positions must be non-negative.");
+      }
+      set(from, to);
+    }
+
+    /*
+     * Repositions the move, for reuse by a Neighborhood scan.
+     */
+    void set(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * Gets the position of the element that is removed.
+     *
+     * @return the position of the element that is removed
+     */
+    public int from() {
+      return from;
+    }
+
+    /**
+     * Gets the position at which the element is inserted.
+     *
+     * @return the position at which the element is inserted
+     */
+    public int to() {
+      return to;
+    }
+
+    @Override
+    public void apply(Permutation p) {
+      p.removeAndInsert(from, to);
+    }
+
+    @Override
+    public void undo(Permutation p) {
+      p.removeAndInsert(to, from);
+    }
+
+    @Override
+    public int changedCount(int n) {
+      return from == to ? 0 : Math.abs(to - from) + 1;
+    }
+
+    @Override
+    public int changedPosition(int t, int n) {
+      return Math.min(from, to) + t;
+    }
+
+    @Override
+    public int elementAfter(PermutationView p, int k) {
+      if (k == to) {
+        return p.get(from);
+      } else if (from < to && k >= from && k < to) {
+        return p.get(k + 1);
+      } else if (from > to && k > to && k <= from) {
+        return p.get(k - 1);
+      }
+      return p.get(k);
+    }
+  }
+
+  /**
+   * A move that interchanges two non-overlapping blocks of consecutive elements (see {@link
+   * Permutation#swapBlocks(int,int,int,int)}).
+   */
+  public static final class BlockInterchange implements PermutationMove {
+
+    private final int a;
+    private final int b;
+    private final int i;
+    private final int j;
+
+    /**
+     * Initializes a block interchange move.
+     *
+     * @param a Starting index of first block.
+     * @param b Ending index, inclusive, of first block.
+     * @param i Starting index of second block.
+     * @param j Ending index, inclusive, of second block.
+     * @throws IllegalArgumentException if the following constraint is violated: 0 &le; a &le; b
+     *     &lt; i &le; j.
+     */
+    public BlockInterchange(int a, int b, int i, int j) {
+      if (a < 0 || b < a || i <= b || j < i) {
+        throw new IllegalArgumentException("Illegal block definition.");
+      }
+      this.a = a;
+      this.b = b;
+      this.i = i;
+      this.j = j;
+    }
+
+    /**
+     * Gets the starting index of the first block.
+     *
+     * @return the starting index of the first block
+     */
+    public int firstBlockStart() {
+      return a;
+    }
+
+    /**
+     * Gets the ending index, inclusive, of the first block.
+     *
+     * @return the ending index of the first block
+     */
+    public int firstBlockEnd() {
+      return b;
+    }
+
+    /**
+     * Gets the starting index of the second block.
+     *
+     * @return the starting index of the second block
+     */
+    public int secondBlockStart() {
+      return i;
+    }
+
+    /**
+     * Gets the ending index, inclusive, of the second block.
+     *
+     * @return the ending index of the second block
+     */
+    public int secondBlockEnd() {
+      return j;
+    }
+
+    @Override
+    public void apply(Permutation p) {
+      p.swapBlocks(a, b, i, j);
+    }
+
+    @Override
+    public void undo(Permutation p) {
+      // After the move, the former second block begins at a, and the
+      // former first block ends at j.
+      p.swapBlocks(a, a + j - i, j - b + a, j);
+    }
+
+    @Override
+    public int changedCount(int n) {
+      return j - a + 1;
+    }
+
+    @Override
+    public int changedPosition(int t, int n) {
+      return a + t;
+    }
+
+    @Override
+    public int elementAfter(PermutationView p, int k) {
+      if (k < a || k > j) {
+        return p.get(k);
+      }
+      int second = j - i + 1;
+      int middle = i - b - 1;
+      if (k < a + second) {
+        return p.get(i + k - a);
+      } else if (k < a + second + middle) {
+        return p.get(b + 1 + k - a - second);
+      }
+      return p.get(a + k - a - second - middle);
+    }
+  }
+
+  /**
+   * A move that circularly rotates the entire permutation to the left (see {@link
+   * Permutation#rotate(int)}).
+   */
+  public static final class Rotation implements PermutationMove {
+
+    private final int numPositions;
+
+    /**
+     * Initializes a rotation move.
+     *
+     * @param numPositions the number of positions to rotate to the left, which may be negative to
+     *     rotate to the right
+     */
+    public Rotation(int numPositions) {
+      this.numPositions = numPositions;
+    }
+
+    /**
+     * Gets the number of positions to rotate to the left.
+     *
+     * @return the number of positions to rotate to the left
+     */
+    public int numPositions() {
+      return numPositions;
+    }
+
+    @Override
+    public void apply(Permutation p) {
+      p.rotate(numPositions);
+    }
+
+    @Override
+    public void undo(Permutation p) {
+      p.rotate(-numPositions);
+    }
+
+    @Override
+    public int changedCount(int n) {
+      return n == 0 || Math.floorMod(numPositions, n) == 0 ? 0 : n;
+    }
+
+    @Override
+    public int changedPosition(int t, int n) {
+      return t;
+    }
+
+    @Override
+    public int elementAfter(PermutationView p, int k) {
+      int n = p.length();
+      return p.get((k + Math.floorMod(numPositions, n)) % n);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.math.BigInteger;
+
+/**
+ * A PermutationRanker defines a bijection between the n! permutations of length n and the integers
+ * in the interval [0, n!). The rank of a permutation can be computed as an int for permutations of
+ * length at most 12, as a long for permutations of length at most 20, and as a BigInteger for
+ * permutations of any length. The three agree whenever more than one of them is supported.
+ *
+ * <p>Different rankers order the permutations differently, and the choice among them depends upon
+ * whether that order matters. The {@link LexicographicRanker} ranks permutations in lexicographic
+ * order, and the {@link MixedRadixRanker} ranks them in the order used by {@link
+ * Permutation#toInteger()}, {@link Permutation#toBigInteger()}, and the corresponding constructors.
+ * Both of these require O(n lg n) time. The {@link MyrvoldRuskeyRanker} ranks permutations in an
+ * order that is less intuitive, but does so in O(n) time, and is thus preferable when any bijection
+ * suffices, such as when ranks are used as hash keys, array indexes, or for sharding.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public interface PermutationRanker {
+
+  /**
+   * Computes the rank of a permutation as an int. This method is only supported for permutations of
+   * length 12 or less.
+   *
+   * @param p the permutation
+   * @return the rank of p, in the interval [0, p.length()!)
+   * @throws UnsupportedOperationException when permutation length is greater than 12.
+   */
+  default int toInteger(PermutationView p) {
+    if (p.length() > Factoradic.MAX_INT_LENGTH)
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 12.");
+    return (int) toLong(p);
+  }
+
+  /**
+   * Computes the rank of a permutation as a long. This method is only supported for permutations of
+   * length 20 or less.
+   *
+   * @param p the permutation
+   * @return the rank of p, in the interval [0, p.length()!)
+   * @throws UnsupportedOperationException when permutation length is greater than 20.
+   */
+  long toLong(PermutationView p);
+
+  /**
+   * Computes the rank of a permutation as a BigInteger.
+   *
+   * @param p the permutation
+   * @return the rank of p, in the interval [0, p.length()!)
+   */
+  BigInteger toBigInteger(PermutationView p);
+
+  /**
+   * Generates the permutation of length n with a specified rank. Any multiple of n! in the rank is
+   * ignored.
+   *
+   * @param n the length of the permutation
+   * @param rank the rank of the permutation, in the interval [0, n!)
+   * @return the permutation of length n with the specified rank
+   * @throws IllegalArgumentException if rank is negative
+   */
+  default Permutation unrank(int n, int rank) {
+    return unrank(n, (long) rank);
+  }
+
+  /**
+   * Generates the permutation of length n with a specified rank. Any multiple of n! in the rank is
+   * ignored.
+   *
+   * @param n the length of the permutation
+   * @param rank the rank of the permutation, in the interval [0, n!)
+   * @return the permutation of length n with the specified rank
+   * @throws IllegalArgumentException if rank is negative
+   */
+  Permutation unrank(int n, long rank);
+
+  /**
+   * Generates the permutation of length n with a specified rank. Any multiple of n! in the rank is
+   * ignored.
+   *
+   * @param n the length of the permutation
+   * @param rank the rank of the permutation, in the interval [0, n!)
+   * @return the permutation of length n with the specified rank
+   * @throws IllegalArgumentException if rank is negative
+   */
+  Permutation unrank(int n, BigInteger rank);
+}
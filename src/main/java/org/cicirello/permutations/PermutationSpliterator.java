@@ -0,0 +1,157 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over all permutations of a specified length, n, of the integers in the interval
+ * [0,n), in lexicographic order, which enables enumerating the permutations with a parallel stream
+ * (see {@link Permutation#stream(int)}). The Spliterator covers an interval of the lexicographic
+ * ranks of the permutations, initially all n! of them. It splits by dividing its interval of ranks
+ * in half, and seeds the second half by unranking its first rank, in O(n) time. Within an interval,
+ * it moves from each permutation to its lexicographic successor in place, in O(1) amortized time.
+ *
+ * <p>By default, each permutation that the Spliterator supplies is a new Permutation object. In
+ * place mode (see {@link #PermutationSpliterator(int,boolean)}), the Spliterator instead supplies
+ * the same Permutation object for every permutation in its interval, which it changes in place to
+ * each next permutation, so that enumerating the permutations allocates only one object per split.
+ * Consumers in place mode must neither modify nor retain the permutations they are supplied, but
+ * must copy any that they need to keep.
+ *
+ * <p>The permutations are ranked with {@link LexicographicRanker}, and so n must be at most 20.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class PermutationSpliterator implements Spliterator<Permutation> {
+
+  private final boolean inPlace;
+  private Permutation current;
+  private long next;
+  private final long end;
+
+  /**
+   * Initializes a Spliterator over all permutations of length n, which supplies a new Permutation
+   * object for each permutation.
+   *
+   * @param n the length of the permutations
+   * @throws IllegalArgumentException if n is negative
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public PermutationSpliterator(int n) {
+    this(n, false);
+  }
+
+  /**
+   * Initializes a Spliterator over all permutations of length n.
+   *
+   * @param n the length of the permutations
+   * @param inPlace if true, the Spliterator supplies one Permutation object, which it changes in
+   *     place to each permutation in turn, and which consumers must neither modify nor retain; and
+   *     if false, it supplies a new Permutation object for each permutation
+   * @throws IllegalArgumentException if n is negative
+   * @throws UnsupportedOperationException if n is greater than 20
+   */
+  public PermutationSpliterator(int n, boolean inPlace) {
+    if (n < 0) {
+      throw new IllegalArgumentException("n must be non-negative");
+    }
+    if (n > Factoradic.MAX_LONG_LENGTH) {
+      throw new UnsupportedOperationException(
+          "Unsupported for permutations of length greater than 20.");
+    }
+    this.inPlace = inPlace;
+    current = new Permutation(n, 0);
+    next = 0;
+    end = Factoradic.factorial(n);
+  }
+
+  /*
+   * Initializes a Spliterator over the permutations with lexicographic
+   * ranks in the interval [first, end), continuing from the permutation p
+   * with rank first.
+   */
+  private PermutationSpliterator(Permutation p, long first, long end, boolean inPlace) {
+    this.inPlace = inPlace;
+    current = p;
+    next = first;
+    this.end = end;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Permutation> action) {
+    if (next >= end) {
+      return false;
+    }
+    supply(action);
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super Permutation> action) {
+    while (next < end) {
+      supply(action);
+    }
+  }
+
+  @Override
+  public Spliterator<Permutation> trySplit() {
+    long mid = next + ((end - next) >>> 1);
+    if (mid == next) {
+      return null;
+    }
+    // The prefix, which must be split off for an ORDERED Spliterator,
+    // continues from the current permutation, and this Spliterator
+    // resumes at the midpoint.
+    PermutationSpliterator prefix = new PermutationSpliterator(current, next, mid, inPlace);
+    int[] p = new int[current.length()];
+    Factoradic.fromLong(mid, p, true);
+    current = new Permutation(p);
+    next = mid;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return end - next;
+  }
+
+  @Override
+  public int characteristics() {
+    int c = ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    return inPlace ? c : c | DISTINCT;
+  }
+
+  /*
+   * Supplies the current permutation to the action, and then advances to
+   * its successor, unless it is the last permutation of the interval.
+   */
+  private void supply(Consumer<? super Permutation> action) {
+    action.accept(inPlace ? current : new Permutation(current));
+    next++;
+    if (next < end) {
+      LexicographicIterator.successor(current);
+    }
+  }
+}
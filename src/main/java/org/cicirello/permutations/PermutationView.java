@@ -0,0 +1,121 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+/**
+ * A read-only view of a permutation of the integers from 0 to N-1, inclusive. This interface is
+ * implemented by the {@link Permutation} class, as well as by the alternative permutation
+ * representations of this library, such as {@link CompactPermutation}, which store their elements
+ * in something other than an array of ints. The distance measures of the {@link
+ * org.cicirello.permutations.distance} package accept PermutationView objects, which enables
+ * computing distances directly on these alternative representations without first copying them to a
+ * {@link Permutation}.
+ *
+ * <p>Implementations are responsible for ensuring that the view is a valid permutation, i.e., that
+ * each of the integers in the interval [0, length()) occurs exactly once.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public interface PermutationView {
+
+  /**
+   * Retrieves the i-th integer of the permutation.
+   *
+   * @param i the index of the integer to retrieve. (precondition: 0 &le; i &lt; length())
+   * @return the integer in the i-th position.
+   * @throws IndexOutOfBoundsException if i is negative, or if i is greater than or equal to
+   *     length()
+   */
+  int get(int i);
+
+  /**
+   * Retrieves the length of the permutation.
+   *
+   * @return length of the permutation
+   */
+  int length();
+
+  /**
+   * Computes the inverse of the permutation.
+   *
+   * @return The inverse of the permutation, such that for all i, if pi(i) = j, then inv(j) = i
+   */
+  default int[] getInverse() {
+    int[] inverse = new int[length()];
+    for (int i = 0; i < inverse.length; i++) {
+      inverse[get(i)] = i;
+    }
+    return inverse;
+  }
+
+  /**
+   * Computes the inverse of the permutation.
+   *
+   * @param array An array to hold the result. If array is null or if array.length is not equal to
+   *     the length of the permutation, then this method will construct a new array for the result.
+   * @return The inverse of the permutation, such that for all i, if pi(i) = j, then inv(j) = i
+   */
+  default int[] getInverse(int[] array) {
+    if (array == null || array.length != length()) {
+      return getInverse();
+    }
+    for (int i = 0; i < array.length; i++) {
+      array[get(i)] = i;
+    }
+    return array;
+  }
+
+  /**
+   * Generates an array of int values from the interval [0, n) in the same order that they occur in
+   * this permutation. The array that is returned is independent of the state of the view.
+   *
+   * @return an int array containing the permutation elements in the same order that they appear in
+   *     the permutation.
+   */
+  default int[] toArray() {
+    int[] array = new int[length()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = get(i);
+    }
+    return array;
+  }
+
+  /**
+   * Generates an array of int values from the interval [0, n) in the same order that they occur in
+   * this permutation. The array that is returned is independent of the state of the view.
+   *
+   * @param array An array to hold the result. If array is null or if array.length is not equal to
+   *     the length of the permutation, then this method will construct a new array for the result.
+   * @return an int array containing the permutation elements in the same order that they appear in
+   *     the permutation.
+   */
+  default int[] toArray(int[] array) {
+    if (array == null || array.length != length()) {
+      return toArray();
+    }
+    for (int i = 0; i < array.length; i++) {
+      array[i] = get(i);
+    }
+    return array;
+  }
+}
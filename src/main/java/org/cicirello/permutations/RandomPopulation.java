@@ -0,0 +1,114 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/*
+ * Internal support for the bulk generation of random permutations in
+ * parallel. The population is divided into chunks of a fixed number of
+ * permutations, and each chunk is generated with its own generator, split
+ * from the seed generator in chunk order before any of the chunks are
+ * generated. Which generator produces each permutation, and the sequence
+ * of random numbers it is given, thus depend only on the seed and the size
+ * of the population, and not on the number of threads, or on the order in
+ * which the threads reach the chunks.
+ */
+final class RandomPopulation {
+
+  /*
+   * The number of permutations per chunk. Changing this changes the
+   * population generated from a given seed.
+   */
+  static final int CHUNK_SIZE = 128;
+
+  /*
+   * Generates the permutations of the population with indexes in the
+   * interval [from, to), each with r in order of index.
+   */
+  interface ChunkFiller {
+    void fill(int from, int to, RandomGenerator r);
+  }
+
+  private RandomPopulation() {}
+
+  static void checkSize(int count, int n) {
+    if (count < 0 || n < 0) {
+      throw new IllegalArgumentException("count and n must be non-negative");
+    }
+  }
+
+  /*
+   * Generates a population of count permutations with the threads of the
+   * pool.
+   */
+  static void fill(int count, SplittableGenerator seed, ForkJoinPool pool, ChunkFiller filler) {
+    int chunks = (int) (((long) count + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    RandomGenerator[] generators = new RandomGenerator[chunks];
+    for (int c = 0; c < chunks; c++) {
+      generators[c] = seed.split();
+    }
+    if (chunks > 0) {
+      pool.invoke(new FillTask(count, generators, filler, 0, chunks));
+    }
+  }
+
+  /*
+   * Generates the chunks with indexes in the interval [first, last),
+   * splitting the interval in half until it is a single chunk.
+   */
+  private static final class FillTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int count;
+    private final transient RandomGenerator[] generators;
+    private final transient ChunkFiller filler;
+    private final int first;
+    private final int last;
+
+    private FillTask(
+        int count, RandomGenerator[] generators, ChunkFiller filler, int first, int last) {
+      this.count = count;
+      this.generators = generators;
+      this.filler = filler;
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    protected void compute() {
+      if (last - first == 1) {
+        int from = first * CHUNK_SIZE;
+        filler.fill(from, (int) Math.min(count, (long) from + CHUNK_SIZE), generators[first]);
+      } else {
+        int mid = (first + last) >>> 1;
+        invokeAll(
+            new FillTask(count, generators, filler, first, mid),
+            new FillTask(count, generators, filler, mid, last));
+      }
+    }
+  }
+}
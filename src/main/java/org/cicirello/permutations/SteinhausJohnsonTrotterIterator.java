@@ -0,0 +1,202 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over all permutations of a specified length, n, of the integers in the interval [0,n),
+ * in the order of the Steinhaus-Johnson-Trotter algorithm, also known as plain changes. This order
+ * is a Gray code: each permutation of the iteration differs from the one before it by a single swap
+ * of two adjacent elements. Moving from one permutation to the next takes O(1) amortized time. The
+ * implementation is Algorithm P of Knuth, <i>The Art of Computer Programming</i>, Vol 4A, Section
+ * 7.2.1.2.
+ *
+ * <p>Since consecutive permutations differ by one adjacent swap, the value of an objective
+ * function, or the distance to some other permutation, can often be updated from one permutation to
+ * the next in O(1) time, rather than recomputed in O(n) time. The iterator reports each swap, by
+ * the lower of the two indexes, to an optional {@link SwapListener}, and the most recent swap is
+ * also available from {@link #lastSwap()}.
+ *
+ * <p>Like {@link PermutationIterator}, the {@link #next()} method returns a copy of the internally
+ * maintained Permutation, which the caller may modify; and the iterator has a cursor mode, in which
+ * {@link #advance()} changes the single Permutation returned by {@link #cursor()} in place, without
+ * allocating any objects.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class SteinhausJohnsonTrotterIterator implements Iterator<Permutation> {
+
+  /**
+   * A listener that is notified of each swap of adjacent elements made by a {@link
+   * SteinhausJohnsonTrotterIterator}.
+   */
+  @FunctionalInterface
+  public interface SwapListener {
+
+    /**
+     * Called after the iterator swaps the elements in positions i and i+1.
+     *
+     * @param i the lower of the indexes of the swapped elements
+     */
+    void swapped(int i);
+  }
+
+  private final Permutation p;
+  private final SwapListener listener;
+  // Knuth's inversion counts, c, and directions, o, indexed 1 to n as in
+  // Algorithm P.
+  private final int[] c;
+  private final int[] o;
+  private long remaining;
+  private boolean started;
+  private int lastSwap;
+
+  /**
+   * Initializes an iterator over all permutations of length n, beginning with the identity
+   * permutation.
+   *
+   * @param n The length of the permutations.
+   */
+  public SteinhausJohnsonTrotterIterator(int n) {
+    this(new Permutation(n, 0), null);
+  }
+
+  /**
+   * Initializes an iterator over all permutations the same length as a given permutation, beginning
+   * with that permutation. The swaps are determined by position alone, and so the same sequence of
+   * swaps is made from any first permutation.
+   *
+   * @param first The first permutation in the iteration.
+   * @param listener A listener notified after each swap, or null for none.
+   */
+  public SteinhausJohnsonTrotterIterator(Permutation first, SwapListener listener) {
+    int n = first.length();
+    p = new Permutation(first);
+    this.listener = listener;
+    c = new int[n + 1];
+    o = new int[n + 1];
+    for (int j = 1; j <= n; j++) {
+      o[j] = 1;
+    }
+    remaining = n <= Factoradic.MAX_LONG_LENGTH ? Factoradic.factorial(n) : Long.MAX_VALUE;
+    lastSwap = -1;
+  }
+
+  /**
+   * Checks if this iterator has more permutations.
+   *
+   * @return true if and only if this iterator has more permutations to iterate over.
+   */
+  @Override
+  public boolean hasNext() {
+    return remaining > 0;
+  }
+
+  /**
+   * Gets a copy of the next permutation of the iteration.
+   *
+   * @return The Permutation for the next iteration.
+   * @throws NoSuchElementException if hasNext() is false
+   */
+  @Override
+  public Permutation next() {
+    if (!advance()) throw new NoSuchElementException();
+    return new Permutation(p);
+  }
+
+  /**
+   * Gets the permutation that {@link #advance()} changes in place. The same Permutation object is
+   * returned by every call. The caller must not modify it, and must copy it to retain any of the
+   * permutations of the iteration.
+   *
+   * @return the permutation changed in place by advance()
+   */
+  public Permutation cursor() {
+    return p;
+  }
+
+  /**
+   * Changes the permutation returned by {@link #cursor()}, in place, to the next permutation of the
+   * iteration, by a single swap of adjacent elements, in O(1) amortized time. The first call leaves
+   * the cursor at the first permutation of the iteration, without a swap. If {@link #next()} is
+   * also called, then each permutation is visited once by either next() or advance().
+   *
+   * @return true if the cursor is at the next permutation, and false if the iteration is complete
+   */
+  public boolean advance() {
+    if (remaining <= 0) {
+      return false;
+    }
+    remaining--;
+    if (started) {
+      step();
+    } else {
+      started = true;
+    }
+    return true;
+  }
+
+  /**
+   * Gets the lower index of the two adjacent elements swapped to reach the current permutation,
+   * i.e., the permutation most recently visited by {@link #next()} or {@link #advance()}.
+   *
+   * @return i, such that the elements in positions i and i+1 were most recently swapped, or -1 if
+   *     the current permutation is the first of the iteration
+   */
+  public int lastSwap() {
+    return lastSwap;
+  }
+
+  /*
+   * Steps P3 through P7 of Algorithm P, using 1-based positions as in
+   * Knuth's description. Swaps the elements in 1-based positions
+   * j - c[j] + s and j - q + s, which are adjacent.
+   */
+  private void step() {
+    int j = c.length - 1;
+    int s = 0;
+    while (true) {
+      int q = c[j] + o[j];
+      if (q < 0) {
+        o[j] = -o[j];
+        j--;
+      } else if (q == j) {
+        // Unreachable for j == 1 while permutations remain.
+        s++;
+        o[j] = -o[j];
+        j--;
+      } else {
+        int i = Math.min(j - c[j], j - q) + s - 1;
+        p.internalSwap(i, i + 1);
+        c[j] = q;
+        lastSwap = i;
+        if (listener != null) {
+          listener.swapped(i);
+        }
+        return;
+      }
+    }
+  }
+}
@@ -21,6 +21,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Block Interchange Distance is the minimum number of block interchanges necessary to transform one
@@ -51,13 +52,33 @@ public class BlockInterchangeDistance implements NormalizedPermutationDistanceMe
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
-    int[] inv2 = p2.getInverse();
-    int[] p = new int[inv2.length + 2];
-    int[] inv = new int[p.length];
-    boolean[] visited = new boolean[p.length];
+    int[] inv2 = p2.getInverse(workspace.ints(0, p2.length()));
+    int[] p = workspace.ints(1, inv2.length + 2);
+    int[] inv = workspace.ints(2, p.length);
+    boolean[] visited = workspace.flags(p.length);
     for (int i = 0; i < p1.length(); i++) {
       int index = inv2[p1.get(i)] + 1;
       p[index] = i + 1;
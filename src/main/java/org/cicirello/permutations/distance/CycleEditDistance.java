@@ -21,7 +21,9 @@
  */
 package org.cicirello.permutations.distance;
 
+import org.cicirello.permutations.CycleStructure;
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Cycle edit distance is the minimum number of non-singleton permutation cycles necessary to
@@ -55,41 +57,47 @@ public final class CycleEditDistance implements NormalizedPermutationDistanceMea
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
-    if (p1.length() != p2.length()) {
-      throw new IllegalArgumentException("Permutations must be the same length");
-    }
-    boolean[] used = new boolean[p1.length()];
-    for (int k = 0; k < used.length; k++) {
-      if (p1.get(k) == p2.get(k)) {
-        used[p1.get(k)] = true;
-      }
-    }
-    int i = 0;
-    for (i = 0; i < used.length; i++) {
-      if (!used[p1.get(i)]) {
-        break;
-      }
-    }
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    return fromCycleLengths(null, RelativeCycles.nonSingletonLengths(p1, p2, workspace));
+  }
 
-    if (i >= used.length) {
-      return 0;
-    } else {
-      int[] invP1 = p1.getInverse();
-      int iLast = i;
+  /**
+   * Computes the distance between permutations p1 and p2 from the cycle structure of
+   * p1<sup>-1</sup>p2, as computed by {@link CycleStructure#between}, such that
+   * distance(CycleStructure.between(p1, p2)) == distance(p1, p2). The runtime is O(1).
+   *
+   * @param cycles the cycle structure of p1<sup>-1</sup>p2
+   * @return distance between p1 and p2
+   */
+  public int distance(CycleStructure cycles) {
+    return Math.min(2, cycles.cycleCount() - cycles.fixedPointCount());
+  }
 
-      int j = p1.get(i);
-      while (!used[j]) {
-        used[j] = true;
-        j = p2.get(i);
-        i = invP1[j];
-      }
-      for (i = iLast + 1; i < used.length; i++) {
-        if (!used[p1.get(i)]) {
-          return 2;
-        }
-      }
-      return 1;
-    }
+  /*
+   * Computes the distance from the lengths of the count non-singleton
+   * permutation cycles between the permutations.
+   */
+  int fromCycleLengths(int[] lengths, int count) {
+    return Math.min(2, count);
   }
 
   @Override
@@ -21,6 +21,8 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Cyclic edge distance treats the permutations as if they represent sets of edges, and counts the
@@ -55,11 +57,31 @@ public final class CyclicEdgeDistance implements NormalizedPermutationDistanceMe
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
     int countNonSharedEdges = 0;
-    int[] successors2 = new int[p2.length()];
+    int[] successors2 = workspace.ints(0, p2.length());
     for (int i = 0; i < successors2.length; i++) {
       successors2[p2.get(i)] = p2.get(indexCyclicAdjustment(i + 1, successors2.length));
     }
@@ -74,6 +96,28 @@ public final class CyclicEdgeDistance implements NormalizedPermutationDistanceMe
     return countNonSharedEdges;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The runtime is O(k), where k is the number of positions that the move changes, if inverse
+   * tracking is enabled for the reference permutation (see {@link Permutation#setInverseTracking}),
+   * and otherwise O(n + k).
+   *
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  @Override
+  public int delta(Permutation current, Permutation reference, PermutationMove m) {
+    return MoveDeltas.edgeDelta(current, reference, m, true, CyclicEdgeDistance::sharedEdge);
+  }
+
+  /*
+   * Checks if the elements at positions posX and posY of the reference
+   * permutation are cyclically adjacent.
+   */
+  private static boolean sharedEdge(int posX, int posY, int n) {
+    return posY == (posX + 1) % n || posX == (posY + 1) % n;
+  }
+
   @Override
   public int max(int length) {
     if (length <= 3) return 0;
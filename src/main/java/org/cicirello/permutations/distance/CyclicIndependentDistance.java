@@ -21,6 +21,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * This class implements the concept of a cyclic independent distance measure. This is relevant if
@@ -57,12 +58,42 @@ public final class CyclicIndependentDistance implements PermutationDistanceMeasu
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
-    int result = d.distance(p1, p2);
-    Permutation pCopy = new Permutation(p2);
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * Measures the distance between two permutations, with cyclic independence: distance = min_{i in
+   * [0,N)} distance(p1,rotate(p2,i))
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * Measures the distance between two permutations, with cyclic independence: distance = min_{i in
+   * [0,N)} distance(p1,rotate(p2,i))
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param workspace the workspace
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    DistanceWorkspace inner = workspace.nested();
+    int result = d.distance(p1, p2, inner);
+    Permutation pCopy = workspace.copyOf(p2);
     int L = pCopy.length();
     for (int i = 0; i < L && result > 0; i++) {
       pCopy.rotate(1);
-      result = Math.min(result, d.distance(p1, pCopy));
+      result = Math.min(result, d.distance(p1, pCopy, inner));
     }
     return result;
   }
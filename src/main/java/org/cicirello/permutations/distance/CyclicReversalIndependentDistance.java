@@ -21,6 +21,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * This class implements the combination of cyclic independence and reversal independence. This is
@@ -62,24 +63,54 @@ public final class CyclicReversalIndependentDistance implements PermutationDista
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
-    int result = d.distance(p1, p2);
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * Measures the distance between two permutations, with cyclic and reversal independence: distance
+   * = min_{i in [0,N)} { distance(p1,rotate(p2,i)), distance(p1,rotate(reverse(p2),i)) }
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * Measures the distance between two permutations, with cyclic and reversal independence: distance
+   * = min_{i in [0,N)} { distance(p1,rotate(p2,i)), distance(p1,rotate(reverse(p2),i)) }
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param workspace the workspace
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    DistanceWorkspace inner = workspace.nested();
+    int result = d.distance(p1, p2, inner);
     if (result > 0) {
-      Permutation reverse2 = new Permutation(p2);
+      Permutation reverse2 = workspace.copyOf(p2);
       reverse2.reverse();
-      result = Math.min(result, d.distance(p1, reverse2));
+      result = Math.min(result, d.distance(p1, reverse2, inner));
       if (result > 0) {
         int L = reverse2.length();
         for (int i = 0; i < L && result > 0; i++) {
           reverse2.rotate(1);
-          result = Math.min(result, d.distance(p1, reverse2));
+          result = Math.min(result, d.distance(p1, reverse2, inner));
         }
       }
       if (result > 0) {
-        Permutation pCopy = new Permutation(p2);
+        Permutation pCopy = workspace.copyOf(p2);
         int L = pCopy.length();
         for (int i = 0; i < L && result > 0; i++) {
           pCopy.rotate(1);
-          result = Math.min(result, d.distance(p1, pCopy));
+          result = Math.min(result, d.distance(p1, pCopy, inner));
         }
       }
     }
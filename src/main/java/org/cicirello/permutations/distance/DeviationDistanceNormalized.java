@@ -21,6 +21,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Normalized Deviation distance is the sum of the positional deviation of the permutation elements
@@ -62,11 +63,31 @@ public final class DeviationDistanceNormalized
    */
   @Override
   public double distancef(Permutation p1, Permutation p2) {
+    return distancef((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2) {
+    return distancef(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
     if (p1.length() <= 1) return 0;
-    return devDistance.distancef(p1, p2) / (p1.length() - 1);
+    return devDistance.distancef(p1, p2, workspace) / (p1.length() - 1);
   }
 
   @Override
@@ -21,6 +21,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * The original version of Normalized Deviation distance (Ronald, 1998) is the sum of the positional
@@ -76,11 +77,33 @@ public final class DeviationDistanceNormalized2005
    */
   @Override
   public double distancef(Permutation p1, Permutation p2) {
+    return distancef((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2) {
+    return distancef(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
     if (p1.length() <= 1) return 0;
-    return devDistance.distancef(p1, p2) * 2.0 / (p1.length() * p1.length() - (p1.length() & 1));
+    return devDistance.distancef(p1, p2, workspace)
+        * 2.0
+        / (p1.length() * p1.length() - (p1.length() & 1));
   }
 
   @Override
@@ -98,4 +121,25 @@ public final class DeviationDistanceNormalized2005
   public double normalizedDistance(Permutation p1, Permutation p2) {
     return distancef(p1, p2);
   }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double normalizedDistance(PermutationView p1, PermutationView p2) {
+    return distancef(p1, p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double normalizedDistance(
+      PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    return distancef(p1, p2, workspace);
+  }
 }
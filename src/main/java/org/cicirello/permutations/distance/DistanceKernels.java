@@ -0,0 +1,102 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import org.cicirello.permutations.PermutationView;
+
+/*
+ * Elementwise kernels shared by the distance measures, written as simple
+ * counted loops over int arrays, without branches or calls, which the JIT
+ * compiler can unroll and vectorize with SIMD instructions. The distance
+ * measures first copy the elements or inverses of the permutations into
+ * the arrays of a DistanceWorkspace, which for a Permutation is a bulk
+ * copy of its array (or of its tracked inverse), rather than accessing
+ * the permutations one element at a time through PermutationView.get.
+ */
+final class DistanceKernels {
+
+  private DistanceKernels() {}
+
+  /*
+   * Gathers the elements of p relabeled by map, i.e., result[i] =
+   * map[p.get(i)], in an array of the workspace.
+   */
+  static int[] relabel(int[] map, PermutationView p, DistanceWorkspace workspace, int slot) {
+    int[] result = p.toArray(workspace.ints(slot, map.length));
+    for (int i = 0; i < result.length; i++) {
+      result[i] = map[result[i]];
+    }
+    return result;
+  }
+
+  /*
+   * Counts the indexes i at which a[i] != b[i].
+   */
+  static int countMismatches(int[] a, int[] b) {
+    int count = 0;
+    for (int i = 0; i < a.length; i++) {
+      int x = a[i] ^ b[i];
+      // the sign bit of x | -x is set iff x != 0
+      count += (x | -x) >>> 31;
+    }
+    return count;
+  }
+
+  /*
+   * Computes the sum over i of |a[i] - b[i]|.
+   */
+  static int sumAbsoluteDifferences(int[] a, int[] b) {
+    int sum = 0;
+    for (int i = 0; i < a.length; i++) {
+      sum += Math.abs(a[i] - b[i]);
+    }
+    return sum;
+  }
+
+  /*
+   * Computes the sum over i of (a[i] - b[i])^2.
+   */
+  static int sumSquaredDifferences(int[] a, int[] b) {
+    int sum = 0;
+    for (int i = 0; i < a.length; i++) {
+      int d = a[i] - b[i];
+      sum += d * d;
+    }
+    return sum;
+  }
+
+  /*
+   * Computes the sum over i of min(|a[i] - b[i]|, n - |a[i] - b[i]|), where
+   * n is the length of the arrays.
+   */
+  static int sumCyclicDifferences(int[] a, int[] b) {
+    int n = a.length;
+    int sum = 0;
+    for (int i = 0; i < n; i++) {
+      int d = Math.abs(a[i] - b[i]);
+      // min(d, n - d), computed with a mask rather than a conditional
+      int excess = d - (n - d);
+      sum += d - (excess & ~(excess >> 31));
+    }
+    return sum;
+  }
+}
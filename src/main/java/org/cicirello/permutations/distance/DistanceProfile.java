@@ -0,0 +1,319 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import org.cicirello.permutations.PermutationView;
+
+/**
+ * A DistanceProfile computes several distances between the same pair of permutations at once,
+ * sharing the work that the distance measures have in common. Most of the distance measures of this
+ * package are functions of the permutation q = p2<sup>-1</sup>p1, i.e., the positions in p2 of the
+ * elements of p1, which each computes independently. A profile computes q once, and then computes
+ * all of the following from it:
+ *
+ * <ul>
+ *   <li>{@link ExactMatchDistance}, {@link DeviationDistance}, {@link SquaredDeviationDistance},
+ *       {@link LeeDistance}, {@link AcyclicEdgeDistance}, {@link CyclicEdgeDistance}, {@link
+ *       RTypeDistance}, and {@link CyclicRTypeDistance}, in a single pass over q;
+ *   <li>{@link CycleDistance}, {@link KCycleDistance}, {@link InterchangeDistance}, and {@link
+ *       CycleEditDistance}, from a single decomposition of q into cycles; and
+ *   <li>{@link KendallTauDistance}, by counting the inversions of q.
+ * </ul>
+ *
+ * <p>Any other distance measures of the profile are computed by calling their {@link
+ * PermutationDistanceMeasurerDouble#distancef(PermutationView,PermutationView,DistanceWorkspace)
+ * distancef} methods. The results are identical to those of the individual distance measures.
+ *
+ * <p>A DistanceProfile is immutable, and may be shared among threads, provided that each thread
+ * uses its own {@link DistanceWorkspace}.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class DistanceProfile {
+
+  private static final int OTHER = 0;
+  private static final int EXACT_MATCH = 1;
+  private static final int DEVIATION = 2;
+  private static final int SQUARED_DEVIATION = 3;
+  private static final int LEE = 4;
+  private static final int ACYCLIC_EDGE = 5;
+  private static final int CYCLIC_EDGE = 6;
+  private static final int R_TYPE = 7;
+  private static final int CYCLIC_R_TYPE = 8;
+  private static final int CYCLE = 9;
+  private static final int K_CYCLE = 10;
+  private static final int INTERCHANGE = 11;
+  private static final int CYCLE_EDIT = 12;
+  private static final int KENDALL_TAU = 13;
+
+  private final PermutationDistanceMeasurerDouble[] measurers;
+  private final int[] kinds;
+  private final boolean needsPass;
+  private final boolean needsCycles;
+  private final boolean needsInversions;
+  private final boolean needsRelabeling;
+
+  /**
+   * Initializes a profile of distance measures.
+   *
+   * @param measurers the distance measures, in the order of the results of {@link
+   *     #compute(PermutationView,PermutationView,double[])}
+   * @throws NullPointerException if measurers, or any of its elements, is null
+   */
+  public DistanceProfile(PermutationDistanceMeasurerDouble... measurers) {
+    this.measurers = measurers.clone();
+    kinds = new int[this.measurers.length];
+    boolean pass = false;
+    boolean cycles = false;
+    boolean inversions = false;
+    for (int i = 0; i < kinds.length; i++) {
+      kinds[i] = kindOf(this.measurers[i]);
+      pass = pass || (kinds[i] >= EXACT_MATCH && kinds[i] <= CYCLIC_R_TYPE);
+      cycles = cycles || (kinds[i] >= CYCLE && kinds[i] <= CYCLE_EDIT);
+      inversions = inversions || kinds[i] == KENDALL_TAU;
+    }
+    needsPass = pass;
+    needsCycles = cycles;
+    needsInversions = inversions;
+    needsRelabeling = pass || cycles || inversions;
+  }
+
+  /**
+   * Gets the number of distance measures in the profile.
+   *
+   * @return the number of distance measures
+   */
+  public int size() {
+    return measurers.length;
+  }
+
+  /**
+   * Gets one of the distance measures of the profile.
+   *
+   * @param i the index of the distance measure
+   * @return the distance measure at index i
+   * @throws ArrayIndexOutOfBoundsException if i is negative or greater than or equal to size()
+   */
+  public PermutationDistanceMeasurerDouble get(int i) {
+    return measurers[i];
+  }
+
+  /**
+   * Computes all of the distances of the profile between two permutations.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return an array of length size(), whose element i is the distance between p1 and p2 according
+   *     to the distance measure at index i of the profile
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  public double[] compute(PermutationView p1, PermutationView p2) {
+    return compute(p1, p2, null, new DistanceWorkspace());
+  }
+
+  /**
+   * Computes all of the distances of the profile between two permutations.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param result An array to hold the result. If result is null or if result.length is not equal
+   *     to size(), then this method will construct a new array for the result.
+   * @return an array of length size(), whose element i is the distance between p1 and p2 according
+   *     to the distance measure at index i of the profile
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  public double[] compute(PermutationView p1, PermutationView p2, double[] result) {
+    return compute(p1, p2, result, new DistanceWorkspace());
+  }
+
+  /**
+   * Computes all of the distances of the profile between two permutations, using the scratch arrays
+   * of a {@link DistanceWorkspace} rather than allocating new ones.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param result An array to hold the result. If result is null or if result.length is not equal
+   *     to size(), then this method will construct a new array for the result.
+   * @param workspace the workspace
+   * @return an array of length size(), whose element i is the distance between p1 and p2 according
+   *     to the distance measure at index i of the profile
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  public double[] compute(
+      PermutationView p1, PermutationView p2, double[] result, DistanceWorkspace workspace) {
+    if (p1.length() != p2.length()) {
+      throw new IllegalArgumentException("Permutations must be the same length");
+    }
+    if (result == null || result.length != measurers.length) {
+      result = new double[measurers.length];
+    }
+    int n = p1.length();
+    for (int i = 0; i < kinds.length; i++) {
+      if (kinds[i] == OTHER) {
+        result[i] = measurers[i].distancef(p1, p2, workspace.nested());
+      }
+    }
+    if (!needsRelabeling) {
+      return result;
+    }
+
+    // q[i] is the position in p2 of the element in position i of p1
+    int[] invP2 = p2.getInverse(workspace.ints(0, n));
+    int[] q = workspace.ints(1, n);
+    for (int i = 0; i < n; i++) {
+      q[i] = invP2[p1.get(i)];
+    }
+
+    if (needsPass) {
+      int exactMatch = 0;
+      int deviation = 0;
+      int squaredDeviation = 0;
+      int lee = 0;
+      int acyclicEdge = 0;
+      int cyclicEdge = 0;
+      int rType = 0;
+      int cyclicRType = 0;
+      for (int i = 0; i < n; i++) {
+        int dev = q[i] - i;
+        int absDev = Math.abs(dev);
+        if (dev != 0) exactMatch++;
+        deviation += absDev;
+        squaredDeviation += dev * dev;
+        lee += Math.min(absDev, n - absDev);
+
+        // the pair of positions i and i + 1 (cyclically) of p1 is an edge
+        // of p2 iff their positions in p2 are adjacent
+        int a = q[i];
+        int b = q[i + 1 < n ? i + 1 : 0];
+        if (i + 1 < n && b != a + 1) {
+          rType++;
+          if (a != b + 1) acyclicEdge++;
+        }
+        int aNext = a + 1 < n ? a + 1 : 0;
+        int bNext = b + 1 < n ? b + 1 : 0;
+        if (b != aNext) {
+          cyclicRType++;
+          if (a != bNext) cyclicEdge++;
+        }
+      }
+      for (int i = 0; i < kinds.length; i++) {
+        switch (kinds[i]) {
+          case EXACT_MATCH:
+            result[i] = exactMatch;
+            break;
+          case DEVIATION:
+            result[i] = deviation;
+            break;
+          case SQUARED_DEVIATION:
+            result[i] = squaredDeviation;
+            break;
+          case LEE:
+            result[i] = lee;
+            break;
+          case ACYCLIC_EDGE:
+            result[i] = acyclicEdge;
+            break;
+          case CYCLIC_EDGE:
+            result[i] = cyclicEdge;
+            break;
+          case R_TYPE:
+            result[i] = rType;
+            break;
+          case CYCLIC_R_TYPE:
+            result[i] = cyclicRType;
+            break;
+          default:
+            break;
+        }
+      }
+    }
+
+    if (needsCycles) {
+      // q is the inverse of p1^-1 p2, so it has the same cycle lengths
+      int[] lengths = workspace.ints(2, n);
+      int count = RelativeCycles.nonSingletonLengths(q, workspace.flags(n), lengths);
+      for (int i = 0; i < kinds.length; i++) {
+        switch (kinds[i]) {
+          case CYCLE:
+            result[i] = ((CycleDistance) measurers[i]).fromCycleLengths(lengths, count);
+            break;
+          case K_CYCLE:
+            result[i] = ((KCycleDistance) measurers[i]).fromCycleLengths(lengths, count);
+            break;
+          case INTERCHANGE:
+            result[i] = ((InterchangeDistance) measurers[i]).fromCycleLengths(lengths, count);
+            break;
+          case CYCLE_EDIT:
+            result[i] = ((CycleEditDistance) measurers[i]).fromCycleLengths(lengths, count);
+            break;
+          default:
+            break;
+        }
+      }
+    }
+
+    if (needsInversions) {
+      // the last use of q, which sorts it; and invP2 is no longer needed
+      int inversions = KendallTauDistance.countInversions(q, invP2, 0, n - 1);
+      for (int i = 0; i < kinds.length; i++) {
+        if (kinds[i] == KENDALL_TAU) {
+          result[i] = inversions;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static int kindOf(PermutationDistanceMeasurerDouble m) {
+    if (m == null) {
+      throw new NullPointerException("measurers must not be null");
+    } else if (m instanceof ExactMatchDistance) {
+      return EXACT_MATCH;
+    } else if (m instanceof DeviationDistance) {
+      return DEVIATION;
+    } else if (m instanceof SquaredDeviationDistance) {
+      return SQUARED_DEVIATION;
+    } else if (m instanceof LeeDistance) {
+      return LEE;
+    } else if (m instanceof AcyclicEdgeDistance) {
+      return ACYCLIC_EDGE;
+    } else if (m instanceof CyclicEdgeDistance) {
+      return CYCLIC_EDGE;
+    } else if (m instanceof RTypeDistance) {
+      return R_TYPE;
+    } else if (m instanceof CyclicRTypeDistance) {
+      return CYCLIC_R_TYPE;
+    } else if (m instanceof CycleDistance) {
+      return CYCLE;
+    } else if (m instanceof KCycleDistance) {
+      return K_CYCLE;
+    } else if (m instanceof InterchangeDistance) {
+      return INTERCHANGE;
+    } else if (m instanceof CycleEditDistance) {
+      return CYCLE_EDIT;
+    } else if (m instanceof KendallTauDistance) {
+      return KENDALL_TAU;
+    }
+    return OTHER;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import java.util.Arrays;
+import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
+
+/**
+ * A DistanceWorkspace holds the scratch arrays that the distance measures of this package use while
+ * computing a distance, so that they can be reused across calls. Passing the same workspace to the
+ * workspace-accepting methods of the distance measures, such as {@link
+ * PermutationDistanceMeasurer#distance(PermutationView,PermutationView,DistanceWorkspace)}, over
+ * and over, such as within the inner loop of a local search, eliminates the allocation that would
+ * otherwise occur on each call once the workspace's arrays have grown to the length of the
+ * permutations. The methods that do not accept a workspace compute distances with a new workspace.
+ *
+ * <p>A workspace may be shared among different distance measures, but it is not thread-safe, and
+ * must not be used by more than one thread at a time. Either create one workspace per thread, or
+ * use the workspace associated with the current thread, obtained from {@link #threadLocal()}.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class DistanceWorkspace {
+
+  private static final ThreadLocal<DistanceWorkspace> THREAD_LOCAL =
+      ThreadLocal.withInitial(DistanceWorkspace::new);
+
+  private static final int INT_ARRAYS = 4;
+  private static final int DOUBLE_ARRAYS = 2;
+
+  private final int[][] ints;
+  private final double[][] doubles;
+  private boolean[] flags;
+  private Permutation copy;
+  private DistanceWorkspace nested;
+
+  /** Initializes an empty workspace. Its arrays are allocated as needed. */
+  public DistanceWorkspace() {
+    ints = new int[INT_ARRAYS][];
+    doubles = new double[DOUBLE_ARRAYS][];
+  }
+
+  /**
+   * Gets the workspace associated with the current thread. A thread always gets the same workspace
+   * from this method, and each thread has its own.
+   *
+   * @return the workspace of the current thread
+   */
+  public static DistanceWorkspace threadLocal() {
+    return THREAD_LOCAL.get();
+  }
+
+  /*
+   * Gets one of the int arrays of the workspace, reallocating it if it is
+   * not of the specified length. Its contents are unspecified.
+   */
+  int[] ints(int slot, int length) {
+    if (ints[slot] == null || ints[slot].length != length) {
+      ints[slot] = new int[length];
+    }
+    return ints[slot];
+  }
+
+  /*
+   * Gets one of the double arrays of the workspace, reallocating it if it
+   * is not of the specified length. Its contents are unspecified.
+   */
+  double[] doubles(int slot, int length) {
+    if (doubles[slot] == null || doubles[slot].length != length) {
+      doubles[slot] = new double[length];
+    }
+    return doubles[slot];
+  }
+
+  /*
+   * Gets the boolean array of the workspace, of the specified length, with
+   * all elements false.
+   */
+  boolean[] flags(int length) {
+    if (flags == null || flags.length != length) {
+      flags = new boolean[length];
+    } else {
+      Arrays.fill(flags, false);
+    }
+    return flags;
+  }
+
+  /*
+   * Gets a Permutation of the workspace, initialized as a copy of p, which
+   * the delegating distance measures rotate and reverse in place. It is
+   * reused while the length is unchanged, and because it is a Permutation,
+   * a delegate that implements only distance(Permutation, Permutation) is
+   * passed each rotation without a further copy.
+   */
+  Permutation copyOf(PermutationView p) {
+    if (copy == null || copy.length() != p.length()) {
+      copy = new Permutation(p);
+    } else {
+      copy.apply(raw -> p.toArray(raw));
+    }
+    return copy;
+  }
+
+  /*
+   * Gets a second workspace, used by the distance measures that delegate
+   * to another distance measure, so that the delegate does not overwrite
+   * the arrays of the delegating measure.
+   */
+  DistanceWorkspace nested() {
+    if (nested == null) {
+      nested = new DistanceWorkspace();
+    }
+    return nested;
+  }
+}
@@ -21,6 +21,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * This is an implementation of Wagner and Fischer's dynamic programming algorithm for computing
@@ -99,26 +100,55 @@ public final class EditDistance implements PermutationDistanceMeasurerDouble {
    */
   @Override
   public double distancef(Permutation p1, Permutation p2) {
+    return distancef((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * Measures the distance between two permutations.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return distance between p1 and p2
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2) {
+    return distancef(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * Measures the distance between two permutations.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param workspace the workspace
+   * @return distance between p1 and p2
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     int n = p1.length();
     int m = p2.length();
     if (n == m && n <= 1) return 0;
-    double[][] D = new double[n + 1][m + 1];
-    for (int i = 1; i <= n; i++) {
-      D[i][0] = D[i - 1][0] + deleteCost;
-    }
+    // Only the previous row of the dynamic programming table is needed to compute the next.
+    double[] previous = workspace.doubles(0, m + 1);
+    double[] current = workspace.doubles(1, m + 1);
+    previous[0] = 0;
     for (int j = 1; j <= m; j++) {
-      D[0][j] = D[0][j - 1] + insertCost;
+      previous[j] = previous[j - 1] + insertCost;
     }
     for (int i = 1; i <= n; i++) {
+      current[0] = previous[0] + deleteCost;
       for (int j = 1; j <= m; j++) {
-        D[i][j] =
+        current[j] =
             min(
-                p1.get(i - 1) == p2.get(j - 1) ? D[i - 1][j - 1] : D[i - 1][j - 1] + changeCost,
-                D[i - 1][j] + deleteCost,
-                D[i][j - 1] + insertCost);
+                p1.get(i - 1) == p2.get(j - 1) ? previous[j - 1] : previous[j - 1] + changeCost,
+                previous[j] + deleteCost,
+                current[j - 1] + insertCost);
       }
+      double[] temp = previous;
+      previous = current;
+      current = temp;
     }
-    return D[n][m];
+    return previous[m];
   }
 
   private double min(double m1, double m2, double m3) {
@@ -21,6 +21,8 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Exact Match distance is an extension of Hamming distance but to non-binary strings, in this case,
@@ -48,9 +50,70 @@ public final class ExactMatchDistance implements NormalizedPermutationDistanceMe
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
+    return countMismatches(p1, p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The runtime is O(k), where k is the number of positions that the move changes.
+   *
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  @Override
+  public int delta(Permutation current, Permutation reference, PermutationMove m) {
+    MoveDeltas.checkLengths(current, reference);
+    int n = current.length();
+    int count = m.changedCount(n);
+    int delta = 0;
+    for (int t = 0; t < count; t++) {
+      int k = m.changedPosition(t, n);
+      int target = reference.get(k);
+      if (current.get(k) == target) delta++;
+      if (m.elementAfter(current, k) == target) delta--;
+    }
+    return delta;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If both are instances of {@link Permutation}, this method copies them to arrays of the
+   * workspace, and compares the arrays with a loop that the JIT compiler can vectorize. Other
+   * views, such as compact, arena, and file views, are compared element by element, without
+   * copying, as in {@link #distance(PermutationView,PermutationView)}.
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    if (p1.length() != p2.length()) {
+      throw new IllegalArgumentException("Permutations must be the same length");
+    }
+    if (!(p1 instanceof Permutation) || !(p2 instanceof Permutation)) {
+      return countMismatches(p1, p2);
+    }
+    return DistanceKernels.countMismatches(
+        p1.toArray(workspace.ints(0, p1.length())), p2.toArray(workspace.ints(1, p2.length())));
+  }
+
+  /*
+   * Counts mismatched positions element by element, without allocating.
+   */
+  private static int countMismatches(PermutationView p1, PermutationView p2) {
     int misMatchPoints = 0;
     for (int i = 0; i < p1.length(); i++) {
       if (p1.get(i) != p2.get(i)) {
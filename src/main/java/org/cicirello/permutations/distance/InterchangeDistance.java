@@ -20,7 +20,9 @@
  */
 package org.cicirello.permutations.distance;
 
+import org.cicirello.permutations.CycleStructure;
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Interchange distance is the minimum number of swaps necessary to transform one permutation into
@@ -52,45 +54,52 @@ public final class InterchangeDistance implements NormalizedPermutationDistanceM
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
-    if (p1.length() != p2.length()) {
-      throw new IllegalArgumentException("Permutations must be the same length");
-    }
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    int count = RelativeCycles.nonSingletonLengths(p1, p2, workspace);
+    return fromCycleLengths(RelativeCycles.lengths(workspace, p1.length()), count);
+  }
+
+  /**
+   * Computes the distance between permutations p1 and p2 from the cycle structure of
+   * p1<sup>-1</sup>p2, as computed by {@link CycleStructure#between}, such that
+   * distance(CycleStructure.between(p1, p2)) == distance(p1, p2). Interchange distance is the
+   * length of the permutations minus the number of cycles, so the runtime is O(1).
+   *
+   * @param cycles the cycle structure of p1<sup>-1</sup>p2
+   * @return distance between p1 and p2
+   */
+  public int distance(CycleStructure cycles) {
+    return cycles.length() - cycles.cycleCount();
+  }
+
+  /*
+   * Computes the distance from the lengths of the count non-singleton
+   * permutation cycles between the permutations.
+   */
+  int fromCycleLengths(int[] lengths, int count) {
     int numSwaps = 0;
-    int length = p1.length();
-    boolean[] used = new boolean[length];
-    for (int k = 0; k < length; k++) {
-      if (p1.get(k) == p2.get(k)) used[p1.get(k)] = true;
-    }
-    int i = 0;
-    for (i = 0; i < used.length; i++) {
-      if (!used[p1.get(i)]) {
-        break;
-      }
+    for (int c = 0; c < count; c++) {
+      numSwaps += lengths[c] - 1;
     }
-    if (i >= used.length) return 0;
-    int iLast = i;
-
-    int[] invP1 = p1.getInverse();
-    boolean done = true;
-    do {
-      done = true;
-      int cycleSize = 0;
-      int j = p1.get(i);
-      while (!used[j]) {
-        used[j] = true;
-        cycleSize++;
-        j = p2.get(i);
-        i = invP1[j];
-      }
-      numSwaps += (cycleSize - 1);
-      for (i = iLast + 1; i < used.length; i++) {
-        if (!used[p1.get(i)]) {
-          done = false;
-          break;
-        }
-      }
-      iLast = i;
-    } while (!done);
     return numSwaps;
   }
 
@@ -21,7 +21,9 @@
  */
 package org.cicirello.permutations.distance;
 
+import org.cicirello.permutations.CycleStructure;
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * K-Cycle distance is the count of the number of non-singleton permutation cycles of length at most
@@ -70,52 +72,72 @@ public final class KCycleDistance implements NormalizedPermutationDistanceMeasur
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
-    if (p1.length() != p2.length()) {
-      throw new IllegalArgumentException("Permutations must be the same length");
-    }
-    boolean[] used = new boolean[p1.length()];
-    for (int k = 0; k < used.length; k++) {
-      if (p1.get(k) == p2.get(k)) {
-        used[p1.get(k)] = true;
-      }
-    }
-    int i = 0;
-    for (i = 0; i < used.length; i++) {
-      if (!used[p1.get(i)]) {
-        break;
-      }
-    }
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
 
-    int[] invP1 = p1.getInverse();
-    int cycleCount = 0;
-    int iLast = i;
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
 
-    while (i < used.length) {
-      int j = p1.get(i);
-      int cycleLength = 0;
-      while (!used[j]) {
-        used[j] = true;
-        cycleLength++;
-        j = p2.get(i);
-        i = invP1[j];
-      }
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    int count = RelativeCycles.nonSingletonLengths(p1, p2, workspace);
+    return fromCycleLengths(RelativeCycles.lengths(workspace, p1.length()), count);
+  }
 
-      if (cycleLength > maxCycleLength) {
-        cycleCount += (int) Math.ceil((cycleLength - 1.0) / (maxCycleLength - 1.0));
-      } else {
-        cycleCount++;
+  /**
+   * Computes the distance between permutations p1 and p2 from the cycle structure of
+   * p1<sup>-1</sup>p2, as computed by {@link CycleStructure#between}, such that
+   * distance(CycleStructure.between(p1, p2)) == distance(p1, p2). The runtime is O(c), where c is
+   * the number of cycles.
+   *
+   * @param cycles the cycle structure of p1<sup>-1</sup>p2
+   * @return distance between p1 and p2
+   */
+  public int distance(CycleStructure cycles) {
+    int cycleCount = 0;
+    for (int c = 0; c < cycles.cycleCount(); c++) {
+      if (cycles.cycleLength(c) > 1) {
+        cycleCount += cyclesToFix(cycles.cycleLength(c));
       }
+    }
+    return cycleCount;
+  }
 
-      for (i = iLast + 1; i < used.length; i++) {
-        if (!used[p1.get(i)]) {
-          break;
-        }
-      }
-      iLast = i;
+  /*
+   * Computes the distance from the lengths of the count non-singleton
+   * permutation cycles between the permutations.
+   */
+  int fromCycleLengths(int[] lengths, int count) {
+    int cycleCount = 0;
+    for (int c = 0; c < count; c++) {
+      cycleCount += cyclesToFix(lengths[c]);
     }
     return cycleCount;
   }
 
+  /*
+   * The number of cycles of length at most K needed to transform a
+   * non-singleton cycle of the given length to all fixed points.
+   */
+  private int cyclesToFix(int cycleLength) {
+    if (cycleLength > maxCycleLength) {
+      return (int) Math.ceil((cycleLength - 1.0) / (maxCycleLength - 1.0));
+    }
+    return 1;
+  }
+
   @Override
   public int max(int length) {
     if (length != lastLength) {
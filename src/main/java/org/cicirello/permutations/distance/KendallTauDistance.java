@@ -20,8 +20,9 @@
  */
 package org.cicirello.permutations.distance;
 
-import java.util.Arrays;
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Kendall Tau distance is sometimes also known as bubble sort distance, as it is the number of
@@ -61,19 +62,92 @@ public final class KendallTauDistance implements NormalizedPermutationDistanceMe
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
 
     // use inverse of p1 as a relabeling
-    int[] invP1 = p1.getInverse();
+    int[] invP1 = p1.getInverse(workspace.ints(0, p1.length()));
 
     // relabel array copy of p2
-    int[] arrayP2 = new int[invP1.length];
-    for (int i = 0; i < arrayP2.length; i++) {
-      arrayP2[i] = invP1[p2.get(i)];
+    int[] arrayP2 = DistanceKernels.relabel(invP1, p2, workspace, 1);
+    return countInversions(arrayP2, workspace.ints(2, arrayP2.length), 0, arrayP2.length - 1);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>For the moves of the {@link PermutationMove} interface, only the inversions involving the
+   * positions that the move changes, or that lie between them, are examined. The runtime is O(j -
+   * i) for a {@link PermutationMove.Swap} of positions i &lt; j, since the swap changes the order
+   * of the swapped elements relative to each element between them, even though it changes only 2
+   * positions. For the other moves, which change the k positions of a contiguous range, the runtime
+   * is O(k) for {@link PermutationMove.Insertion} moves, and O(k lg k) for {@link
+   * PermutationMove.Reversal}, {@link PermutationMove.BlockInterchange}, and {@link
+   * PermutationMove.Rotation} moves. In all cases, add O(n) if inverse tracking is not enabled for
+   * the reference permutation (see {@link Permutation#setInverseTracking}). Other moves are handled
+   * by applying the move and recomputing the distance.
+   *
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  @Override
+  public int delta(Permutation current, Permutation reference, PermutationMove m) {
+    MoveDeltas.checkLengths(current, reference);
+    int n = current.length();
+    if (m.changedCount(n) == 0) {
+      return 0;
     }
-    return countInversions(arrayP2, 0, arrayP2.length - 1);
+    if (m instanceof PermutationMove.Swap) {
+      PermutationMove.Swap swap = (PermutationMove.Swap) m;
+      return swapDelta(current, reference, swap.first(), swap.second());
+    }
+    if (m instanceof PermutationMove.Insertion) {
+      PermutationMove.Insertion insertion = (PermutationMove.Insertion) m;
+      return insertionDelta(current, reference, insertion.from(), insertion.to());
+    }
+    if (m instanceof PermutationMove.Reversal) {
+      PermutationMove.Reversal reversal = (PermutationMove.Reversal) m;
+      int len = reversal.last() - reversal.first() + 1;
+      int[] q = relabel(current, reference, reversal.first(), len);
+      int inversions = countInversions(q, bufferFor(n), 0, len - 1);
+      return ((len * (len - 1)) >> 1) - 2 * inversions;
+    }
+    if (m instanceof PermutationMove.BlockInterchange) {
+      PermutationMove.BlockInterchange blocks = (PermutationMove.BlockInterchange) m;
+      int a = blocks.firstBlockStart();
+      int len = blocks.secondBlockEnd() - a + 1;
+      return crossDelta(
+          relabel(current, reference, a, len),
+          bufferFor(n),
+          len,
+          blocks.firstBlockEnd() + 1 - a,
+          blocks.secondBlockStart() - a);
+    }
+    if (m instanceof PermutationMove.Rotation) {
+      int s = Math.floorMod(((PermutationMove.Rotation) m).numPositions(), n);
+      return crossDelta(relabel(current, reference, 0, n), bufferFor(n), n, s, s);
+    }
+    return NormalizedPermutationDistanceMeasurer.super.delta(current, reference, m);
   }
 
   @Override
@@ -82,38 +156,121 @@ public final class KendallTauDistance implements NormalizedPermutationDistanceMe
     return (length * (length - 1)) >> 1;
   }
 
-  private int countInversions(int[] array, int first, int last) {
+  /*
+   * Change in inversions from swapping positions i < j: only the pair (i, j)
+   * and the pairs of i or j with the elements between them whose relabeled
+   * values are between those of positions i and j are affected.
+   */
+  private int swapDelta(Permutation current, Permutation reference, int i, int j) {
+    int[] positions = MoveDeltas.positions(reference, DistanceWorkspace.threadLocal());
+    int x = MoveDeltas.position(reference, positions, current.get(i));
+    int y = MoveDeltas.position(reference, positions, current.get(j));
+    int low = Math.min(x, y);
+    int high = Math.max(x, y);
+    int between = 0;
+    for (int k = i + 1; k < j; k++) {
+      int z = MoveDeltas.position(reference, positions, current.get(k));
+      if (z > low && z < high) between++;
+    }
+    int delta = 2 * between + 1;
+    return x < y ? delta : -delta;
+  }
+
+  /*
+   * Change in inversions from moving the element at position from to position
+   * to: the moved element changes its order relative to each element that it
+   * passes.
+   */
+  private int insertionDelta(Permutation current, Permutation reference, int from, int to) {
+    int[] positions = MoveDeltas.positions(reference, DistanceWorkspace.threadLocal());
+    int x = MoveDeltas.position(reference, positions, current.get(from));
+    int delta = 0;
+    int step = from < to ? 1 : -1;
+    for (int k = from + step; k != to + step; k += step) {
+      int z = MoveDeltas.position(reference, positions, current.get(k));
+      // moving right past a greater element, or left past a lesser element,
+      // creates an inversion
+      delta += (z > x) == (step > 0) ? 1 : -1;
+    }
+    return delta;
+  }
+
+  /*
+   * Relabels positions [first, first + len) of current by the positions of
+   * their elements in reference, into the first len elements of a scratch
+   * array, such that the inversions of the result are the inversions of that
+   * segment relative to reference.
+   */
+  private int[] relabel(Permutation current, Permutation reference, int first, int len) {
+    DistanceWorkspace workspace = DistanceWorkspace.threadLocal();
+    int[] positions = MoveDeltas.positions(reference, workspace);
+    int[] q = workspace.ints(1, current.length());
+    for (int k = 0; k < len; k++) {
+      q[k] = MoveDeltas.position(reference, positions, current.get(first + k));
+    }
+    return q;
+  }
+
+  private int[] bufferFor(int n) {
+    return DistanceWorkspace.threadLocal().ints(2, n);
+  }
+
+  /*
+   * Change in inversions from reordering the blocks [0, b1), [b1, b2), and
+   * [b2, len) of q into the reverse order of blocks, which reverses the
+   * order of every pair of elements from different blocks. Sorting each
+   * block first leaves only the inversions between blocks to be counted.
+   */
+  private int crossDelta(int[] q, int[] buffer, int len, int b1, int b2) {
+    countInversions(q, buffer, 0, b1 - 1);
+    countInversions(q, buffer, b1, b2 - 1);
+    countInversions(q, buffer, b2, len - 1);
+    int crossInversions = countInversions(q, buffer, 0, len - 1);
+    int middle = b2 - b1;
+    int last = len - b2;
+    int crossPairs = b1 * middle + b1 * last + middle * last;
+    return crossPairs - 2 * crossInversions;
+  }
+
+  /*
+   * Counts the inversions of array[first..last] by merge sort, sorting it,
+   * using buffer as scratch space.
+   */
+  static int countInversions(int[] array, int[] buffer, int first, int last) {
     if (last <= first) {
       return 0;
     }
     int m = (first + last) >> 1;
-    return countInversions(array, first, m)
-        + countInversions(array, m + 1, last)
-        + merge(array, first, m + 1, last + 1);
+    return countInversions(array, buffer, first, m)
+        + countInversions(array, buffer, m + 1, last)
+        + merge(array, buffer, first, m + 1, last + 1);
   }
 
-  private int merge(int[] array, int first, int midPlus, int lastPlus) {
-    int[] left = Arrays.copyOfRange(array, first, midPlus);
-    int[] right = Arrays.copyOfRange(array, midPlus, lastPlus);
-    int i = 0;
-    int j = 0;
+  /*
+   * Merges the sorted runs array[first..midPlus) and array[midPlus..lastPlus).
+   * Only the left run is copied to the buffer, since the right run is never
+   * overwritten before it is read.
+   */
+  private static int merge(int[] array, int[] buffer, int first, int midPlus, int lastPlus) {
+    System.arraycopy(array, first, buffer, first, midPlus - first);
+    int i = first;
+    int j = midPlus;
     int k = first;
     int count = 0;
-    while (i < left.length && j < right.length) {
-      if (left[i] < right[j]) {
-        array[k] = left[i];
+    while (i < midPlus && j < lastPlus) {
+      if (buffer[i] < array[j]) {
+        array[k] = buffer[i];
         i++;
         k++;
       } else {
         // inversions
-        count += (left.length - i);
-        array[k] = right[j];
+        count += (midPlus - i);
+        array[k] = array[j];
         j++;
         k++;
       }
     }
-    System.arraycopy(left, i, array, k, left.length - i);
-    System.arraycopy(right, j, array, k, right.length - j);
+    System.arraycopy(buffer, i, array, k, midPlus - i);
     return count;
   }
 }
@@ -22,6 +22,8 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Lee Distance is closely related to deviation distance. However, Lee Distance considers the
@@ -58,20 +60,61 @@ public final class LeeDistance implements NormalizedPermutationDistanceMeasurer
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
     if (p1.length() <= 1) return 0;
-    int distancePoints = 0;
-    int[] invP1 = p1.getInverse();
-    int[] invP2 = p2.getInverse();
+    int[] invP1 = p1.getInverse(workspace.ints(0, p1.length()));
+    int[] invP2 = p2.getInverse(workspace.ints(1, p2.length()));
+    return DistanceKernels.sumCyclicDifferences(invP1, invP2);
+  }
 
-    for (int i = 0; i < invP1.length; i++) {
-      int dev = Math.abs(invP1[i] - invP2[i]);
-      distancePoints += Math.min(dev, invP1.length - dev);
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The runtime is O(k), where k is the number of positions that the move changes, if inverse
+   * tracking is enabled for the reference permutation (see {@link Permutation#setInverseTracking}),
+   * and otherwise O(n + k).
+   *
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  @Override
+  public int delta(Permutation current, Permutation reference, PermutationMove m) {
+    MoveDeltas.checkLengths(current, reference);
+    int n = current.length();
+    int count = m.changedCount(n);
+    if (count == 0) return 0;
+    int[] positions = MoveDeltas.positions(reference, DistanceWorkspace.threadLocal());
+    int delta = 0;
+    for (int t = 0; t < count; t++) {
+      int k = m.changedPosition(t, n);
+      int devBefore = MoveDeltas.position(reference, positions, current.get(k)) - k;
+      int devAfter = MoveDeltas.position(reference, positions, m.elementAfter(current, k)) - k;
+      devBefore = Math.abs(devBefore);
+      devAfter = Math.abs(devAfter);
+      delta += Math.min(devAfter, n - devAfter) - Math.min(devBefore, n - devBefore);
     }
-
-    return distancePoints;
+    return delta;
   }
 
   @Override
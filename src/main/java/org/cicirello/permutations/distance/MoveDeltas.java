@@ -0,0 +1,137 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+
+/*
+ * Support for the incremental computation of the change in distance caused
+ * by a PermutationMove, shared by the distance measures that override
+ * delta. The computations only examine the positions that the move changes
+ * and their neighbors, and look up the positions of elements in the
+ * reference permutation, in O(1) time each if inverse tracking is enabled
+ * for the reference permutation, and otherwise from its inverse, which is
+ * computed in O(n) time in the thread's DistanceWorkspace.
+ */
+final class MoveDeltas {
+
+  private MoveDeltas() {}
+
+  /*
+   * Tests whether the elements at adjacent positions x and y of a permutation
+   * form an edge (or directed edge) of the reference permutation, given the
+   * positions of those elements in the reference permutation.
+   */
+  interface EdgeTest {
+    boolean shared(int posX, int posY, int n);
+  }
+
+  /*
+   * Checks that the permutations are the same length.
+   */
+  static void checkLengths(Permutation current, Permutation reference) {
+    if (current.length() != reference.length()) {
+      throw new IllegalArgumentException("Permutations must be the same length");
+    }
+  }
+
+  /*
+   * Gets the inverse of the reference permutation, or null if the reference
+   * permutation tracks its inverse, for use with position.
+   */
+  static int[] positions(Permutation reference, DistanceWorkspace workspace) {
+    return reference.isInverseTracking()
+        ? null
+        : reference.getInverse(workspace.ints(3, reference.length()));
+  }
+
+  /*
+   * Gets the position of an element in the reference permutation.
+   */
+  static int position(Permutation reference, int[] positions, int element) {
+    return positions == null ? reference.indexOf(element) : positions[element];
+  }
+
+  /*
+   * Computes the change in the number of adjacent pairs of the current
+   * permutation that are not edges of the reference permutation, examining
+   * only the pairs that include a changed position.
+   */
+  static int edgeDelta(
+      Permutation current,
+      Permutation reference,
+      PermutationMove m,
+      boolean cyclic,
+      EdgeTest test) {
+    checkLengths(current, reference);
+    int n = current.length();
+    int slots = cyclic ? n : n - 1;
+    int count = m.changedCount(n);
+    if (slots <= 0 || count == 0) {
+      return 0;
+    }
+    int[] positions = positions(reference, DistanceWorkspace.threadLocal());
+    int lastChanged = m.changedPosition(count - 1, n);
+    int delta = 0;
+    int lastSlot = -1;
+    for (int t = 0; t < count; t++) {
+      int k = m.changedPosition(t, n);
+      if (k > 0) {
+        if (k - 1 > lastSlot) {
+          delta += slotDelta(current, reference, positions, m, k - 1, test);
+        }
+      } else if (cyclic && lastChanged != n - 1) {
+        // the pair of the last and first positions, which would otherwise
+        // be examined along with the last position
+        delta += slotDelta(current, reference, positions, m, n - 1, test);
+      }
+      if (k < slots) {
+        delta += slotDelta(current, reference, positions, m, k, test);
+        lastSlot = k;
+      }
+    }
+    return delta;
+  }
+
+  private static int slotDelta(
+      Permutation current,
+      Permutation reference,
+      int[] positions,
+      PermutationMove m,
+      int s,
+      EdgeTest test) {
+    int n = current.length();
+    int next = s + 1 < n ? s + 1 : 0;
+    boolean before =
+        test.shared(
+            position(reference, positions, current.get(s)),
+            position(reference, positions, current.get(next)),
+            n);
+    boolean after =
+        test.shared(
+            position(reference, positions, m.elementAfter(current, s)),
+            position(reference, positions, m.elementAfter(current, next)),
+            n);
+    return before == after ? 0 : (before ? 1 : -1);
+  }
+}
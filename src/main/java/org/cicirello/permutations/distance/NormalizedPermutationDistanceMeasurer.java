@@ -22,6 +22,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Implement this interface to define a distance metric for permutations that supports normalizing
@@ -57,4 +58,29 @@ public interface NormalizedPermutationDistanceMeasurer
     if (m == 0) return 0;
     return distance(p1, p2) / ((double) m);
   }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  default double normalizedDistance(PermutationView p1, PermutationView p2) {
+    int m = max(p1.length());
+    if (m == 0) return 0;
+    return distance(p1, p2) / ((double) m);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  default double normalizedDistance(
+      PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    int m = max(p1.length());
+    if (m == 0) return 0;
+    return distance(p1, p2, workspace) / ((double) m);
+  }
 }
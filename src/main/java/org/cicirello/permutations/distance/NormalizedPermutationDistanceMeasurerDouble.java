@@ -22,6 +22,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Implement this interface to define a distance metric for permutations that supports normalizing
@@ -54,4 +55,35 @@ public interface NormalizedPermutationDistanceMeasurerDouble
     if (m == 0) return 0;
     return distancef(p1, p2) / m;
   }
+
+  /**
+   * Measures the distance between two views of permutations, normalized to the interval [0.0, 1.0].
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return distance between p1 and p2 normalized to the interval [0.0, 1.0]
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  default double normalizedDistance(PermutationView p1, PermutationView p2) {
+    double m = maxf(p1.length());
+    if (m == 0) return 0;
+    return distancef(p1, p2) / m;
+  }
+
+  /**
+   * Measures the distance between two views of permutations, normalized to the interval [0.0, 1.0],
+   * using the scratch arrays of a {@link DistanceWorkspace} rather than allocating new ones.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param workspace the workspace
+   * @return distance between p1 and p2 normalized to the interval [0.0, 1.0]
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  default double normalizedDistance(
+      PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    double m = maxf(p1.length());
+    if (m == 0) return 0;
+    return distancef(p1, p2, workspace) / m;
+  }
 }
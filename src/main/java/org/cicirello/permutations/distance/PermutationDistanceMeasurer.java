@@ -22,6 +22,8 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Implement this interface, PermutationDistanceMeasurer, to define a distance metric for
@@ -50,4 +52,96 @@ public interface PermutationDistanceMeasurer extends PermutationDistanceMeasurer
   default double distancef(Permutation p1, Permutation p2) {
     return distance(p1, p2);
   }
+
+  /**
+   * Measures the distance between two permutations, where the permutations may be of any of the
+   * permutation representations that implement the {@link PermutationView} interface, such as
+   * {@link org.cicirello.permutations.CompactPermutation}. The default implementation copies any
+   * argument that is not a {@link Permutation} to a new Permutation, and then calls {@link
+   * #distance(Permutation,Permutation)}. The implementations in this library override it to compute
+   * the distance directly on the views without copying.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  default int distance(PermutationView p1, PermutationView p2) {
+    return distance(toPermutation(p1), toPermutation(p2));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  default double distancef(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2);
+  }
+
+  /**
+   * Measures the distance between two permutations, using the scratch arrays of a {@link
+   * DistanceWorkspace} rather than allocating new ones. Reusing the same workspace across many
+   * calls enables computing distances without allocating any memory. The default implementation
+   * ignores the workspace and calls {@link #distance(PermutationView,PermutationView)}. The
+   * implementations in this library that require scratch memory override it to use the workspace.
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param workspace the workspace
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  default int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    return distance(p1, p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  default double distancef(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    return distance(p1, p2, workspace);
+  }
+
+  /**
+   * Computes the change in the distance from a permutation to a reference permutation that would
+   * result from applying a move to the permutation, i.e., distance(m(current), reference) -
+   * distance(current, reference). The current permutation is unchanged upon return. The default
+   * implementation applies the move, recomputes the distance, and then undoes the move. The
+   * implementations in this library for which it is possible override it to compute the change in
+   * time proportional to the number of positions that the move changes.
+   *
+   * @param current the permutation to which the move would be applied
+   * @param reference the reference permutation
+   * @param m the move
+   * @return the change in distance that would result from applying m to current
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  default int delta(Permutation current, Permutation reference, PermutationMove m) {
+    int before = distance(current, reference);
+    m.apply(current);
+    try {
+      return distance(current, reference) - before;
+    } finally {
+      m.undo(current);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  @Override
+  default double deltaf(Permutation current, Permutation reference, PermutationMove m) {
+    return delta(current, reference, m);
+  }
+
+  private static Permutation toPermutation(PermutationView p) {
+    return p instanceof Permutation ? (Permutation) p : new Permutation(p);
+  }
 }
@@ -22,6 +22,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Reinsertion distance is the count of the number of removal/reinsertion operations needed to
@@ -74,10 +75,30 @@ public final class ReinsertionDistance implements NormalizedPermutationDistanceM
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
-    return p1.length() - lcs(p1, p2);
+    return p1.length() - lcs(p1, p2, workspace);
   }
 
   @Override
@@ -87,11 +108,11 @@ public final class ReinsertionDistance implements NormalizedPermutationDistanceM
   }
 
   // This version runs in O(n lg n)
-  private int lcs(Permutation p1, Permutation p2) {
+  private int lcs(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     final int n = p1.length();
-    int[] inv = p2.getInverse();
-    int[] match = new int[n];
-    int[] thresh = new int[n + 1];
+    int[] inv = p2.getInverse(workspace.ints(0, n));
+    int[] match = workspace.ints(1, n);
+    int[] thresh = workspace.ints(2, n + 1);
     thresh[0] = -1;
     for (int i = 0; i < n; i++) {
       match[i] = inv[p1.get(i)];
@@ -0,0 +1,88 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import org.cicirello.permutations.PermutationView;
+
+/*
+ * The cycle walk shared by the distance measures that are functions of the
+ * lengths of the permutation cycles between two permutations, i.e., of the
+ * cycle type of p1^-1 p2 (see CycleStructure.between), computed with the
+ * scratch arrays of a DistanceWorkspace rather than allocating a
+ * CycleStructure.
+ */
+final class RelativeCycles {
+
+  private RelativeCycles() {}
+
+  /*
+   * Computes the lengths of the non-singleton permutation cycles between p1
+   * and p2, in the first elements of workspace.ints(1, n), and returns the
+   * number of such cycles.
+   */
+  static int nonSingletonLengths(
+      PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    if (p1.length() != p2.length()) {
+      throw new IllegalArgumentException("Permutations must be the same length");
+    }
+    int n = p1.length();
+    int[] invP1 = p1.getInverse(workspace.ints(0, n));
+    int[] sigma = workspace.ints(2, n);
+    for (int i = 0; i < n; i++) {
+      sigma[i] = invP1[p2.get(i)];
+    }
+    return nonSingletonLengths(sigma, workspace.flags(n), workspace.ints(1, n));
+  }
+
+  /*
+   * Computes the lengths of the non-singleton cycles of the permutation
+   * sigma, in the first elements of lengths, and returns the number of such
+   * cycles. The array used must be all false, and of the same length as
+   * sigma.
+   */
+  static int nonSingletonLengths(int[] sigma, boolean[] used, int[] lengths) {
+    int count = 0;
+    for (int s = 0; s < sigma.length; s++) {
+      if (!used[s]) {
+        int length = 0;
+        int i = s;
+        do {
+          used[i] = true;
+          length++;
+          i = sigma[i];
+        } while (i != s);
+        if (length > 1) {
+          lengths[count++] = length;
+        }
+      }
+    }
+    return count;
+  }
+
+  /*
+   * Gets the array that holds the cycle lengths computed by
+   * nonSingletonLengths.
+   */
+  static int[] lengths(DistanceWorkspace workspace, int n) {
+    return workspace.ints(1, n);
+  }
+}
@@ -23,6 +23,7 @@ package org.cicirello.permutations.distance;
 
 import java.util.Arrays;
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Reversal Distance is the minimum number of subpermutation reversals necessary to transform one
@@ -75,6 +76,7 @@ public final class ReversalDistance implements NormalizedPermutationDistanceMeas
     dist = new byte[fact];
     final byte BYTE_MAX = 0x7f;
     Arrays.fill(dist, BYTE_MAX);
+    dist[0] = 0;
     Permutation p = new Permutation(n, 0);
     for (int i = 0; i < n - 1; i++) {
       for (int j = i + 1; j < n; j++) {
@@ -117,17 +119,55 @@ public final class ReversalDistance implements NormalizedPermutationDistanceMeas
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   * @throws IllegalArgumentException if length of the permutations is not equal to the the
+   *     permutation length for which this was configured at time of construction.
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   * @throws IllegalArgumentException if length of the permutations is not equal to the the
+   *     permutation length for which this was configured at time of construction.
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p2.length() != p1.length() || p1.length() != PERM_LENGTH)
       throw new IllegalArgumentException(
           "This distance measurer is configured for permutations of length "
               + PERM_LENGTH
               + " only.");
-    int[] inv1 = p1.getInverse();
-    int[] r2 = new int[inv1.length];
-    for (int i = 0; i < inv1.length; i++) {
-      r2[i] = inv1[p2.get(i)];
+    int[] inv1 = p1.getInverse(workspace.ints(0, PERM_LENGTH));
+    return dist[toInteger(DistanceKernels.relabel(inv1, p2, workspace, 1))];
+  }
+
+  /*
+   * Computes the same mixed radix representation as Permutation.toInteger()
+   * directly from the array, without constructing a Permutation.
+   */
+  private static int toInteger(int[] p) {
+    int result = 0;
+    int multiplier = 1;
+    for (int i = 0; i < p.length - 1; i++) {
+      int digit = p[i];
+      for (int j = 0; j < i; j++) {
+        if (p[j] < p[i]) digit--;
+      }
+      result += multiplier * digit;
+      multiplier *= p.length - i;
     }
-    return dist[new Permutation(r2).toInteger()];
+    return result;
   }
 
   @Override
@@ -22,6 +22,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * This class implements the concept of a reversal independent distance measure. This is relevant if
@@ -58,11 +59,41 @@ public final class ReversalIndependentDistanceDouble implements PermutationDista
    */
   @Override
   public double distancef(Permutation p1, Permutation p2) {
-    double result = d.distancef(p1, p2);
+    return distancef((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * Measures the distance between two permutations, with reversal independence: distance = min {
+   * distance(p1,p2), distance(p1,reverse(p2)) }
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2) {
+    return distancef(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * Measures the distance between two permutations, with reversal independence: distance = min {
+   * distance(p1,p2), distance(p1,reverse(p2)) }
+   *
+   * @param p1 first permutation
+   * @param p2 second permutation
+   * @param workspace the workspace
+   * @return distance between p1 and p2
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
+    DistanceWorkspace inner = workspace.nested();
+    double result = d.distancef(p1, p2, inner);
     if (result > 0) {
-      Permutation pCopy = new Permutation(p2);
+      Permutation pCopy = workspace.copyOf(p2);
       pCopy.reverse();
-      result = Math.min(result, d.distancef(p1, pCopy));
+      result = Math.min(result, d.distancef(p1, pCopy, inner));
     }
     return result;
   }
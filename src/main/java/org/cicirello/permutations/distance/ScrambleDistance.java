@@ -22,6 +22,7 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Scramble Distance is the minimum number of random shufflings needed to transform one permutation
@@ -47,6 +48,15 @@ public final class ScrambleDistance implements NormalizedPermutationDistanceMeas
     else return 1;
   }
 
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    if (p1.length() != p2.length()) return 1;
+    for (int i = 0; i < p1.length(); i++) {
+      if (p1.get(i) != p2.get(i)) return 1;
+    }
+    return 0;
+  }
+
   @Override
   public int max(int length) {
     if (length <= 1) return 0;
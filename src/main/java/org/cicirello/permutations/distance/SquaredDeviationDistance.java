@@ -22,6 +22,8 @@
 package org.cicirello.permutations.distance;
 
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * Squared Deviation distance is the sum of the squares of the positional deviations of the
@@ -55,18 +57,59 @@ public final class SquaredDeviationDistance implements NormalizedPermutationDist
    */
   @Override
   public int distance(Permutation p1, Permutation p2) {
+    return distance((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2) {
+    return distance(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to p2.length().
+   */
+  @Override
+  public int distance(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != p2.length()) {
       throw new IllegalArgumentException("Permutations must be the same length");
     }
-    int distancePoints = 0;
-
-    int[] invP2 = p2.getInverse();
+    // the deviation of element e is the difference in its positions
+    int[] invP1 = p1.getInverse(workspace.ints(0, p1.length()));
+    int[] invP2 = p2.getInverse(workspace.ints(1, p2.length()));
+    return DistanceKernels.sumSquaredDifferences(invP1, invP2);
+  }
 
-    for (int i = 0; i < invP2.length; i++) {
-      int dev = invP2[p1.get(i)] - i;
-      distancePoints += (dev * dev);
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The runtime is O(k), where k is the number of positions that the move changes, if inverse
+   * tracking is enabled for the reference permutation (see {@link Permutation#setInverseTracking}),
+   * and otherwise O(n + k).
+   *
+   * @throws IllegalArgumentException if current.length() is not equal to reference.length().
+   */
+  @Override
+  public int delta(Permutation current, Permutation reference, PermutationMove m) {
+    MoveDeltas.checkLengths(current, reference);
+    int n = current.length();
+    int count = m.changedCount(n);
+    if (count == 0) return 0;
+    int[] positions = MoveDeltas.positions(reference, DistanceWorkspace.threadLocal());
+    int delta = 0;
+    for (int t = 0; t < count; t++) {
+      int k = m.changedPosition(t, n);
+      int devBefore = MoveDeltas.position(reference, positions, current.get(k)) - k;
+      int devAfter = MoveDeltas.position(reference, positions, m.elementAfter(current, k)) - k;
+      delta += devAfter * devAfter - devBefore * devBefore;
     }
-    return distancePoints;
+    return delta;
   }
 
   @Override
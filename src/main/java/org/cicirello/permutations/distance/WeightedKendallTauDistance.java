@@ -21,8 +21,8 @@
  */
 package org.cicirello.permutations.distance;
 
-import java.util.Arrays;
 import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
 
 /**
  * This class implements the weighted Kendall tau distance. In the original Kendall tau distance,
@@ -86,21 +86,44 @@ public final class WeightedKendallTauDistance
    */
   @Override
   public double distancef(Permutation p1, Permutation p2) {
+    return distancef((PermutationView) p1, (PermutationView) p2);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to supportedLength(), or if
+   *     p2.length() is not equal to supportedLength().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2) {
+    return distancef(p1, p2, new DistanceWorkspace());
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if p1.length() is not equal to supportedLength(), or if
+   *     p2.length() is not equal to supportedLength().
+   */
+  @Override
+  public double distancef(PermutationView p1, PermutationView p2, DistanceWorkspace workspace) {
     if (p1.length() != weights.length || p2.length() != weights.length) {
       throw new IllegalArgumentException("p1 and/or p2 not of supported length of this instance");
     }
     // use inverse of p1 as a relabeling
-    int[] invP1 = p1.getInverse();
+    int[] invP1 = p1.getInverse(workspace.ints(0, weights.length));
 
     // relabel array copy of p2 and likewise map weights to weights of relabeled copy
-    int[] arrayP2 = new int[invP1.length];
-    double[] w = new double[weights.length];
+    int[] arrayP2 = workspace.ints(1, invP1.length);
+    double[] w = workspace.doubles(0, weights.length);
     for (int i = 0; i < arrayP2.length; i++) {
       arrayP2[i] = invP1[p2.get(i)];
       w[arrayP2[i]] = weights[p2.get(i)];
     }
 
-    return countWeightedInversions(arrayP2, w, 0, arrayP2.length - 1);
+    return countWeightedInversions(
+        arrayP2, workspace.ints(2, arrayP2.length), w, 0, arrayP2.length - 1);
   }
 
   /**
@@ -114,43 +137,48 @@ public final class WeightedKendallTauDistance
     return maxDistance;
   }
 
-  private double countWeightedInversions(int[] array, double[] w, int first, int last) {
+  private double countWeightedInversions(
+      int[] array, int[] buffer, double[] w, int first, int last) {
     if (last <= first) {
       return 0;
     }
     int m = (first + last) >> 1;
-    return countWeightedInversions(array, w, first, m)
-        + countWeightedInversions(array, w, m + 1, last)
-        + merge(array, w, first, m + 1, last + 1);
+    return countWeightedInversions(array, buffer, w, first, m)
+        + countWeightedInversions(array, buffer, w, m + 1, last)
+        + merge(array, buffer, w, first, m + 1, last + 1);
   }
 
-  private double merge(int[] array, double[] w, int first, int midPlus, int lastPlus) {
-    int[] left = Arrays.copyOfRange(array, first, midPlus);
-    int[] right = Arrays.copyOfRange(array, midPlus, lastPlus);
-    int i = 0;
-    int j = 0;
+  /*
+   * Merges the sorted runs array[first..midPlus) and array[midPlus..lastPlus).
+   * Only the left run is copied to the buffer, since the right run is never
+   * overwritten before it is read.
+   */
+  private double merge(
+      int[] array, int[] buffer, double[] w, int first, int midPlus, int lastPlus) {
+    System.arraycopy(array, first, buffer, first, midPlus - first);
+    int i = first;
+    int j = midPlus;
     int k = first;
     double weightedCount = 0;
     double leftWeights = 0;
-    for (int x = 0; x < left.length; x++) {
-      leftWeights += w[left[x]];
+    for (int x = first; x < midPlus; x++) {
+      leftWeights += w[buffer[x]];
     }
-    while (i < left.length && j < right.length) {
-      if (left[i] < right[j]) {
-        leftWeights -= w[left[i]];
-        array[k] = left[i];
+    while (i < midPlus && j < lastPlus) {
+      if (buffer[i] < array[j]) {
+        leftWeights -= w[buffer[i]];
+        array[k] = buffer[i];
         i++;
         k++;
       } else {
         // inversions
-        weightedCount += w[right[j]] * leftWeights;
-        array[k] = right[j];
+        weightedCount += w[array[j]] * leftWeights;
+        array[k] = array[j];
         j++;
         k++;
       }
     }
-    System.arraycopy(left, i, array, k, left.length - i);
-    System.arraycopy(right, j, array, k, right.length - j);
+    System.arraycopy(buffer, i, array, k, midPlus - i);
     return weightedCount;
   }
 }
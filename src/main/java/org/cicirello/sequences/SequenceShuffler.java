@@ -0,0 +1,431 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.sequences;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import org.cicirello.math.rand.RandomIndexer;
+
+/**
+ * SequenceShuffler randomly shuffles arrays in parallel, using a divide-and-conquer algorithm that
+ * is intended for very large arrays, for which the sequential Fisher-Yates shuffle is limited by
+ * the latency of its random memory accesses. The array is recursively split in half until the parts
+ * are small enough to fit in cache, and each part is shuffled with Fisher-Yates. Adjacent shuffled
+ * parts are then merged by a random riffle, which streams through both parts sequentially, and is
+ * followed by a short Fisher-Yates style pass that inserts the remainder of whichever part was not
+ * exhausted. The parts at each level of the recursion are shuffled and merged in parallel, by the
+ * threads of a {@link ForkJoinPool}. Every permutation of the array is equally likely.
+ *
+ * <p>The algorithm is MergeShuffle, described in: Axel Bacher, Olivier Bodini, Alexandros
+ * Hollender, and J&eacute;r&eacute;mie Lumbroso. 2015. <a
+ * href="https://arxiv.org/abs/1508.03167">MergeShuffle: A Very Fast, Parallel Random Permutation
+ * Algorithm</a>. arXiv:1508.03167.
+ *
+ * <p>Each half of each split is shuffled with its own generator, split from the generator of its
+ * parent before either half is started. The result of a shuffle is therefore a function only of the
+ * array and the state of the generator, and not of the number of threads. Arrays no longer than the
+ * size of the parts, {@value #PART_SIZE} elements, are shuffled sequentially by the calling thread
+ * with Fisher-Yates.
+ *
+ * @author <a href=https://www.cicirello.org/ target=_top>Vincent A. Cicirello</a>, <a
+ *     href=https://www.cicirello.org/ target=_top>https://www.cicirello.org/</a>
+ */
+public final class SequenceShuffler {
+
+  /**
+   * The maximum length of the parts that are shuffled with Fisher-Yates. Changing this changes the
+   * result of a shuffle with a given generator.
+   */
+  static final int PART_SIZE = 1 << 18;
+
+  /** prevent instantiation with a private constructor. */
+  private SequenceShuffler() {}
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(byte[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(byte[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          byte temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(char[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(char[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          char temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(double[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(double[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          double temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(float[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(float[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          float temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(int[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(int[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          int temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(long[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(long[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          long temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static void shuffle(short[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static void shuffle(short[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          short temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of the common {@link
+   * ForkJoinPool}.
+   *
+   * @param <T> the type of array elements
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   */
+  public static <T> void shuffle(T[] array, SplittableGenerator r) {
+    shuffle(array, r, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Randomly shuffles an array in place, in parallel using the threads of a specified {@link
+   * ForkJoinPool}. The result is the same regardless of the parallelism of the pool.
+   *
+   * @param <T> the type of array elements
+   * @param array the array to shuffle
+   * @param r the source of randomness, which is advanced by the shuffle
+   * @param pool the pool of threads
+   */
+  public static <T> void shuffle(T[] array, SplittableGenerator r, ForkJoinPool pool) {
+    shuffle(
+        (i, j) -> {
+          T temp = array[i];
+          array[i] = array[j];
+          array[j] = temp;
+        },
+        array.length,
+        r,
+        pool,
+        PART_SIZE);
+  }
+
+  /*
+   * Shuffles the elements of a sequence of the specified length, in parts
+   * of at most partSize elements. The size of the parts is a parameter so
+   * that the tests can exercise the merges on short sequences.
+   */
+  static void shuffle(
+      Swapper swapper, int length, SplittableGenerator r, ForkJoinPool pool, int partSize) {
+    if (length <= partSize) {
+      fisherYates(swapper, 0, length, r);
+    } else {
+      pool.invoke(new ShuffleTask(swapper, 0, length, r, partSize));
+    }
+  }
+
+  /*
+   * Swaps two elements of the sequence that is being shuffled.
+   */
+  interface Swapper {
+    void swap(int i, int j);
+  }
+
+  /*
+   * Shuffles the elements with indexes in the interval [first, last).
+   */
+  private static void fisherYates(Swapper swapper, int first, int last, RandomGenerator r) {
+    for (int i = last - 1; i > first; i--) {
+      int j = first + RandomIndexer.nextInt(i - first + 1, r);
+      if (j != i) {
+        swapper.swap(i, j);
+      }
+    }
+  }
+
+  /*
+   * Merges the shuffled intervals [first, mid) and [mid, last) into a
+   * shuffled interval [first, last). Position i is filled from the front
+   * of the second interval with probability 1/2, and is otherwise left
+   * holding the front of the first, until one of the intervals is
+   * exhausted. The remaining elements are then each swapped with a random
+   * element of those before them.
+   */
+  private static void merge(Swapper swapper, int first, int mid, int last, RandomGenerator r) {
+    int i = first;
+    int j = mid;
+    long bits = 0;
+    int remainingBits = 0;
+    while (true) {
+      if (remainingBits == 0) {
+        bits = r.nextLong();
+        remainingBits = 64;
+      }
+      // b is 1 to take the front of the second interval and 0 to keep
+      // the front of the first. The merge ends when b selects an
+      // exhausted interval. Selecting with masks, rather than branching
+      // on b, avoids a mispredicted branch for half of the elements.
+      int b = (int) bits & 1;
+      bits >>>= 1;
+      remainingBits--;
+      if ((((j - last) & -b) | ((i - j) & (b - 1))) == 0) {
+        break;
+      }
+      swapper.swap(i, i + ((j - i) & -b));
+      j += b;
+      i++;
+    }
+    for (; i < last; i++) {
+      int m = first + RandomIndexer.nextInt(i - first + 1, r);
+      if (m != i) {
+        swapper.swap(i, m);
+      }
+    }
+  }
+
+  /*
+   * Shuffles an interval, splitting it in half until it is no longer than
+   * the size of the parts, and merging the shuffled halves.
+   */
+  private static final class ShuffleTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Swapper swapper;
+    private final int first;
+    private final int last;
+    private final transient SplittableGenerator r;
+    private final int partSize;
+
+    private ShuffleTask(Swapper swapper, int first, int last, SplittableGenerator r, int partSize) {
+      this.swapper = swapper;
+      this.first = first;
+      this.last = last;
+      this.r = r;
+      this.partSize = partSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (last - first <= partSize) {
+        fisherYates(swapper, first, last, r);
+      } else {
+        int mid = (first + last) >>> 1;
+        ShuffleTask left = new ShuffleTask(swapper, first, mid, r.split(), partSize);
+        ShuffleTask right = new ShuffleTask(swapper, mid, last, r.split(), partSize);
+        invokeAll(left, right);
+        merge(swapper, first, mid, last, r);
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for BranchAndBound. */
+public class BranchAndBoundTests {
+
+  @Test
+  public void testMatchesBruteForce() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 2; n <= 8; n++) {
+      WeightedTardiness problem = new WeightedTardiness(n, r);
+      double best = Double.POSITIVE_INFINITY;
+      for (Permutation p : new Permutation(n)) {
+        best = Math.min(best, problem.cost(p));
+      }
+      BranchAndBound.Solution solution = new BranchAndBound(problem).solve(n);
+      assertEquals(best, solution.cost(), 1e-9);
+      assertEquals(best, problem.cost(solution.permutation()), 1e-9);
+      assertTrue(solution.nodes() > 0);
+    }
+  }
+
+  @Test
+  public void testParallel() {
+    SplittableRandom r = new SplittableRandom(7);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int n : new int[] {5, 9, 11}) {
+        WeightedTardiness problem = new WeightedTardiness(n, r);
+        BranchAndBound search = new BranchAndBound(problem);
+        BranchAndBound.Solution sequential = search.solve(n);
+        BranchAndBound.Solution parallel = search.solve(n, null, pool);
+        assertEquals(sequential.cost(), parallel.cost(), 1e-9);
+        assertEquals(parallel.cost(), problem.cost(parallel.permutation()), 1e-9);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testPrunes() {
+    WeightedTardiness problem = new WeightedTardiness(10, new SplittableRandom(3));
+    BranchAndBound.Solution solution = new BranchAndBound(problem).solve(10);
+    long treeSize = 0;
+    long level = 1;
+    for (int fixed = 1; fixed < 10; fixed++) {
+      level *= 10 - fixed + 1;
+      treeSize += level;
+    }
+    assertTrue(solution.nodes() < treeSize);
+  }
+
+  @Test
+  public void testInitialIncumbent() {
+    WeightedTardiness problem = new WeightedTardiness(7, new SplittableRandom(11));
+    BranchAndBound search = new BranchAndBound(problem);
+    BranchAndBound.Solution optimal = search.solve(7);
+    BranchAndBound.Solution seeded = search.solve(7, optimal.permutation(), null);
+    assertEquals(optimal.permutation(), seeded.permutation());
+    assertEquals(optimal.cost(), seeded.cost());
+    Permutation p = new Permutation(7, 0);
+    seeded = search.solve(7, p, null);
+    assertEquals(optimal.cost(), seeded.cost(), 1e-9);
+    assertEquals(new Permutation(7, 0), p);
+  }
+
+  @Test
+  public void testSmallLengths() {
+    BranchAndBound.Problem problem =
+        new BranchAndBound.Problem() {
+          @Override
+          public double lowerBound(Permutation p, int fixed) {
+            return 0;
+          }
+
+          @Override
+          public double cost(Permutation p) {
+            return p.length() > 1 ? p.get(0) : 0;
+          }
+        };
+    BranchAndBound search = new BranchAndBound(problem);
+    assertEquals(0, search.solve(0).permutation().length());
+    assertEquals(new Permutation(1, 0), search.solve(1).permutation());
+    BranchAndBound.Solution solution = search.solve(2);
+    assertEquals(0, solution.permutation().get(0));
+    assertEquals(0.0, solution.cost());
+    assertEquals(0, search.solve(3).permutation().get(0));
+  }
+
+  @Test
+  public void testExceptions() {
+    assertThrows(NullPointerException.class, () -> new BranchAndBound(null));
+    BranchAndBound search = new BranchAndBound(new WeightedTardiness(3, new SplittableRandom(1)));
+    assertThrows(IllegalArgumentException.class, () -> search.solve(-1));
+    assertThrows(IllegalArgumentException.class, () -> search.solve(3, new Permutation(4), null));
+  }
+
+  /*
+   * Single machine scheduling to minimize total weighted tardiness, with a
+   * lower bound that starts each unscheduled job at the end of the prefix.
+   */
+  private static final class WeightedTardiness implements BranchAndBound.Problem {
+    private final int[] process;
+    private final int[] due;
+    private final int[] weight;
+
+    private WeightedTardiness(int n, SplittableRandom r) {
+      process = new int[n];
+      due = new int[n];
+      weight = new int[n];
+      int total = 0;
+      for (int j = 0; j < n; j++) {
+        process[j] = 1 + r.nextInt(10);
+        weight[j] = 1 + r.nextInt(5);
+        total += process[j];
+      }
+      for (int j = 0; j < n; j++) {
+        due[j] = r.nextInt(total);
+      }
+    }
+
+    @Override
+    public double lowerBound(Permutation p, int fixed) {
+      int time = 0;
+      double cost = 0;
+      for (int i = 0; i < fixed; i++) {
+        int j = p.get(i);
+        time += process[j];
+        cost += weight[j] * Math.max(0, time - due[j]);
+      }
+      for (int i = fixed; i < p.length(); i++) {
+        int j = p.get(i);
+        cost += weight[j] * Math.max(0, time + process[j] - due[j]);
+      }
+      return cost;
+    }
+
+    @Override
+    public double cost(Permutation p) {
+      return lowerBound(p, p.length());
+    }
+  }
+}
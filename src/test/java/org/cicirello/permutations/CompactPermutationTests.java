@@ -0,0 +1,309 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the CompactPermutation class and its subclasses. */
+public class CompactPermutationTests {
+
+  @Test
+  public void testBackingSelectedByLength() {
+    assertTrue(CompactPermutation.create(0) instanceof CompactBytePermutation);
+    assertTrue(CompactPermutation.create(1) instanceof CompactBytePermutation);
+    assertTrue(CompactPermutation.create(256) instanceof CompactBytePermutation);
+    assertTrue(CompactPermutation.create(257) instanceof CompactCharPermutation);
+    assertTrue(CompactPermutation.create(65536) instanceof CompactCharPermutation);
+    assertTrue(CompactPermutation.create(65537) instanceof CompactIntPermutation);
+  }
+
+  @Test
+  public void testLargestElementsUnsigned() {
+    for (int n : new int[] {256, 65536}) {
+      Permutation p = new Permutation(n, new SplittableRandom(42));
+      CompactPermutation c = CompactPermutation.of(p);
+      for (int i = 0; i < n; i++) {
+        assertEquals(p.get(i), c.get(i));
+      }
+      assertArrayEquals(p.toArray(), c.toArray());
+      assertArrayEquals(p.getInverse(), c.getInverse());
+    }
+  }
+
+  @Test
+  public void testCreateIsValid() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 0; n <= 8; n++) {
+      validate(CompactPermutation.create(n), n);
+      validate(CompactPermutation.create(n, r), n);
+    }
+    validate(CompactPermutation.create(300, r), 300);
+  }
+
+  @Test
+  public void testOf() {
+    int[] array = {3, 0, 2, 1};
+    CompactPermutation c = CompactPermutation.of(array);
+    assertArrayEquals(array, c.toArray());
+    assertEquals(new Permutation(array), new Permutation(c));
+    assertEquals(c, CompactPermutation.of(c));
+    PermutationView view = new ArrayView(array);
+    assertEquals(c, CompactPermutation.of(view));
+    assertThrows(IllegalArgumentException.class, () -> CompactPermutation.of(new int[] {0, 0}));
+    assertThrows(IllegalArgumentException.class, () -> CompactPermutation.of(new int[] {0, 2}));
+    assertThrows(
+        IllegalArgumentException.class, () -> CompactPermutation.of(new ArrayView(new int[] {1})));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CompactPermutation.of(new ArrayView(new int[] {1, 1})));
+    assertThrows(
+        IllegalArgumentException.class, () -> new Permutation(new ArrayView(new int[] {2})));
+  }
+
+  @Test
+  public void testSwap() {
+    for (CompactPermutation c : allBackings(10)) {
+      Permutation p = new Permutation(c);
+      for (int i = 0; i < 10; i++) {
+        for (int j = 0; j < 10; j++) {
+          c.swap(i, j);
+          p.swap(i, j);
+          assertMatches(p, c);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCycle() {
+    for (CompactPermutation c : allBackings(10)) {
+      Permutation p = new Permutation(c);
+      int[][] cycles = {{}, {4}, {1, 3}, {2, 7, 5}, {9, 0, 4, 6, 8}};
+      for (int[] indexes : cycles) {
+        c.cycle(indexes);
+        p.cycle(indexes);
+        assertMatches(p, c);
+      }
+    }
+  }
+
+  @Test
+  public void testReverse() {
+    for (CompactPermutation c : allBackings(10)) {
+      Permutation p = new Permutation(c);
+      c.reverse();
+      p.reverse();
+      assertMatches(p, c);
+      for (int i = 0; i < 10; i++) {
+        for (int j = 0; j < 10; j++) {
+          c.reverse(i, j);
+          p.reverse(i, j);
+          assertMatches(p, c);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRemoveAndInsert() {
+    for (CompactPermutation c : allBackings(10)) {
+      Permutation p = new Permutation(c);
+      for (int i = 0; i < 10; i++) {
+        for (int j = 0; j < 10; j++) {
+          c.removeAndInsert(i, j);
+          p.removeAndInsert(i, j);
+          assertMatches(p, c);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRemoveAndInsertBlock() {
+    for (CompactPermutation c : allBackings(10)) {
+      Permutation p = new Permutation(c);
+      for (int size = 0; size <= 5; size++) {
+        for (int i = 0; i + size <= 10; i++) {
+          for (int j = 0; j + size <= 10; j++) {
+            c.removeAndInsert(i, size, j);
+            p.removeAndInsert(i, size, j);
+            assertMatches(p, c);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRotate() {
+    for (CompactPermutation c : allBackings(10)) {
+      Permutation p = new Permutation(c);
+      for (int k = -12; k <= 12; k++) {
+        c.rotate(k);
+        p.rotate(k);
+        assertMatches(p, c);
+      }
+    }
+  }
+
+  @Test
+  public void testSwapBlocks() {
+    for (CompactPermutation c : allBackings(8)) {
+      Permutation p = new Permutation(c);
+      for (int a = 0; a < 8; a++) {
+        for (int b = a; b < 8; b++) {
+          for (int i = b + 1; i < 8; i++) {
+            for (int j = i; j < 8; j++) {
+              c.swapBlocks(a, b, i, j);
+              p.swapBlocks(a, b, i, j);
+              assertMatches(p, c);
+            }
+          }
+        }
+      }
+      assertThrows(IllegalArgumentException.class, () -> c.swapBlocks(3, 4, 4, 6));
+      assertThrows(IllegalArgumentException.class, () -> c.swapBlocks(-1, 1, 4, 6));
+      assertThrows(IllegalArgumentException.class, () -> c.swapBlocks(0, 1, 4, 8));
+    }
+  }
+
+  @Test
+  public void testScramble() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (CompactPermutation c : allBackings(10)) {
+      c.scramble();
+      validate(c, 10);
+      c.scramble(r);
+      validate(c, 10);
+      CompactPermutation before = c.copy();
+      c.scramble(true);
+      validate(c, 10);
+      assertNotEquals(before, c);
+      before = c.copy();
+      c.scramble(r, false);
+      validate(c, 10);
+      before = c.copy();
+      c.scramble(2, 6);
+      validate(c, 10);
+      assertNotEquals(before, c);
+      for (int k = 0; k < 10; k++) {
+        if (k < 2 || k > 6) assertEquals(before.get(k), c.get(k));
+      }
+      before = c.copy();
+      c.scramble(7, 3, r);
+      validate(c, 10);
+      assertNotEquals(before, c);
+      before = c.copy();
+      c.scramble(4, 4, r);
+      assertEquals(before, c);
+      before = c.copy();
+      c.scramble(new int[] {1, 5, 8});
+      validate(c, 10);
+      assertNotEquals(before, c);
+      for (int k = 0; k < 10; k++) {
+        if (k != 1 && k != 5 && k != 8) assertEquals(before.get(k), c.get(k));
+      }
+      before = c.copy();
+      c.scramble(new int[] {4}, r);
+      assertEquals(before, c);
+    }
+  }
+
+  @Test
+  public void testCopyEqualsHashCodeToString() {
+    for (CompactPermutation c : allBackings(6)) {
+      Permutation p = new Permutation(c);
+      CompactPermutation copy = c.copy();
+      assertNotSame(c, copy);
+      assertEquals(c, copy);
+      assertEquals(c.hashCode(), copy.hashCode());
+      assertEquals(p.hashCode(), c.hashCode());
+      assertEquals(p.longHashCode(), c.longHashCode());
+      assertEquals(p.toString(), c.toString());
+      copy.swap(0, 1);
+      assertNotEquals(c, copy);
+      assertEquals(c, c);
+      assertNotEquals(c, null);
+      assertNotEquals(c, p);
+      assertNotEquals(c, CompactPermutation.create(5));
+    }
+    assertEquals("", CompactPermutation.create(0).toString());
+    CompactPermutation b = CompactPermutation.of(new int[] {2, 0, 1});
+    CompactPermutation c = new CompactCharPermutation(3);
+    for (int i = 0; i < 3; i++) {
+      c.set(i, b.get(i));
+    }
+    assertEquals(b, c);
+  }
+
+  private CompactPermutation[] allBackings(int n) {
+    Permutation p = new Permutation(n, new SplittableRandom(n));
+    CompactPermutation[] result = {
+      new CompactBytePermutation(n), new CompactCharPermutation(n), new CompactIntPermutation(n)
+    };
+    for (CompactPermutation c : result) {
+      for (int i = 0; i < n; i++) {
+        c.set(i, p.get(i));
+      }
+    }
+    return result;
+  }
+
+  private void assertMatches(Permutation expected, CompactPermutation actual) {
+    assertEquals(expected.length(), actual.length());
+    for (int i = 0; i < expected.length(); i++) {
+      assertEquals(expected.get(i), actual.get(i));
+    }
+  }
+
+  private void validate(CompactPermutation p, int n) {
+    assertEquals(n, p.length());
+    boolean[] inP = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      int el = p.get(i);
+      assertTrue(el >= 0 && el < n);
+      assertFalse(inP[el]);
+      inP[el] = true;
+    }
+  }
+
+  private static final class ArrayView implements PermutationView {
+    private final int[] array;
+
+    ArrayView(int[] array) {
+      this.array = array;
+    }
+
+    @Override
+    public int get(int i) {
+      return array[i];
+    }
+
+    @Override
+    public int length() {
+      return array.length;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for CycleStructure and the group operations of Permutation. */
+public class CycleStructureTests {
+
+  @Test
+  public void testDecomposition() {
+    // cycles (0 3 5) (1) (2 4) (6)
+    Permutation p = new Permutation(new int[] {3, 1, 4, 5, 2, 0, 6});
+    CycleStructure cycles = CycleStructure.of(p);
+    assertEquals(7, cycles.length());
+    assertEquals(4, cycles.cycleCount());
+    assertEquals(2, cycles.fixedPointCount());
+    assertArrayEquals(new int[] {0, 3, 5}, cycles.cycle(0));
+    assertArrayEquals(new int[] {1}, cycles.cycle(1));
+    assertArrayEquals(new int[] {2, 4}, cycles.cycle(2));
+    assertArrayEquals(new int[] {6}, cycles.cycle(3));
+    assertEquals(3, cycles.cycleLength(0));
+    assertEquals(5, cycles.get(0, 2));
+    assertArrayEquals(new int[] {0, 2, 1, 1, 0, 0, 0, 0}, cycles.cycleType());
+    assertEquals(BigInteger.valueOf(6), cycles.order());
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> cycles.cycleLength(4));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> cycles.get(0, 3));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> cycles.get(1, -1));
+
+    CycleStructure empty = CycleStructure.of(new Permutation(0));
+    assertEquals(0, empty.cycleCount());
+    assertEquals(BigInteger.ONE, empty.order());
+    assertEquals(0, empty.power(5, null).length);
+  }
+
+  @Test
+  public void testCyclesAreConsistent() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 1; n <= 30; n++) {
+      Permutation p = new Permutation(n, r);
+      CycleStructure cycles = p.cycles();
+      boolean[] seen = new boolean[n];
+      int fixed = 0;
+      int total = 0;
+      for (int c = 0; c < cycles.cycleCount(); c++) {
+        int len = cycles.cycleLength(c);
+        total += len;
+        if (len == 1) fixed++;
+        for (int k = 0; k < len; k++) {
+          int e = cycles.get(c, k);
+          assertFalse(seen[e]);
+          seen[e] = true;
+          assertEquals(cycles.get(c, (k + 1) % len), p.get(e));
+          if (k > 0) assertTrue(e > cycles.get(c, 0));
+        }
+        if (c > 0) assertTrue(cycles.get(c, 0) > cycles.get(c - 1, 0));
+      }
+      assertEquals(n, total);
+      assertEquals(fixed, cycles.fixedPointCount());
+    }
+  }
+
+  @Test
+  public void testBetween() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 0; n <= 20; n++) {
+      Permutation p1 = new Permutation(n, r);
+      Permutation p2 = new Permutation(n, r);
+      CycleStructure expected = CycleStructure.of(p1.getInversePermutation().compose(p2));
+      CycleStructure actual = CycleStructure.between(p1, p2);
+      assertEquals(expected.cycleCount(), actual.cycleCount());
+      for (int c = 0; c < expected.cycleCount(); c++) {
+        assertArrayEquals(expected.cycle(c), actual.cycle(c));
+      }
+      assertArrayEquals(actual.cycleType(), CycleStructure.between(p2, p1).cycleType());
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CycleStructure.between(new Permutation(3), new Permutation(4)));
+  }
+
+  @Test
+  public void testCompose() {
+    Permutation p = new Permutation(new int[] {2, 0, 1, 3});
+    Permutation q = new Permutation(new int[] {1, 3, 0, 2});
+    assertEquals(new Permutation(new int[] {0, 3, 2, 1}), p.compose(q));
+    int[] result = new int[4];
+    assertSame(result, p.compose(q, result));
+    assertArrayEquals(new int[] {0, 3, 2, 1}, result);
+    assertArrayEquals(new int[] {0, 3, 2, 1}, p.compose(q, new int[3]));
+    Permutation identity = new Permutation(4, 0L);
+    assertEquals(p, p.compose(identity));
+    assertEquals(p, identity.compose(p));
+    assertEquals(identity, p.compose(p.getInversePermutation()));
+    assertThrows(IllegalArgumentException.class, () -> p.compose(new Permutation(5)));
+  }
+
+  @Test
+  public void testPowerAndOrder() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 1; n <= 12; n++) {
+      Permutation p = new Permutation(n, r);
+      Permutation identity = new Permutation(n, 0L);
+      Permutation expected = new Permutation(identity);
+      for (int k = 0; k <= 15; k++) {
+        assertEquals(expected, p.power(k), "k=" + k);
+        expected = p.compose(expected);
+      }
+      Permutation inverse = p.getInversePermutation();
+      assertEquals(inverse, p.power(-1));
+      assertEquals(inverse.compose(inverse), p.power(-2));
+      long order = p.order().longValueExact();
+      assertEquals(identity, p.power(order));
+      assertEquals(p, p.power(order + 1));
+      assertEquals(p, p.power(Long.MAX_VALUE - Long.MAX_VALUE % order + 1));
+      for (long k = 1; k < order; k++) {
+        assertNotEquals(identity, p.power(k));
+      }
+    }
+    // cycle lengths 2, 3, 5, 7, ..., whose least common multiple exceeds a long
+    int[] primes = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47, 53};
+    int n = 0;
+    for (int prime : primes) n += prime;
+    int[] array = new int[n];
+    BigInteger expectedOrder = BigInteger.ONE;
+    for (int prime : primes) {
+      expectedOrder = expectedOrder.multiply(BigInteger.valueOf(prime));
+    }
+    int start = 0;
+    for (int prime : primes) {
+      for (int k = 0; k < prime; k++) {
+        array[start + k] = start + (k + 1) % prime;
+      }
+      start += prime;
+    }
+    assertEquals(expectedOrder, new Permutation(array).order());
+  }
+
+  @Test
+  public void testCachedCyclesInvalidated() {
+    SplittableRandom r = new SplittableRandom(42);
+    Permutation p = new Permutation(10, r);
+    CycleStructure cycles = p.cycles();
+    assertSame(cycles, p.cycles());
+    assertSame(cycles, new Permutation(p).cycles());
+    Runnable[] mutators = {
+      () -> p.swap(1, 7),
+      () -> p.reverse(2, 6),
+      () -> p.removeAndInsert(8, 1),
+      () -> p.removeAndInsert(1, 3, 5),
+      () -> p.swapBlocks(0, 1, 5, 8),
+      () -> p.rotate(3),
+      () -> p.cycle(new int[] {0, 4, 9}),
+      () -> p.invert(),
+      () -> p.scramble(r),
+      () -> p.scramble(2, 7, r),
+      () -> p.set(new int[] {9, 8, 7, 6, 5, 4, 3, 2, 1, 0}),
+      () -> p.apply(raw -> raw[0] = raw[0])
+    };
+    for (Runnable mutator : mutators) {
+      p.cycles();
+      mutator.run();
+      assertArrayEquals(p.toArray(), p.cycles().power(1, null));
+    }
+    p.mark();
+    p.cycles();
+    p.swap(0, 9);
+    p.cycles();
+    p.rollback();
+    assertArrayEquals(p.toArray(), p.cycles().power(1, null));
+    p.commit();
+  }
+}
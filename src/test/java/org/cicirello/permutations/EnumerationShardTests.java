@@ -0,0 +1,203 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/** JUnit tests for EnumerationShard. */
+public class EnumerationShardTests {
+
+  @TempDir Path tempDir;
+
+  private final LexicographicRanker ranker = new LexicographicRanker();
+
+  @Test
+  public void testShardsPartitionRanks() {
+    for (int n = 0; n <= 5; n++) {
+      long count = Factoradic.factorial(n);
+      for (int k : new int[] {1, 2, 3, 7, 150}) {
+        long expectedRank = 0;
+        for (int s = 0; s < k; s++) {
+          EnumerationShard job = EnumerationShard.of(n, s, k);
+          assertEquals(n, job.permutationLength());
+          assertEquals(s, job.shard());
+          assertEquals(k, job.shardCount());
+          assertEquals(expectedRank, job.first());
+          assertEquals(job.first(), job.position());
+          long size = job.end() - job.first();
+          assertTrue(size == count / k || size == count / k + 1);
+          long[] rank = {expectedRank};
+          assertEquals(
+              size, job.run(Long.MAX_VALUE, p -> assertEquals(rank[0]++, ranker.toLong(p))));
+          assertTrue(job.isComplete());
+          assertEquals(0, job.remaining());
+          assertEquals(0, job.run(10, p -> fail()));
+          expectedRank = job.end();
+        }
+        assertEquals(count, expectedRank);
+      }
+    }
+    long count = Factoradic.factorial(20);
+    EnumerationShard last = EnumerationShard.of(20, 999, 1000);
+    assertEquals(count, last.end());
+    assertEquals(count / 1000, last.remaining());
+  }
+
+  @Test
+  public void testCheckpointAndResume() throws IOException {
+    Path file = tempDir.resolve("shard.ckpt");
+    EnumerationShard job = EnumerationShard.of(7, 1, 3);
+    List<Permutation> expected = new ArrayList<Permutation>();
+    EnumerationShard.of(7, 1, 3).run(Long.MAX_VALUE, p -> expected.add(new Permutation(p)));
+    List<Permutation> actual = new ArrayList<Permutation>();
+    while (!job.isComplete()) {
+      job.run(101, p -> actual.add(new Permutation(p)));
+      job.checkpoint(file);
+      assertEquals(EnumerationShard.CHECKPOINT_BYTES, Files.size(file));
+      // Simulates a restart after every batch.
+      job = EnumerationShard.resume(file);
+    }
+    assertEquals(expected, actual);
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  public void testVisitorException() {
+    EnumerationShard job = EnumerationShard.of(4, 0, 1);
+    int[] visits = {0};
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            job.run(
+                10,
+                p -> {
+                  if (++visits[0] == 5) throw new IllegalStateException();
+                }));
+    assertEquals(4, job.position());
+    Permutation[] next = new Permutation[1];
+    assertEquals(1, job.run(1, p -> next[0] = new Permutation(p)));
+    assertEquals(ranker.unrank(4, 4), next[0]);
+  }
+
+  @Test
+  public void testSerializable() throws IOException, ClassNotFoundException {
+    EnumerationShard job = EnumerationShard.of(6, 2, 5);
+    job.run(17, p -> {});
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(job);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      EnumerationShard copy = (EnumerationShard) in.readObject();
+      assertEquals(job.position(), copy.position());
+      assertEquals(job.end(), copy.end());
+      Permutation[] a = new Permutation[1];
+      Permutation[] b = new Permutation[1];
+      job.run(1, p -> a[0] = new Permutation(p));
+      copy.run(1, p -> b[0] = new Permutation(p));
+      assertEquals(a[0], b[0]);
+    }
+  }
+
+  @Test
+  public void testDeserializationValidated() throws IOException, ClassNotFoundException {
+    EnumerationShard job = EnumerationShard.of(6, 2, 5);
+    job.run(17, p -> {});
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(job);
+    }
+    byte[] data = bytes.toByteArray();
+    // first = 288, end = 432, position = 305
+    assertEquals(288, job.first());
+    assertEquals(432, job.end());
+    assertEquals(305, job.position());
+    byte[] beyondEnd = replaceLong(data, 305, 999);
+    assertThrows(InvalidObjectException.class, () -> deserialize(beyondEnd));
+    byte[] wrongFirst = replaceLong(data, 288, 289);
+    assertThrows(InvalidObjectException.class, () -> deserialize(wrongFirst));
+    assertEquals(job.position(), deserialize(data).position());
+  }
+
+  private static EnumerationShard deserialize(byte[] data)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      return (EnumerationShard) in.readObject();
+    }
+  }
+
+  /*
+   * Replaces the single occurrence of the big-endian encoding of a long.
+   */
+  private static byte[] replaceLong(byte[] data, long from, long to) {
+    int found = -1;
+    for (int i = 0; i + 8 <= data.length; i++) {
+      if (ByteBuffer.wrap(data, i, 8).getLong() == from) {
+        assertEquals(-1, found);
+        found = i;
+      }
+    }
+    assertTrue(found >= 0);
+    byte[] copy = data.clone();
+    System.arraycopy(ByteBuffer.allocate(8).putLong(to).array(), 0, copy, found, 8);
+    return copy;
+  }
+
+  @Test
+  public void testInvalid() throws IOException {
+    assertThrows(IllegalArgumentException.class, () -> EnumerationShard.of(5, 3, 3));
+    assertThrows(IllegalArgumentException.class, () -> EnumerationShard.of(5, -1, 3));
+    assertThrows(IllegalArgumentException.class, () -> EnumerationShard.of(5, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> EnumerationShard.of(-1, 0, 1));
+    assertThrows(UnsupportedOperationException.class, () -> EnumerationShard.of(21, 0, 1));
+    Path file = tempDir.resolve("bad.ckpt");
+    Files.write(file, new byte[] {1, 2, 3});
+    assertThrows(StreamCorruptedException.class, () -> EnumerationShard.resume(file));
+    EnumerationShard.of(5, 1, 2).checkpoint(file);
+    byte[] bytes = Files.readAllBytes(file);
+    ByteBuffer.wrap(bytes).putLong(32, 1000);
+    Files.write(file, bytes);
+    assertThrows(StreamCorruptedException.class, () -> EnumerationShard.resume(file));
+    ByteBuffer.wrap(bytes).putLong(32, 60).putInt(8, 2);
+    Files.write(file, bytes);
+    assertThrows(StreamCorruptedException.class, () -> EnumerationShard.resume(file));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the LexicographicIterator. */
+public class LexicographicIteratorTests {
+
+  private final LexicographicRanker ranker = new LexicographicRanker();
+
+  @Test
+  public void testForwardAndBackward() {
+    for (int n = 0; n <= 6; n++) {
+      long count = Factoradic.factorial(n);
+      LexicographicIterator iter = new LexicographicIterator(n);
+      assertFalse(iter.hasPrevious());
+      for (long rank = 0; rank < count; rank++) {
+        assertEquals(rank, iter.position());
+        assertTrue(iter.hasNext());
+        assertEquals(ranker.unrank(n, rank), iter.next());
+      }
+      assertFalse(iter.hasNext());
+      assertThrows(NoSuchElementException.class, () -> iter.next());
+      for (long rank = count - 1; rank >= 0; rank--) {
+        assertTrue(iter.hasPrevious());
+        assertEquals(ranker.unrank(n, rank), iter.previous());
+        assertEquals(rank, iter.position());
+      }
+      assertFalse(iter.hasPrevious());
+      assertThrows(NoSuchElementException.class, () -> iter.previous());
+    }
+  }
+
+  @Test
+  public void testAlternatingDirections() {
+    LexicographicIterator iter = new LexicographicIterator(5, 17);
+    Permutation p = iter.next();
+    assertEquals(ranker.unrank(5, 17), p);
+    assertEquals(p, iter.previous());
+    assertEquals(p, iter.next());
+    assertEquals(ranker.unrank(5, 18), iter.next());
+    assertEquals(ranker.unrank(5, 18), iter.previous());
+    assertEquals(ranker.unrank(5, 17), iter.previous());
+  }
+
+  @Test
+  public void testCursor() {
+    LexicographicIterator iter = new LexicographicIterator(4);
+    Permutation cursor = iter.cursor();
+    int count = 0;
+    while (iter.advance()) {
+      assertSame(cursor, iter.cursor());
+      assertEquals(count, ranker.toLong(cursor));
+      count++;
+    }
+    assertEquals(24, count);
+    assertFalse(iter.advance());
+    while (iter.retreat()) {
+      count--;
+      assertEquals(count, ranker.toLong(cursor));
+    }
+    assertEquals(0, count);
+    assertFalse(iter.retreat());
+  }
+
+  @Test
+  public void testSeekAndSkip() {
+    long count = Factoradic.factorial(13);
+    LexicographicIterator iter = new LexicographicIterator(13, 1000000000L);
+    assertEquals(ranker.unrank(13, 1000000000L), iter.next());
+    assertEquals(ranker.unrank(13, 1000000001L), iter.next());
+    iter.seek(count - 1);
+    assertEquals(ranker.unrank(13, count - 1), iter.next());
+    assertFalse(iter.hasNext());
+    assertEquals(ranker.unrank(13, count - 1), iter.previous());
+    iter.seek(count);
+    assertFalse(iter.hasNext());
+    assertEquals(ranker.unrank(13, count - 1), iter.previous());
+    iter.seek(5);
+    assertEquals(1000, iter.skip(1000));
+    assertEquals(1005, iter.position());
+    assertEquals(ranker.unrank(13, 1005), iter.next());
+    assertEquals(-1006, iter.skip(-5000));
+    assertEquals(0, iter.position());
+    assertEquals(new Permutation(13, 0), iter.next());
+    iter.seek(count - 10);
+    assertEquals(10, iter.skip(Long.MAX_VALUE));
+    assertEquals(-count, iter.skip(Long.MIN_VALUE));
+    assertEquals(new Permutation(13, 0), iter.next());
+    assertThrows(IllegalArgumentException.class, () -> iter.seek(-1));
+    assertThrows(IllegalArgumentException.class, () -> iter.seek(count + 1));
+  }
+
+  @Test
+  public void testSuccessorAndPredecessor() {
+    Permutation p = new Permutation(new int[] {2, 1, 0});
+    assertFalse(LexicographicIterator.successor(p));
+    assertEquals(new Permutation(new int[] {2, 1, 0}), p);
+    p = new Permutation(3, 0);
+    assertFalse(LexicographicIterator.predecessor(p));
+    assertEquals(new Permutation(3, 0), p);
+  }
+
+  @Test
+  public void testExceptions() {
+    assertThrows(IllegalArgumentException.class, () -> new LexicographicIterator(-1));
+    assertThrows(UnsupportedOperationException.class, () -> new LexicographicIterator(21));
+    assertThrows(IllegalArgumentException.class, () -> new LexicographicIterator(3, 7));
+    assertFalse(new LexicographicIterator(3, 6).hasNext());
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.cicirello.permutations.distance.KendallTauDistance;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the Neighborhood class. */
+public class NeighborhoodTests {
+
+  @Test
+  public void testForEachAndSize() {
+    for (Neighborhood.Type type : Neighborhood.Type.values()) {
+      Neighborhood neighborhood = new Neighborhood(type);
+      assertEquals(type, neighborhood.type());
+      for (int n = 0; n <= 7; n++) {
+        final int length = n;
+        HashSet<Long> moves = new HashSet<Long>();
+        long[] previous = {-1};
+        neighborhood.forEach(
+            n,
+            (i, j) -> {
+              assertTrue(i >= 0 && j >= 0 && i < length && j < length && i != j);
+              if (type != Neighborhood.Type.INSERTION) {
+                assertTrue(i < j);
+              }
+              long key = (long) i * length + j;
+              assertTrue(key > previous[0]);
+              previous[0] = key;
+              moves.add(key);
+            });
+        assertEquals(neighborhood.size(n), moves.size());
+      }
+    }
+    assertEquals(10, new Neighborhood(Neighborhood.Type.SWAP).size(5));
+    assertEquals(10, new Neighborhood(Neighborhood.Type.REVERSAL).size(5));
+    assertEquals(20, new Neighborhood(Neighborhood.Type.INSERTION).size(5));
+    assertEquals(12497500L, new Neighborhood(Neighborhood.Type.SWAP).size(5000));
+    assertThrows(NullPointerException.class, () -> new Neighborhood(null));
+  }
+
+  @Test
+  public void testMove() {
+    assertTrue(new Neighborhood(Neighborhood.Type.SWAP).move(1, 2) instanceof PermutationMove.Swap);
+    assertTrue(
+        new Neighborhood(Neighborhood.Type.REVERSAL).move(1, 2)
+            instanceof PermutationMove.Reversal);
+    PermutationMove m = new Neighborhood(Neighborhood.Type.INSERTION).move(3, 1);
+    assertEquals(3, ((PermutationMove.Insertion) m).from());
+    assertEquals(1, ((PermutationMove.Insertion) m).to());
+  }
+
+  @Test
+  public void testScans() {
+    SplittableRandom r = new SplittableRandom(42);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (Neighborhood.Type type : Neighborhood.Type.values()) {
+        Neighborhood neighborhood = new Neighborhood(type);
+        for (int n : new int[] {0, 1, 2, 3, 10, 60}) {
+          Permutation p = new Permutation(n, r);
+          Neighborhood.Evaluator evaluator = displacementDelta(neighborhood);
+          Permutation original = new Permutation(p);
+
+          // brute force best and first improving moves
+          double[] best = {0.0};
+          int[] bestMove = {-1, -1};
+          int[] firstMove = {-1, -1};
+          neighborhood.forEach(
+              n,
+              (i, j) -> {
+                double value = evaluator.evaluate(p, i, j);
+                if (value < best[0]) {
+                  best[0] = value;
+                  bestMove[0] = i;
+                  bestMove[1] = j;
+                }
+                if (value < 0 && firstMove[0] < 0) {
+                  firstMove[0] = i;
+                  firstMove[1] = j;
+                }
+              });
+
+          assertMove(neighborhood, bestMove, neighborhood.bestImprovement(p, evaluator));
+          assertMove(neighborhood, bestMove, neighborhood.bestImprovement(p, evaluator, pool));
+          assertMove(neighborhood, firstMove, neighborhood.firstImprovement(p, evaluator));
+          PermutationMove parallelFirst = neighborhood.firstImprovement(p, evaluator, pool);
+          if (firstMove[0] < 0) {
+            assertNull(parallelFirst);
+          } else {
+            Permutation q = new Permutation(p);
+            double before = displacement(q);
+            parallelFirst.apply(q);
+            assertTrue(displacement(q) < before);
+          }
+          assertEquals(original, p);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testMoveEvaluatorScans() {
+    SplittableRandom r = new SplittableRandom(11);
+    KendallTauDistance tau = new KendallTauDistance();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (Neighborhood.Type type : Neighborhood.Type.values()) {
+        Neighborhood neighborhood = new Neighborhood(type);
+        for (int n : new int[] {0, 2, 9, 60}) {
+          Permutation p = new Permutation(n, r);
+          Permutation reference = new Permutation(n, r);
+          Neighborhood.Evaluator byIndex =
+              (q, i, j) -> tau.delta(q, reference, neighborhood.move(i, j));
+          HashSet<PermutationMove> seen = new HashSet<PermutationMove>();
+          Neighborhood.MoveEvaluator byMove =
+              (q, m) -> {
+                seen.add(m);
+                return tau.delta(q, reference, m);
+              };
+          PermutationMove expected = neighborhood.bestImprovement(p, byIndex);
+          PermutationMove actual = neighborhood.bestImprovement(p, byMove);
+          assertMove(neighborhood, indexes(expected), actual);
+          // a sequential scan reuses a single move object
+          assertTrue(seen.size() <= 1);
+          assertFalse(seen.contains(actual));
+          assertMove(
+              neighborhood,
+              indexes(neighborhood.firstImprovement(p, byIndex)),
+              neighborhood.firstImprovement(p, byMove));
+          Neighborhood.MoveEvaluator threadSafe = (q, m) -> tau.delta(q, reference, m);
+          assertMove(
+              neighborhood, indexes(expected), neighborhood.bestImprovement(p, threadSafe, pool));
+          PermutationMove parallelFirst = neighborhood.firstImprovement(p, threadSafe, pool);
+          if (expected == null) {
+            assertNull(parallelFirst);
+          } else {
+            assertTrue(tau.delta(p, reference, parallelFirst) < 0);
+          }
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testNoImprovement() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      Permutation p = new Permutation(200, 0L);
+      for (Neighborhood.Type type : Neighborhood.Type.values()) {
+        Neighborhood neighborhood = new Neighborhood(type);
+        assertNull(neighborhood.bestImprovement(p, (q, i, j) -> 0.0));
+        assertNull(neighborhood.firstImprovement(p, (q, i, j) -> 1.0));
+        assertNull(neighborhood.bestImprovement(p, (q, i, j) -> 0.0, pool));
+        assertNull(neighborhood.firstImprovement(p, (q, i, j) -> 1.0, pool));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static int[] indexes(PermutationMove m) {
+    if (m instanceof PermutationMove.Swap) {
+      return new int[] {((PermutationMove.Swap) m).first(), ((PermutationMove.Swap) m).second()};
+    }
+    if (m instanceof PermutationMove.Reversal) {
+      return new int[] {
+        ((PermutationMove.Reversal) m).first(), ((PermutationMove.Reversal) m).last()
+      };
+    }
+    if (m instanceof PermutationMove.Insertion) {
+      return new int[] {
+        ((PermutationMove.Insertion) m).from(), ((PermutationMove.Insertion) m).to()
+      };
+    }
+    return new int[] {-1, -1};
+  }
+
+  private static void assertMove(Neighborhood neighborhood, int[] expected, PermutationMove m) {
+    if (expected[0] < 0) {
+      assertNull(m);
+    } else {
+      assertEquals(neighborhood.move(expected[0], expected[1]).getClass(), m.getClass());
+      Permutation p = new Permutation(Math.max(expected[0], expected[1]) + 1, 0L);
+      Permutation q = new Permutation(p);
+      m.apply(p);
+      neighborhood.move(expected[0], expected[1]).apply(q);
+      assertEquals(q, p);
+    }
+  }
+
+  /*
+   * Evaluates a move by applying it, measuring the total displacement of
+   * the elements from their positions in the identity, and undoing it.
+   */
+  private static Neighborhood.Evaluator displacementDelta(Neighborhood neighborhood) {
+    return (p, i, j) -> {
+      double before = displacement(p);
+      PermutationMove m = neighborhood.move(i, j);
+      m.apply(p);
+      double after = displacement(p);
+      m.undo(p);
+      return after - before;
+    };
+  }
+
+  private static double displacement(Permutation p) {
+    double total = 0;
+    for (int k = 0; k < p.length(); k++) {
+      total += Math.abs(p.get(k) - k) * (1.0 + 0.001 * k);
+    }
+    return total;
+  }
+}
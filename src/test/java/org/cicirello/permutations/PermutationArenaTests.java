@@ -0,0 +1,240 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/** JUnit tests for PermutationArena and ArenaPermutation. */
+public class PermutationArenaTests {
+
+  @TempDir Path tempDir;
+
+  @Test
+  public void testInitiallyIdentity() {
+    for (int n : new int[] {0, 1, 5, 300, 70000}) {
+      PermutationArena arena = new PermutationArena(3, n);
+      assertEquals(3, arena.size());
+      assertEquals(n, arena.permutationLength());
+      assertFalse(arena.isFileBacked());
+      ArenaPermutation view = arena.view(0);
+      for (int k = 0; k < 3; k++) {
+        view.moveTo(k);
+        assertEquals(k, view.index());
+        assertSame(arena, view.arena());
+        assertEquals(n, view.length());
+        for (int i = 0; i < n; i++) {
+          assertEquals(i, view.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSetAndGet() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {5, 256, 300, 65536, 65537}) {
+      PermutationArena arena = new PermutationArena(4, n);
+      Permutation[] expected = new Permutation[4];
+      for (int k = 0; k < 4; k++) {
+        expected[k] = new Permutation(n, r);
+        arena.set(k, expected[k]);
+      }
+      ArenaPermutation view = arena.view(0);
+      for (int k = 0; k < 4; k++) {
+        view.moveTo(k);
+        assertArrayEquals(expected[k].toArray(), view.toArray());
+        assertEquals(expected[k], new Permutation(view));
+      }
+    }
+  }
+
+  @Test
+  public void testMultipleBuffers() {
+    SplittableRandom r = new SplittableRandom(42);
+    // Each buffer holds 3 slots of 10 bytes each.
+    PermutationArena arena = new PermutationArena(10, 10, 35);
+    Permutation[] expected = new Permutation[10];
+    for (int k = 0; k < 10; k++) {
+      expected[k] = new Permutation(10, r);
+      arena.set(k, expected[k]);
+    }
+    ArenaPermutation view = arena.view(9);
+    for (int k = 9; k >= 0; k--) {
+      view.moveTo(k);
+      view.reverse(2, 7);
+      expected[k].reverse(2, 7);
+    }
+    for (int k = 0; k < 10; k++) {
+      view.moveTo(k);
+      assertArrayEquals(expected[k].toArray(), view.toArray());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new PermutationArena(2, 10, 9));
+  }
+
+  @Test
+  public void testMutatorsOnlyAffectViewedSlot() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {10, 300, 70000}) {
+      PermutationArena arena = new PermutationArena(3, n);
+      Permutation p = new Permutation(n, r);
+      arena.set(1, p);
+      ArenaPermutation view = arena.view(1);
+      view.swap(0, n - 1);
+      p.swap(0, n - 1);
+      view.reverse(1, 8);
+      p.reverse(1, 8);
+      view.rotate(3);
+      p.rotate(3);
+      view.removeAndInsert(7, 2);
+      p.removeAndInsert(7, 2);
+      view.removeAndInsert(2, 7);
+      p.removeAndInsert(2, 7);
+      view.removeAndInsert(1, 3, 5);
+      p.removeAndInsert(1, 3, 5);
+      view.swapBlocks(0, 1, 4, 6);
+      p.swapBlocks(0, 1, 4, 6);
+      view.cycle(new int[] {2, 5, 8});
+      p.cycle(new int[] {2, 5, 8});
+      assertArrayEquals(p.toArray(), view.toArray());
+      view.scramble(r);
+      assertEquals(n, new Permutation(view).length());
+      ArenaPermutation other = arena.view(0);
+      for (int i = 0; i < n; i++) {
+        assertEquals(i, other.get(i));
+      }
+      other.moveTo(2);
+      for (int i = 0; i < n; i++) {
+        assertEquals(i, other.get(i));
+      }
+    }
+  }
+
+  @Test
+  public void testCopyEqualsHashCode() {
+    PermutationArena arena = new PermutationArena(2, 6);
+    arena.set(0, new Permutation(new int[] {5, 3, 1, 0, 2, 4}));
+    ArenaPermutation view = arena.view(0);
+    CompactPermutation copy = view.copy();
+    assertFalse(copy instanceof ArenaPermutation);
+    assertEquals(view, copy);
+    assertEquals(copy, view);
+    assertEquals(copy.hashCode(), view.hashCode());
+    copy.swap(0, 1);
+    assertEquals(5, view.get(0));
+    assertNotEquals(view, arena.view(1));
+  }
+
+  @Test
+  public void testSerializesAsCopy() throws IOException, ClassNotFoundException {
+    PermutationArena arena = new PermutationArena(2, 6);
+    arena.set(1, new Permutation(new int[] {5, 3, 1, 0, 2, 4}));
+    ArenaPermutation view = arena.view(1);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(view);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Object p = in.readObject();
+      assertTrue(p instanceof CompactPermutation);
+      assertFalse(p instanceof ArenaPermutation);
+      assertEquals(view, p);
+    }
+  }
+
+  @Test
+  public void testIndexChecks() {
+    PermutationArena arena = new PermutationArena(2, 6);
+    ArenaPermutation view = arena.view(0);
+    assertThrows(IndexOutOfBoundsException.class, () -> arena.view(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> arena.view(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.moveTo(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(6));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.swap(0, 6));
+    assertThrows(IllegalArgumentException.class, () -> arena.set(0, new Permutation(5)));
+    assertThrows(IllegalArgumentException.class, () -> new PermutationArena(-1, 5));
+    assertThrows(IllegalArgumentException.class, () -> new PermutationArena(1, -5));
+    assertEquals(0, new PermutationArena(0, 5).size());
+  }
+
+  @Test
+  public void testFileBacked() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    Path file = tempDir.resolve("population.bin");
+    PermutationArena arena = PermutationArena.create(file, 5, 300);
+    assertTrue(arena.isFileBacked());
+    assertEquals(5L * 300 * 2, Files.size(file));
+    Permutation[] expected = new Permutation[5];
+    ArenaPermutation view = arena.view(0);
+    for (int k = 0; k < 5; k++) {
+      view.moveTo(k);
+      for (int i = 0; i < 300; i++) {
+        assertEquals(i, view.get(i));
+      }
+      expected[k] = new Permutation(300, r);
+      arena.set(k, expected[k]);
+    }
+    view.moveTo(3);
+    view.reverse();
+    expected[3].reverse();
+    arena.force();
+
+    PermutationArena reopened = PermutationArena.open(file, 300);
+    assertTrue(reopened.isFileBacked());
+    assertEquals(5, reopened.size());
+    view = reopened.view(0);
+    for (int k = 0; k < 5; k++) {
+      view.moveTo(k);
+      assertArrayEquals(expected[k].toArray(), view.toArray());
+    }
+    assertThrows(IOException.class, () -> PermutationArena.open(file, 7));
+    assertThrows(IllegalArgumentException.class, () -> PermutationArena.open(file, -1));
+    new PermutationArena(1, 1).force();
+  }
+
+  @Test
+  public void testOpenedContentsValidatedOnCopy() throws IOException {
+    Path file = tempDir.resolve("foreign.bin");
+    // Two records of length 4, the second of which is not a permutation.
+    Files.write(file, new byte[] {3, 1, 0, 2, 1, 1, 7, 0});
+    PermutationArena arena = PermutationArena.open(file, 4);
+    assertEquals(2, arena.size());
+    ArenaPermutation view = arena.view(0);
+    assertEquals(new Permutation(new int[] {3, 1, 0, 2}), new Permutation(view));
+    view.moveTo(1);
+    assertThrows(IllegalArgumentException.class, () -> new Permutation(view));
+    assertThrows(IllegalArgumentException.class, () -> CompactPermutation.of(view));
+    assertThrows(IllegalArgumentException.class, () -> view.copy());
+  }
+}
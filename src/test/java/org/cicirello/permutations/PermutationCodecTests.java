@@ -0,0 +1,225 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for PermutationCodec. */
+public class PermutationCodecTests {
+
+  private static final int[] LENGTHS = {0, 1, 2, 3, 5, 8, 9, 100, 256, 257, 1000, 65537};
+
+  @Test
+  public void testBufferRoundTrip() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (PermutationCodec.Encoding encoding : PermutationCodec.Encoding.values()) {
+      for (int n : LENGTHS) {
+        PermutationCodec codec = new PermutationCodec(n, encoding);
+        assertEquals(n, codec.length());
+        assertEquals(encoding, codec.encoding());
+        Permutation[] expected = new Permutation[5];
+        ByteBuffer buffer = ByteBuffer.allocate(5 * codec.recordBytes());
+        for (int k = 0; k < expected.length; k++) {
+          expected[k] = new Permutation(n, r);
+          codec.encode(k % 2 == 0 ? expected[k] : CompactPermutation.of(expected[k]), buffer);
+          assertEquals((k + 1) * codec.recordBytes(), buffer.position());
+        }
+        assertThrows(BufferOverflowException.class, () -> codec.encode(expected[0], buffer));
+        buffer.flip();
+        int[] result = new int[n];
+        for (int k = 0; k < expected.length; k++) {
+          if (k % 2 == 0) {
+            codec.decode(buffer, result);
+            assertArrayEquals(expected[k].toArray(), result);
+          } else {
+            assertEquals(expected[k], codec.decode(buffer));
+          }
+        }
+        assertThrows(BufferUnderflowException.class, () -> codec.decode(buffer, result));
+      }
+    }
+  }
+
+  @Test
+  public void testRecordBytes() {
+    assertEquals(1, new PermutationCodec(0).recordBytes());
+    assertEquals(1, new PermutationCodec(1).recordBytes());
+    assertEquals(1, new PermutationCodec(2).recordBytes());
+    // 256 elements, 8 bits each.
+    assertEquals(256, new PermutationCodec(256).recordBytes());
+    // 257 elements, 9 bits each.
+    assertEquals(290, new PermutationCodec(257).recordBytes());
+    // Lehmer digits of radix 5..2 require 3 + 2 + 2 + 1 bits.
+    assertEquals(1, new PermutationCodec(5, PermutationCodec.Encoding.LEHMER).recordBytes());
+    assertEquals(2, new PermutationCodec(5, PermutationCodec.Encoding.PACKED).recordBytes());
+    for (int n : new int[] {100, 1000, 65537}) {
+      assertTrue(
+          new PermutationCodec(n, PermutationCodec.Encoding.LEHMER).recordBytes()
+              < new PermutationCodec(n, PermutationCodec.Encoding.PACKED).recordBytes());
+    }
+    long bits = 0;
+    for (int n = 0; n <= 600; n++) {
+      if (n > 1) {
+        bits += 32 - Integer.numberOfLeadingZeros(n - 1);
+      }
+      assertEquals(
+          Math.max(1, (bits + 7) / 8),
+          new PermutationCodec(n, PermutationCodec.Encoding.LEHMER).recordBytes());
+    }
+    assertThrows(IllegalArgumentException.class, () -> new PermutationCodec(-1));
+    assertThrows(IllegalArgumentException.class, () -> new PermutationCodec(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testInvalidData() {
+    PermutationCodec packed = new PermutationCodec(4);
+    ByteBuffer buffer = ByteBuffer.allocate(2);
+    // Elements 0, 0, 0, 0, in a record of 1 byte.
+    int[] result = new int[4];
+    assertThrows(IllegalArgumentException.class, () -> packed.decode(buffer, result));
+    assertEquals(1, buffer.position());
+    PermutationCodec lehmer = new PermutationCodec(5, PermutationCodec.Encoding.LEHMER);
+    // First digit, with radix 5, is 7.
+    ByteBuffer invalid = ByteBuffer.wrap(new byte[] {7});
+    assertThrows(IllegalArgumentException.class, () -> lehmer.decode(invalid, new int[5]));
+    assertThrows(
+        IllegalArgumentException.class, () -> packed.decode(ByteBuffer.allocate(2), new int[3]));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> packed.encode(new Permutation(3), ByteBuffer.allocate(2)));
+    // Valid data decodes after invalid data.
+    ByteBuffer valid = ByteBuffer.allocate(2);
+    packed.encode(new Permutation(new int[] {3, 1, 0, 2}), valid);
+    valid.flip();
+    packed.decode(valid, result);
+    assertArrayEquals(new int[] {3, 1, 0, 2}, result);
+  }
+
+  @Test
+  public void testStreamRoundTrip() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    for (PermutationCodec.Encoding encoding : PermutationCodec.Encoding.values()) {
+      for (int n : new int[] {0, 1, 7, 300, 100000}) {
+        // Enough permutations to require several buffers.
+        int count = n <= 300 ? 2000 : 3;
+        Permutation[] expected = new Permutation[count];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PermutationCodec codec = new PermutationCodec(n, encoding);
+        try (PermutationCodec.Writer writer = codec.newWriter(bytes)) {
+          assertSame(codec, writer.codec());
+          for (int k = 0; k < count; k++) {
+            expected[k] = new Permutation(n, r);
+            writer.write(expected[k]);
+          }
+        }
+        assertEquals(9 + (long) count * codec.recordBytes(), bytes.size());
+        try (PermutationCodec.Reader reader =
+            PermutationCodec.newReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+          assertEquals(n, reader.codec().length());
+          assertEquals(encoding, reader.codec().encoding());
+          int[] result = new int[n];
+          for (int k = 0; k < count; k++) {
+            if (k % 2 == 0) {
+              assertTrue(reader.read(result));
+              assertArrayEquals(expected[k].toArray(), result);
+            } else {
+              assertEquals(expected[k], reader.read());
+            }
+          }
+          assertFalse(reader.read(result));
+          assertNull(reader.read());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testStreamErrors() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PermutationCodec.Writer writer = new PermutationCodec(300).newWriter(bytes)) {
+      writer.write(new Permutation(300));
+      writer.flush();
+      assertThrows(IllegalArgumentException.class, () -> writer.write(new Permutation(5)));
+    }
+    byte[] data = bytes.toByteArray();
+    assertThrows(
+        EOFException.class,
+        () -> PermutationCodec.newReader(new ByteArrayInputStream(Arrays.copyOf(data, 5))));
+    byte[] badMagic = data.clone();
+    badMagic[0]++;
+    assertThrows(
+        StreamCorruptedException.class,
+        () -> PermutationCodec.newReader(new ByteArrayInputStream(badMagic)));
+    // Length in header too large for a codec.
+    byte[] hugeLength = withLength(data, 0x7FFFFFF0);
+    assertThrows(
+        StreamCorruptedException.class,
+        () -> PermutationCodec.newReader(new ByteArrayInputStream(hugeLength)));
+    // Length in header far larger than the data that follows it.
+    PermutationCodec.Reader overstated =
+        PermutationCodec.newReader(new ByteArrayInputStream(withLength(data, 0x0FFFFFFF)));
+    assertThrows(EOFException.class, () -> overstated.read());
+    PermutationCodec.Reader truncated =
+        PermutationCodec.newReader(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 1)));
+    assertThrows(EOFException.class, () -> truncated.read());
+    PermutationCodec.Reader reader =
+        PermutationCodec.newReader(new ByteArrayInputStream(duplicateFirstElement(data)));
+    assertThrows(StreamCorruptedException.class, () -> reader.read());
+  }
+
+  /*
+   * Copies a stream of permutations, replacing the length in its header.
+   */
+  static byte[] withLength(byte[] data, int length) {
+    byte[] copy = data.clone();
+    ByteBuffer.wrap(copy).putInt(5, length);
+    return copy;
+  }
+
+  /*
+   * Overwrites the first element of the first record of a stream of
+   * permutations of length 300, whose elements are 9 bits each, with the
+   * second element.
+   */
+  private static byte[] duplicateFirstElement(byte[] data) {
+    byte[] copy = data.clone();
+    ByteBuffer record = ByteBuffer.wrap(copy, 9, copy.length - 9).slice();
+    int first = (record.get(0) & 0xff) | (record.get(1) & 1) << 8;
+    int second = (record.get(1) & 0xff) >>> 1 | (record.get(2) & 3) << 7;
+    assertNotEquals(first, second);
+    record.put(0, (byte) second);
+    record.put(1, (byte) ((record.get(1) & 0xfe) | (second >>> 8)));
+    return copy;
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the PermutationEnumerator. */
+public class PermutationEnumeratorTests {
+
+  @Test
+  public void testDerangements() {
+    long[] counts = {1, 0, 1, 2, 9, 44, 265, 1854};
+    for (int n = 0; n < counts.length; n++) {
+      final int len = n;
+      assertEnumerates(
+          PermutationEnumerator.derangements(n), n, n, counts[n], p -> isDerangement(p, len));
+    }
+  }
+
+  @Test
+  public void testInvolutions() {
+    long[] counts = {1, 1, 2, 4, 10, 26, 76, 232};
+    for (int n = 0; n < counts.length; n++) {
+      assertEnumerates(
+          PermutationEnumerator.involutions(n),
+          n,
+          n,
+          counts[n],
+          p -> {
+            for (int i = 0; i < p.length(); i++) {
+              if (p.get(p.get(i)) != i) return false;
+            }
+            return true;
+          });
+    }
+  }
+
+  @Test
+  public void testWithPrefix() {
+    int[] prefix = {4, 0, 2};
+    assertEnumerates(
+        PermutationEnumerator.withPrefix(7, prefix),
+        7,
+        7,
+        24,
+        p -> p.get(0) == 4 && p.get(1) == 0 && p.get(2) == 2);
+    assertEnumerates(PermutationEnumerator.withPrefix(5), 5, 5, 120, p -> true);
+    assertEnumerates(PermutationEnumerator.withPrefix(3, 2, 0, 1), 3, 3, 1, p -> p.get(0) == 2);
+    assertEnumerates(PermutationEnumerator.withPrefix(3, 2, 0), 3, 3, 1, p -> p.get(2) == 1);
+    assertThrows(IllegalArgumentException.class, () -> PermutationEnumerator.withPrefix(3, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> PermutationEnumerator.withPrefix(3, 3));
+    assertThrows(IllegalArgumentException.class, () -> PermutationEnumerator.withPrefix(1, 0, 1));
+  }
+
+  @Test
+  public void testArrangements() {
+    for (int n = 0; n <= 6; n++) {
+      long count = 1;
+      for (int k = 0; k <= n; k++) {
+        assertEnumerates(PermutationEnumerator.arrangements(n, k), n, k, count, p -> true);
+        count *= n - k;
+      }
+    }
+    assertThrows(IllegalArgumentException.class, () -> PermutationEnumerator.arrangements(3, 4));
+    assertThrows(IllegalArgumentException.class, () -> PermutationEnumerator.arrangements(3, -1));
+    assertThrows(IllegalArgumentException.class, () -> PermutationEnumerator.derangements(-1));
+  }
+
+  @Test
+  public void testSplitting() {
+    // Splits repeatedly, both before and during enumeration, and checks
+    // that the parts together enumerate each derangement exactly once.
+    PermutationEnumerator root = PermutationEnumerator.derangements(7);
+    ArrayDeque<Spliterator<Permutation>> parts = new ArrayDeque<Spliterator<Permutation>>();
+    parts.add(root);
+    HashSet<Permutation> found = new HashSet<Permutation>();
+    int count = 0;
+    int splits = 0;
+    while (!parts.isEmpty()) {
+      Spliterator<Permutation> part = parts.poll();
+      for (int step = 0; ; step++) {
+        if (step % 7 == 0) {
+          Spliterator<Permutation> other = part.trySplit();
+          if (other != null) {
+            assertTrue(other.estimateSize() > 0);
+            parts.add(other);
+            splits++;
+          }
+        }
+        Permutation[] p = new Permutation[1];
+        if (!part.tryAdvance(q -> p[0] = new Permutation(q))) break;
+        assertTrue(isDerangement(p[0], 7));
+        assertTrue(found.add(p[0]));
+        count++;
+      }
+      assertEquals(0, part.estimateSize());
+    }
+    assertEquals(1854, count);
+    assertTrue(splits > 10);
+  }
+
+  @Test
+  public void testParallelStreams() {
+    assertEquals(14833, PermutationEnumerator.derangements(8).stream().parallel().count());
+    assertEquals(764, PermutationEnumerator.involutions(8).stream().parallel().count());
+    List<List<Integer>> arrangements =
+        PermutationEnumerator.arrangements(8, 3).stream()
+            .parallel()
+            .map(p -> List.of(p.get(0), p.get(1), p.get(2)))
+            .collect(Collectors.toList());
+    assertEquals(336, arrangements.size());
+    assertEquals(336, new HashSet<List<Integer>>(arrangements).size());
+    long sumOfSecond =
+        PermutationEnumerator.withPrefix(9, 3).stream().parallel().mapToLong(p -> p.get(1)).sum();
+    // Each of the 8 elements other than 3 is second in 7! permutations.
+    assertEquals(5040L * (36 - 3), sumOfSecond);
+  }
+
+  /*
+   * Asserts that the enumerator visits count distinct members, each
+   * satisfying the predicate, using the cursor mode.
+   */
+  private void assertEnumerates(
+      PermutationEnumerator e, int n, int k, long count, Predicate<Permutation> member) {
+    assertEquals(k, e.arrangementLength());
+    Permutation cursor = e.cursor();
+    HashSet<List<Integer>> found = new HashSet<List<Integer>>();
+    while (e.advance()) {
+      assertSame(cursor, e.cursor());
+      assertEquals(n, cursor.length());
+      assertEquals(cursor, new Permutation(cursor.toArray()));
+      assertTrue(member.test(cursor));
+      List<Integer> arrangement = new ArrayList<Integer>();
+      for (int i = 0; i < k; i++) {
+        arrangement.add(cursor.get(i));
+      }
+      assertTrue(found.add(arrangement));
+    }
+    assertEquals(count, found.size());
+    assertFalse(e.advance());
+  }
+
+  private boolean isDerangement(Permutation p, int n) {
+    for (int i = 0; i < n; i++) {
+      if (p.get(i) == i) return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.cicirello.permutations.distance.CyclicEdgeDistance;
+import org.cicirello.permutations.distance.KendallTauDistance;
+import org.cicirello.permutations.distance.PermutationDistanceMeasurer;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+/** JUnit tests for PermutationFile and FilePermutation. */
+public class PermutationFileTests {
+
+  @TempDir Path tempDir;
+
+  @Test
+  public void testCodecFiles() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    for (PermutationCodec.Encoding encoding : PermutationCodec.Encoding.values()) {
+      for (int n : new int[] {0, 1, 2, 7, 255, 300, 70000}) {
+        Path file = tempDir.resolve("codec-" + encoding + "-" + n + ".bin");
+        Permutation[] expected = write(file, new PermutationCodec(n, encoding), 6, r);
+        PermutationFile pf = PermutationFile.open(file);
+        assertEquals(6, pf.size());
+        assertEquals(n, pf.permutationLength());
+        assertViews(pf, expected);
+      }
+    }
+  }
+
+  @Test
+  public void testRawFiles() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {0, 5, 300, 70000}) {
+      Path file = tempDir.resolve("raw-" + n + ".bin");
+      PermutationArena arena = PermutationArena.create(file, 4, n);
+      Permutation[] expected = new Permutation[4];
+      for (int k = 0; k < 4; k++) {
+        expected[k] = new Permutation(n, r);
+        arena.set(k, expected[k]);
+      }
+      arena.force();
+      PermutationFile pf = PermutationFile.openRaw(file, n);
+      assertEquals(n == 0 ? 0 : 4, pf.size());
+      assertEquals(n, pf.permutationLength());
+      if (n > 0) {
+        assertViews(pf, expected);
+      }
+    }
+  }
+
+  @Test
+  public void testMultipleBuffers() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    Path file = tempDir.resolve("raw.bin");
+    PermutationArena arena = PermutationArena.create(file, 10, 10);
+    Permutation[] expected = new Permutation[10];
+    for (int k = 0; k < 10; k++) {
+      expected[k] = new Permutation(10, r);
+      arena.set(k, expected[k]);
+    }
+    arena.force();
+    // Each buffer holds 3 records of 10 bytes each.
+    PermutationFile pf = PermutationFile.openRaw(file, 10, 35);
+    assertEquals(10, pf.size());
+    assertViews(pf, expected);
+  }
+
+  @Test
+  public void testDistancesOnViews() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    Path file = tempDir.resolve("distances.bin");
+    Permutation[] expected = write(file, new PermutationCodec(50), 20, r);
+    PermutationFile pf = PermutationFile.open(file);
+    PermutationDistanceMeasurer[] measurers = {new KendallTauDistance(), new CyclicEdgeDistance()};
+    Permutation target = new Permutation(50, r);
+    FilePermutation view = pf.view(0);
+    for (PermutationDistanceMeasurer d : measurers) {
+      for (int k = 0; k < pf.size(); k++) {
+        view.moveTo(k);
+        assertEquals(d.distance(expected[k], target), d.distance(view, target));
+      }
+    }
+  }
+
+  @Test
+  public void testErrors() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    Path file = tempDir.resolve("errors.bin");
+    write(file, new PermutationCodec(10), 3, r);
+    PermutationFile pf = PermutationFile.open(file);
+    FilePermutation view = pf.view(2);
+    assertThrows(IndexOutOfBoundsException.class, () -> pf.view(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> pf.view(-1));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.moveTo(3));
+    assertEquals(2, view.index());
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(10));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(-1));
+    // Truncated within a permutation.
+    byte[] bytes = Files.readAllBytes(file);
+    Path truncated = tempDir.resolve("truncated.bin");
+    Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+    assertThrows(IOException.class, () -> PermutationFile.open(truncated));
+    Path header = tempDir.resolve("header.bin");
+    Files.write(header, Arrays.copyOf(bytes, 4));
+    assertThrows(IOException.class, () -> PermutationFile.open(header));
+    bytes[0]++;
+    Path corrupt = tempDir.resolve("corrupt.bin");
+    Files.write(corrupt, bytes);
+    assertThrows(StreamCorruptedException.class, () -> PermutationFile.open(corrupt));
+    bytes[0]--;
+    Path hugeLength = tempDir.resolve("huge-length.bin");
+    Files.write(hugeLength, PermutationCodecTests.withLength(bytes, 0x7FFFFFF0));
+    assertThrows(StreamCorruptedException.class, () -> PermutationFile.open(hugeLength));
+    Path overstated = tempDir.resolve("overstated.bin");
+    Files.write(overstated, PermutationCodecTests.withLength(bytes, 1000000));
+    assertThrows(StreamCorruptedException.class, () -> PermutationFile.open(overstated));
+    assertThrows(IOException.class, () -> PermutationFile.openRaw(file, 7));
+    assertThrows(IllegalArgumentException.class, () -> PermutationFile.openRaw(file, -1));
+  }
+
+  @Test
+  public void testInvalidLehmerRecord() throws IOException {
+    SplittableRandom r = new SplittableRandom(42);
+    Path file = tempDir.resolve("lehmer.bin");
+    Permutation[] expected =
+        write(file, new PermutationCodec(5, PermutationCodec.Encoding.LEHMER), 3, r);
+    byte[] bytes = Files.readAllBytes(file);
+    // Records are 1 byte each; the first digit of record 1, of radix 5, is 7.
+    bytes[10] = 7;
+    Files.write(file, bytes);
+    PermutationFile pf = PermutationFile.open(file);
+    FilePermutation view = pf.view(0);
+    assertThrows(IllegalArgumentException.class, () -> view.moveTo(1));
+    assertEquals(0, view.index());
+    assertArrayEquals(expected[0].toArray(), view.toArray());
+    view.moveTo(2);
+    assertArrayEquals(expected[2].toArray(), view.toArray());
+    assertThrows(IllegalArgumentException.class, () -> pf.view(1));
+  }
+
+  private static Permutation[] write(
+      Path file, PermutationCodec codec, int count, SplittableRandom r) throws IOException {
+    Permutation[] expected = new Permutation[count];
+    try (OutputStream out = Files.newOutputStream(file);
+        PermutationCodec.Writer writer = codec.newWriter(out)) {
+      for (int k = 0; k < count; k++) {
+        expected[k] = new Permutation(codec.length(), r);
+        writer.write(expected[k]);
+      }
+    }
+    return expected;
+  }
+
+  private static void assertViews(PermutationFile pf, Permutation[] expected) {
+    FilePermutation view = pf.view(expected.length - 1);
+    assertSame(pf, view.file());
+    for (int k = expected.length - 1; k >= 0; k--) {
+      view.moveTo(k);
+      assertEquals(k, view.index());
+      assertEquals(expected[k].length(), view.length());
+      assertArrayEquals(expected[k].toArray(), view.toArray());
+      assertEquals(expected[k], pf.get(k));
+      for (int i = 0; i < view.length(); i++) {
+        assertEquals(expected[k].get(i), view.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2023 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the incrementally maintained inverse of a Permutation. */
+public class PermutationInverseTrackingTests {
+
+  @Test
+  public void testEnableDisable() {
+    Permutation p = new Permutation(new int[] {4, 2, 5, 0, 3, 1});
+    assertFalse(p.isInverseTracking());
+    p.setInverseTracking(true);
+    assertTrue(p.isInverseTracking());
+    p.setInverseTracking(true);
+    assertArrayEquals(new int[] {3, 5, 1, 4, 0, 2}, p.getInverse());
+    assertTrue(new Permutation(p).isInverseTracking());
+    assertTrue(p.copy().isInverseTracking());
+    assertFalse(new Permutation(p, 3).isInverseTracking());
+    p.setInverseTracking(false);
+    assertFalse(p.isInverseTracking());
+    assertArrayEquals(new int[] {3, 5, 1, 4, 0, 2}, p.getInverse());
+    Permutation empty = new Permutation(0);
+    empty.setInverseTracking(true);
+    assertEquals(0, empty.getInverse().length);
+  }
+
+  @Test
+  public void testGetInverseIsIndependent() {
+    Permutation p = new Permutation(new int[] {4, 2, 5, 0, 3, 1});
+    p.setInverseTracking(true);
+    int[] inv = p.getInverse();
+    inv[0] = 0;
+    assertArrayEquals(new int[] {3, 5, 1, 4, 0, 2}, p.getInverse());
+  }
+
+  @Test
+  public void testGetInverseArray() {
+    for (boolean tracking : new boolean[] {false, true}) {
+      Permutation p = new Permutation(new int[] {4, 2, 5, 0, 3, 1});
+      p.setInverseTracking(tracking);
+      int[] expected = {3, 5, 1, 4, 0, 2};
+      int[] array = new int[6];
+      assertSame(array, p.getInverse(array));
+      assertArrayEquals(expected, array);
+      assertArrayEquals(expected, p.getInverse(null));
+      assertArrayEquals(expected, p.getInverse(new int[5]));
+      PermutationView view = CompactPermutation.of(p);
+      assertSame(array, view.getInverse(array));
+      assertArrayEquals(expected, array);
+      assertArrayEquals(expected, view.getInverse(new int[7]));
+    }
+  }
+
+  @Test
+  public void testIndexOf() {
+    for (boolean tracking : new boolean[] {false, true}) {
+      Permutation p = new Permutation(new int[] {4, 2, 5, 0, 3, 1});
+      p.setInverseTracking(tracking);
+      int[] expected = {3, 5, 1, 4, 0, 2};
+      for (int e = 0; e < 6; e++) {
+        assertEquals(expected[e], p.indexOf(e));
+      }
+      assertThrows(ArrayIndexOutOfBoundsException.class, () -> p.indexOf(6));
+      assertThrows(ArrayIndexOutOfBoundsException.class, () -> p.indexOf(-1));
+    }
+  }
+
+  @Test
+  public void testSwap() {
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        final int a = i;
+        final int b = j;
+        assertInverseMaintained(p -> p.swap(a, b));
+      }
+    }
+  }
+
+  @Test
+  public void testCycle() {
+    int[][] cycles = {{}, {4}, {1, 3}, {2, 7, 5}, {7, 0, 4, 6, 1}};
+    for (int[] indexes : cycles) {
+      assertInverseMaintained(p -> p.cycle(indexes));
+    }
+  }
+
+  @Test
+  public void testReverse() {
+    assertInverseMaintained(p -> p.reverse());
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        final int a = i;
+        final int b = j;
+        assertInverseMaintained(p -> p.reverse(a, b));
+      }
+    }
+  }
+
+  @Test
+  public void testRemoveAndInsert() {
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        final int a = i;
+        final int b = j;
+        assertInverseMaintained(p -> p.removeAndInsert(a, b));
+        for (int size = 0; size <= 4; size++) {
+          final int s = size;
+          if (a + s <= 8 && b + s <= 8) {
+            assertInverseMaintained(p -> p.removeAndInsert(a, s, b));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRotate() {
+    for (int k = -9; k <= 9; k++) {
+      final int m = k;
+      assertInverseMaintained(p -> p.rotate(m));
+    }
+  }
+
+  @Test
+  public void testSwapBlocks() {
+    for (int a = 0; a < 8; a++) {
+      for (int b = a; b < 8; b++) {
+        for (int i = b + 1; i < 8; i++) {
+          for (int j = i; j < 8; j++) {
+            final int w = a;
+            final int x = b;
+            final int y = i;
+            final int z = j;
+            assertInverseMaintained(p -> p.swapBlocks(w, x, y, z));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testScramble() {
+    SplittableRandom r = new SplittableRandom(42);
+    assertInverseMaintained(p -> p.scramble());
+    assertInverseMaintained(p -> p.scramble(r));
+    assertInverseMaintained(p -> p.scramble(true));
+    assertInverseMaintained(p -> p.scramble(r, true));
+    assertInverseMaintained(p -> p.scramble(r, false));
+    assertInverseMaintained(p -> p.scramble(1, 6));
+    assertInverseMaintained(p -> p.scramble(6, 2, r));
+    assertInverseMaintained(p -> p.scramble(new int[] {0, 3, 7}));
+    assertInverseMaintained(p -> p.scramble(new int[] {1, 2, 4, 6}, r));
+  }
+
+  @Test
+  public void testInvertAndSet() {
+    assertInverseMaintained(p -> p.invert());
+    assertInverseMaintained(p -> p.set(new int[] {7, 6, 5, 4, 3, 2, 1, 0}));
+  }
+
+  @Test
+  public void testApply() {
+    assertInverseMaintained(p -> p.apply(raw -> swap(raw, 0, 1)));
+    assertInverseMaintained(p -> p.apply((raw, q) -> q.swap(2, 3)));
+    assertInverseMaintained(p -> p.applyThenValidate(raw -> swap(raw, 0, 7)));
+    assertInverseMaintained(p -> p.applyThenValidate((raw, q) -> q.reverse()));
+    Permutation other = new Permutation(8, new SplittableRandom(7));
+    other.setInverseTracking(true);
+    assertInverseMaintained(
+        p ->
+            p.apply(
+                (raw1, raw2) -> {
+                  int[] temp = raw1.clone();
+                  System.arraycopy(raw2, 0, raw1, 0, raw1.length);
+                  System.arraycopy(temp, 0, raw2, 0, raw2.length);
+                },
+                other));
+    assertArrayEquals(computeInverse(other), other.getInverse());
+    assertInverseMaintained(p -> p.apply((raw1, raw2, p1, p2) -> p2.reverse(), other));
+    assertArrayEquals(computeInverse(other), other.getInverse());
+    assertInverseMaintained(p -> p.applyThenValidate((raw1, raw2) -> raw2[0] = raw2[0], other));
+    assertInverseMaintained(p -> p.applyThenValidate((raw1, raw2, p1, p2) -> p2.rotate(3), other));
+    assertArrayEquals(computeInverse(other), other.getInverse());
+  }
+
+  @Test
+  public void testIterator() {
+    Permutation p = new Permutation(5, new SplittableRandom(42));
+    p.setInverseTracking(true);
+    Iterator<Permutation> iter = p.iterator();
+    while (iter.hasNext()) {
+      Permutation next = iter.next();
+      assertTrue(next.isInverseTracking());
+      assertArrayEquals(computeInverse(next), next.getInverse());
+    }
+  }
+
+  @Test
+  public void testSerialization() throws IOException, ClassNotFoundException {
+    Permutation tracked = new Permutation(100, new SplittableRandom(42));
+    Permutation untracked = new Permutation(tracked);
+    tracked.setInverseTracking(true);
+    byte[] trackedBytes = serialize(tracked);
+    byte[] untrackedBytes = serialize(untracked);
+    // Only the tracking flag, not the inverse, is serialized.
+    assertEquals(untrackedBytes.length, trackedBytes.length);
+    Permutation copy = deserialize(trackedBytes);
+    assertEquals(tracked, copy);
+    assertTrue(copy.isInverseTracking());
+    assertArrayEquals(computeInverse(copy), copy.getInverse());
+    copy.swap(3, 70);
+    assertArrayEquals(computeInverse(copy), copy.getInverse());
+    copy = deserialize(untrackedBytes);
+    assertEquals(untracked, copy);
+    assertFalse(copy.isInverseTracking());
+  }
+
+  private byte[] serialize(Permutation p) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(p);
+    }
+    return bytes.toByteArray();
+  }
+
+  private Permutation deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return (Permutation) in.readObject();
+    }
+  }
+
+  private void assertInverseMaintained(Consumer<Permutation> mutation) {
+    Permutation p = new Permutation(8, new SplittableRandom(42));
+    p.setInverseTracking(true);
+    mutation.accept(p);
+    assertArrayEquals(computeInverse(p), p.getInverse());
+    for (int e = 0; e < 8; e++) {
+      assertEquals(e, p.get(p.indexOf(e)));
+    }
+  }
+
+  private void swap(int[] raw, int i, int j) {
+    int temp = raw[i];
+    raw[i] = raw[j];
+    raw[j] = temp;
+  }
+
+  private int[] computeInverse(Permutation p) {
+    int[] inv = new int[p.length()];
+    for (int i = 0; i < inv.length; i++) {
+      inv[p.get(i)] = i;
+    }
+    return inv;
+  }
+}
@@ -64,4 +64,54 @@ public class PermutationIteratorTests {
     assertEquals(fact, count);
     NoSuchElementException thrown = assertThrows(NoSuchElementException.class, () -> iter.next());
   }
+
+  @Test
+  public void testCursor() {
+    int fact = 1;
+    for (int n = 0; n <= 6; n++) {
+      fact *= Math.max(n, 1);
+      Permutation first = new Permutation(n);
+      PermutationIterator iter = new PermutationIterator(first);
+      Permutation p = iter.cursor();
+      boolean[] found = new boolean[fact];
+      int count = 0;
+      assertTrue(iter.hasNext());
+      while (iter.advance()) {
+        assertSame(p, iter.cursor());
+        if (count == 0) {
+          assertEquals(first, p);
+        }
+        int permID = p.toInteger();
+        assertFalse(found[permID]);
+        found[permID] = true;
+        count++;
+        assertEquals(count < fact, iter.hasNext());
+      }
+      assertEquals(fact, count);
+      assertFalse(iter.hasNext());
+      assertFalse(iter.advance());
+      assertThrows(NoSuchElementException.class, () -> iter.next());
+    }
+  }
+
+  @Test
+  public void testCursorMixedWithNext() {
+    Permutation first = new Permutation(5);
+    PermutationIterator expected = new PermutationIterator(first);
+    PermutationIterator iter = new PermutationIterator(first);
+    int count = 0;
+    while (iter.hasNext()) {
+      Permutation p;
+      if (count % 3 == 0) {
+        assertTrue(iter.advance());
+        p = iter.cursor();
+      } else {
+        p = iter.next();
+      }
+      assertEquals(expected.next(), p);
+      count++;
+    }
+    assertEquals(120, count);
+    assertFalse(expected.hasNext());
+  }
 }
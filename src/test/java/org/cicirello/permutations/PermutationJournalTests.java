@@ -0,0 +1,187 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the mark, rollback, and commit methods of the Permutation class. */
+public class PermutationJournalTests {
+
+  @Test
+  public void testRollbackRestoresState() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {1, 2, 3, 10, 57}) {
+      for (boolean tracking : new boolean[] {false, true}) {
+        for (boolean hashed : new boolean[] {false, true}) {
+          Permutation p = new Permutation(n, r);
+          p.setInverseTracking(tracking);
+          if (hashed) {
+            p.hashCode();
+          }
+          Permutation original = new Permutation(p);
+          long originalHash = original.longHashCode();
+          p.mark();
+          assertTrue(p.isMarked());
+          for (int trial = 0; trial < 30; trial++) {
+            int moves = 1 + r.nextInt(5);
+            for (int m = 0; m < moves; m++) {
+              randomMove(p, r);
+            }
+            if (r.nextBoolean()) {
+              p.longHashCode();
+            }
+            p.rollback();
+            assertTrue(p.isMarked());
+            assertEquals(original, p);
+            assertEquals(originalHash, p.longHashCode());
+            assertEquals(tracking, p.isInverseTracking());
+            assertArrayEquals(original.getInverse(), p.getInverse());
+            if (tracking) {
+              for (int i = 0; i < n; i++) {
+                assertEquals(i, p.indexOf(p.get(i)));
+              }
+            }
+          }
+          p.commit();
+          assertFalse(p.isMarked());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCommitKeepsChanges() {
+    Permutation p = new Permutation(new int[] {0, 1, 2, 3, 4, 5});
+    p.mark();
+    p.swap(0, 5);
+    p.reverse(1, 3);
+    p.commit();
+    assertEquals(new Permutation(new int[] {5, 3, 2, 1, 4, 0}), p);
+    assertThrows(IllegalStateException.class, () -> p.rollback());
+    // Changes after a commit are not recorded.
+    p.mark();
+    p.rotate(2);
+    p.commit();
+    p.swap(0, 1);
+    p.mark();
+    p.rollback();
+    assertEquals(new Permutation(new int[] {1, 2, 4, 0, 5, 3}), p);
+    p.commit();
+    p.commit();
+  }
+
+  @Test
+  public void testMarkMovesMark() {
+    Permutation p = new Permutation(new int[] {0, 1, 2, 3, 4, 5});
+    p.mark();
+    p.swap(0, 1);
+    p.mark();
+    p.swap(2, 3);
+    p.rollback();
+    assertEquals(new Permutation(new int[] {1, 0, 2, 3, 4, 5}), p);
+    p.rollback();
+    assertEquals(new Permutation(new int[] {1, 0, 2, 3, 4, 5}), p);
+  }
+
+  @Test
+  public void testOperatorsAndCopies() {
+    Permutation p = new Permutation(new int[] {3, 1, 0, 2, 4});
+    Permutation other = new Permutation(new int[] {4, 3, 2, 1, 0});
+    p.mark();
+    other.mark();
+    p.apply(
+        raw -> {
+          int t = raw[0];
+          raw[0] = raw[1];
+          raw[1] = t;
+        });
+    assertThrows(
+        IllegalPermutationStateException.class, () -> p.applyThenValidate(raw -> raw[2] = 3));
+    p.apply(
+        (raw1, raw2) -> {
+          int t = raw1[4];
+          raw1[4] = raw2[0];
+          raw2[0] = t;
+        },
+        other);
+    Permutation copy = p.copy();
+    assertFalse(copy.isMarked());
+    p.rollback();
+    other.rollback();
+    assertEquals(new Permutation(new int[] {3, 1, 0, 2, 4}), p);
+    assertEquals(new Permutation(new int[] {4, 3, 2, 1, 0}), other);
+    assertThrows(IllegalStateException.class, () -> copy.rollback());
+  }
+
+  private static void randomMove(Permutation p, SplittableRandom r) {
+    int n = p.length();
+    int i = r.nextInt(n);
+    int j = r.nextInt(n);
+    switch (r.nextInt(12)) {
+      case 0:
+        if (i != j) p.swap(i, j);
+        break;
+      case 1:
+        p.reverse(i, j);
+        break;
+      case 2:
+        p.removeAndInsert(i, j);
+        break;
+      case 3:
+        int size = 1 + r.nextInt(n - Math.max(i, j));
+        p.removeAndInsert(i, size, j);
+        break;
+      case 4:
+        p.rotate(r.nextInt(2 * n + 1) - n);
+        break;
+      case 5:
+        if (n >= 4) {
+          int[] cut = r.ints(4, 0, n).sorted().toArray();
+          if (cut[0] <= cut[1] && cut[1] < cut[2] && cut[2] <= cut[3]) {
+            p.swapBlocks(cut[0], cut[1], cut[2], cut[3]);
+          }
+        }
+        break;
+      case 6:
+        p.cycle(new int[] {i, j, r.nextInt(n)});
+        break;
+      case 7:
+        p.scramble(i, j, r);
+        break;
+      case 8:
+        p.scramble(new int[] {i, j}, r);
+        break;
+      case 9:
+        p.scramble(r, r.nextBoolean());
+        break;
+      case 10:
+        p.invert();
+        break;
+      default:
+        p.reverse();
+        break;
+    }
+  }
+}
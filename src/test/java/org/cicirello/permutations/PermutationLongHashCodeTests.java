@@ -0,0 +1,170 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2023 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the incrementally maintained longHashCode() of a Permutation. */
+public class PermutationLongHashCodeTests {
+
+  @Test
+  public void testConsistentWithEquals() {
+    Permutation p = new Permutation(new int[] {4, 2, 5, 0, 3, 1});
+    Permutation q = new Permutation(new int[] {4, 2, 5, 0, 3, 1});
+    assertEquals(p.longHashCode(), q.longHashCode());
+    assertEquals(p.hashCode(), q.hashCode());
+    long h = p.longHashCode();
+    assertEquals((int) (h ^ (h >>> 32)), p.hashCode());
+    assertEquals(0L, new Permutation(0).longHashCode());
+    assertNotEquals(
+        new Permutation(new int[] {0, 1}).longHashCode(),
+        new Permutation(new int[] {1, 0}).longHashCode());
+  }
+
+  @Test
+  public void testDistinctForAllSmallPermutations() {
+    HashSet<Long> hashes = new HashSet<Long>();
+    for (Permutation p : new Permutation(7, 0)) {
+      assertTrue(hashes.add(p.longHashCode()));
+    }
+    assertEquals(5040, hashes.size());
+  }
+
+  @Test
+  public void testSwap() {
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        final int a = i;
+        final int b = j;
+        assertHashMaintained(p -> p.swap(a, b));
+      }
+    }
+  }
+
+  @Test
+  public void testReverse() {
+    assertHashMaintained(p -> p.reverse());
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        final int a = i;
+        final int b = j;
+        assertHashMaintained(p -> p.reverse(a, b));
+      }
+    }
+  }
+
+  @Test
+  public void testRemoveAndInsert() {
+    for (int i = 0; i < 8; i++) {
+      for (int j = 0; j < 8; j++) {
+        final int a = i;
+        final int b = j;
+        assertHashMaintained(p -> p.removeAndInsert(a, b));
+        for (int size = 0; size <= 4; size++) {
+          final int s = size;
+          if (a + s <= 8 && b + s <= 8) {
+            assertHashMaintained(p -> p.removeAndInsert(a, s, b));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSwapBlocks() {
+    for (int a = 0; a < 8; a++) {
+      for (int b = a; b < 8; b++) {
+        for (int i = b + 1; i < 8; i++) {
+          for (int j = i; j < 8; j++) {
+            final int w = a;
+            final int x = b;
+            final int y = i;
+            final int z = j;
+            assertHashMaintained(p -> p.swapBlocks(w, x, y, z));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOtherMutators() {
+    SplittableRandom r = new SplittableRandom(42);
+    assertHashMaintained(p -> p.cycle(new int[] {2, 7, 5}));
+    assertHashMaintained(p -> p.rotate(3));
+    assertHashMaintained(p -> p.invert());
+    assertHashMaintained(p -> p.set(new int[] {7, 6, 5, 4, 3, 2, 1, 0}));
+    assertHashMaintained(p -> p.scramble(r));
+    assertHashMaintained(p -> p.scramble(r, true));
+    assertHashMaintained(p -> p.scramble(1, 6, r));
+    assertHashMaintained(p -> p.scramble(new int[] {0, 3, 3, 7}, r));
+    assertHashMaintained(p -> p.apply(raw -> raw[0] = raw[0]));
+  }
+
+  @Test
+  public void testIterator() {
+    Permutation p = new Permutation(5, new SplittableRandom(42));
+    p.longHashCode();
+    Iterator<Permutation> iter = p.iterator();
+    while (iter.hasNext()) {
+      Permutation next = iter.next();
+      assertEquals(new Permutation(next.toArray()).longHashCode(), next.longHashCode());
+    }
+  }
+
+  @Test
+  public void testSerialization() throws IOException, ClassNotFoundException {
+    Permutation p = new Permutation(20, new SplittableRandom(42));
+    long h = p.longHashCode();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(p);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Permutation q = (Permutation) in.readObject();
+      assertEquals(p, q);
+      assertEquals(h, q.longHashCode());
+    }
+  }
+
+  private void assertHashMaintained(Consumer<Permutation> mutation) {
+    Permutation p = new Permutation(8, new SplittableRandom(42));
+    p.longHashCode();
+    mutation.accept(p);
+    Permutation fresh = new Permutation(p.toArray());
+    assertEquals(fresh.longHashCode(), p.longHashCode());
+    assertEquals(fresh.hashCode(), p.hashCode());
+    assertEquals(fresh, p);
+  }
+}
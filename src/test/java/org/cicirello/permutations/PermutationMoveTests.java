@@ -0,0 +1,115 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for PermutationMove and its implementations. */
+public class PermutationMoveTests {
+
+  @Test
+  public void testApplyUndoAndElementAfter() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 1; n <= 9; n++) {
+      for (PermutationMove m : allMoves(n)) {
+        Permutation p = new Permutation(n, r);
+        Permutation original = new Permutation(p);
+        int[] expected = new int[n];
+        for (int k = 0; k < n; k++) {
+          expected[k] = m.elementAfter(p, k);
+        }
+        assertEquals(original, p);
+        m.apply(p);
+        assertArrayEquals(expected, p.toArray());
+        int count = m.changedCount(n);
+        int t = 0;
+        for (int k = 0; k < n; k++) {
+          if (t < count && m.changedPosition(t, n) == k) {
+            t++;
+          } else {
+            assertEquals(original.get(k), p.get(k));
+          }
+        }
+        assertEquals(count, t);
+        m.undo(p);
+        assertEquals(original, p);
+      }
+    }
+  }
+
+  @Test
+  public void testChangedCount() {
+    assertEquals(0, new PermutationMove.Swap(3, 3).changedCount(5));
+    assertEquals(2, new PermutationMove.Swap(3, 1).changedCount(5));
+    assertEquals(1, new PermutationMove.Swap(3, 1).changedPosition(0, 5));
+    assertEquals(3, new PermutationMove.Swap(3, 1).changedPosition(1, 5));
+    assertEquals(3, new PermutationMove.Reversal(4, 2).changedCount(5));
+    assertEquals(2, new PermutationMove.Reversal(4, 2).first());
+    assertEquals(0, new PermutationMove.Insertion(2, 2).changedCount(5));
+    assertEquals(4, new PermutationMove.Insertion(4, 1).changedCount(5));
+    assertEquals(5, new PermutationMove.BlockInterchange(0, 1, 3, 4).changedCount(5));
+    assertEquals(0, new PermutationMove.Rotation(5).changedCount(5));
+    assertEquals(5, new PermutationMove.Rotation(-1).changedCount(5));
+    assertEquals(0, new PermutationMove.Rotation(3).changedCount(0));
+  }
+
+  @Test
+  public void testIllegalArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new PermutationMove.Swap(-1, 2));
+    assertThrows(IllegalArgumentException.class, () -> new PermutationMove.Reversal(1, -2));
+    assertThrows(IllegalArgumentException.class, () -> new PermutationMove.Insertion(-1, 2));
+    assertThrows(
+        IllegalArgumentException.class, () -> new PermutationMove.BlockInterchange(0, 2, 2, 3));
+    assertThrows(
+        IllegalArgumentException.class, () -> new PermutationMove.BlockInterchange(1, 0, 2, 3));
+    assertThrows(
+        IllegalArgumentException.class, () -> new PermutationMove.BlockInterchange(0, 1, 3, 2));
+  }
+
+  private static ArrayList<PermutationMove> allMoves(int n) {
+    ArrayList<PermutationMove> moves = new ArrayList<PermutationMove>();
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        moves.add(new PermutationMove.Swap(i, j));
+        moves.add(new PermutationMove.Reversal(i, j));
+        moves.add(new PermutationMove.Insertion(i, j));
+      }
+    }
+    for (int a = 0; a < n; a++) {
+      for (int b = a; b < n; b++) {
+        for (int i = b + 1; i < n; i++) {
+          for (int j = i; j < n; j++) {
+            moves.add(new PermutationMove.BlockInterchange(a, b, i, j));
+          }
+        }
+      }
+    }
+    for (int r = -n; r <= n; r++) {
+      moves.add(new PermutationMove.Rotation(r));
+    }
+    return moves;
+  }
+}
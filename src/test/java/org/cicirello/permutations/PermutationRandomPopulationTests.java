@@ -0,0 +1,121 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the bulk generation of populations of random permutations. */
+public class PermutationRandomPopulationTests {
+
+  @Test
+  public void testSameRegardlessOfThreads() {
+    int count = 5 * RandomPopulation.CHUNK_SIZE + 17;
+    Permutation[] expected = Permutation.randomPopulation(count, 20, new SplittableRandom(42));
+    assertEquals(count, expected.length);
+    for (int threads : new int[] {1, 2, 3, 4}) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        Permutation[] population =
+            Permutation.randomPopulation(count, 20, new SplittableRandom(42), pool);
+        assertArrayEquals(expected, population);
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testMatchesSequentialChunks() {
+    int count = 2 * RandomPopulation.CHUNK_SIZE + 1;
+    Permutation[] population = Permutation.randomPopulation(count, 10, new SplittableRandom(7));
+    SplittableRandom seed = new SplittableRandom(7);
+    for (int from = 0; from < count; from += RandomPopulation.CHUNK_SIZE) {
+      SplittableRandom r = seed.split();
+      for (int k = from; k < Math.min(count, from + RandomPopulation.CHUNK_SIZE); k++) {
+        assertEquals(new Permutation(10, r), population[k]);
+      }
+    }
+  }
+
+  @Test
+  public void testValidAndVaried() {
+    SplittableRandom seed = new SplittableRandom(42);
+    Permutation[] population = Permutation.randomPopulation(300, 8, seed);
+    boolean varied = false;
+    for (Permutation p : population) {
+      assertEquals(8, p.length());
+      assertEquals(p, new Permutation(p.toArray()));
+      varied = varied || !p.equals(population[0]);
+    }
+    assertTrue(varied);
+    // The seed is advanced, so a second population differs.
+    Permutation[] second = Permutation.randomPopulation(300, 8, seed);
+    assertFalse(Arrays.equals(population, second));
+  }
+
+  @Test
+  public void testEdgeCases() {
+    assertEquals(0, Permutation.randomPopulation(0, 5, new SplittableRandom(1)).length);
+    Permutation[] empty = Permutation.randomPopulation(3, 0, new SplittableRandom(1));
+    assertEquals(3, empty.length);
+    for (Permutation p : empty) {
+      assertEquals(0, p.length());
+    }
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Permutation.randomPopulation(-1, 5, new SplittableRandom(1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Permutation.randomPopulation(5, -1, new SplittableRandom(1)));
+  }
+
+  @Test
+  public void testArenaScramble() {
+    int count = 3 * RandomPopulation.CHUNK_SIZE + 5;
+    for (int n : new int[] {12, 300}) {
+      Permutation[] expected = Permutation.randomPopulation(count, n, new SplittableRandom(99));
+      for (int threads : new int[] {1, 3}) {
+        PermutationArena arena = new PermutationArena(count, n);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+          arena.scramble(new SplittableRandom(99), pool);
+        } finally {
+          pool.shutdown();
+        }
+        ArenaPermutation view = arena.view(0);
+        for (int k = 0; k < count; k++) {
+          view.moveTo(k);
+          assertArrayEquals(expected[k].toArray(), view.toArray());
+        }
+      }
+      PermutationArena arena = new PermutationArena(count, n);
+      arena.scramble(new SplittableRandom(99));
+      assertArrayEquals(expected[count - 1].toArray(), arena.view(count - 1).toArray());
+    }
+    new PermutationArena(0, 4).scramble(new SplittableRandom(1));
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the PermutationRanker implementations. */
+public class PermutationRankerTests {
+
+  private static final PermutationRanker[] RANKERS = {
+    new MixedRadixRanker(), new LexicographicRanker(), new MyrvoldRuskeyRanker()
+  };
+
+  @Test
+  public void testBijection() {
+    for (PermutationRanker ranker : RANKERS) {
+      for (int n = 0; n <= 7; n++) {
+        int factorial = (int) Factoradic.factorial(n);
+        boolean[] seen = new boolean[factorial];
+        for (int rank = 0; rank < factorial; rank++) {
+          Permutation p = ranker.unrank(n, rank);
+          assertEquals(n, p.length());
+          assertEquals(rank, ranker.toInteger(p));
+          assertEquals(rank, ranker.toLong(p));
+          assertEquals(BigInteger.valueOf(rank), ranker.toBigInteger(p));
+          assertEquals(p, ranker.unrank(n, (long) rank));
+          assertEquals(p, ranker.unrank(n, BigInteger.valueOf(rank)));
+          assertEquals(p, ranker.unrank(n, rank + 3 * factorial));
+          int asInt = new Permutation(p).toInteger();
+          assertFalse(seen[asInt]);
+          seen[asInt] = true;
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTripsAndAgreement() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (PermutationRanker ranker : RANKERS) {
+      for (int n : new int[] {12, 13, 19, 20, 21, 22, 50, 300, 1025}) {
+        for (int t = 0; t < 10; t++) {
+          Permutation p = new Permutation(n, r);
+          BigInteger rank = ranker.toBigInteger(p);
+          assertTrue(rank.signum() >= 0);
+          assertEquals(p, ranker.unrank(n, rank));
+          CompactPermutation compact = CompactPermutation.of(p);
+          assertEquals(rank, ranker.toBigInteger(compact));
+          if (n <= 20) {
+            assertEquals(rank.longValueExact(), ranker.toLong(p));
+            assertEquals(p, ranker.unrank(n, rank.longValueExact()));
+          } else {
+            assertThrows(UnsupportedOperationException.class, () -> ranker.toLong(p));
+          }
+          if (n <= 12) {
+            assertEquals(rank.intValueExact(), ranker.toInteger(p));
+          } else {
+            assertThrows(UnsupportedOperationException.class, () -> ranker.toInteger(p));
+          }
+        }
+        long big = Long.MAX_VALUE - 98765;
+        if (n > 20) {
+          assertEquals(BigInteger.valueOf(big), ranker.toBigInteger(ranker.unrank(n, big)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMixedRadixMatchesPermutation() {
+    SplittableRandom r = new SplittableRandom(42);
+    PermutationRanker ranker = new MixedRadixRanker();
+    for (int n : new int[] {5, 12, 20, 40}) {
+      Permutation p = new Permutation(n, r);
+      assertEquals(p.toBigInteger(), ranker.toBigInteger(p));
+      assertEquals(new Permutation(n, p.toBigInteger()), ranker.unrank(n, p.toBigInteger()));
+    }
+  }
+
+  @Test
+  public void testLexicographicOrder() {
+    PermutationRanker ranker = new LexicographicRanker();
+    for (int n = 1; n <= 6; n++) {
+      int factorial = (int) Factoradic.factorial(n);
+      int[] previous = ranker.unrank(n, 0).toArray();
+      assertArrayEquals(new Permutation(n, 0).toArray(), previous);
+      for (int rank = 1; rank < factorial; rank++) {
+        int[] current = ranker.unrank(n, rank).toArray();
+        assertTrue(compare(previous, current) < 0);
+        previous = current;
+      }
+      Permutation reversed = new Permutation(n, 0);
+      reversed.reverse();
+      assertEquals(factorial - 1, ranker.toInteger(reversed));
+    }
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {25, 200}) {
+      for (int t = 0; t < 10; t++) {
+        Permutation p1 = new Permutation(n, r);
+        Permutation p2 = new Permutation(n, r);
+        assertEquals(
+            Integer.signum(compare(p1.toArray(), p2.toArray())),
+            ranker.toBigInteger(p1).compareTo(ranker.toBigInteger(p2)));
+      }
+    }
+  }
+
+  @Test
+  public void testMyrvoldRuskeyDefinition() {
+    // Unranking performs, for m = n down to 2, swap(m-1, r mod m), r = r / m.
+    PermutationRanker ranker = new MyrvoldRuskeyRanker();
+    // r = 7, n = 4: swap(3, 3), r = 1; swap(2, 1), r = 0; swap(1, 0).
+    assertArrayEquals(new int[] {2, 0, 1, 3}, ranker.unrank(4, 7).toArray());
+    assertEquals(7, ranker.toInteger(new Permutation(new int[] {2, 0, 1, 3})));
+  }
+
+  @Test
+  public void testNegativeRanks() {
+    for (PermutationRanker ranker : RANKERS) {
+      assertThrows(IllegalArgumentException.class, () -> ranker.unrank(5, -1));
+      assertThrows(IllegalArgumentException.class, () -> ranker.unrank(30, -1L));
+      assertThrows(
+          IllegalArgumentException.class, () -> ranker.unrank(30, BigInteger.ONE.negate()));
+    }
+  }
+
+  private static int compare(int[] a, int[] b) {
+    for (int i = 0; i < a.length; i++) {
+      if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the O(n lg n) ranking and unranking of permutations. */
+public class PermutationRankingTests {
+
+  @Test
+  public void testMatchesQuadraticDefinition() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {1, 2, 3, 7, 12, 13, 20, 21, 64, 100, 257}) {
+      for (int t = 0; t < 20; t++) {
+        Permutation p = new Permutation(n, r);
+        BigInteger expected = quadraticRank(p.toArray());
+        assertEquals(expected, p.toBigInteger());
+        assertEquals(p, new Permutation(n, expected));
+        if (n <= 12) {
+          assertEquals(expected.intValue(), p.toInteger());
+          assertEquals(p, new Permutation(n, expected.intValue()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testExhaustiveSmall() {
+    for (int n = 0; n <= 6; n++) {
+      int factorial = 1;
+      for (int i = 2; i <= n; i++) {
+        factorial *= i;
+      }
+      boolean[] seen = new boolean[factorial];
+      for (int rank = 0; rank < factorial; rank++) {
+        Permutation p = new Permutation(n, rank);
+        assertEquals(rank, p.toInteger());
+        assertEquals(BigInteger.valueOf(rank), quadraticRank(p.toArray()));
+        assertEquals(p, new Permutation(n, BigInteger.valueOf(rank)));
+        assertFalse(seen[rank]);
+        seen[rank] = true;
+      }
+    }
+  }
+
+  @Test
+  public void testLargeRoundTrip() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {500, 1000, 2049}) {
+      BigInteger factorial = BigInteger.ONE;
+      for (int i = 2; i <= n; i++) {
+        factorial = factorial.multiply(BigInteger.valueOf(i));
+      }
+      for (int t = 0; t < 5; t++) {
+        Permutation p = new Permutation(n, r);
+        BigInteger rank = p.toBigInteger();
+        assertTrue(rank.signum() >= 0);
+        assertTrue(rank.compareTo(factorial) < 0);
+        assertEquals(p, new Permutation(n, rank));
+        // Multiples of n! are ignored.
+        assertEquals(p, new Permutation(n, rank.add(factorial.shiftLeft(3))));
+      }
+      assertEquals(new Permutation(n, 0), new Permutation(n, BigInteger.ZERO));
+      Permutation last = new Permutation(n, factorial.subtract(BigInteger.ONE));
+      assertEquals(factorial.subtract(BigInteger.ONE), last.toBigInteger());
+    }
+  }
+
+  @Test
+  public void testToLong() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 0; n <= 20; n++) {
+      for (int t = 0; t < 20; t++) {
+        Permutation p = new Permutation(n, r);
+        long rank = p.toLong();
+        assertEquals(quadraticRank(p.toArray()).longValueExact(), rank);
+        assertEquals(BigInteger.valueOf(rank), p.toBigInteger());
+        assertEquals(p, new Permutation(n, rank));
+      }
+    }
+    Permutation last = new Permutation(20, 2432902008176640000L - 1);
+    assertEquals(2432902008176640000L - 1, last.toLong());
+    Permutation reversed = new Permutation(20, 0L);
+    reversed.reverse();
+    assertEquals(reversed, last);
+    // Multiples of n! are ignored.
+    assertEquals(new Permutation(5, 7L), new Permutation(5, 127L));
+    assertThrows(UnsupportedOperationException.class, () -> new Permutation(21).toLong());
+  }
+
+  @Test
+  public void testLongConstructorLongerPermutations() {
+    for (int n : new int[] {21, 30, 100}) {
+      long value = Long.MAX_VALUE - 12345;
+      Permutation p = new Permutation(n, value);
+      assertEquals(BigInteger.valueOf(value), p.toBigInteger());
+      assertEquals(p, new Permutation(n, BigInteger.valueOf(value)));
+    }
+  }
+
+  @Test
+  public void testNegativeValues() {
+    assertThrows(IllegalArgumentException.class, () -> new Permutation(5, -1L));
+    assertThrows(IllegalArgumentException.class, () -> new Permutation(50, -1L));
+    assertThrows(IllegalArgumentException.class, () -> new Permutation(5, -1));
+    assertThrows(IllegalArgumentException.class, () -> new Permutation(50, BigInteger.valueOf(-1)));
+  }
+
+  /*
+   * The original O(n^2) mixed radix ranking.
+   */
+  private static BigInteger quadraticRank(int[] p) {
+    int[] index = new int[p.length];
+    for (int i = 0; i < index.length; i++) {
+      index[i] = i;
+    }
+    BigInteger result = BigInteger.ZERO;
+    BigInteger multiplier = BigInteger.ONE;
+    int factor = p.length;
+    for (int i = 0; i < p.length - 1; i++) {
+      result = result.add(multiplier.multiply(BigInteger.valueOf(index[p[i]])));
+      for (int j = p[i]; j < index.length; j++) {
+        index[j]--;
+      }
+      multiplier = multiplier.multiply(BigInteger.valueOf(factor));
+      factor--;
+    }
+    return result;
+  }
+}
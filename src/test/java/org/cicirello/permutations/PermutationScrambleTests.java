@@ -24,6 +24,7 @@ package org.cicirello.permutations;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.*;
 
 /** JUnit tests for scrambling a Permutation. */
@@ -137,6 +138,34 @@ public class PermutationScrambleTests extends SharedTestHelpersPermutation {
     }
   }
 
+  @Test
+  public void testParallelScramble() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int i = 0; i < 8; i++) {
+      Permutation p = new Permutation(i);
+      p.parallelScramble(r);
+      validatePermutation(p, i);
+    }
+    int n = 100000;
+    Permutation expected = new Permutation(n, 0);
+    expected.parallelScramble(new SplittableRandom(3));
+    validatePermutation(expected, n);
+    assertNotEquals(new Permutation(n, 0), expected);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      Permutation p = new Permutation(n, 0);
+      p.setInverseTracking(true);
+      int hash = p.hashCode();
+      p.parallelScramble(new SplittableRandom(3), pool);
+      assertEquals(expected, p);
+      assertEquals(expected.hashCode(), p.hashCode());
+      assertNotEquals(hash, p.hashCode());
+      assertArrayEquals(expected.getInverse(), p.getInverse());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void testUniformityOfScramble() {
     final int N = 12000;
@@ -0,0 +1,104 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for PermutationSpliterator and Permutation.stream. */
+public class PermutationSpliteratorTests {
+
+  @Test
+  public void testLexicographicOrder() {
+    LexicographicRanker ranker = new LexicographicRanker();
+    for (int n = 0; n <= 6; n++) {
+      List<Permutation> all = Permutation.stream(n).collect(Collectors.toList());
+      assertEquals(Factoradic.factorial(n), all.size());
+      for (int rank = 0; rank < all.size(); rank++) {
+        assertEquals(ranker.unrank(n, rank), all.get(rank));
+      }
+    }
+  }
+
+  @Test
+  public void testParallelStream() {
+    LexicographicRanker ranker = new LexicographicRanker();
+    List<Permutation> all = Permutation.stream(8).parallel().collect(Collectors.toList());
+    assertEquals(40320, all.size());
+    for (int rank = 0; rank < all.size(); rank += 37) {
+      assertEquals(ranker.unrank(8, rank), all.get(rank));
+    }
+    assertEquals(40320, Permutation.stream(8).parallel().distinct().count());
+    long rankSum = Permutation.stream(8, true).parallel().mapToLong(p -> ranker.toLong(p)).sum();
+    assertEquals(40319L * 40320 / 2, rankSum);
+    long fixedPoints =
+        Permutation.stream(7, true).parallel().mapToLong(p -> p.cycles().fixedPointCount()).sum();
+    // On average, a permutation has one fixed point.
+    assertEquals(5040, fixedPoints);
+  }
+
+  @Test
+  public void testSplitting() {
+    LexicographicRanker ranker = new LexicographicRanker();
+    PermutationSpliterator s = new PermutationSpliterator(5, true);
+    assertEquals(120, s.estimateSize());
+    assertTrue(s.hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED));
+    assertFalse(s.hasCharacteristics(Spliterator.DISTINCT));
+    assertTrue(new PermutationSpliterator(5).hasCharacteristics(Spliterator.DISTINCT));
+    List<Spliterator<Permutation>> parts = new ArrayList<Spliterator<Permutation>>();
+    assertTrue(s.tryAdvance(p -> assertEquals(new Permutation(5, 0), p)));
+    parts.add(s.trySplit());
+    parts.add(s.trySplit());
+    parts.add(s);
+    assertEquals(119, parts.get(0).estimateSize() + parts.get(1).estimateSize() + s.estimateSize());
+    long[] rank = {1};
+    for (Spliterator<Permutation> part : parts) {
+      Permutation[] previous = {null};
+      part.forEachRemaining(
+          p -> {
+            assertEquals(ranker.unrank(5, rank[0]), p);
+            if (previous[0] != null) {
+              assertSame(previous[0], p);
+            }
+            previous[0] = p;
+            rank[0]++;
+          });
+      assertFalse(part.tryAdvance(p -> fail()));
+    }
+    assertEquals(120, rank[0]);
+    PermutationSpliterator single = new PermutationSpliterator(1);
+    assertNull(single.trySplit());
+    assertEquals(1, single.estimateSize());
+  }
+
+  @Test
+  public void testExceptions() {
+    assertThrows(IllegalArgumentException.class, () -> new PermutationSpliterator(-1));
+    assertThrows(UnsupportedOperationException.class, () -> Permutation.stream(21));
+    assertEquals(2432902008176640000L, new PermutationSpliterator(20).estimateSize());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the generators of random cyclic permutations, derangements, and cycle types. */
+public class PermutationStructuredRandomTests extends SharedTestHelpersPermutation {
+
+  @Test
+  public void testRandomCyclic() {
+    SplittableRandom r = new SplittableRandom(42);
+    assertEquals(0, Permutation.randomCyclic(0, r).length());
+    assertEquals(new Permutation(1), Permutation.randomCyclic(1));
+    for (int n = 2; n <= 50; n++) {
+      Permutation p = Permutation.randomCyclic(n, r);
+      validatePermutation(p, n);
+      assertEquals(1, p.cycles().cycleCount());
+    }
+    assertEquals(1, Permutation.randomCyclic(20).cycles().cycleCount());
+    assertThrows(IllegalArgumentException.class, () -> Permutation.randomCyclic(-1, r));
+  }
+
+  @Test
+  public void testUniformityOfRandomCyclic() {
+    // 4! = 24 cyclic permutations of length 5; critical value for 23 df
+    SplittableRandom r = new SplittableRandom(42);
+    assertUniform(() -> Permutation.randomCyclic(5, r), 24, 35.172, 4800);
+  }
+
+  @Test
+  public void testRandomDerangement() {
+    SplittableRandom r = new SplittableRandom(42);
+    assertEquals(0, Permutation.randomDerangement(0, r).length());
+    assertEquals(new Permutation(new int[] {1, 0}), Permutation.randomDerangement(2, r));
+    for (int n = 2; n <= 300; n++) {
+      Permutation p = Permutation.randomDerangement(n, r);
+      validatePermutation(p, n);
+      assertEquals(0, p.cycles().fixedPointCount());
+    }
+    assertEquals(0, Permutation.randomDerangement(20).cycles().fixedPointCount());
+    assertThrows(IllegalArgumentException.class, () -> Permutation.randomDerangement(1, r));
+    assertThrows(IllegalArgumentException.class, () -> Permutation.randomDerangement(-1, r));
+  }
+
+  @Test
+  public void testUniformityOfRandomDerangement() {
+    // 44 derangements of length 5; critical value for 43 df
+    SplittableRandom r5 = new SplittableRandom(42);
+    assertUniform(() -> Permutation.randomDerangement(5, r5), 44, 59.304, 8800);
+    // 265 derangements of length 6; critical value for 264 df
+    SplittableRandom r6 = new SplittableRandom(42);
+    assertUniform(() -> Permutation.randomDerangement(6, r6), 265, 303.349, 26500);
+  }
+
+  @Test
+  public void testRandomWithCycleType() {
+    SplittableRandom r = new SplittableRandom(42);
+    int[][] types = {{}, {0}, {0, 1}, {0, 0, 1}, {0, 3, 0, 2}, {0, 2, 1, 0, 0, 1, 0}, {0, 0, 4}};
+    for (int[] type : types) {
+      Permutation p = Permutation.randomWithCycleType(type, r);
+      int n = 0;
+      for (int k = 0; k < type.length; k++) {
+        n += k * type[k];
+      }
+      validatePermutation(p, n);
+      int[] actual = p.cycles().cycleType();
+      for (int k = 0; k < Math.max(type.length, actual.length); k++) {
+        assertEquals(k < type.length ? type[k] : 0, k < actual.length ? actual[k] : 0);
+      }
+    }
+    int[] type = Permutation.randomDerangement(30, r).cycles().cycleType();
+    assertArrayEquals(type, Permutation.randomWithCycleType(type).cycles().cycleType());
+    assertThrows(
+        IllegalArgumentException.class, () -> Permutation.randomWithCycleType(new int[] {1}, r));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Permutation.randomWithCycleType(new int[] {0, -1, 1}, r));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Permutation.randomWithCycleType(new int[] {0, 0, Integer.MAX_VALUE}, r));
+  }
+
+  @Test
+  public void testUniformityOfRandomWithCycleType() {
+    // 5! / (1 * 2^2 * 2!) = 15 permutations of length 5 with a fixed point
+    // and two 2-cycles; critical value for 14 df
+    SplittableRandom r = new SplittableRandom(42);
+    assertUniform(() -> Permutation.randomWithCycleType(new int[] {0, 1, 2}, r), 15, 23.685, 3000);
+  }
+
+  private interface Generator {
+    Permutation next();
+  }
+
+  /*
+   * Asserts that the permutations generated are uniformly distributed over
+   * a class of the specified number of permutations, using chi square
+   * tests with the specified critical value.
+   */
+  private void assertUniform(Generator g, int classSize, double critical, int samples) {
+    int tooHigh = 0;
+    for (int k = 0; k < 100; k++) {
+      HashMap<Permutation, Integer> ids = new HashMap<Permutation, Integer>();
+      int[] counts = new int[classSize];
+      for (int i = 0; i < samples; i++) {
+        Permutation p = g.next();
+        Integer id = ids.get(p);
+        if (id == null) {
+          id = ids.size();
+          assertTrue(id < classSize);
+          ids.put(p, id);
+        }
+        counts[id]++;
+      }
+      if (chiSquare(counts) > critical) tooHigh++;
+    }
+    assertTrue(tooHigh <= 10);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the SteinhausJohnsonTrotterIterator. */
+public class SteinhausJohnsonTrotterIteratorTests {
+
+  @Test
+  public void testAllPermutationsByAdjacentSwaps() {
+    int fact = 1;
+    for (int n = 0; n <= 7; n++) {
+      fact *= Math.max(n, 1);
+      SteinhausJohnsonTrotterIterator iter = new SteinhausJohnsonTrotterIterator(n);
+      boolean[] found = new boolean[fact];
+      Permutation previous = null;
+      int count = 0;
+      while (iter.hasNext()) {
+        Permutation p = iter.next();
+        int permID = p.toInteger();
+        assertFalse(found[permID]);
+        found[permID] = true;
+        if (previous == null) {
+          assertEquals(new Permutation(n, 0), p);
+          assertEquals(-1, iter.lastSwap());
+        } else {
+          int i = iter.lastSwap();
+          previous.swap(i, i + 1);
+          assertEquals(previous, p);
+        }
+        previous = p;
+        count++;
+      }
+      assertEquals(fact, count);
+      assertThrows(NoSuchElementException.class, () -> iter.next());
+      assertFalse(iter.advance());
+    }
+  }
+
+  @Test
+  public void testPlainChangesOrder() {
+    int[][] expected = {
+      {0, 1, 2}, {0, 2, 1}, {2, 0, 1}, {2, 1, 0}, {1, 2, 0}, {1, 0, 2},
+    };
+    SteinhausJohnsonTrotterIterator iter = new SteinhausJohnsonTrotterIterator(3);
+    for (int[] e : expected) {
+      assertArrayEquals(e, iter.next().toArray());
+    }
+    assertFalse(iter.hasNext());
+  }
+
+  @Test
+  public void testListenerIncrementalObjective() {
+    // Maintains the number of inversions incrementally, which changes by
+    // exactly one with each adjacent swap.
+    Permutation first = new Permutation(6, new SplittableRandom(42));
+    Permutation[] cursor = new Permutation[1];
+    int[] inversions = {countInversions(first)};
+    int[] swaps = {0};
+    SteinhausJohnsonTrotterIterator iter =
+        new SteinhausJohnsonTrotterIterator(
+            first,
+            i -> {
+              Permutation p = cursor[0];
+              inversions[0] += p.get(i) > p.get(i + 1) ? 1 : -1;
+              swaps[0]++;
+            });
+    cursor[0] = iter.cursor();
+    boolean[] found = new boolean[720];
+    int count = 0;
+    while (iter.advance()) {
+      assertEquals(countInversions(cursor[0]), inversions[0]);
+      if (count == 0) {
+        assertEquals(first, cursor[0]);
+      }
+      int permID = cursor[0].toInteger();
+      assertFalse(found[permID]);
+      found[permID] = true;
+      count++;
+    }
+    assertEquals(720, count);
+    assertEquals(719, swaps[0]);
+  }
+
+  @Test
+  public void testMixedNextAndAdvance() {
+    SteinhausJohnsonTrotterIterator expected = new SteinhausJohnsonTrotterIterator(5);
+    SteinhausJohnsonTrotterIterator iter = new SteinhausJohnsonTrotterIterator(5);
+    int count = 0;
+    while (iter.hasNext()) {
+      Permutation p;
+      if (count % 2 == 0) {
+        assertTrue(iter.advance());
+        p = iter.cursor();
+      } else {
+        p = iter.next();
+      }
+      assertEquals(expected.next(), p);
+      assertEquals(expected.lastSwap(), iter.lastSwap());
+      count++;
+    }
+    assertEquals(120, count);
+  }
+
+  private int countInversions(Permutation p) {
+    int count = 0;
+    for (int i = 0; i < p.length(); i++) {
+      for (int j = i + 1; j < p.length(); j++) {
+        if (p.get(i) > p.get(j)) count++;
+      }
+    }
+    return count;
+  }
+}
@@ -23,12 +23,27 @@ package org.cicirello.permutations.distance;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.SplittableRandom;
+import org.cicirello.permutations.CycleStructure;
 import org.cicirello.permutations.Permutation;
 import org.junit.jupiter.api.*;
 
 /** JUnit tests for CycleDistance. */
 public class CycleDistanceTests extends SharedTestForPermutationDistance {
 
+  @Test
+  public void testDistanceFromCycleStructure() {
+    CycleDistance d = new CycleDistance();
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n = 0; n <= 12; n++) {
+      for (int trial = 0; trial < 10; trial++) {
+        Permutation p1 = new Permutation(n, r);
+        Permutation p2 = new Permutation(n, r);
+        assertEquals(d.distance(p1, p2), d.distance(CycleStructure.between(p1, p2)));
+      }
+    }
+  }
+
   @Test
   public void testNormalized() {
     CycleDistance d = new CycleDistance();
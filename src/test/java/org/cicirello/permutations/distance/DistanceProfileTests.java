@@ -0,0 +1,95 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import org.cicirello.permutations.CompactPermutation;
+import org.cicirello.permutations.Permutation;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for DistanceProfile. */
+public class DistanceProfileTests {
+
+  @Test
+  public void testMatchesIndividualMeasures() {
+    SplittableRandom r = new SplittableRandom(42);
+    PermutationDistanceMeasurerDouble[] measurers = {
+      new ExactMatchDistance(),
+      new DeviationDistance(),
+      new SquaredDeviationDistance(),
+      new LeeDistance(),
+      new AcyclicEdgeDistance(),
+      new CyclicEdgeDistance(),
+      new RTypeDistance(),
+      new CyclicRTypeDistance(),
+      new CycleDistance(),
+      new KCycleDistance(3),
+      new InterchangeDistance(),
+      new CycleEditDistance(),
+      new KendallTauDistance(),
+      new KCycleDistance(2),
+      new ScrambleDistance(),
+      new ReinsertionDistance(),
+      new CyclicIndependentDistance(new DeviationDistance())
+    };
+    DistanceProfile profile = new DistanceProfile(measurers);
+    assertEquals(measurers.length, profile.size());
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    double[] result = new double[measurers.length];
+    for (int n : new int[] {0, 1, 2, 3, 4, 5, 8, 13, 100}) {
+      for (int trial = 0; trial < 20; trial++) {
+        Permutation p1 = new Permutation(n, r);
+        Permutation p2 = trial == 0 ? new Permutation(p1) : new Permutation(n, r);
+        assertSame(result, profile.compute(p1, p2, result, workspace));
+        double[] fresh = profile.compute(CompactPermutation.of(p1), p2);
+        for (int i = 0; i < measurers.length; i++) {
+          double expected = measurers[i].distancef(p1, p2);
+          String message = measurers[i].getClass().getSimpleName() + " n=" + n;
+          assertEquals(expected, result[i], message);
+          assertEquals(expected, fresh[i], message);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOnlyOtherMeasures() {
+    DistanceProfile profile = new DistanceProfile(new ScrambleDistance());
+    Permutation p1 = new Permutation(new int[] {0, 1, 2, 3});
+    Permutation p2 = new Permutation(new int[] {0, 1, 3, 2});
+    assertArrayEquals(new double[] {1.0}, profile.compute(p1, p2, new double[3]));
+    assertEquals(0, new DistanceProfile().compute(p1, p2).length);
+  }
+
+  @Test
+  public void testExceptions() {
+    DistanceProfile profile = new DistanceProfile(new KendallTauDistance());
+    assertSame(KendallTauDistance.class, profile.get(0).getClass());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> profile.compute(new Permutation(3), new Permutation(4)));
+    assertThrows(
+        NullPointerException.class, () -> new DistanceProfile(new KendallTauDistance(), null));
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.cicirello.permutations.CompactPermutation;
+import org.cicirello.permutations.Permutation;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for computing distances with a reusable DistanceWorkspace. */
+public class DistanceWorkspaceTests {
+
+  @Test
+  public void testIntegerDistancesReuseWorkspace() {
+    SplittableRandom r = new SplittableRandom(42);
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    for (int n : new int[] {0, 1, 2, 5, 8, 300, 7, 8, 1}) {
+      for (PermutationDistanceMeasurer d : integerMeasurers(n)) {
+        for (int trial = 0; trial < 5; trial++) {
+          Permutation p1 = new Permutation(n, r);
+          Permutation p2 = new Permutation(n, r);
+          int expected = d.distance(p1, p2);
+          String name = d.getClass().getSimpleName();
+          assertEquals(expected, d.distance(p1, p2, workspace), name);
+          assertEquals(
+              expected,
+              d.distance(CompactPermutation.of(p1), CompactPermutation.of(p2), workspace),
+              name);
+          assertEquals(expected, d.distancef(p1, p2, workspace), 1E-10, name);
+          assertEquals(0, d.distance(p1, p1.copy(), workspace), name);
+          Permutation tracked1 = new Permutation(p1);
+          Permutation tracked2 = new Permutation(p2);
+          tracked1.setInverseTracking(true);
+          tracked2.setInverseTracking(true);
+          assertEquals(expected, d.distance(tracked1, tracked2, workspace), name);
+          if (d instanceof NormalizedPermutationDistanceMeasurer) {
+            NormalizedPermutationDistanceMeasurer nd = (NormalizedPermutationDistanceMeasurer) d;
+            assertEquals(
+                nd.normalizedDistance(p1, p2), nd.normalizedDistance(p1, p2, workspace), 1E-10);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testWrappersReuseOnePermutationPerCall() {
+    Permutation p1 = new Permutation(12, new SplittableRandom(5));
+    Permutation p2 = new Permutation(12, new SplittableRandom(6));
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    Set<Permutation> seen = Collections.newSetFromMap(new IdentityHashMap<Permutation, Boolean>());
+    // A measurer that implements only distance(Permutation, Permutation), and is
+    // never 0, so that the wrappers try every rotation and reversal.
+    PermutationDistanceMeasurer custom =
+        (a, b) -> {
+          seen.add(b);
+          return 1;
+        };
+    PermutationDistanceMeasurerDouble customDouble =
+        (a, b) -> {
+          seen.add(b);
+          return 1.0;
+        };
+    List<PermutationDistanceMeasurerDouble> wrappers =
+        new ArrayList<PermutationDistanceMeasurerDouble>();
+    wrappers.add(new CyclicIndependentDistance(custom));
+    wrappers.add(new CyclicReversalIndependentDistance(custom));
+    wrappers.add(new ReversalIndependentDistance(custom));
+    wrappers.add(new CyclicIndependentDistanceDouble(customDouble));
+    wrappers.add(new CyclicReversalIndependentDistanceDouble(customDouble));
+    wrappers.add(new ReversalIndependentDistanceDouble(customDouble));
+    for (PermutationDistanceMeasurerDouble d : wrappers) {
+      for (int call = 0; call < 3; call++) {
+        seen.clear();
+        assertEquals(1.0, d.distancef(p1, p2, workspace), d.getClass().getSimpleName());
+        // p2 itself, and the single copy that is rotated and reversed in place
+        assertEquals(2, seen.size(), d.getClass().getSimpleName());
+        assertTrue(seen.contains(p2));
+      }
+    }
+  }
+
+  @Test
+  public void testDoubleDistancesReuseWorkspace() {
+    SplittableRandom r = new SplittableRandom(42);
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    for (int n : new int[] {0, 1, 2, 5, 9, 4}) {
+      double[] weights = new double[n];
+      for (int i = 0; i < n; i++) {
+        weights[i] = 1 + r.nextDouble();
+      }
+      PermutationDistanceMeasurerDouble[] measurers = {
+        new DeviationDistanceNormalized(),
+        new DeviationDistanceNormalized2005(),
+        new EditDistance(),
+        new EditDistance(1.0, 2.0, 1.5),
+        new WeightedKendallTauDistance(weights),
+        new CyclicIndependentDistanceDouble(new EditDistance()),
+        new ReversalIndependentDistanceDouble(new EditDistance()),
+        new CyclicReversalIndependentDistanceDouble(new EditDistance()),
+        new CyclicReversalIndependentDistanceDouble(
+            new CyclicIndependentDistanceDouble(new KendallTauDistance()))
+      };
+      for (PermutationDistanceMeasurerDouble d : measurers) {
+        for (int trial = 0; trial < 5; trial++) {
+          Permutation p1 = new Permutation(n, r);
+          Permutation p2 = new Permutation(n, r);
+          assertEquals(d.distancef(p1, p2), d.distancef(p1, p2, workspace), 1E-10);
+          if (d instanceof NormalizedPermutationDistanceMeasurerDouble) {
+            NormalizedPermutationDistanceMeasurerDouble nd =
+                (NormalizedPermutationDistanceMeasurerDouble) d;
+            assertEquals(
+                nd.normalizedDistance(p1, p2), nd.normalizedDistance(p1, p2, workspace), 1E-10);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEditDistanceUnequalLengths() {
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    EditDistance d = new EditDistance(1.0, 2.0, 1.5);
+    Permutation p1 = new Permutation(new int[] {0, 1, 2, 3, 4});
+    Permutation p2 = new Permutation(new int[] {2, 0, 1});
+    assertEquals(d.distancef(p1, p2), d.distancef(p1, p2, workspace), 1E-10);
+    assertEquals(d.distancef(p2, p1), d.distancef(p2, p1, workspace), 1E-10);
+  }
+
+  @Test
+  public void testDefaultImplementations() {
+    PermutationDistanceMeasurer exact =
+        (p1, p2) -> {
+          int count = 0;
+          for (int i = 0; i < p1.length(); i++) {
+            if (p1.get(i) != p2.get(i)) count++;
+          }
+          return count;
+        };
+    PermutationDistanceMeasurerDouble exactDouble = (p1, p2) -> exact.distance(p1, p2);
+    Permutation p1 = new Permutation(new int[] {0, 1, 2, 3});
+    Permutation p2 = new Permutation(new int[] {0, 2, 1, 3});
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    assertEquals(2, exact.distance(p1, p2, workspace));
+    assertEquals(2.0, exact.distancef(p1, p2, workspace), 1E-10);
+    assertEquals(2.0, exactDouble.distancef(p1, p2, workspace), 1E-10);
+  }
+
+  @Test
+  public void testExceptions() {
+    DistanceWorkspace workspace = new DistanceWorkspace();
+    Permutation p1 = new Permutation(4);
+    Permutation p2 = new Permutation(5);
+    for (PermutationDistanceMeasurer d : integerMeasurers(4)) {
+      if (!(d instanceof ScrambleDistance) && !(d instanceof CyclicIndependentDistance)) {
+        assertThrows(IllegalArgumentException.class, () -> d.distance(p1, p2, workspace));
+      }
+    }
+  }
+
+  @Test
+  public void testThreadLocal() throws InterruptedException {
+    DistanceWorkspace workspace = DistanceWorkspace.threadLocal();
+    assertSame(workspace, DistanceWorkspace.threadLocal());
+    DistanceWorkspace[] other = new DistanceWorkspace[1];
+    Thread t = new Thread(() -> other[0] = DistanceWorkspace.threadLocal());
+    t.start();
+    t.join();
+    assertNotNull(other[0]);
+    assertNotSame(workspace, other[0]);
+  }
+
+  private List<PermutationDistanceMeasurer> integerMeasurers(int n) {
+    List<PermutationDistanceMeasurer> measurers = new ArrayList<PermutationDistanceMeasurer>();
+    if (n <= 8) {
+      measurers.add(new ReversalDistance(n));
+    }
+    measurers.addAll(
+        List.of(
+            new AcyclicEdgeDistance(),
+            new BlockInterchangeDistance(),
+            new CycleDistance(),
+            new CycleEditDistance(),
+            new CyclicEdgeDistance(),
+            new CyclicRTypeDistance(),
+            new DeviationDistance(),
+            new ExactMatchDistance(),
+            new InterchangeDistance(),
+            new KCycleDistance(3),
+            new KendallTauDistance(),
+            new LeeDistance(),
+            new RTypeDistance(),
+            new ReinsertionDistance(),
+            new ScrambleDistance(),
+            new SquaredDeviationDistance(),
+            new CyclicIndependentDistance(new ExactMatchDistance()),
+            new ReversalIndependentDistance(new KendallTauDistance()),
+            new CyclicReversalIndependentDistance(new RTypeDistance()),
+            new CyclicIndependentDistance(
+                new ReversalIndependentDistance(new BlockInterchangeDistance()))));
+    return measurers;
+  }
+}
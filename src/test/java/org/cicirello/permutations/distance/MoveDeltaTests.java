@@ -0,0 +1,144 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationMove;
+import org.cicirello.permutations.PermutationView;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the delta methods of the distance measures. */
+public class MoveDeltaTests {
+
+  private static final PermutationDistanceMeasurer[] MEASURES = {
+    new ExactMatchDistance(),
+    new DeviationDistance(),
+    new SquaredDeviationDistance(),
+    new LeeDistance(),
+    new AcyclicEdgeDistance(),
+    new CyclicEdgeDistance(),
+    new RTypeDistance(),
+    new CyclicRTypeDistance(),
+    new KendallTauDistance(),
+    new ReinsertionDistance(),
+    new InterchangeDistance()
+  };
+
+  @Test
+  public void testDeltaMatchesRecomputedDistance() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {0, 1, 2, 3, 4, 5, 6, 9, 20}) {
+      for (boolean tracking : new boolean[] {false, true}) {
+        Permutation reference = new Permutation(n, r);
+        reference.setInverseTracking(tracking);
+        Permutation current = new Permutation(n, r);
+        for (PermutationMove m : randomMoves(n, r)) {
+          for (PermutationDistanceMeasurer d : MEASURES) {
+            Permutation original = new Permutation(current);
+            int before = d.distance(current, reference);
+            int delta = d.delta(current, reference, m);
+            assertEquals(original, current);
+            m.apply(current);
+            int after = d.distance(current, reference);
+            m.undo(current);
+            assertEquals(after - before, delta, d.getClass().getSimpleName() + " n=" + n);
+            assertEquals(after - before, d.deltaf(current, reference, m), 1E-10);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCustomMove() {
+    SplittableRandom r = new SplittableRandom(42);
+    // Swaps the first and last positions, but is not a Swap instance.
+    PermutationMove m =
+        new PermutationMove() {
+          @Override
+          public void apply(Permutation p) {
+            p.swap(0, p.length() - 1);
+          }
+
+          @Override
+          public void undo(Permutation p) {
+            p.swap(0, p.length() - 1);
+          }
+
+          @Override
+          public int changedCount(int n) {
+            return 2;
+          }
+
+          @Override
+          public int changedPosition(int t, int n) {
+            return t == 0 ? 0 : n - 1;
+          }
+
+          @Override
+          public int elementAfter(PermutationView p, int k) {
+            int last = p.length() - 1;
+            return p.get(k == 0 ? last : k == last ? 0 : k);
+          }
+        };
+    Permutation reference = new Permutation(10, r);
+    Permutation current = new Permutation(10, r);
+    Permutation moved = new Permutation(current);
+    moved.swap(0, 9);
+    for (PermutationDistanceMeasurer d : MEASURES) {
+      assertEquals(
+          d.distance(moved, reference) - d.distance(current, reference),
+          d.delta(current, reference, m));
+    }
+    WeightedKendallTauDistance weighted = new WeightedKendallTauDistance(new double[10]);
+    assertEquals(0.0, weighted.deltaf(current, reference, m), 1E-10);
+  }
+
+  @Test
+  public void testDifferentLengths() {
+    PermutationMove m = new PermutationMove.Swap(0, 1);
+    for (PermutationDistanceMeasurer d : MEASURES) {
+      assertThrows(
+          IllegalArgumentException.class, () -> d.delta(new Permutation(5), new Permutation(6), m));
+    }
+  }
+
+  private static ArrayList<PermutationMove> randomMoves(int n, SplittableRandom r) {
+    ArrayList<PermutationMove> moves = new ArrayList<PermutationMove>();
+    for (int t = 0; n > 0 && t < 40; t++) {
+      moves.add(new PermutationMove.Swap(r.nextInt(n), r.nextInt(n)));
+      moves.add(new PermutationMove.Reversal(r.nextInt(n), r.nextInt(n)));
+      moves.add(new PermutationMove.Insertion(r.nextInt(n), r.nextInt(n)));
+      moves.add(new PermutationMove.Rotation(r.nextInt(-n, n + 1)));
+      if (n >= 2) {
+        int b = r.nextInt(n - 1);
+        int i = r.nextInt(b + 1, n);
+        moves.add(new PermutationMove.BlockInterchange(r.nextInt(b + 1), b, i, r.nextInt(i, n)));
+      }
+    }
+    return moves;
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.permutations.distance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.cicirello.permutations.CompactPermutation;
+import org.cicirello.permutations.Permutation;
+import org.cicirello.permutations.PermutationView;
+import org.junit.jupiter.api.*;
+
+/**
+ * JUnit tests verifying that the distance measures compute the same distances on other
+ * implementations of PermutationView as they do on Permutation objects.
+ */
+public class PermutationViewDistanceTests {
+
+  @Test
+  public void testIntegerDistances() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {0, 1, 2, 5, 8, 300}) {
+      for (PermutationDistanceMeasurer d : integerMeasurers(n)) {
+        for (int trial = 0; trial < 5; trial++) {
+          Permutation p1 = new Permutation(n, r);
+          Permutation p2 = new Permutation(n, r);
+          CompactPermutation c1 = CompactPermutation.of(p1);
+          CompactPermutation c2 = CompactPermutation.of(p2);
+          int expected = d.distance(p1, p2);
+          assertEquals(expected, d.distance(c1, c2), d.getClass().getSimpleName());
+          assertEquals(expected, d.distance(p1, (PermutationView) c2));
+          assertEquals(expected, d.distance(c1, (PermutationView) p2));
+          assertEquals(expected, d.distancef(c1, c2), 1E-10);
+          assertEquals(0, d.distance(c1, c1.copy()), d.getClass().getSimpleName());
+          if (d instanceof NormalizedPermutationDistanceMeasurer) {
+            NormalizedPermutationDistanceMeasurer nd = (NormalizedPermutationDistanceMeasurer) d;
+            assertEquals(nd.normalizedDistance(p1, p2), nd.normalizedDistance(c1, c2), 1E-10);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDoubleDistances() {
+    SplittableRandom r = new SplittableRandom(42);
+    for (int n : new int[] {0, 1, 2, 5, 9}) {
+      double[] weights = new double[n];
+      for (int i = 0; i < n; i++) {
+        weights[i] = 1 + r.nextDouble();
+      }
+      PermutationDistanceMeasurerDouble[] measurers = {
+        new DeviationDistanceNormalized(),
+        new DeviationDistanceNormalized2005(),
+        new EditDistance(),
+        new EditDistance(1.0, 2.0, 1.5),
+        new WeightedKendallTauDistance(weights),
+        new CyclicIndependentDistanceDouble(new EditDistance()),
+        new ReversalIndependentDistanceDouble(new EditDistance()),
+        new CyclicReversalIndependentDistanceDouble(new EditDistance())
+      };
+      for (PermutationDistanceMeasurerDouble d : measurers) {
+        for (int trial = 0; trial < 5; trial++) {
+          Permutation p1 = new Permutation(n, r);
+          Permutation p2 = new Permutation(n, r);
+          CompactPermutation c1 = CompactPermutation.of(p1);
+          CompactPermutation c2 = CompactPermutation.of(p2);
+          assertEquals(d.distancef(p1, p2), d.distancef(c1, c2), 1E-10);
+          if (d instanceof NormalizedPermutationDistanceMeasurerDouble) {
+            NormalizedPermutationDistanceMeasurerDouble nd =
+                (NormalizedPermutationDistanceMeasurerDouble) d;
+            assertEquals(nd.normalizedDistance(p1, p2), nd.normalizedDistance(c1, c2), 1E-10);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDefaultImplementationsCopy() {
+    PermutationDistanceMeasurer exact =
+        (p1, p2) -> {
+          int count = 0;
+          for (int i = 0; i < p1.length(); i++) {
+            if (p1.get(i) != p2.get(i)) count++;
+          }
+          return count;
+        };
+    PermutationDistanceMeasurerDouble exactDouble = (p1, p2) -> exact.distance(p1, p2);
+    NormalizedPermutationDistanceMeasurerDouble normalized =
+        new NormalizedPermutationDistanceMeasurerDouble() {
+          @Override
+          public double distancef(Permutation p1, Permutation p2) {
+            return exact.distance(p1, p2);
+          }
+
+          @Override
+          public double maxf(int length) {
+            return length;
+          }
+        };
+    Permutation p1 = new Permutation(new int[] {0, 1, 2, 3});
+    Permutation p2 = new Permutation(new int[] {0, 2, 1, 3});
+    CompactPermutation c1 = CompactPermutation.of(p1);
+    CompactPermutation c2 = CompactPermutation.of(p2);
+    assertEquals(2, exact.distance(c1, c2));
+    assertEquals(2, exact.distance(p1, (PermutationView) c2));
+    assertEquals(2.0, exact.distancef(c1, c2), 1E-10);
+    assertEquals(2.0, exactDouble.distancef(c1, c2), 1E-10);
+    assertEquals(0.5, normalized.normalizedDistance(c1, c2), 1E-10);
+    assertEquals(0.0, normalized.normalizedDistance(CompactPermutation.create(0), c2), 1E-10);
+  }
+
+  @Test
+  public void testExceptions() {
+    CompactPermutation c1 = CompactPermutation.create(4);
+    CompactPermutation c2 = CompactPermutation.create(5);
+    for (PermutationDistanceMeasurer d : integerMeasurers(4)) {
+      if (!(d instanceof ScrambleDistance) && !(d instanceof CyclicIndependentDistance)) {
+        assertThrows(IllegalArgumentException.class, () -> d.distance(c1, c2));
+      }
+    }
+    assertEquals(1, new ScrambleDistance().distance(c1, c2));
+  }
+
+  private List<PermutationDistanceMeasurer> integerMeasurers(int n) {
+    List<PermutationDistanceMeasurer> measurers = new ArrayList<PermutationDistanceMeasurer>();
+    if (n <= 8) {
+      measurers.add(new ReversalDistance(n));
+    }
+    measurers.addAll(
+        List.of(
+            new AcyclicEdgeDistance(),
+            new BlockInterchangeDistance(),
+            new CycleDistance(),
+            new CycleEditDistance(),
+            new CyclicEdgeDistance(),
+            new CyclicRTypeDistance(),
+            new DeviationDistance(),
+            new ExactMatchDistance(),
+            new InterchangeDistance(),
+            new KCycleDistance(3),
+            new KendallTauDistance(),
+            new LeeDistance(),
+            new RTypeDistance(),
+            new ReinsertionDistance(),
+            new ScrambleDistance(),
+            new SquaredDeviationDistance(),
+            new CyclicIndependentDistance(new ExactMatchDistance()),
+            new ReversalIndependentDistance(new KendallTauDistance()),
+            new CyclicReversalIndependentDistance(new RTypeDistance())));
+    return measurers;
+  }
+}
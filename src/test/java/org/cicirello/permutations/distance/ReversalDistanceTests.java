@@ -43,6 +43,16 @@ public class ReversalDistanceTests {
     assertEquals(3, d.max(4));
   }
 
+  @Test
+  public void testIdenticalPermutations() {
+    for (int n = 0; n <= 6; n++) {
+      ReversalDistance d = new ReversalDistance(n);
+      Permutation p = new Permutation(n);
+      assertEquals(0, d.distance(p, p));
+      assertEquals(0, d.distance(p, new Permutation(p)));
+    }
+  }
+
   @Test
   public void testReversalDistance() {
     ReversalDistance d4 = new ReversalDistance(4);
@@ -0,0 +1,155 @@
+/*
+ * JavaPermutationTools: A Java library for computation on permutations and sequences
+ * Copyright 2005-2024 Vincent A. Cicirello, <https://www.cicirello.org/>.
+ *
+ * This file is part of JavaPermutationTools (https://jpt.cicirello.org/).
+ *
+ * JavaPermutationTools is free software: you can
+ * redistribute it and/or modify it under the terms of the GNU
+ * General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * JavaPermutationTools is distributed in the hope
+ * that it will be useful, but WITHOUT ANY WARRANTY; without even
+ * the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with JavaPermutationTools.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cicirello.sequences;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.cicirello.permutations.Permutation;
+import org.junit.jupiter.api.*;
+
+/** JUnit tests for the SequenceShuffler class. */
+public class SequenceShufflerTests {
+
+  private static final int LONG_LENGTH = 3 * SequenceShuffler.PART_SIZE + 7;
+
+  @Test
+  public void testUniformityOfMerges() {
+    // Parts of 1 and 2 elements exercise the merges, and both ways of
+    // exhausting an interval, on permutations short enough to count.
+    for (int partSize : new int[] {1, 2}) {
+      SplittableRandom r = new SplittableRandom(42);
+      int tooHigh = 0;
+      for (int k = 0; k < 100; k++) {
+        int[] counts = new int[120];
+        for (int i = 0; i < 12000; i++) {
+          int[] a = {0, 1, 2, 3, 4};
+          SequenceShuffler.shuffle(
+              (x, y) -> {
+                int temp = a[x];
+                a[x] = a[y];
+                a[y] = temp;
+              },
+              a.length,
+              r,
+              ForkJoinPool.commonPool(),
+              partSize);
+          counts[new Permutation(a).toInteger()]++;
+        }
+        if (chiSquare(counts) > 146.567) tooHigh++;
+      }
+      assertTrue(tooHigh <= 10);
+    }
+  }
+
+  @Test
+  public void testSameRegardlessOfThreads() {
+    int[] expected = identity(LONG_LENGTH);
+    SequenceShuffler.shuffle(expected, new SplittableRandom(7));
+    assertFalse(Arrays.equals(identity(LONG_LENGTH), expected));
+    for (int threads : new int[] {1, 2, 3}) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        int[] a = identity(LONG_LENGTH);
+        SequenceShuffler.shuffle(a, new SplittableRandom(7), pool);
+        assertArrayEquals(expected, a);
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testAllTypesPreserveElements() {
+    int[] order = identity(LONG_LENGTH);
+    SequenceShuffler.shuffle(order, new SplittableRandom(5));
+    byte[] b = new byte[LONG_LENGTH];
+    char[] c = new char[LONG_LENGTH];
+    double[] d = new double[LONG_LENGTH];
+    float[] f = new float[LONG_LENGTH];
+    long[] l = new long[LONG_LENGTH];
+    short[] s = new short[LONG_LENGTH];
+    Integer[] objects = new Integer[LONG_LENGTH];
+    for (int i = 0; i < LONG_LENGTH; i++) {
+      b[i] = (byte) i;
+      c[i] = (char) i;
+      d[i] = i;
+      f[i] = i;
+      l[i] = i;
+      s[i] = (short) i;
+      objects[i] = i;
+    }
+    SequenceShuffler.shuffle(b, new SplittableRandom(5));
+    SequenceShuffler.shuffle(c, new SplittableRandom(5));
+    SequenceShuffler.shuffle(d, new SplittableRandom(5));
+    SequenceShuffler.shuffle(f, new SplittableRandom(5));
+    SequenceShuffler.shuffle(l, new SplittableRandom(5));
+    SequenceShuffler.shuffle(s, new SplittableRandom(5));
+    SequenceShuffler.shuffle(objects, new SplittableRandom(5));
+    // The same generator produces the same rearrangement for every type.
+    for (int i = 0; i < LONG_LENGTH; i++) {
+      assertEquals((byte) order[i], b[i]);
+      assertEquals((char) order[i], c[i]);
+      assertEquals(order[i], d[i]);
+      assertEquals(order[i], f[i]);
+      assertEquals(order[i], l[i]);
+      assertEquals((short) order[i], s[i]);
+      assertEquals(order[i], objects[i]);
+    }
+    int[] sorted = order.clone();
+    Arrays.sort(sorted);
+    assertArrayEquals(identity(LONG_LENGTH), sorted);
+  }
+
+  @Test
+  public void testShortArrays() {
+    SplittableRandom r = new SplittableRandom(42);
+    SequenceShuffler.shuffle(new int[0], r);
+    int[] one = {3};
+    SequenceShuffler.shuffle(one, r);
+    assertArrayEquals(new int[] {3}, one);
+    String[] strings = {"a", "b", "c", "d"};
+    SequenceShuffler.shuffle(strings, r);
+    Arrays.sort(strings);
+    assertArrayEquals(new String[] {"a", "b", "c", "d"}, strings);
+  }
+
+  private int[] identity(int n) {
+    int[] a = new int[n];
+    for (int i = 0; i < n; i++) {
+      a[i] = i;
+    }
+    return a;
+  }
+
+  private double chiSquare(int[] buckets) {
+    int x = 0;
+    int n = 0;
+    for (int e : buckets) {
+      x = x + e * e;
+      n += e;
+    }
+    return 1.0 * x / (n / buckets.length) - n;
+  }
+}